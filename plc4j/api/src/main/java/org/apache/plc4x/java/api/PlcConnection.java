@@ -84,6 +84,18 @@ public interface PlcConnection extends AutoCloseable {
      */
     PlcReadRequest.Builder readRequestBuilder();
 
+    /**
+     * Prepares a read request for being executed repeatedly, for example by a poller. Depending on the driver, the
+     * returned request is only planned and encoded once per connection, which makes executing it a lot cheaper.
+     *
+     * @param readRequest request built by the {@link #readRequestBuilder()} of this connection.
+     * @return request reading the same fields as the given one.
+     * @throws PlcUnsupportedOperationException if the connection does not support reading
+     */
+    default PlcReadRequest prepareRead(PlcReadRequest readRequest) {
+        return readRequest;
+    }
+
     /**
      * Obtain write request builder.
      * @throws PlcUnsupportedOperationException if the connection does not support writing
@@ -18,6 +18,8 @@ under the License.
 */
 package org.apache.plc4x.java.api.messages;
 
+import org.apache.plc4x.java.api.exceptions.PlcIncompatibleDatatypeException;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDate;
@@ -181,4 +183,91 @@ public interface PlcReadResponse extends PlcFieldResponse {
 
     Collection<Byte[]> getAllByteArrays(String name);
 
+    // Primitive accessors, which don't box the values if the driver decoded them into primitive arrays. The default
+    // implementations convert the values returned by getObject, so they do box.
+
+    default int getInt(String name) {
+        return getInt(name, 0);
+    }
+
+    default int getInt(String name, int index) {
+        Object value = getObject(name, index);
+        if (!(value instanceof Number)) {
+            throw new PlcIncompatibleDatatypeException(int.class, index);
+        }
+        return ((Number) value).intValue();
+    }
+
+    default boolean[] getBooleanArray(String name) {
+        boolean[] values = new boolean[getNumberOfValues(name)];
+        for (int i = 0; i < values.length; i++) {
+            Object value = getObject(name, i);
+            if (!(value instanceof Boolean)) {
+                throw new PlcIncompatibleDatatypeException(boolean.class, i);
+            }
+            values[i] = (Boolean) value;
+        }
+        return values;
+    }
+
+    default short[] getShortArray(String name) {
+        short[] values = new short[getNumberOfValues(name)];
+        for (int i = 0; i < values.length; i++) {
+            Object value = getObject(name, i);
+            if (!(value instanceof Number)) {
+                throw new PlcIncompatibleDatatypeException(short.class, i);
+            }
+            values[i] = ((Number) value).shortValue();
+        }
+        return values;
+    }
+
+    default int[] getIntArray(String name) {
+        int[] values = new int[getNumberOfValues(name)];
+        for (int i = 0; i < values.length; i++) {
+            Object value = getObject(name, i);
+            if (!(value instanceof Number)) {
+                throw new PlcIncompatibleDatatypeException(int.class, i);
+            }
+            values[i] = ((Number) value).intValue();
+        }
+        return values;
+    }
+
+    default long[] getLongArray(String name) {
+        long[] values = new long[getNumberOfValues(name)];
+        for (int i = 0; i < values.length; i++) {
+            Object value = getObject(name, i);
+            if (!(value instanceof Number)) {
+                throw new PlcIncompatibleDatatypeException(long.class, i);
+            }
+            values[i] = ((Number) value).longValue();
+        }
+        return values;
+    }
+
+    default float[] getFloatArray(String name) {
+        float[] values = new float[getNumberOfValues(name)];
+        for (int i = 0; i < values.length; i++) {
+            Object value = getObject(name, i);
+            if (!(value instanceof Number)) {
+                throw new PlcIncompatibleDatatypeException(float.class, i);
+            }
+            values[i] = ((Number) value).floatValue();
+        }
+        return values;
+    }
+
+    default double[] getDoubleArray(String name) {
+        double[] values = new double[getNumberOfValues(name)];
+        for (int i = 0; i < values.length; i++) {
+            Object value = getObject(name, i);
+            if (!(value instanceof Number)) {
+                throw new PlcIncompatibleDatatypeException(double.class, i);
+            }
+            values[i] = ((Number) value).doubleValue();
+        }
+        return values;
+    }
+
 }
@@ -21,16 +21,16 @@ package org.apache.plc4x.java.ads.connection;
 import io.netty.channel.ChannelFuture;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.SystemConfiguration;
-import org.apache.plc4x.java.ads.api.commands.AdsReadWriteRequest;
-import org.apache.plc4x.java.ads.api.commands.AdsReadWriteResponse;
-import org.apache.plc4x.java.ads.api.commands.AdsWriteRequest;
+import org.apache.plc4x.java.ads.api.commands.*;
 import org.apache.plc4x.java.ads.api.commands.types.*;
+import org.apache.plc4x.java.ads.api.generic.AmsPacket;
 import org.apache.plc4x.java.ads.api.generic.types.AmsNetId;
 import org.apache.plc4x.java.ads.api.generic.types.AmsPort;
 import org.apache.plc4x.java.ads.api.generic.types.Invoke;
 import org.apache.plc4x.java.ads.model.AdsPlcFieldHandler;
 import org.apache.plc4x.java.ads.model.DirectAdsField;
 import org.apache.plc4x.java.ads.model.SymbolicAdsField;
+import org.apache.plc4x.java.ads.protocol.Plc4x2AdsProtocol;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.messages.*;
@@ -40,7 +40,15 @@ import org.apache.plc4x.java.base.messages.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.stream.Collectors;
 
 public abstract class AdsAbstractPlcConnection extends NettyPlcConnection implements PlcReader, PlcWriter, PlcProprietarySender {
 
@@ -48,6 +56,19 @@ public abstract class AdsAbstractPlcConnection extends NettyPlcConnection implem
 
     protected static final Configuration CONF = new SystemConfiguration();
     protected static final long SYMBOL_RESOLVE_TIMEOUT = CONF.getLong("plc4x.adsconnection.symbol.resolve,timeout", 3000);
+    // Maximum number of symbols resolved or released with one ADS sum command, values smaller than 2 disable sum commands.
+    protected static final int MAX_SYMBOLS_PER_SUM_REQUEST = CONF.getInt("plc4x.adsconnection.symbol.sum.max.items", Plc4x2AdsProtocol.DEFAULT_MAX_ITEMS_PER_SUM_REQUEST);
+    // Directory the symbol tables of the PLCs are cached in. If not set, symbol tables aren't used at all.
+    protected static final String SYMBOL_CACHE_DIRECTORY = CONF.getString("plc4x.adsconnection.symbol.cache.dir", null);
+
+    // Each item of a sum read write command is described by index group, index offset, read length and write length.
+    private static final int SUM_READ_WRITE_ITEM_HEADER_SIZE = IndexGroup.NUM_BYTES + IndexOffset.NUM_BYTES + ReadLength.NUM_BYTES + WriteLength.NUM_BYTES;
+
+    // Each item in the response of a sum read write command starts with its return code and the length of its data.
+    private static final int SUM_READ_WRITE_ITEM_RESULT_SIZE = Result.NUM_BYTES + Length.NUM_BYTES;
+
+    // Each item of a sum write command is described by index group, index offset and length.
+    private static final int SUM_WRITE_ITEM_HEADER_SIZE = IndexGroup.NUM_BYTES + IndexOffset.NUM_BYTES + Length.NUM_BYTES;
 
     protected final AmsNetId targetAmsNetId;
 
@@ -59,6 +80,14 @@ public abstract class AdsAbstractPlcConnection extends NettyPlcConnection implem
 
     protected final ConcurrentMap<SymbolicAdsField, DirectAdsField> fieldMapping;
 
+    protected Path symbolCacheDirectory;
+
+    private final Object symbolTableLock = new Object();
+
+    private AdsSymbolTable symbolTable;
+
+    private boolean symbolTableLoaded;
+
     protected AdsAbstractPlcConnection(ChannelFactory channelFactory, AmsNetId targetAmsNetId, AmsPort targetAmsPort) {
         this(channelFactory, targetAmsNetId, targetAmsPort, generateAMSNetId(), generateAMSPort());
     }
@@ -70,6 +99,7 @@ public abstract class AdsAbstractPlcConnection extends NettyPlcConnection implem
         this.sourceAmsNetId = sourceAmsNetId;
         this.sourceAmsPort = sourceAmsPort;
         this.fieldMapping = new ConcurrentHashMap<>();
+        this.symbolCacheDirectory = SYMBOL_CACHE_DIRECTORY != null ? Paths.get(SYMBOL_CACHE_DIRECTORY) : null;
     }
 
     public AmsNetId getTargetAmsNetId() {
@@ -149,59 +179,164 @@ public abstract class AdsAbstractPlcConnection extends NettyPlcConnection implem
             .thenApply(PlcProprietaryResponse.class::cast);
     }
 
+    /**
+     * Maps all symbolic fields of the given request which aren't mapped yet. Symbols found in the symbol table are
+     * mapped to their index group and offset, handles for all other symbols are requested with as few sum commands
+     * as possible.
+     */
     protected void mapFields(PlcFieldRequest request) {
-        request.getFields().stream()
-            .parallel()
+        List<SymbolicAdsField> unmappedFields = request.getFields().stream()
             .filter(SymbolicAdsField.class::isInstance)
             .map(SymbolicAdsField.class::cast)
-            .forEach(this::mapFields);
+            .filter(symbolicAdsField -> !fieldMapping.containsKey(symbolicAdsField))
+            .distinct()
+            .collect(Collectors.toList());
+        if (unmappedFields.isEmpty()) {
+            return;
+        }
+        watchSymbolVersion();
+        AdsSymbolTable adsSymbolTable = getSymbolTable();
+        if (adsSymbolTable != null) {
+            for (Iterator<SymbolicAdsField> iterator = unmappedFields.iterator(); iterator.hasNext(); ) {
+                SymbolicAdsField symbolicAdsField = iterator.next();
+                Optional<DirectAdsField> directAdsField = adsSymbolTable.map(symbolicAdsField);
+                if (directAdsField.isPresent()) {
+                    fieldMapping.putIfAbsent(symbolicAdsField, directAdsField.get());
+                    iterator.remove();
+                }
+            }
+        }
+        if ((unmappedFields.size() < 2) || (MAX_SYMBOLS_PER_SUM_REQUEST < 2)) {
+            unmappedFields.forEach(this::mapFields);
+            return;
+        }
+        List<String> failures = new ArrayList<>();
+        for (int start = 0; start < unmappedFields.size(); start += MAX_SYMBOLS_PER_SUM_REQUEST) {
+            int end = Math.min(start + MAX_SYMBOLS_PER_SUM_REQUEST, unmappedFields.size());
+            resolveHandles(unmappedFields.subList(start, end), failures);
+        }
+        if (!failures.isEmpty()) {
+            throw new PlcRuntimeException("Non error code received " + String.join(", ", failures));
+        }
     }
 
     protected void mapFields(SymbolicAdsField symbolicAdsField) {
+        if (fieldMapping.containsKey(symbolicAdsField)) {
+            return;
+        }
+        watchSymbolVersion();
         // If the map doesn't contain an entry for the given symbolicAdsField,
         // resolve it and add it to the map.
         fieldMapping.computeIfAbsent(symbolicAdsField, symbolicAdsFieldInternal -> {
+            AdsSymbolTable adsSymbolTable = getSymbolTable();
+            if (adsSymbolTable != null) {
+                Optional<DirectAdsField> directAdsField = adsSymbolTable.map(symbolicAdsFieldInternal);
+                if (directAdsField.isPresent()) {
+                    return directAdsField.get();
+                }
+            }
             LOGGER.debug("Resolving {}", symbolicAdsFieldInternal);
-            AdsReadWriteRequest adsReadWriteRequest = AdsReadWriteRequest.of(
-                targetAmsNetId,
-                targetAmsPort,
-                sourceAmsNetId,
-                sourceAmsPort,
-                Invoke.NONE,
+            AdsReadWriteResponse response = readWrite(
                 IndexGroup.ReservedGroups.ADSIGRP_SYM_HNDBYNAME,
                 IndexOffset.NONE,
                 ReadLength.of(IndexOffset.NUM_BYTES),
                 Data.of(symbolicAdsFieldInternal.getSymbolicField())
             );
 
-            // TODO: This is blocking, should be changed to be async.
-            CompletableFuture<InternalPlcProprietaryResponse<AdsReadWriteResponse>> getHandelFuture = new CompletableFuture<>();
-            channel.writeAndFlush(new PlcRequestContainer<>(new DefaultPlcProprietaryRequest<>(adsReadWriteRequest), getHandelFuture));
-            InternalPlcProprietaryResponse<AdsReadWriteResponse> getHandleResponse = getFromFuture(getHandelFuture, SYMBOL_RESOLVE_TIMEOUT);
-            AdsReadWriteResponse response = getHandleResponse.getResponse();
-
             if (response.getResult().toAdsReturnCode() != AdsReturnCode.ADS_CODE_0) {
                 throw new PlcRuntimeException("Non error code received " + response.getResult());
             }
 
             IndexOffset symbolHandle = IndexOffset.of(response.getData().getBytes());
-            return DirectAdsField.of(IndexGroup.ReservedGroups.ADSIGRP_SYM_VALBYHND.getAsLong(), symbolHandle.getAsLong(), symbolicAdsFieldInternal.getAdsDataType(), symbolicAdsFieldInternal.getNumberOfElements());
+            return toHandleField(symbolicAdsFieldInternal, symbolHandle.getAsLong());
         });
     }
 
-    protected static AmsNetId generateAMSNetId() {
-        return AmsNetId.of("0.0.0.0.0.0");
+    /**
+     * Requests the handles of the given symbols with one {@code ADSIGRP_SUMUP_READWRITE} command. Each item consists
+     * of index group, index offset, read length and write length followed by the names of all symbols. The response
+     * contains return code and length of every item followed by the handles. If the sum command itself fails, e.g.
+     * because the target doesn't support it, the symbols are resolved one by one.
+     */
+    private void resolveHandles(List<SymbolicAdsField> symbolicAdsFields, List<String> failures) {
+        LOGGER.debug("Resolving {} symbols with one sum command", symbolicAdsFields.size());
+        List<byte[]> names = symbolicAdsFields.stream()
+            .map(symbolicAdsField -> Data.of(symbolicAdsField.getSymbolicField()).getBytes())
+            .collect(Collectors.toList());
+        int dataSize = symbolicAdsFields.size() * SUM_READ_WRITE_ITEM_HEADER_SIZE + names.stream().mapToInt(name -> name.length).sum();
+        ByteBuffer requestData = ByteBuffer.allocate(dataSize).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte[] name : names) {
+            requestData.putInt((int) IndexGroup.ReservedGroups.ADSIGRP_SYM_HNDBYNAME.getAsLong());
+            requestData.putInt(0);
+            requestData.putInt(IndexOffset.NUM_BYTES);
+            requestData.putInt(name.length);
+        }
+        names.forEach(requestData::put);
+        long readLength = (long) symbolicAdsFields.size() * (SUM_READ_WRITE_ITEM_RESULT_SIZE + IndexOffset.NUM_BYTES);
+
+        AdsReadWriteResponse response = readWrite(IndexGroup.ReservedGroups.ADSIGRP_SUMUP_READWRITE,
+            IndexOffset.of(symbolicAdsFields.size()), ReadLength.of(readLength), Data.of(requestData.array()));
+        if (response.getResult().toAdsReturnCode() != AdsReturnCode.ADS_CODE_0) {
+            LOGGER.debug("Sum command failed with {}, resolving symbols one by one", response.getResult());
+            for (SymbolicAdsField symbolicAdsField : symbolicAdsFields) {
+                try {
+                    mapFields(symbolicAdsField);
+                } catch (PlcRuntimeException e) {
+                    failures.add(symbolicAdsField.getSymbolicField() + ": " + e.getMessage());
+                }
+            }
+            return;
+        }
+
+        byte[] bytes = response.getData().getBytes();
+        ByteBuffer responseData = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int dataOffset = symbolicAdsFields.size() * SUM_READ_WRITE_ITEM_RESULT_SIZE;
+        if (bytes.length < dataOffset) {
+            throw new PlcRuntimeException("Sum response too short: " + bytes.length + " bytes");
+        }
+        List<DirectAdsField> duplicateHandles = new ArrayList<>();
+        for (int i = 0; i < symbolicAdsFields.size(); i++) {
+            SymbolicAdsField symbolicAdsField = symbolicAdsFields.get(i);
+            Result result = Result.of(Integer.toUnsignedLong(responseData.getInt(i * SUM_READ_WRITE_ITEM_RESULT_SIZE)));
+            int length = responseData.getInt(i * SUM_READ_WRITE_ITEM_RESULT_SIZE + Result.NUM_BYTES);
+            if ((length < 0) || (bytes.length < dataOffset + length)) {
+                throw new PlcRuntimeException("Sum response too short for " + symbolicAdsField + ": " + bytes.length + " bytes");
+            }
+            if ((result.toAdsReturnCode() != AdsReturnCode.ADS_CODE_0) || (length != IndexOffset.NUM_BYTES)) {
+                failures.add(symbolicAdsField.getSymbolicField() + ": " + result);
+            } else {
+                DirectAdsField directAdsField = toHandleField(symbolicAdsField, Integer.toUnsignedLong(responseData.getInt(dataOffset)));
+                // Another thread might have resolved the same symbol in the meantime.
+                if (fieldMapping.putIfAbsent(symbolicAdsField, directAdsField) != null) {
+                    duplicateHandles.add(directAdsField);
+                }
+            }
+            dataOffset += length;
+        }
+        if (!duplicateHandles.isEmpty()) {
+            releaseHandles(duplicateHandles);
+        }
     }
 
-    protected static AmsPort generateAMSPort() {
-        return AmsPort.of(0);
+    private static DirectAdsField toHandleField(SymbolicAdsField symbolicAdsField, long symbolHandle) {
+        return DirectAdsField.of(IndexGroup.ReservedGroups.ADSIGRP_SYM_VALBYHND.getAsLong(), symbolHandle, symbolicAdsField.getAdsDataType(), symbolicAdsField.getNumberOfElements());
     }
 
-    @Override
-    public void close() throws PlcConnectionException {
-        fieldMapping.values().stream()
-            .parallel()
-            .map(adsField -> AdsWriteRequest.of(
+    /**
+     * Releases the handles of the given fields. Fields which aren't addressed by a handle are ignored. More than one
+     * handle is released with {@code ADSIGRP_SUMUP_WRITE} commands. No response is awaited.
+     */
+    protected void releaseHandles(Collection<DirectAdsField> directAdsFields) {
+        List<IndexOffset> symbolHandles = directAdsFields.stream()
+            .filter(directAdsField -> directAdsField.getIndexGroup() == IndexGroup.ReservedGroups.ADSIGRP_SYM_VALBYHND.getAsLong())
+            .map(directAdsField -> IndexOffset.of(directAdsField.getIndexOffset()))
+            .collect(Collectors.toList());
+        if (symbolHandles.isEmpty()) {
+            return;
+        }
+        List<AmsPacket> releaseRequests = new ArrayList<>();
+        if ((symbolHandles.size() < 2) || (MAX_SYMBOLS_PER_SUM_REQUEST < 2)) {
+            symbolHandles.forEach(symbolHandle -> releaseRequests.add(AdsWriteRequest.of(
                 targetAmsNetId,
                 targetAmsPort,
                 sourceAmsNetId,
@@ -209,12 +344,166 @@ public abstract class AdsAbstractPlcConnection extends NettyPlcConnection implem
                 Invoke.NONE,
                 IndexGroup.ReservedGroups.ADSIGRP_SYM_RELEASEHND,
                 IndexOffset.NONE,
-                Data.of(IndexGroup.of(adsField.getIndexGroup()).getBytes())
-            ))
-            .map(adsWriteRequest -> new PlcRequestContainer<>(new DefaultPlcProprietaryRequest<>(adsWriteRequest), new CompletableFuture<>()))
+                Data.of(symbolHandle.getBytes())
+            )));
+        } else {
+            for (int start = 0; start < symbolHandles.size(); start += MAX_SYMBOLS_PER_SUM_REQUEST) {
+                List<IndexOffset> chunk = symbolHandles.subList(start, Math.min(start + MAX_SYMBOLS_PER_SUM_REQUEST, symbolHandles.size()));
+                ByteBuffer requestData = ByteBuffer.allocate(chunk.size() * (SUM_WRITE_ITEM_HEADER_SIZE + IndexOffset.NUM_BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < chunk.size(); i++) {
+                    requestData.putInt((int) IndexGroup.ReservedGroups.ADSIGRP_SYM_RELEASEHND.getAsLong());
+                    requestData.putInt(0);
+                    requestData.putInt(IndexOffset.NUM_BYTES);
+                }
+                chunk.forEach(symbolHandle -> requestData.put(symbolHandle.getBytes()));
+                releaseRequests.add(AdsReadWriteRequest.of(
+                    targetAmsNetId,
+                    targetAmsPort,
+                    sourceAmsNetId,
+                    sourceAmsPort,
+                    Invoke.NONE,
+                    IndexGroup.ReservedGroups.ADSIGRP_SUMUP_WRITE,
+                    IndexOffset.of(chunk.size()),
+                    ReadLength.of((long) chunk.size() * Result.NUM_BYTES),
+                    Data.of(requestData.array())
+                ));
+            }
+        }
+        releaseRequests.stream()
+            .map(amsPacket -> new PlcRequestContainer<>(new DefaultPlcProprietaryRequest<>(amsPacket), new CompletableFuture<>()))
             // We don't need a response so we just supply a throw away future.
             .forEach(channel::write);
         channel.flush();
+    }
+
+    /**
+     * Starts watching the symbol version of the PLC, so {@link #symbolVersionChanged()} is called on online changes
+     * and downloads. Called every time before symbols are resolved, by default the symbol version isn't watched.
+     */
+    protected void watchSymbolVersion() {
+        // Not supported by default.
+    }
+
+    /**
+     * Discards all mapped fields and the symbol table, as they might not be valid anymore after the symbol version of
+     * the PLC changed. The symbols are resolved again the next time they are used.
+     */
+    protected void symbolVersionChanged() {
+        LOGGER.info("Symbol version of {} changed, discarding {} mapped fields", targetAmsNetId, fieldMapping.size());
+        releaseHandles(fieldMapping.values());
+        fieldMapping.clear();
+        synchronized (symbolTableLock) {
+            symbolTable = null;
+            symbolTableLoaded = false;
+        }
+    }
+
+    /**
+     * @return the symbol table of the PLC or {@code null} if no symbol cache directory is configured or the table
+     * couldn't be loaded.
+     */
+    private AdsSymbolTable getSymbolTable() {
+        if (symbolCacheDirectory == null) {
+            return null;
+        }
+        synchronized (symbolTableLock) {
+            if (!symbolTableLoaded) {
+                symbolTableLoaded = true;
+                try {
+                    symbolTable = loadSymbolTable(symbolCacheDirectory);
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.warn("Can't load the symbol table of {}, resolving handles instead", targetAmsNetId, e);
+                }
+            }
+            return symbolTable;
+        }
+    }
+
+    /**
+     * Loads the symbol table from the given directory. The file name contains AMS NetId and port of the PLC, its
+     * symbol version and the number and size of its symbols, so a changed PLC project never uses an outdated table.
+     * If there is no such file yet, the table is uploaded from the PLC and stored in the directory.
+     */
+    private AdsSymbolTable loadSymbolTable(Path directory) throws IOException {
+        int symbolVersion = read(IndexGroup.ReservedGroups.ADSIGRP_SYM_VERSION, 1)[0] & 0xFF;
+        ByteBuffer uploadInfo = ByteBuffer.wrap(read(IndexGroup.ReservedGroups.ADSIGRP_SYM_UPLOADINFO, 8)).order(ByteOrder.LITTLE_ENDIAN);
+        long numberOfSymbols = Integer.toUnsignedLong(uploadInfo.getInt());
+        long symbolTableSize = Integer.toUnsignedLong(uploadInfo.getInt());
+        Path file = directory.resolve(targetAmsNetId + "_" + targetAmsPort + "_" + symbolVersion + "_" + numberOfSymbols + "_" + symbolTableSize + ".symbols");
+        if (Files.isReadable(file)) {
+            try {
+                AdsSymbolTable adsSymbolTable = AdsSymbolTable.load(file);
+                LOGGER.debug("Loaded {} from {}", adsSymbolTable, file);
+                return adsSymbolTable;
+            } catch (PlcRuntimeException e) {
+                LOGGER.warn("Invalid symbol table {}, uploading it again", file, e);
+            }
+        }
+        AdsSymbolTable adsSymbolTable = AdsSymbolTable.of(read(IndexGroup.ReservedGroups.ADSIGRP_SYM_UPLOAD, symbolTableSize));
+        adsSymbolTable.store(file);
+        LOGGER.debug("Uploaded {} to {}", adsSymbolTable, file);
+        return adsSymbolTable;
+    }
+
+    /**
+     * Reads from one of the reserved index groups and waits for the response.
+     *
+     * @return the data, which holds at least {@code length} bytes.
+     * @throws PlcRuntimeException if the PLC returned an error code or too few bytes.
+     */
+    protected byte[] read(IndexGroup indexGroup, long length) {
+        AdsReadRequest adsReadRequest = AdsReadRequest.of(
+            targetAmsNetId,
+            targetAmsPort,
+            sourceAmsNetId,
+            sourceAmsPort,
+            Invoke.NONE,
+            indexGroup,
+            IndexOffset.NONE,
+            Length.of(length)
+        );
+        CompletableFuture<InternalPlcProprietaryResponse<AdsReadResponse>> readFuture = new CompletableFuture<>();
+        channel.writeAndFlush(new PlcRequestContainer<>(new DefaultPlcProprietaryRequest<>(adsReadRequest), readFuture));
+        AdsReadResponse response = getFromFuture(readFuture, SYMBOL_RESOLVE_TIMEOUT).getResponse();
+        if (response.getResult().toAdsReturnCode() != AdsReturnCode.ADS_CODE_0) {
+            throw new PlcRuntimeException("Non error code received " + response.getResult());
+        }
+        byte[] bytes = response.getData().getBytes();
+        if (bytes.length < length) {
+            throw new PlcRuntimeException("Expected " + length + " bytes, received " + bytes.length);
+        }
+        return bytes;
+    }
+
+    private AdsReadWriteResponse readWrite(IndexGroup indexGroup, IndexOffset indexOffset, ReadLength readLength, Data data) {
+        AdsReadWriteRequest adsReadWriteRequest = AdsReadWriteRequest.of(
+            targetAmsNetId,
+            targetAmsPort,
+            sourceAmsNetId,
+            sourceAmsPort,
+            Invoke.NONE,
+            indexGroup,
+            indexOffset,
+            readLength,
+            data
+        );
+        CompletableFuture<InternalPlcProprietaryResponse<AdsReadWriteResponse>> readWriteFuture = new CompletableFuture<>();
+        channel.writeAndFlush(new PlcRequestContainer<>(new DefaultPlcProprietaryRequest<>(adsReadWriteRequest), readWriteFuture));
+        return getFromFuture(readWriteFuture, SYMBOL_RESOLVE_TIMEOUT).getResponse();
+    }
+
+    protected static AmsNetId generateAMSNetId() {
+        return AmsNetId.of("0.0.0.0.0.0");
+    }
+
+    protected static AmsPort generateAMSPort() {
+        return AmsPort.of(0);
+    }
+
+    @Override
+    public void close() throws PlcConnectionException {
+        releaseHandles(fieldMapping.values());
+        fieldMapping.clear();
         super.close();
     }
 
@@ -0,0 +1,168 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.ads.connection;
+
+import org.apache.plc4x.java.ads.model.DirectAdsField;
+import org.apache.plc4x.java.ads.model.SymbolicAdsField;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The symbol table of a PLC as uploaded with {@code ADSIGRP_SYM_UPLOAD}. It maps the names of the symbols to their
+ * index group and offset, so symbolic fields can be accessed without requesting a handle for each of them.
+ * <p>
+ * The table only contains the symbols themselves, elements of arrays and members of structures are not part of it.
+ * The raw upload data is what gets stored on disk, so a cached table can be parsed the same way as an uploaded one.
+ */
+public class AdsSymbolTable {
+
+    // entryLength, indexGroup, indexOffset, size, dataType and flags (4 bytes each) followed by the lengths of name,
+    // type and comment (2 bytes each).
+    private static final int ENTRY_HEADER_SIZE = 6 * 4 + 3 * 2;
+
+    private final byte[] data;
+
+    private final Map<String, Symbol> symbols;
+
+    private AdsSymbolTable(byte[] data, Map<String, Symbol> symbols) {
+        this.data = data;
+        this.symbols = symbols;
+    }
+
+    /**
+     * @param data the response to a {@code ADSIGRP_SYM_UPLOAD} read.
+     * @return the parsed symbol table.
+     * @throws PlcRuntimeException if the data isn't a valid symbol table.
+     */
+    public static AdsSymbolTable of(byte[] data) {
+        Map<String, Symbol> symbols = new HashMap<>();
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            while (buffer.remaining() >= ENTRY_HEADER_SIZE) {
+                int entryStart = buffer.position();
+                int entryLength = buffer.getInt();
+                if ((entryLength < ENTRY_HEADER_SIZE) || (entryLength > data.length - entryStart)) {
+                    throw new PlcRuntimeException("Invalid symbol entry length " + entryLength + " at " + entryStart);
+                }
+                long indexGroup = Integer.toUnsignedLong(buffer.getInt());
+                long indexOffset = Integer.toUnsignedLong(buffer.getInt());
+                long size = Integer.toUnsignedLong(buffer.getInt());
+                // Data type and flags aren't needed, the type is part of the symbolic field.
+                buffer.position(buffer.position() + 8);
+                int nameLength = Short.toUnsignedInt(buffer.getShort());
+                // The lengths of type and comment only matter for finding the next entry, which entryLength does.
+                buffer.position(buffer.position() + 4);
+                String name = new String(data, buffer.position(), nameLength, StandardCharsets.ISO_8859_1);
+                symbols.put(normalize(name), new Symbol(indexGroup, indexOffset, size));
+                buffer.position(entryStart + entryLength);
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new PlcRuntimeException("Invalid symbol table", e);
+        }
+        return new AdsSymbolTable(data, symbols);
+    }
+
+    /**
+     * @param file a file written by {@link #store(Path)}.
+     * @return the symbol table stored in the given file.
+     * @throws IOException if the file can't be read.
+     */
+    public static AdsSymbolTable load(Path file) throws IOException {
+        return of(Files.readAllBytes(file));
+    }
+
+    /**
+     * Stores this symbol table in the given file. The table is written to a temporary file first, so concurrent
+     * readers never see a partially written table.
+     *
+     * @param file the file to write to.
+     * @throws IOException if the file can't be written.
+     */
+    public void store(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tempFile, data);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    public int getNumberOfSymbols() {
+        return symbols.size();
+    }
+
+    /**
+     * @param symbolicAdsField the field to map.
+     * @return the field addressed by index group and offset, if the symbol is part of this table and big enough for
+     * the requested data type and number of elements.
+     */
+    public Optional<DirectAdsField> map(SymbolicAdsField symbolicAdsField) {
+        Symbol symbol = symbols.get(normalize(symbolicAdsField.getSymbolicField()));
+        if (symbol == null) {
+            return Optional.empty();
+        }
+        long requiredSize = (long) symbolicAdsField.getAdsDataType().getTargetByteSize() * symbolicAdsField.getNumberOfElements();
+        if (symbol.size < requiredSize) {
+            return Optional.empty();
+        }
+        return Optional.of(DirectAdsField.of(symbol.indexGroup, symbol.indexOffset, symbolicAdsField.getAdsDataType(), symbolicAdsField.getNumberOfElements()));
+    }
+
+    // TwinCAT symbol names are case insensitive.
+    private static String normalize(String name) {
+        return name.toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "AdsSymbolTable{" +
+            "numberOfSymbols=" + symbols.size() +
+            '}';
+    }
+
+    private static final class Symbol {
+
+        private final long indexGroup;
+
+        private final long indexOffset;
+
+        private final long size;
+
+        private Symbol(long indexGroup, long indexOffset, long size) {
+            this.indexGroup = indexGroup;
+            this.indexOffset = indexOffset;
+            this.size = size;
+        }
+    }
+}
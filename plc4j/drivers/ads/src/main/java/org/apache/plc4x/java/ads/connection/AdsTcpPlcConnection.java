@@ -61,6 +61,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -74,11 +75,21 @@ public class AdsTcpPlcConnection extends AdsAbstractPlcConnection implements Plc
 
     private static final long ADD_DEVICE_TIMEOUT = CONF.getLong("plc4x.adsconnection.add.device,timeout", 3000);
     private static final long DEL_DEVICE_TIMEOUT = CONF.getLong("plc4x.adsconnection.del.device,timeout", 3000);
+    // Maximum number of items bundled into one ADS sum command, values smaller than 2 disable sum commands.
+    private static final int MAX_ITEMS_PER_SUM_REQUEST = CONF.getInt("plc4x.adsconnection.sum.max.items", Plc4x2AdsProtocol.DEFAULT_MAX_ITEMS_PER_SUM_REQUEST);
 
     private static AtomicInteger localPorts = new AtomicInteger(30000);
 
     private Map<InternalPlcConsumerRegistration, Consumer<AdsDeviceNotificationRequest>> consumerRegistrations = new HashMap<>();
 
+    private final AtomicBoolean watchingSymbolVersion = new AtomicBoolean();
+
+    private final AtomicInteger symbolVersion = new AtomicInteger(-1);
+
+    private volatile NotificationHandle symbolVersionNotificationHandle;
+
+    private Consumer<AdsDeviceNotificationRequest> symbolVersionConsumer;
+
     private AdsTcpPlcConnection(InetAddress address, AmsNetId targetAmsNetId, AmsPort targetAmsPort) {
         this(address, targetAmsNetId, targetAmsPort, generateAMSNetId(), generateAMSPort());
     }
@@ -120,12 +131,23 @@ public class AdsTcpPlcConnection extends AdsAbstractPlcConnection implements Plc
                 ChannelPipeline pipeline = channel.pipeline();
                 pipeline.addLast(new Payload2TcpProtocol());
                 pipeline.addLast(new Ads2PayloadProtocol());
-                pipeline.addLast(new Plc4x2AdsProtocol(targetAmsNetId, targetAmsPort, sourceAmsNetId, sourceAmsPort, fieldMapping));
-                pipeline.addLast(new SingleItemToSingleRequestProtocol(AdsTcpPlcConnection.this, AdsTcpPlcConnection.this, AdsTcpPlcConnection.this, timer, SingleItemToSingleRequestProtocol.SplitConfig.builder().dontSplitSubscribe().dontSplitUnsubscribe().build(), false));
+                pipeline.addLast(new Plc4x2AdsProtocol(targetAmsNetId, targetAmsPort, sourceAmsNetId, sourceAmsPort, fieldMapping, MAX_ITEMS_PER_SUM_REQUEST));
+                pipeline.addLast(new SingleItemToSingleRequestProtocol(AdsTcpPlcConnection.this, AdsTcpPlcConnection.this, AdsTcpPlcConnection.this, timer, getSplitConfig(), false));
             }
         };
     }
 
+    private static SingleItemToSingleRequestProtocol.SplitConfig getSplitConfig() {
+        SingleItemToSingleRequestProtocol.SplitConfig.SplitConfigBuilder splitConfigBuilder = SingleItemToSingleRequestProtocol.SplitConfig.builder()
+            .dontSplitSubscribe()
+            .dontSplitUnsubscribe();
+        // Multi item reads and writes are handled with sum commands by the Plc4x2AdsProtocol.
+        if (MAX_ITEMS_PER_SUM_REQUEST > 1) {
+            splitConfigBuilder.dontSplitRead().dontSplitWrite();
+        }
+        return splitConfigBuilder.build();
+    }
+
     public InetAddress getRemoteAddress() {
         return ((TcpSocketChannelFactory) channelFactory).getAddress();
     }
@@ -142,6 +164,56 @@ public class AdsTcpPlcConnection extends AdsAbstractPlcConnection implements Plc
         return AmsPort.of(localPorts.getAndIncrement());
     }
 
+    /**
+     * Reads the current symbol version and adds a device notification for changes of it. Only done once per
+     * connection, if it fails the mapped fields simply aren't invalidated on online changes.
+     */
+    @Override
+    protected void watchSymbolVersion() {
+        if (!watchingSymbolVersion.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            symbolVersion.set(read(IndexGroup.ReservedGroups.ADSIGRP_SYM_VERSION, 1)[0] & 0xFF);
+
+            symbolVersionConsumer = adsDeviceNotificationRequest -> adsDeviceNotificationRequest.getAdsStampHeaders()
+                .forEach(adsStampHeader -> adsStampHeader.getAdsNotificationSamples().forEach(adsNotificationSample -> {
+                    byte[] bytes = adsNotificationSample.getData().getBytes();
+                    if (!adsNotificationSample.getNotificationHandle().equals(symbolVersionNotificationHandle) || bytes.length < 1) {
+                        return;
+                    }
+                    int previousSymbolVersion = symbolVersion.getAndSet(bytes[0] & 0xFF);
+                    if (previousSymbolVersion != (bytes[0] & 0xFF)) {
+                        symbolVersionChanged();
+                    }
+                }));
+            getChannel().pipeline().get(Plc4x2AdsProtocol.class).addConsumer(symbolVersionConsumer);
+
+            AdsAddDeviceNotificationRequest adsAddDeviceNotificationRequest = AdsAddDeviceNotificationRequest.of(
+                targetAmsNetId,
+                targetAmsPort,
+                sourceAmsNetId,
+                sourceAmsPort,
+                Invoke.NONE,
+                IndexGroup.ReservedGroups.ADSIGRP_SYM_VERSION,
+                IndexOffset.NONE,
+                Length.of(1),
+                TransmissionMode.DefinedValues.ADSTRANS_SERVERONCHA,
+                MaxDelay.of(0),
+                CycleTime.of(0)
+            );
+            CompletableFuture<InternalPlcProprietaryResponse<AdsAddDeviceNotificationResponse>> addDeviceFuture = new CompletableFuture<>();
+            channel.writeAndFlush(new PlcRequestContainer<>(new DefaultPlcProprietaryRequest<>(adsAddDeviceNotificationRequest), addDeviceFuture));
+            AdsAddDeviceNotificationResponse response = getFromFuture(addDeviceFuture, ADD_DEVICE_TIMEOUT).getResponse();
+            if (response.getResult().toAdsReturnCode() != AdsReturnCode.ADS_CODE_0) {
+                throw new PlcRuntimeException("Error code received " + response.getResult());
+            }
+            symbolVersionNotificationHandle = response.getNotificationHandle();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Can't watch the symbol version of {}, mapped fields aren't invalidated on online changes", targetAmsNetId, e);
+        }
+    }
+
     @Override
     public CompletableFuture<PlcSubscriptionResponse> subscribe(PlcSubscriptionRequest plcSubscriptionRequest) {
         InternalPlcSubscriptionRequest internalPlcSubscriptionRequest = checkInternal(plcSubscriptionRequest, InternalPlcSubscriptionRequest.class);
@@ -363,6 +435,22 @@ public class AdsTcpPlcConnection extends AdsAbstractPlcConnection implements Plc
             unsubscribe(plcUnsubscriptionRequest).get(5, TimeUnit.SECONDS);
 
             consumerRegistrations.clear();
+
+            if (symbolVersionConsumer != null) {
+                getChannel().pipeline().get(Plc4x2AdsProtocol.class).removeConsumer(symbolVersionConsumer);
+            }
+            if (symbolVersionNotificationHandle != null) {
+                AdsDeleteDeviceNotificationRequest adsDeleteDeviceNotificationRequest = AdsDeleteDeviceNotificationRequest.of(
+                    targetAmsNetId,
+                    targetAmsPort,
+                    sourceAmsNetId,
+                    sourceAmsPort,
+                    Invoke.NONE,
+                    symbolVersionNotificationHandle
+                );
+                // We don't need a response so we just supply a throw away future.
+                channel.writeAndFlush(new PlcRequestContainer<>(new DefaultPlcProprietaryRequest<>(adsDeleteDeviceNotificationRequest), new CompletableFuture<>()));
+            }
         } catch (InterruptedException e) {
             LOGGER.warn("Exception while closing", e);
             Thread.currentThread().interrupt();
@@ -24,17 +24,21 @@ import io.netty.channel.ChannelHandler;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.plc4x.java.ads.api.commands.AdsReadRequest;
+import org.apache.plc4x.java.ads.api.commands.AdsReadResponse;
+import org.apache.plc4x.java.ads.api.commands.AdsReadWriteRequest;
 import org.apache.plc4x.java.ads.api.commands.AdsReadWriteResponse;
-import org.apache.plc4x.java.ads.api.commands.types.Data;
-import org.apache.plc4x.java.ads.api.commands.types.Result;
+import org.apache.plc4x.java.ads.api.commands.types.*;
 import org.apache.plc4x.java.ads.api.generic.types.AmsNetId;
 import org.apache.plc4x.java.ads.api.generic.types.AmsPort;
+import org.apache.plc4x.java.ads.model.AdsDataType;
 import org.apache.plc4x.java.ads.model.DirectAdsField;
 import org.apache.plc4x.java.ads.model.SymbolicAdsField;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.messages.PlcFieldRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.api.messages.PlcWriteResponse;
+import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.base.connection.ChannelFactory;
 import org.apache.plc4x.java.base.messages.*;
 import org.assertj.core.api.WithAssertions;
@@ -43,18 +47,26 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -221,6 +233,169 @@ class AdsAbstractPlcConnectionTest implements WithAssertions {
     }
 
 
+    @Nested
+    class Bulk {
+
+        @BeforeEach
+        void setUp() {
+            SUT.clearMapping();
+        }
+
+        @Test
+        void mapMultipleFields() throws Exception {
+            when(channel.writeAndFlush(any(PlcRequestContainer.class))).then(invocation -> {
+                AdsReadWriteRequest adsReadWriteRequest = getProprietaryRequest(invocation.getArgument(0));
+                assertThat(adsReadWriteRequest.getIndexGroup()).isEqualTo(IndexGroup.ReservedGroups.ADSIGRP_SUMUP_READWRITE);
+                assertThat(adsReadWriteRequest.getIndexOffset()).isEqualTo(IndexOffset.of(2));
+                assertThat(adsReadWriteRequest.getReadLength()).isEqualTo(ReadLength.of(24));
+                return respond(invocation.getArgument(0), readWriteResponse(Result.of(0), new byte[]{
+                    0, 0, 0, 0, 4, 0, 0, 0,
+                    0, 0, 0, 0, 4, 0, 0, 0,
+                    1, 0, 0, 0,
+                    2, 0, 0, 0
+                }));
+            });
+
+            SUT.mapFields(request(SymbolicAdsField.of("Main.a:BYTE"), SymbolicAdsField.of("Main.b:INT"), SymbolicAdsField.of("Main.a:BYTE")));
+
+            verify(channel, times(1)).writeAndFlush(any(PlcRequestContainer.class));
+            assertThat(fieldMapping()).containsOnly(
+                entry(SymbolicAdsField.of("Main.a:BYTE"), DirectAdsField.of(0xF005, 1, AdsDataType.BYTE, 1)),
+                entry(SymbolicAdsField.of("Main.b:INT"), DirectAdsField.of(0xF005, 2, AdsDataType.INT, 1)));
+        }
+
+        @Test
+        void mapMultipleFieldsNegative() throws Exception {
+            when(channel.writeAndFlush(any(PlcRequestContainer.class))).then(invocation ->
+                respond(invocation.getArgument(0), readWriteResponse(Result.of(0), new byte[]{
+                    0, 0, 0, 0, 4, 0, 0, 0,
+                    0x10, 0x07, 0, 0, 0, 0, 0, 0,
+                    1, 0, 0, 0
+                })));
+
+            assertThatThrownBy(() -> SUT.mapFields(request(SymbolicAdsField.of("Main.a:BYTE"), SymbolicAdsField.of("Main.b:INT"))))
+                .isInstanceOf(PlcRuntimeException.class)
+                .hasMessageMatching("Non error code received Main.b: .*");
+            assertThat(fieldMapping()).containsOnlyKeys(SymbolicAdsField.of("Main.a:BYTE"));
+        }
+
+        @Test
+        void mapMultipleFieldsWithoutSumCommand() throws Exception {
+            when(channel.writeAndFlush(any(PlcRequestContainer.class))).then(invocation -> {
+                AdsReadWriteRequest adsReadWriteRequest = getProprietaryRequest(invocation.getArgument(0));
+                if (adsReadWriteRequest.getIndexGroup().equals(IndexGroup.ReservedGroups.ADSIGRP_SUMUP_READWRITE)) {
+                    return respond(invocation.getArgument(0), readWriteResponse(Result.of(0x701), new byte[0]));
+                }
+                return respond(invocation.getArgument(0), readWriteResponse(Result.of(0), new byte[]{3, 0, 0, 0}));
+            });
+
+            SUT.mapFields(request(SymbolicAdsField.of("Main.a:BYTE"), SymbolicAdsField.of("Main.b:INT")));
+
+            verify(channel, times(3)).writeAndFlush(any(PlcRequestContainer.class));
+            assertThat(fieldMapping()).hasSize(2);
+        }
+
+        @Test
+        void mapFieldsWithSymbolTable() throws Exception {
+            Path directory = Files.createTempDirectory("symbols");
+            try {
+                FieldUtils.writeField(SUT, "symbolCacheDirectory", directory, true);
+                Queue<IndexGroup> readIndexGroups = new ConcurrentLinkedQueue<>();
+                when(channel.writeAndFlush(any(PlcRequestContainer.class))).then(invocation -> {
+                    AdsReadRequest adsReadRequest = getProprietaryRequest(invocation.getArgument(0));
+                    readIndexGroups.add(adsReadRequest.getIndexGroup());
+                    byte[] data;
+                    if (adsReadRequest.getIndexGroup().equals(IndexGroup.ReservedGroups.ADSIGRP_SYM_VERSION)) {
+                        data = new byte[]{7};
+                    } else if (adsReadRequest.getIndexGroup().equals(IndexGroup.ReservedGroups.ADSIGRP_SYM_UPLOADINFO)) {
+                        data = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+                            .putInt(2).putInt(AdsSymbolTableTest.symbolTable().length).array();
+                    } else {
+                        data = AdsSymbolTableTest.symbolTable();
+                    }
+                    AdsReadResponse adsReadResponse = mock(AdsReadResponse.class, RETURNS_DEEP_STUBS);
+                    when(adsReadResponse.getResult()).thenReturn(Result.of(0));
+                    when(adsReadResponse.getData()).thenReturn(Data.of(data));
+                    return respond(invocation.getArgument(0), adsReadResponse);
+                });
+
+                SUT.mapFields(request(SymbolicAdsField.of("MAIN.bBool:BOOL"), SymbolicAdsField.of("MAIN.aInts:INT[4]")));
+
+                assertThat(readIndexGroups).containsExactly(IndexGroup.ReservedGroups.ADSIGRP_SYM_VERSION,
+                    IndexGroup.ReservedGroups.ADSIGRP_SYM_UPLOADINFO, IndexGroup.ReservedGroups.ADSIGRP_SYM_UPLOAD);
+                assertThat(fieldMapping()).containsValues(DirectAdsField.of(0x4020, 0x10, AdsDataType.BOOL, 1),
+                    DirectAdsField.of(0x4040, 0x1000, AdsDataType.INT, 4));
+
+                // After a change of the symbol version, the table is loaded again, but it doesn't need to be uploaded.
+                SUT.symbolVersionChanged();
+                assertThat(fieldMapping()).isEmpty();
+                readIndexGroups.clear();
+
+                SUT.mapFields(SymbolicAdsField.of("MAIN.bBool:BOOL"));
+
+                assertThat(readIndexGroups).containsExactly(IndexGroup.ReservedGroups.ADSIGRP_SYM_VERSION,
+                    IndexGroup.ReservedGroups.ADSIGRP_SYM_UPLOADINFO);
+                assertThat(fieldMapping()).containsValues(DirectAdsField.of(0x4020, 0x10, AdsDataType.BOOL, 1));
+            } finally {
+                try (Stream<Path> files = Files.list(directory)) {
+                    for (Path file : files.collect(Collectors.toList())) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(directory);
+            }
+        }
+
+        @Test
+        void closeReleasesHandles() throws Exception {
+            fieldMapping().put(SymbolicAdsField.of("Main.a:BYTE"), DirectAdsField.of(0xF005, 1, AdsDataType.BYTE, 1));
+            fieldMapping().put(SymbolicAdsField.of("Main.b:BYTE"), DirectAdsField.of(0xF005, 2, AdsDataType.BYTE, 1));
+            fieldMapping().put(SymbolicAdsField.of("Main.c:BYTE"), DirectAdsField.of(0x4020, 0, AdsDataType.BYTE, 1));
+
+            SUT.close();
+
+            ArgumentCaptor<PlcRequestContainer> captor = ArgumentCaptor.forClass(PlcRequestContainer.class);
+            verify(channel, times(1)).write(captor.capture());
+            AdsReadWriteRequest adsReadWriteRequest = getProprietaryRequest(captor.getValue());
+            assertThat(adsReadWriteRequest.getIndexGroup()).isEqualTo(IndexGroup.ReservedGroups.ADSIGRP_SUMUP_WRITE);
+            assertThat(adsReadWriteRequest.getIndexOffset()).isEqualTo(IndexOffset.of(2));
+            byte[] data = adsReadWriteRequest.getData().getBytes();
+            assertThat(data).hasSize(2 * 16);
+            assertThat(ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getInt(0)).isEqualTo(0xF006);
+            ByteBuffer handles = ByteBuffer.wrap(data, 24, 8).order(ByteOrder.LITTLE_ENDIAN);
+            assertThat(Arrays.asList(handles.getInt(), handles.getInt())).containsExactlyInAnyOrder(1, 2);
+            assertThat(fieldMapping()).isEmpty();
+        }
+
+        private Map<SymbolicAdsField, DirectAdsField> fieldMapping() throws IllegalAccessException {
+            return (Map<SymbolicAdsField, DirectAdsField>) FieldUtils.readField(SUT, "fieldMapping", true);
+        }
+
+        private PlcFieldRequest request(PlcField... fields) {
+            PlcFieldRequest request = mock(PlcFieldRequest.class);
+            when(request.getFields()).thenReturn(Arrays.asList(fields));
+            return request;
+        }
+
+        private <T> T getProprietaryRequest(PlcRequestContainer plcRequestContainer) {
+            return (T) ((PlcProprietaryRequest) plcRequestContainer.getRequest()).getProprietaryRequest();
+        }
+
+        private AdsReadWriteResponse readWriteResponse(Result result, byte[] data) {
+            AdsReadWriteResponse adsReadWriteResponse = mock(AdsReadWriteResponse.class, RETURNS_DEEP_STUBS);
+            when(adsReadWriteResponse.getResult()).thenReturn(result);
+            when(adsReadWriteResponse.getData()).thenReturn(Data.of(data));
+            return adsReadWriteResponse;
+        }
+
+        private ChannelFuture respond(PlcRequestContainer plcRequestContainer, Object response) {
+            PlcProprietaryResponse plcProprietaryResponse = mock(InternalPlcProprietaryResponse.class, RETURNS_DEEP_STUBS);
+            when(plcProprietaryResponse.getResponse()).thenReturn(response);
+            plcRequestContainer.getResponseFuture().complete(plcProprietaryResponse);
+            return mock(ChannelFuture.class);
+        }
+    }
+
     @Nested
     class Misc {
         @Test
@@ -0,0 +1,108 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.ads.connection;
+
+import org.apache.plc4x.java.ads.model.AdsDataType;
+import org.apache.plc4x.java.ads.model.DirectAdsField;
+import org.apache.plc4x.java.ads.model.SymbolicAdsField;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+class AdsSymbolTableTest implements WithAssertions {
+
+    @Test
+    void symbolsAreMappedToIndexGroupAndOffset() {
+        AdsSymbolTable SUT = AdsSymbolTable.of(symbolTable());
+
+        assertThat(SUT.getNumberOfSymbols()).isEqualTo(2);
+        assertThat(SUT.map(SymbolicAdsField.of("MAIN.bBool:BOOL")))
+            .contains(DirectAdsField.of(0x4020, 0x10, AdsDataType.BOOL, 1));
+        assertThat(SUT.map(SymbolicAdsField.of("main.aInts:INT[4]")))
+            .contains(DirectAdsField.of(0x4040, 0x1000, AdsDataType.INT, 4));
+    }
+
+    @Test
+    void unknownOrTooSmallSymbolsAreNotMapped() {
+        AdsSymbolTable SUT = AdsSymbolTable.of(symbolTable());
+
+        assertThat(SUT.map(SymbolicAdsField.of("MAIN.aInts[1]:INT"))).isEmpty();
+        assertThat(SUT.map(SymbolicAdsField.of("MAIN.bBool:LINT"))).isEmpty();
+    }
+
+    @Test
+    void invalidTablesAreRejected() {
+        byte[] symbolTable = symbolTable();
+
+        assertThatThrownBy(() -> AdsSymbolTable.of(Arrays.copyOf(symbolTable, symbolTable.length - 1)))
+            .isInstanceOf(PlcRuntimeException.class);
+    }
+
+    @Test
+    void tablesCanBeStoredAndLoaded() throws Exception {
+        Path directory = Files.createTempDirectory("symbols");
+        Path file = directory.resolve("table.symbols");
+        try {
+            AdsSymbolTable.of(symbolTable()).store(file);
+
+            assertThat(file).hasBinaryContent(symbolTable());
+            assertThat(AdsSymbolTable.load(file).map(SymbolicAdsField.of("MAIN.bBool:BOOL"))).isPresent();
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+
+    static byte[] symbolTable() {
+        ByteArrayOutputStream symbolTable = new ByteArrayOutputStream();
+        symbolEntry(symbolTable, "MAIN.bBool", "BOOL", 0x4020, 0x10, 1);
+        symbolEntry(symbolTable, "MAIN.aInts", "ARRAY [0..3] OF INT", 0x4040, 0x1000, 8);
+        return symbolTable.toByteArray();
+    }
+
+    private static void symbolEntry(ByteArrayOutputStream symbolTable, String name, String type, long indexGroup, long indexOffset, long size) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] typeBytes = type.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] comment = "comment".getBytes(StandardCharsets.ISO_8859_1);
+        int entryLength = 30 + nameBytes.length + 1 + typeBytes.length + 1 + comment.length + 1;
+        ByteBuffer entry = ByteBuffer.allocate(entryLength).order(ByteOrder.LITTLE_ENDIAN);
+        entry.putInt(entryLength);
+        entry.putInt((int) indexGroup);
+        entry.putInt((int) indexOffset);
+        entry.putInt((int) size);
+        // Data type and flags
+        entry.putInt(0);
+        entry.putInt(0);
+        entry.putShort((short) nameBytes.length);
+        entry.putShort((short) typeBytes.length);
+        entry.putShort((short) comment.length);
+        entry.put(nameBytes).put((byte) 0);
+        entry.put(typeBytes).put((byte) 0);
+        entry.put(comment).put((byte) 0);
+        symbolTable.write(entry.array(), 0, entryLength);
+    }
+}
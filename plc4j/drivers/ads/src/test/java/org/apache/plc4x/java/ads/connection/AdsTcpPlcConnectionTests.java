@@ -22,15 +22,16 @@ package org.apache.plc4x.java.ads.connection;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import org.apache.commons.lang3.reflect.FieldUtils;
-import org.apache.plc4x.java.ads.api.commands.AdsAddDeviceNotificationResponse;
-import org.apache.plc4x.java.ads.api.commands.AdsDeleteDeviceNotificationResponse;
-import org.apache.plc4x.java.ads.api.commands.types.NotificationHandle;
-import org.apache.plc4x.java.ads.api.commands.types.Result;
+import org.apache.plc4x.java.ads.api.commands.*;
+import org.apache.plc4x.java.ads.api.commands.types.*;
 import org.apache.plc4x.java.ads.api.generic.types.AmsNetId;
 import org.apache.plc4x.java.ads.api.generic.types.AmsPort;
+import org.apache.plc4x.java.ads.api.generic.types.Invoke;
 import org.apache.plc4x.java.ads.model.AdsDataType;
 import org.apache.plc4x.java.ads.model.AdsSubscriptionHandle;
 import org.apache.plc4x.java.ads.model.DirectAdsField;
+import org.apache.plc4x.java.ads.model.SymbolicAdsField;
+import org.apache.plc4x.java.ads.protocol.Plc4x2AdsProtocol;
 import org.apache.plc4x.java.api.types.PlcSubscriptionType;
 import org.apache.plc4x.java.base.messages.*;
 import org.apache.plc4x.java.base.model.SubscriptionPlcField;
@@ -40,6 +41,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -48,9 +50,11 @@ import java.net.InetAddress;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -135,6 +139,65 @@ class AdsTcpPlcConnectionTests implements WithAssertions {
         }
     }
 
+    @Nested
+    class SymbolVersion {
+        @Test
+        void symbolVersionChangeClearsMapping() throws Exception {
+            Plc4x2AdsProtocol plc4x2AdsProtocol = mock(Plc4x2AdsProtocol.class);
+            when(channelMock.pipeline().get(Plc4x2AdsProtocol.class)).thenReturn(plc4x2AdsProtocol);
+            when(channelMock.writeAndFlush(any(PlcRequestContainer.class))).then(invocation -> {
+                PlcRequestContainer plcRequestContainer = invocation.getArgument(0);
+                Object request = ((PlcProprietaryRequest) plcRequestContainer.getRequest()).getProprietaryRequest();
+                Object response;
+                if (request instanceof AdsReadRequest) {
+                    AdsReadResponse adsReadResponse = Mockito.mock(AdsReadResponse.class, RETURNS_DEEP_STUBS);
+                    when(adsReadResponse.getResult()).thenReturn(Result.of(0));
+                    when(adsReadResponse.getData()).thenReturn(Data.of(new byte[]{1}));
+                    response = adsReadResponse;
+                } else if (request instanceof AdsAddDeviceNotificationRequest) {
+                    AdsAddDeviceNotificationResponse adsAddDeviceNotificationResponse = Mockito.mock(AdsAddDeviceNotificationResponse.class, RETURNS_DEEP_STUBS);
+                    when(adsAddDeviceNotificationResponse.getResult()).thenReturn(Result.of(0));
+                    when(adsAddDeviceNotificationResponse.getNotificationHandle()).thenReturn(NotificationHandle.of(42));
+                    response = adsAddDeviceNotificationResponse;
+                } else {
+                    AdsReadWriteResponse adsReadWriteResponse = Mockito.mock(AdsReadWriteResponse.class, RETURNS_DEEP_STUBS);
+                    when(adsReadWriteResponse.getResult()).thenReturn(Result.of(0));
+                    when(adsReadWriteResponse.getData()).thenReturn(Data.of(new byte[]{1, 2, 3, 4}));
+                    response = adsReadWriteResponse;
+                }
+                PlcProprietaryResponse plcProprietaryResponse = Mockito.mock(InternalPlcProprietaryResponse.class, RETURNS_DEEP_STUBS);
+                when(plcProprietaryResponse.getResponse()).thenReturn(response);
+                plcRequestContainer.getResponseFuture().complete(plcProprietaryResponse);
+                return mock(ChannelFuture.class);
+            });
+
+            SUT.mapFields(SymbolicAdsField.of("Main.byByte[0]:BYTE"));
+            ArgumentCaptor<Consumer<AdsDeviceNotificationRequest>> consumerCaptor = ArgumentCaptor.forClass(Consumer.class);
+            verify(plc4x2AdsProtocol).addConsumer(consumerCaptor.capture());
+            Consumer<AdsDeviceNotificationRequest> consumer = consumerCaptor.getValue();
+
+            // Samples of other notifications and the initial notification with the current version are ignored.
+            consumer.accept(notification(NotificationHandle.of(41), (byte) 2));
+            consumer.accept(notification(NotificationHandle.of(42), (byte) 1));
+            assertThat(SUT.fieldMapping).hasSize(1);
+
+            consumer.accept(notification(NotificationHandle.of(42), (byte) 2));
+            assertThat(SUT.fieldMapping).isEmpty();
+            // The handle of the discarded field is released.
+            ArgumentCaptor<PlcRequestContainer> releaseCaptor = ArgumentCaptor.forClass(PlcRequestContainer.class);
+            verify(channelMock).write(releaseCaptor.capture());
+            Object releaseRequest = ((PlcProprietaryRequest) releaseCaptor.getValue().getRequest()).getProprietaryRequest();
+            assertThat(releaseRequest).isInstanceOf(AdsWriteRequest.class);
+            assertThat(((AdsWriteRequest) releaseRequest).getIndexGroup()).isEqualTo(IndexGroup.ReservedGroups.ADSIGRP_SYM_RELEASEHND);
+        }
+
+        private AdsDeviceNotificationRequest notification(NotificationHandle notificationHandle, byte symbolVersion) {
+            return AdsDeviceNotificationRequest.of(AmsNetId.of("0.0.0.0.0.0"), AmsPort.of(13), AmsNetId.of("0.0.0.0.0.0"), AmsPort.of(13), Invoke.NONE,
+                Stamps.of(1), Collections.singletonList(AdsStampHeader.of(TimeStamp.of(new Date()),
+                    Collections.singletonList(AdsNotificationSample.of(notificationHandle, Data.of(new byte[]{symbolVersion}))))));
+        }
+    }
+
     // TODO: Commented out as it was causing problems with Java 11
     /*@Nested
     class Registration {
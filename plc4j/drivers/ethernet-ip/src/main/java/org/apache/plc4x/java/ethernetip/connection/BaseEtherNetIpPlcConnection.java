@@ -26,6 +26,7 @@ import org.apache.plc4x.java.api.messages.PlcWriteResponse;
 import org.apache.plc4x.java.base.connection.ChannelFactory;
 import org.apache.plc4x.java.base.connection.NettyPlcConnection;
 import org.apache.plc4x.java.base.messages.*;
+import org.apache.plc4x.java.ethernetip.netty.Plc4XEtherNetIpProtocol;
 import org.apache.plc4x.java.ethernetip.netty.util.EnipPlcFieldHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +37,8 @@ public abstract class BaseEtherNetIpPlcConnection extends NettyPlcConnection imp
 
     private static final Logger logger = LoggerFactory.getLogger(BaseEtherNetIpPlcConnection.class);
 
+    protected int maxMessageSize = Plc4XEtherNetIpProtocol.DEFAULT_MAX_MESSAGE_SIZE;
+
     BaseEtherNetIpPlcConnection(ChannelFactory channelFactory, String params) {
         super(channelFactory, true);
 
@@ -46,6 +49,9 @@ public abstract class BaseEtherNetIpPlcConnection extends NettyPlcConnection imp
                 if (paramElements.length == 2) {
                     String paramValue = paramElements[1];
                     switch (paramName) {
+                        case "max-message-size":
+                            maxMessageSize = Integer.parseInt(paramValue);
+                            break;
                         default:
                             logger.debug("Unknown parameter {} with value {}", paramName, paramValue);
                     }
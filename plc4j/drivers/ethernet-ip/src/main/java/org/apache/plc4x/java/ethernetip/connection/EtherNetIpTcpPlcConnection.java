@@ -69,7 +69,7 @@ public class EtherNetIpTcpPlcConnection extends BaseEtherNetIpPlcConnection {
                     }
                 });
                 pipeline.addLast(new EnipCodec());
-                pipeline.addLast(new Plc4XEtherNetIpProtocol());
+                pipeline.addLast(new Plc4XEtherNetIpProtocol(maxMessageSize));
             }
         };
     }
@@ -19,23 +19,47 @@
 package org.apache.plc4x.java.modbus.connection;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.plc4x.java.api.messages.PlcReadRequest;
-import org.apache.plc4x.java.api.messages.PlcReadResponse;
-import org.apache.plc4x.java.api.messages.PlcWriteRequest;
-import org.apache.plc4x.java.api.messages.PlcWriteResponse;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.messages.*;
+import org.apache.plc4x.java.api.model.PlcConsumerRegistration;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
 import org.apache.plc4x.java.base.connection.ChannelFactory;
 import org.apache.plc4x.java.base.connection.NettyPlcConnection;
+import org.apache.plc4x.java.base.connection.PollingPlcSubscriber;
 import org.apache.plc4x.java.base.messages.*;
+import org.apache.plc4x.java.modbus.netty.Plc4XModbusProtocol;
 import org.apache.plc4x.java.modbus.util.ModbusPlcFieldHandler;
+import org.apache.plc4x.java.modbus.util.ModbusReadPlanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
-public abstract class BaseModbusPlcConnection extends NettyPlcConnection implements PlcReader, PlcWriter {
+/**
+ * Modbus has no notion of subscriptions, so they are served by a {@link PollingPlcSubscriber} which reads the
+ * subscribed fields with this connection.
+ */
+public abstract class BaseModbusPlcConnection extends NettyPlcConnection implements PlcReader, PlcWriter, PlcSubscriber {
 
     private static final Logger logger = LoggerFactory.getLogger(BaseModbusPlcConnection.class);
 
+    protected int maxInFlightRequests = Plc4XModbusProtocol.DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+
+    protected int maxPendingRequests = Plc4XModbusProtocol.DEFAULT_MAX_PENDING_REQUESTS;
+
+    protected long requestTimeout = Plc4XModbusProtocol.DEFAULT_REQUEST_TIMEOUT_MS;
+
+    protected int readCoalescingGap = ModbusReadPlanner.DEFAULT_MAX_GAP;
+
+    protected Duration changeOfStateInterval = PollingPlcSubscriber.DEFAULT_CHANGE_OF_STATE_INTERVAL;
+
+    protected double deadband = 0;
+
+    private PollingPlcSubscriber subscriber;
+
     BaseModbusPlcConnection(ChannelFactory channelFactory, String params) {
         super(channelFactory);
 
@@ -46,6 +70,24 @@ public abstract class BaseModbusPlcConnection extends NettyPlcConnection impleme
                 if (paramElements.length == 2) {
                     String paramValue = paramElements[1];
                     switch (paramName) {
+                        case "max-in-flight-requests":
+                            maxInFlightRequests = Integer.parseInt(paramValue);
+                            break;
+                        case "max-pending-requests":
+                            maxPendingRequests = Integer.parseInt(paramValue);
+                            break;
+                        case "request-timeout":
+                            requestTimeout = Long.parseLong(paramValue);
+                            break;
+                        case "read-coalescing-gap":
+                            readCoalescingGap = Integer.parseInt(paramValue);
+                            break;
+                        case "change-of-state-interval":
+                            changeOfStateInterval = Duration.ofMillis(Long.parseLong(paramValue));
+                            break;
+                        case "deadband":
+                            deadband = Double.parseDouble(paramValue);
+                            break;
                         default:
                             logger.debug("Unknown parameter {} with value {}", paramName, paramValue);
                     }
@@ -66,6 +108,11 @@ public abstract class BaseModbusPlcConnection extends NettyPlcConnection impleme
         return true;
     }
 
+    @Override
+    public boolean canSubscribe() {
+        return true;
+    }
+
     @Override
     public PlcReadRequest.Builder readRequestBuilder() {
         return new DefaultPlcReadRequest.Builder(this, new ModbusPlcFieldHandler());
@@ -76,18 +123,38 @@ public abstract class BaseModbusPlcConnection extends NettyPlcConnection impleme
         return new DefaultPlcWriteRequest.Builder(this, new ModbusPlcFieldHandler());
     }
 
+    @Override
+    public PlcSubscriptionRequest.Builder subscriptionRequestBuilder() {
+        return new DefaultPlcSubscriptionRequest.Builder(this, new ModbusPlcFieldHandler());
+    }
+
+    @Override
+    public PlcUnsubscriptionRequest.Builder unsubscriptionRequestBuilder() {
+        return new DefaultPlcUnsubscriptionRequest.Builder(this);
+    }
+
     @Override
     public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
+        InternalPlcReadRequest internalReadRequest = (InternalPlcReadRequest) readRequest;
+        ModbusReadPlanner.Plan plan = ModbusReadPlanner.plan(internalReadRequest, readCoalescingGap);
+        if (!plan.mergesFields()) {
+            return send(internalReadRequest)
+                .thenApply(PlcReadResponse.class::cast);
+        }
+        return plan.execute(this::send)
+            .thenApply(PlcReadResponse.class::cast);
+    }
+
+    private CompletableFuture<InternalPlcReadResponse> send(InternalPlcReadRequest readRequest) {
         CompletableFuture<InternalPlcReadResponse> future = new CompletableFuture<>();
         PlcRequestContainer<InternalPlcReadRequest, InternalPlcReadResponse> container =
-            new PlcRequestContainer<>((InternalPlcReadRequest) readRequest, future);
+            new PlcRequestContainer<>(readRequest, future);
         channel.writeAndFlush(container).addListener(f -> {
             if (!f.isSuccess()) {
                 future.completeExceptionally(f.cause());
             }
         });
-        return future
-            .thenApply(PlcReadResponse.class::cast);
+        return future;
     }
 
     @Override
@@ -104,4 +171,42 @@ public abstract class BaseModbusPlcConnection extends NettyPlcConnection impleme
             .thenApply(PlcWriteResponse.class::cast);
     }
 
+    @Override
+    public CompletableFuture<PlcSubscriptionResponse> subscribe(PlcSubscriptionRequest subscriptionRequest) {
+        return getSubscriber().subscribe(subscriptionRequest);
+    }
+
+    @Override
+    public CompletableFuture<PlcUnsubscriptionResponse> unsubscribe(PlcUnsubscriptionRequest unsubscriptionRequest) {
+        return getSubscriber().unsubscribe(unsubscriptionRequest);
+    }
+
+    @Override
+    public PlcConsumerRegistration register(Consumer<PlcSubscriptionEvent> consumer, Collection<PlcSubscriptionHandle> handles) {
+        return getSubscriber().register(consumer, handles);
+    }
+
+    @Override
+    public void unregister(PlcConsumerRegistration registration) {
+        getSubscriber().unregister(registration);
+    }
+
+    private synchronized PollingPlcSubscriber getSubscriber() {
+        if (subscriber == null) {
+            subscriber = new PollingPlcSubscriber(this, changeOfStateInterval, deadband, null);
+        }
+        return subscriber;
+    }
+
+    @Override
+    public void close() throws PlcConnectionException {
+        synchronized (this) {
+            if (subscriber != null) {
+                subscriber.close();
+                subscriber = null;
+            }
+        }
+        super.close();
+    }
+
 }
@@ -0,0 +1,172 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.opcua.connection;
+
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaMonitoredItem;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscription;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscriptionManager;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemCreateRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * All monitored items requested with the same publishing interval share one server side {@link UaSubscription}.
+ * The subscription is created together with the first monitored item and deleted as soon as the last one is removed.
+ * Monitored items are created in batches of at most {@link #MAX_MONITORED_ITEMS_PER_CALL} items per service call.
+ */
+class OpcuaSubscriptionGroup {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpcuaSubscriptionGroup.class);
+
+    static final int MAX_MONITORED_ITEMS_PER_CALL = 1000;
+
+    private final UaSubscriptionManager subscriptionManager;
+
+    private final double publishingInterval;
+
+    private final Map<UInteger, UaMonitoredItem> monitoredItems = new ConcurrentHashMap<>();
+
+    // Guarded by this, null as long as there is no server side subscription.
+    private CompletableFuture<UaSubscription> subscription;
+
+    // Guarded by this, number of created and currently creating monitored items.
+    private int reservedItems;
+
+    OpcuaSubscriptionGroup(UaSubscriptionManager subscriptionManager, double publishingInterval) {
+        this.subscriptionManager = subscriptionManager;
+        this.publishingInterval = publishingInterval;
+    }
+
+    /**
+     * Creates the monitored items in the shared subscription, creating the subscription first if needed.
+     *
+     * @param requests      the monitored items to create.
+     * @param onItemCreated called for every created item with its index in {@code requests}.
+     * @return the created items in the order of {@code requests}.
+     */
+    CompletableFuture<List<UaMonitoredItem>> createMonitoredItems(List<MonitoredItemCreateRequest> requests,
+                                                                  BiConsumer<UaMonitoredItem, Integer> onItemCreated) {
+        return reserve(requests.size())
+            .thenCompose(uaSubscription -> createInBatches(uaSubscription, requests, onItemCreated))
+            .whenComplete((items, throwable) -> {
+                int failedItems = requests.size();
+                if (items != null) {
+                    for (UaMonitoredItem item : items) {
+                        if (item.getStatusCode().isGood()) {
+                            monitoredItems.put(item.getClientHandle(), item);
+                            failedItems--;
+                        }
+                    }
+                }
+                release(failedItems);
+            });
+    }
+
+    /**
+     * Deletes the monitored items with the given client handles, deleting the subscription if it gets empty.
+     */
+    CompletableFuture<Void> deleteMonitoredItems(Collection<UInteger> clientHandles) {
+        List<UaMonitoredItem> items = new ArrayList<>(clientHandles.size());
+        for (UInteger clientHandle : clientHandles) {
+            UaMonitoredItem item = monitoredItems.remove(clientHandle);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        if (items.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<UaSubscription> current;
+        synchronized (this) {
+            current = subscription;
+        }
+        return current
+            .thenCompose(uaSubscription -> uaSubscription.deleteMonitoredItems(items))
+            .handle((statusCodes, throwable) -> {
+                if (throwable != null) {
+                    logger.warn("Unable to delete monitored items because of: {}", throwable.getMessage());
+                }
+                release(items.size());
+                return null;
+            });
+    }
+
+    boolean contains(UInteger clientHandle) {
+        return monitoredItems.containsKey(clientHandle);
+    }
+
+    double getPublishingInterval() {
+        return publishingInterval;
+    }
+
+    private synchronized CompletableFuture<UaSubscription> reserve(int numberOfItems) {
+        if (subscription == null) {
+            logger.debug("Creating subscription with publishing interval {}ms", publishingInterval);
+            subscription = subscriptionManager.createSubscription(publishingInterval);
+        }
+        reservedItems += numberOfItems;
+        return subscription;
+    }
+
+    private synchronized void release(int numberOfItems) {
+        reservedItems -= numberOfItems;
+        if (reservedItems > 0 || subscription == null) {
+            return;
+        }
+        CompletableFuture<UaSubscription> unused = subscription;
+        subscription = null;
+        unused
+            .thenCompose(uaSubscription -> {
+                logger.debug("Deleting subscription {} with publishing interval {}ms", uaSubscription.getSubscriptionId(), publishingInterval);
+                return subscriptionManager.deleteSubscription(uaSubscription.getSubscriptionId());
+            })
+            .whenComplete((uaSubscription, throwable) -> {
+                if (throwable != null) {
+                    logger.warn("Unable to delete subscription because of: {}", throwable.getMessage());
+                }
+            });
+    }
+
+    private CompletableFuture<List<UaMonitoredItem>> createInBatches(UaSubscription uaSubscription,
+                                                                     List<MonitoredItemCreateRequest> requests,
+                                                                     BiConsumer<UaMonitoredItem, Integer> onItemCreated) {
+        List<CompletableFuture<List<UaMonitoredItem>>> batches = new ArrayList<>();
+        for (int offset = 0; offset < requests.size(); offset += MAX_MONITORED_ITEMS_PER_CALL) {
+            final int batchOffset = offset;
+            List<MonitoredItemCreateRequest> batch = requests.subList(offset, Math.min(requests.size(), offset + MAX_MONITORED_ITEMS_PER_CALL));
+            batches.add(uaSubscription.createMonitoredItems(TimestampsToReturn.Both, new ArrayList<>(batch),
+                (item, index) -> onItemCreated.accept(item, batchOffset + index)));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).thenApply(v -> {
+            List<UaMonitoredItem> items = new ArrayList<>(requests.size());
+            batches.forEach(batch -> items.addAll(batch.join()));
+            return items;
+        });
+    }
+}
@@ -38,7 +38,6 @@ import org.eclipse.milo.opcua.sdk.client.api.config.OpcUaClientConfig;
 import org.eclipse.milo.opcua.sdk.client.api.identity.AnonymousProvider;
 import org.eclipse.milo.opcua.sdk.client.api.identity.IdentityProvider;
 import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaMonitoredItem;
-import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscription;
 import org.eclipse.milo.opcua.stack.client.DiscoveryClient;
 import org.eclipse.milo.opcua.stack.core.AttributeId;
 import org.eclipse.milo.opcua.stack.core.Identifiers;
@@ -61,12 +60,13 @@ import java.net.InetAddress;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
 
@@ -82,6 +82,8 @@ public class OpcuaTcpPlcConnection extends BaseOpcuaPlcConnection {
     private OpcUaClient client;
     private boolean isConnected = false;
     private  final AtomicLong clientHandles = new AtomicLong(1L);
+    private final Map<Double, OpcuaSubscriptionGroup> subscriptionGroups = new ConcurrentHashMap<>();
+    private volatile CompletableFuture<OperationLimits> operationLimits = CompletableFuture.completedFuture(OperationLimits.UNLIMITED);
 
     private OpcuaTcpPlcConnection(InetAddress address, String params, int requestTimeout) {
         this( address, OPCUA_DEFAULT_TCP_PORT,  params, requestTimeout);
@@ -201,6 +203,7 @@ public class OpcuaTcpPlcConnection extends BaseOpcuaPlcConnection {
             this.client =  OpcUaClient.create(config);
             this.client.connect().get();
             isConnected = true;
+            operationLimits = readOperationLimits();
         } catch (UaException e) {
             isConnected = false;
             String message = (config == null) ? "NULL" : config.toString();
@@ -221,19 +224,29 @@ public class OpcuaTcpPlcConnection extends BaseOpcuaPlcConnection {
         if(client != null){
             client.disconnect().get();
             isConnected = false;
+            // The server side subscriptions are gone together with the session.
+            subscriptionGroups.clear();
         }
     }
 
     @Override
     public CompletableFuture<PlcSubscriptionResponse> subscribe(PlcSubscriptionRequest subscriptionRequest) {
         InternalPlcSubscriptionRequest internalPlcSubscriptionRequest = checkInternal(subscriptionRequest, InternalPlcSubscriptionRequest.class);
-        CompletableFuture<PlcSubscriptionResponse> future = CompletableFuture.supplyAsync(() ->{
-            Map<String, Pair<PlcResponseCode, PlcSubscriptionHandle>> responseItems = internalPlcSubscriptionRequest.getSubscriptionPlcFieldMap().entrySet().stream()
-            .map(subscriptionPlcFieldEntry -> {
-                final String plcFieldName = subscriptionPlcFieldEntry.getKey();
-                final SubscriptionPlcField subscriptionPlcField = subscriptionPlcFieldEntry.getValue();
-                final OpcuaField field = (OpcuaField)Objects.requireNonNull(subscriptionPlcField.getPlcField());
-                long cycleTime = subscriptionPlcField.getDuration().orElse(Duration.ofSeconds(1)).toMillis();
+        // Fields with the same cycle time share one subscription and are created with one batch of monitored items.
+        Map<Double, Map<String, SubscriptionPlcField>> fieldsByPublishingInterval = new LinkedHashMap<>();
+        internalPlcSubscriptionRequest.getSubscriptionPlcFieldMap().forEach((plcFieldName, subscriptionPlcField) -> {
+            double publishingInterval = subscriptionPlcField.getDuration().orElse(Duration.ofSeconds(1)).toMillis();
+            fieldsByPublishingInterval.computeIfAbsent(publishingInterval, interval -> new LinkedHashMap<>())
+                .put(plcFieldName, subscriptionPlcField);
+        });
+
+        Map<String, Pair<PlcResponseCode, PlcSubscriptionHandle>> responseItems = new ConcurrentHashMap<>();
+        List<CompletableFuture<?>> groupFutures = new ArrayList<>(fieldsByPublishingInterval.size());
+        fieldsByPublishingInterval.forEach((publishingInterval, subscriptionPlcFields) -> {
+            List<MonitoredItemCreateRequest> requestList = new ArrayList<>(subscriptionPlcFields.size());
+            List<OpcuaSubsriptionHandle> subscriptionHandles = new ArrayList<>(subscriptionPlcFields.size());
+            subscriptionPlcFields.forEach((plcFieldName, subscriptionPlcField) -> {
+                final OpcuaField field = (OpcuaField) Objects.requireNonNull(subscriptionPlcField.getPlcField());
                 NodeId idNode = generateNodeId(field);
                 ReadValueId readValueId = new ReadValueId(
                     idNode,
@@ -242,7 +255,7 @@ public class OpcuaTcpPlcConnection extends BaseOpcuaPlcConnection {
 
                 MonitoringParameters parameters = new MonitoringParameters(
                     clientHandle,
-                    (double) cycleTime,     // sampling interval
+                    publishingInterval,     // sampling interval
                     null,       // filter, null means use default
                     uint(1),   // queue size
                     true        // discard oldest
@@ -261,54 +274,56 @@ public class OpcuaTcpPlcConnection extends BaseOpcuaPlcConnection {
                     default: monitoringMode = MonitoringMode.Reporting;
                 }
 
-                PlcSubscriptionHandle subHandle = null;
-                PlcResponseCode responseCode = PlcResponseCode.ACCESS_DENIED;
-                try {
-                    UaSubscription subscription = client.getSubscriptionManager().createSubscription(1000.0).get();
-
-                    MonitoredItemCreateRequest request = new MonitoredItemCreateRequest(
-                        readValueId, monitoringMode, parameters);
-                    List<MonitoredItemCreateRequest> requestList = new LinkedList<>();
-                    requestList.add(request);
-                    OpcuaSubsriptionHandle subsriptionHandle = new OpcuaSubsriptionHandle(plcFieldName, clientHandle);
-                    BiConsumer<UaMonitoredItem, Integer> onItemCreated =
-                        (item, id) -> item.setValueConsumer(subsriptionHandle::onSubscriptionValue);
-
-                    List<UaMonitoredItem> items = subscription.createMonitoredItems(
-                        TimestampsToReturn.Both,
-                        requestList,
-                        onItemCreated
-                    ).get();
-
-                    subHandle = subsriptionHandle;
-                    responseCode = PlcResponseCode.OK;
-                } catch (InterruptedException | ExecutionException e) {
-                    logger.warn("Unable to subscribe Elements because of: {}", e.getMessage());
-                }
-
-
-                return Pair.of(plcFieldName, Pair.of(responseCode, subHandle));
-            })
-            .collect(Collectors.toMap(Pair::getKey, Pair::getValue));
-            return (PlcSubscriptionResponse) new DefaultPlcSubscriptionResponse(internalPlcSubscriptionRequest, responseItems);
+                requestList.add(new MonitoredItemCreateRequest(readValueId, monitoringMode, parameters));
+                subscriptionHandles.add(new OpcuaSubsriptionHandle(plcFieldName, clientHandle));
+            });
+            BiConsumer<UaMonitoredItem, Integer> onItemCreated =
+                (item, index) -> item.setValueConsumer(subscriptionHandles.get(index)::onSubscriptionValue);
+
+            OpcuaSubscriptionGroup subscriptionGroup = subscriptionGroups.computeIfAbsent(publishingInterval,
+                interval -> new OpcuaSubscriptionGroup(client.getSubscriptionManager(), interval));
+            groupFutures.add(subscriptionGroup.createMonitoredItems(requestList, onItemCreated)
+                .handle((items, throwable) -> {
+                    if (throwable != null) {
+                        logger.warn("Unable to subscribe Elements because of: {}", throwable.getMessage());
+                    }
+                    for (int counter = 0; counter < subscriptionHandles.size(); counter++) {
+                        OpcuaSubsriptionHandle subscriptionHandle = subscriptionHandles.get(counter);
+                        if (items == null || items.size() <= counter) {
+                            responseItems.put(subscriptionHandle.getFieldName(), Pair.of(PlcResponseCode.ACCESS_DENIED, null));
+                        } else if (!items.get(counter).getStatusCode().isGood()) {
+                            responseItems.put(subscriptionHandle.getFieldName(), Pair.of(PlcResponseCode.NOT_FOUND, null));
+                        } else {
+                            responseItems.put(subscriptionHandle.getFieldName(), Pair.of(PlcResponseCode.OK, subscriptionHandle));
+                        }
+                    }
+                    return null;
+                }));
         });
 
-        return future;
+        return CompletableFuture.allOf(groupFutures.toArray(new CompletableFuture[0]))
+            .thenApply(v -> (PlcSubscriptionResponse) new DefaultPlcSubscriptionResponse(internalPlcSubscriptionRequest, responseItems));
     }
 
     @Override
     public CompletableFuture<PlcUnsubscriptionResponse> unsubscribe(PlcUnsubscriptionRequest unsubscriptionRequest) {
         InternalPlcUnsubscriptionRequest internalPlcUnsubscriptionRequest = checkInternal(unsubscriptionRequest, InternalPlcUnsubscriptionRequest.class);
+        Map<OpcuaSubscriptionGroup, List<UInteger>> clientHandlesByGroup = new HashMap<>();
         internalPlcUnsubscriptionRequest.getInternalPlcSubscriptionHandles().forEach(o -> {
             OpcuaSubsriptionHandle opcSubHandle = (OpcuaSubsriptionHandle) o;
-            try {
-                client.getSubscriptionManager().deleteSubscription(opcSubHandle.getClientHandle()).get();
-            } catch (InterruptedException | ExecutionException e) {
-                logger.warn("Unable to unsubscribe Elements because of: {}", e.getMessage());
-            }
+            subscriptionGroups.values().stream()
+                .filter(subscriptionGroup -> subscriptionGroup.contains(opcSubHandle.getClientHandle()))
+                .findFirst()
+                .ifPresent(subscriptionGroup -> clientHandlesByGroup.computeIfAbsent(subscriptionGroup, group -> new ArrayList<>())
+                    .add(opcSubHandle.getClientHandle()));
         });
 
-        return null;
+        List<CompletableFuture<?>> groupFutures = new ArrayList<>(clientHandlesByGroup.size());
+        clientHandlesByGroup.forEach((subscriptionGroup, groupClientHandles) ->
+            groupFutures.add(subscriptionGroup.deleteMonitoredItems(groupClientHandles)));
+
+        return CompletableFuture.allOf(groupFutures.toArray(new CompletableFuture[0]))
+            .thenApply(v -> (PlcUnsubscriptionResponse) new DefaultPlcUnsubscriptionResponse(internalPlcUnsubscriptionRequest));
     }
 
     @Override
@@ -326,103 +341,132 @@ public class OpcuaTcpPlcConnection extends BaseOpcuaPlcConnection {
 
     @Override
     public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
-        CompletableFuture<PlcReadResponse> future = CompletableFuture.supplyAsync(() -> {
-            readRequest.getFields();
-            Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> fields = new HashMap<>();
-            List<NodeId> readValueIds = new LinkedList<>();
-            List<PlcField> readPLCValues = readRequest.getFields();
-            for (PlcField field: readPLCValues) {
-                NodeId idNode = generateNodeId((OpcuaField) field);
-                readValueIds.add(idNode);
-            }
-
-            CompletableFuture<List<DataValue>> dataValueCompletableFuture = client.readValues(0.0, TimestampsToReturn.Both, readValueIds);
-            List<DataValue> readValues = null;
-            try {
-                readValues = dataValueCompletableFuture.get();
-            } catch (InterruptedException | ExecutionException e) {
-                logger.warn("Unable to read Elements because of: {}", e.getMessage());
-            }
-            for(int counter = 0; counter < readValueIds.size(); counter++){
-                PlcResponseCode resultCode = PlcResponseCode.OK;
-                BaseDefaultFieldItem stringItem = null;
-                if(readValues == null || readValues.size() <= counter || readValues.get(counter).getStatusCode() != StatusCode.GOOD){
-                    resultCode = PlcResponseCode.NOT_FOUND;
-                }else{
-                    stringItem = encodeFieldItem(readValues.get(counter));
+        InternalPlcReadRequest internalPlcReadRequest = checkInternal(readRequest, InternalPlcReadRequest.class);
+        List<String> fieldNames = new ArrayList<>(readRequest.getFieldNames());
+        List<NodeId> readValueIds = new ArrayList<>(fieldNames.size());
+        for (String fieldName : fieldNames) {
+            readValueIds.add(generateNodeId((OpcuaField) readRequest.getField(fieldName)));
+        }
 
+        return operationLimits.thenCompose(limits -> inChunks(readValueIds.size(), limits.maxNodesPerRead,
+            (from, to) -> client.readValues(0.0, TimestampsToReturn.Both, readValueIds.subList(from, to))))
+            .thenApply(readValues -> {
+                Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> fields = new HashMap<>();
+                for (int counter = 0; counter < fieldNames.size(); counter++) {
+                    DataValue readValue = readValues.get(counter);
+                    PlcResponseCode resultCode = PlcResponseCode.OK;
+                    BaseDefaultFieldItem stringItem = null;
+                    if (readValue == null || !readValue.getStatusCode().isGood()) {
+                        resultCode = PlcResponseCode.NOT_FOUND;
+                    } else {
+                        stringItem = encodeFieldItem(readValue);
+                    }
+                    fields.put(fieldNames.get(counter), new ImmutablePair<>(resultCode, stringItem));
                 }
-                Pair<PlcResponseCode, BaseDefaultFieldItem> newPair = new ImmutablePair<>(resultCode, stringItem);
-                fields.put((String) readRequest.getFieldNames().toArray()[counter], newPair);
-
-
-            }
-            InternalPlcReadRequest internalPlcReadRequest = checkInternal(readRequest, InternalPlcReadRequest.class);
-            return (PlcReadResponse) new DefaultPlcReadResponse(internalPlcReadRequest, fields );
-        });
-
-
-        return future;
+                return new DefaultPlcReadResponse(internalPlcReadRequest, fields);
+            });
     }
 
 
     @Override
     public CompletableFuture<PlcWriteResponse> write(PlcWriteRequest writeRequest) {
-        CompletableFuture<PlcWriteResponse> future;
-        future = CompletableFuture.supplyAsync(() -> {
-
-            InternalPlcWriteRequest internalPlcWriteRequest = (InternalPlcWriteRequest) writeRequest;
-
-            List<PlcField> writePLCValues = writeRequest.getFields();
-            LinkedList<DataValue> values = new LinkedList<>();
-            LinkedList<NodeId> ids = new LinkedList<>();
-            LinkedList<String> names = new LinkedList<>();
-            Map<String, PlcResponseCode> fieldResponse = new HashMap<>();
-            for (String fieldName: writeRequest.getFieldNames()) {
-                OpcuaField uaField = (OpcuaField) writeRequest.getField(fieldName);
-                NodeId idNode = generateNodeId(uaField);
-                Variant var = new Variant(internalPlcWriteRequest.getFieldItem(fieldName).getObject(0));
-                DataValue value = new DataValue(var, null, null);
-                ids.add(idNode);
-                names.add(fieldName);
-                values.add(value);
-            }
-            CompletableFuture<List<StatusCode>> opcRequest =
-                client.writeValues(ids, values);
-            List<StatusCode> statusCodes = null;
-            try {
-                statusCodes = opcRequest.get();
-            } catch (InterruptedException | ExecutionException e) {
-                statusCodes = new LinkedList<>();
-                for(int counter = 0; counter < ids.size(); counter++){
-                    ((LinkedList<StatusCode>) statusCodes).push(StatusCode.BAD);
-                }
-            }
+        InternalPlcWriteRequest internalPlcWriteRequest = checkInternal(writeRequest, InternalPlcWriteRequest.class);
+        List<String> names = new ArrayList<>(writeRequest.getFieldNames());
+        List<NodeId> ids = new ArrayList<>(names.size());
+        List<DataValue> values = new ArrayList<>(names.size());
+        for (String fieldName : names) {
+            OpcuaField uaField = (OpcuaField) writeRequest.getField(fieldName);
+            ids.add(generateNodeId(uaField));
+            Variant var = new Variant(internalPlcWriteRequest.getFieldItem(fieldName).getObject(0));
+            values.add(new DataValue(var, null, null));
+        }
 
-            for(int counter = 0; counter < names.size(); counter++){
-                PlcResponseCode resultCode;
-                if(statusCodes != null && statusCodes.size() > counter){
-                    if(statusCodes.get(counter).isGood()){
+        return operationLimits.thenCompose(limits -> inChunks(ids.size(), limits.maxNodesPerWrite,
+            (from, to) -> client.writeValues(ids.subList(from, to), values.subList(from, to))))
+            .thenApply(statusCodes -> {
+                Map<String, PlcResponseCode> fieldResponse = new HashMap<>();
+                for (int counter = 0; counter < names.size(); counter++) {
+                    StatusCode statusCode = statusCodes.get(counter);
+                    PlcResponseCode resultCode;
+                    if (statusCode == null) {
+                        resultCode = PlcResponseCode.ACCESS_DENIED;
+                    } else if (statusCode.isGood()) {
                         resultCode = PlcResponseCode.OK;
-                    }else if(statusCodes.get(counter).isUncertain()){
+                    } else if (statusCode.isUncertain()) {
                         resultCode = PlcResponseCode.NOT_FOUND;
-                    }else {
+                    } else {
                         resultCode = PlcResponseCode.ACCESS_DENIED;
                     }
-                }else{
-                    resultCode = PlcResponseCode.ACCESS_DENIED;
+                    fieldResponse.put(names.get(counter), resultCode);
                 }
-                fieldResponse.put(names.get(counter), resultCode);
-            }
-            InternalPlcWriteRequest internalPlcReadRequest = checkInternal(writeRequest, InternalPlcWriteRequest.class);
-            PlcWriteResponse response = new DefaultPlcWriteResponse(internalPlcReadRequest, fieldResponse);
-            return response;
-        });
+                return new DefaultPlcWriteResponse(internalPlcWriteRequest, fieldResponse);
+            });
+    }
 
+    /**
+     * Splits a service call for {@code size} nodes into chunks of at most {@code chunkSize} nodes, which are all sent
+     * without waiting for each other. The results of all chunks are concatenated in the order of the nodes. Results of
+     * failed or incomplete chunks are filled up with {@code null}.
+     */
+    static <R> CompletableFuture<List<R>> inChunks(int size, int chunkSize,
+                                                   BiFunction<Integer, Integer, CompletableFuture<List<R>>> serviceCall) {
+        List<CompletableFuture<List<R>>> chunks = new ArrayList<>();
+        for (int from = 0; from < size; from += chunkSize) {
+            int to = Math.min(size, from + chunkSize);
+            int expectedResults = to - from;
+            chunks.add(serviceCall.apply(from, to).handle((results, throwable) -> {
+                if (throwable != null) {
+                    logger.warn("Unable to access Elements because of: {}", throwable.getMessage());
+                }
+                if (results != null && results.size() == expectedResults) {
+                    return results;
+                }
+                List<R> alignedResults = new ArrayList<>(expectedResults);
+                if (results != null) {
+                    alignedResults.addAll(results.subList(0, Math.min(expectedResults, results.size())));
+                }
+                while (alignedResults.size() < expectedResults) {
+                    alignedResults.add(null);
+                }
+                return alignedResults;
+            }));
+        }
+        if (chunks.size() == 1) {
+            return chunks.get(0);
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenApply(v -> {
+            List<R> results = new ArrayList<>(size);
+            chunks.forEach(chunk -> results.addAll(chunk.join()));
+            return results;
+        });
+    }
 
-        return future;
+    /**
+     * Reads the operation limits of the server, a missing or zero limit means the server has no limit.
+     */
+    private CompletableFuture<OperationLimits> readOperationLimits() {
+        List<NodeId> limitIds = Arrays.asList(
+            Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerRead,
+            Identifiers.Server_ServerCapabilities_OperationLimits_MaxNodesPerWrite);
+        return client.readValues(0.0, TimestampsToReturn.Neither, limitIds)
+            .thenApply(limits -> {
+                OperationLimits operationLimits = new OperationLimits(toLimit(limits.get(0)), toLimit(limits.get(1)));
+                logger.debug("Using operation limits {}", operationLimits);
+                return operationLimits;
+            })
+            .exceptionally(throwable -> {
+                logger.info("Unable to read the operation limits of the server, requests won't be split: {}", throwable.getMessage());
+                return OperationLimits.UNLIMITED;
+            });
     }
 
+    static int toLimit(DataValue value) {
+        if (value == null || !value.getStatusCode().isGood() || !(value.getValue().getValue() instanceof UInteger)) {
+            return Integer.MAX_VALUE;
+        }
+        long limit = ((UInteger) value.getValue().getValue()).longValue();
+        return (limit <= 0 || limit > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) limit;
+    }
 
     private NodeId generateNodeId(OpcuaField uaField){
         NodeId idNode = null;
@@ -461,4 +505,26 @@ public class OpcuaTcpPlcConnection extends BaseOpcuaPlcConnection {
     private IdentityProvider getIdentityProvider() {
         return new AnonymousProvider();
     }
+
+    private static final class OperationLimits {
+
+        private static final OperationLimits UNLIMITED = new OperationLimits(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+        private final int maxNodesPerRead;
+
+        private final int maxNodesPerWrite;
+
+        private OperationLimits(int maxNodesPerRead, int maxNodesPerWrite) {
+            this.maxNodesPerRead = maxNodesPerRead;
+            this.maxNodesPerWrite = maxNodesPerWrite;
+        }
+
+        @Override
+        public String toString() {
+            return "OperationLimits{" +
+                "maxNodesPerRead=" + maxNodesPerRead +
+                ", maxNodesPerWrite=" + maxNodesPerWrite +
+                '}';
+        }
+    }
 }
@@ -33,7 +33,7 @@ import java.util.ArrayList;
 public class OpcuaPlcFieldHandler extends DefaultPlcFieldHandler {
 
     @Override
-    public PlcField createField(String fieldQuery) throws PlcInvalidFieldException {
+    protected PlcField parseField(String fieldQuery) throws PlcInvalidFieldException {
         if (OpcuaField.matches(fieldQuery)) {
             return OpcuaField.of(fieldQuery);
         }
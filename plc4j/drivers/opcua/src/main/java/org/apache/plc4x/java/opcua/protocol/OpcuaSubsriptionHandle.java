@@ -34,16 +34,16 @@ import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
 
 import java.time.Instant;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Consumer;
 /**
  * @author Matthias Milan Stlrljic
  * Created by Matthias Milan Stlrljic on 10.05.2019
  */
 public class OpcuaSubsriptionHandle implements PlcSubscriptionHandle {
-    Set< Consumer<PlcSubscriptionEvent>> consumers = new HashSet<>();
+    Set< Consumer<PlcSubscriptionEvent>> consumers = new CopyOnWriteArraySet<>();
     String fieldName;
     public UInteger getClientHandle() {
         return clientHandle;
@@ -52,8 +52,14 @@ public class OpcuaSubsriptionHandle implements PlcSubscriptionHandle {
     UInteger clientHandle;
 
     public  OpcuaSubsriptionHandle(String fieldName, UInteger clientHandle){
+        this.fieldName = fieldName;
         this.clientHandle = clientHandle;
     }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
     @Override
     public PlcConsumerRegistration register(Consumer<PlcSubscriptionEvent> consumer) {
         consumers.add(consumer);
@@ -0,0 +1,129 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+*/
+package org.apache.plc4x.java.opcua.connection;
+
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaMonitoredItem;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscription;
+import org.eclipse.milo.opcua.sdk.client.api.subscriptions.UaSubscriptionManager;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.TimestampsToReturn;
+import org.eclipse.milo.opcua.stack.core.types.structured.MonitoredItemCreateRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OpcuaSubscriptionGroupTest {
+
+    private UaSubscriptionManager subscriptionManager;
+
+    private UaSubscription subscription;
+
+    private final AtomicLong clientHandles = new AtomicLong(1L);
+
+    private OpcuaSubscriptionGroup SUT;
+
+    @BeforeEach
+    public void before() {
+        subscriptionManager = mock(UaSubscriptionManager.class);
+        subscription = mock(UaSubscription.class);
+        when(subscription.getSubscriptionId()).thenReturn(uint(1));
+        when(subscriptionManager.createSubscription(anyDouble())).thenReturn(CompletableFuture.completedFuture(subscription));
+        when(subscriptionManager.deleteSubscription(any())).thenReturn(CompletableFuture.completedFuture(subscription));
+        when(subscription.createMonitoredItems(eq(TimestampsToReturn.Both), anyList(), any(BiConsumer.class))).thenAnswer(invocation -> {
+            List<MonitoredItemCreateRequest> requests = invocation.getArgument(1);
+            List<UaMonitoredItem> items = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                UaMonitoredItem item = mock(UaMonitoredItem.class);
+                when(item.getClientHandle()).thenReturn(uint(clientHandles.getAndIncrement()));
+                when(item.getStatusCode()).thenReturn(StatusCode.GOOD);
+                items.add(item);
+            }
+            return CompletableFuture.completedFuture(items);
+        });
+        when(subscription.deleteMonitoredItems(anyList())).thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+        SUT = new OpcuaSubscriptionGroup(subscriptionManager, 500.0);
+    }
+
+    @Test
+    public void monitoredItemsShareOneSubscription() {
+        List<UaMonitoredItem> first = SUT.createMonitoredItems(requests(2), (item, index) -> { }).join();
+        List<UaMonitoredItem> second = SUT.createMonitoredItems(requests(3), (item, index) -> { }).join();
+
+        assertThat(first, hasSize(2));
+        assertThat(second, hasSize(3));
+        verify(subscriptionManager, times(1)).createSubscription(500.0);
+        verify(subscription, times(2)).createMonitoredItems(eq(TimestampsToReturn.Both), anyList(), any(BiConsumer.class));
+        assertThat(SUT.contains(first.get(0).getClientHandle()), is(true));
+        assertThat(SUT.contains(second.get(2).getClientHandle()), is(true));
+    }
+
+    @Test
+    public void monitoredItemsAreCreatedInBatches() {
+        int numberOfItems = OpcuaSubscriptionGroup.MAX_MONITORED_ITEMS_PER_CALL * 2 + 1;
+        List<UaMonitoredItem> items = SUT.createMonitoredItems(requests(numberOfItems), (item, index) -> { }).join();
+
+        assertThat(items, hasSize(numberOfItems));
+        verify(subscription, times(3)).createMonitoredItems(eq(TimestampsToReturn.Both), anyList(), any(BiConsumer.class));
+        verify(subscriptionManager, times(1)).createSubscription(anyDouble());
+    }
+
+    @Test
+    public void subscriptionIsDeletedWithItsLastMonitoredItem() {
+        List<UaMonitoredItem> items = SUT.createMonitoredItems(requests(2), (item, index) -> { }).join();
+        UInteger first = items.get(0).getClientHandle();
+        UInteger second = items.get(1).getClientHandle();
+
+        SUT.deleteMonitoredItems(Collections.singletonList(first)).join();
+        assertThat(SUT.contains(first), is(false));
+        verify(subscriptionManager, never()).deleteSubscription(any());
+
+        SUT.deleteMonitoredItems(Collections.singletonList(second)).join();
+        verify(subscriptionManager, times(1)).deleteSubscription(uint(1));
+
+        // A new item creates a new subscription.
+        SUT.createMonitoredItems(requests(1), (item, index) -> { }).join();
+        verify(subscriptionManager, times(2)).createSubscription(500.0);
+    }
+
+    // The group passes the requests on to the subscription as they are, so their content doesn't matter here.
+    private static List<MonitoredItemCreateRequest> requests(int numberOfItems) {
+        return Collections.nCopies(numberOfItems, null);
+    }
+}
@@ -18,8 +18,26 @@
 */
 package org.apache.plc4x.java.opcua.connection;
 
+import org.eclipse.milo.opcua.stack.core.StatusCodes;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 /**
  * @author Matthias Milan Stlrljic
  * Created by Matthias Milan Stlrljic on 10.05.2019
@@ -33,4 +51,64 @@ public class OpcuaTcpPlcConnectionTest {
     public void after() {
 
     }
+
+    @Test
+    public void requestsAreSplitAtTheOperationLimit() {
+        List<int[]> serviceCalls = new ArrayList<>();
+        List<CompletableFuture<List<Integer>>> pendingCalls = new ArrayList<>();
+        CompletableFuture<List<Integer>> results = OpcuaTcpPlcConnection.inChunks(7, 3, (from, to) -> {
+            serviceCalls.add(new int[]{from, to});
+            CompletableFuture<List<Integer>> call = new CompletableFuture<>();
+            pendingCalls.add(call);
+            return call;
+        });
+
+        // All chunks are sent at once.
+        assertThat(serviceCalls.size(), is(3));
+        assertThat(serviceCalls.get(0), equalTo(new int[]{0, 3}));
+        assertThat(serviceCalls.get(1), equalTo(new int[]{3, 6}));
+        assertThat(serviceCalls.get(2), equalTo(new int[]{6, 7}));
+
+        // The responses arrive in reverse order but are reassembled in the order of the request.
+        for (int i = serviceCalls.size() - 1; i >= 0; i--) {
+            int[] range = serviceCalls.get(i);
+            pendingCalls.get(i).complete(IntStream.range(range[0], range[1]).boxed().collect(Collectors.toList()));
+            assertThat(results.isDone(), is(i == 0));
+        }
+        assertThat(results.join(), contains(0, 1, 2, 3, 4, 5, 6));
+    }
+
+    @Test
+    public void failedChunksOnlyFailTheirOwnNodes() {
+        List<Integer> results = OpcuaTcpPlcConnection.<Integer>inChunks(5, 2, (from, to) -> {
+            if (from == 2) {
+                CompletableFuture<List<Integer>> failed = new CompletableFuture<>();
+                failed.completeExceptionally(new IllegalStateException("BadTooManyOperations"));
+                return failed;
+            }
+            return CompletableFuture.completedFuture(IntStream.range(from, to).boxed().collect(Collectors.toList()));
+        }).join();
+
+        assertThat(results, contains(0, 1, null, null, 4));
+    }
+
+    @Test
+    public void unlimitedRequestsAreSentAtOnce() {
+        List<int[]> serviceCalls = new ArrayList<>();
+        List<Integer> results = OpcuaTcpPlcConnection.<Integer>inChunks(4, Integer.MAX_VALUE, (from, to) -> {
+            serviceCalls.add(new int[]{from, to});
+            return CompletableFuture.completedFuture(Arrays.asList(0, 1, 2, 3));
+        }).join();
+
+        assertThat(serviceCalls.size(), is(1));
+        assertThat(results, contains(0, 1, 2, 3));
+    }
+
+    @Test
+    public void missingOrZeroOperationLimitsMeanUnlimited() {
+        assertThat(OpcuaTcpPlcConnection.toLimit(new DataValue(new Variant(uint(100)))), is(100));
+        assertThat(OpcuaTcpPlcConnection.toLimit(new DataValue(new Variant(uint(0)))), is(Integer.MAX_VALUE));
+        assertThat(OpcuaTcpPlcConnection.toLimit(new DataValue(new StatusCode(StatusCodes.Bad_NodeIdUnknown))), is(Integer.MAX_VALUE));
+        assertThat(OpcuaTcpPlcConnection.toLimit(null), is(Integer.MAX_VALUE));
+    }
 }
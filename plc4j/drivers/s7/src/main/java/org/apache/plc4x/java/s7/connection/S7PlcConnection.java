@@ -23,19 +23,28 @@ import io.netty.channel.*;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.SystemConfiguration;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
-import org.apache.plc4x.java.api.messages.PlcReadRequest;
-import org.apache.plc4x.java.api.messages.PlcReadResponse;
-import org.apache.plc4x.java.api.messages.PlcWriteRequest;
-import org.apache.plc4x.java.api.messages.PlcWriteResponse;
+import org.apache.plc4x.java.api.exceptions.PlcProtocolException;
+import org.apache.plc4x.java.api.exceptions.PlcUnsupportedOperationException;
+import org.apache.plc4x.java.api.messages.*;
+import org.apache.plc4x.java.api.model.PlcConsumerRegistration;
 import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.types.PlcSubscriptionType;
 import org.apache.plc4x.java.base.connection.ChannelFactory;
 import org.apache.plc4x.java.base.connection.NettyPlcConnection;
+import org.apache.plc4x.java.base.connection.PollingPlcSubscriber;
 import org.apache.plc4x.java.base.connection.TcpSocketChannelFactory;
 import org.apache.plc4x.java.base.events.ConnectEvent;
 import org.apache.plc4x.java.base.events.ConnectedEvent;
 import org.apache.plc4x.java.base.messages.*;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+import org.apache.plc4x.java.base.model.DefaultPlcConsumerRegistration;
+import org.apache.plc4x.java.base.model.InternalPlcSubscriptionHandle;
+import org.apache.plc4x.java.base.model.SubscriptionPlcField;
 import org.apache.plc4x.java.isoontcp.protocol.IsoOnTcpProtocol;
 import org.apache.plc4x.java.isotp.protocol.IsoTPProtocol;
 import org.apache.plc4x.java.isotp.protocol.model.tpdus.DisconnectRequestTpdu;
@@ -43,8 +52,11 @@ import org.apache.plc4x.java.isotp.protocol.model.types.DeviceGroup;
 import org.apache.plc4x.java.isotp.protocol.model.types.DisconnectReason;
 import org.apache.plc4x.java.isotp.protocol.model.types.TpduSize;
 import org.apache.plc4x.java.s7.model.S7Field;
+import org.apache.plc4x.java.s7.model.S7SubscriptionHandle;
 import org.apache.plc4x.java.s7.netty.Plc4XS7Protocol;
 import org.apache.plc4x.java.s7.netty.S7Protocol;
+import org.apache.plc4x.java.s7.netty.events.S7ConnectedEvent;
+import org.apache.plc4x.java.s7.netty.events.S7CyclicDataEvent;
 import org.apache.plc4x.java.s7.netty.model.types.MemoryArea;
 import org.apache.plc4x.java.s7.netty.strategies.DefaultS7MessageProcessor;
 import org.apache.plc4x.java.s7.netty.util.S7PlcFieldHandler;
@@ -54,11 +66,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetAddress;
-import java.util.Collections;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Class implementing the Connection handling for Siemens S7.
@@ -78,7 +90,7 @@ import java.util.concurrent.TimeoutException;
  * where the {bit-offset} is optional.
  * All Available Memory Areas for this mode are defined in the {@link MemoryArea} enum.
  */
-public class S7PlcConnection extends NettyPlcConnection implements PlcReader, PlcWriter {
+public class S7PlcConnection extends NettyPlcConnection implements PlcReader, PlcWriter, PlcSubscriber {
 
     private static final int ISO_ON_TCP_PORT = 102;
 
@@ -88,6 +100,14 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
 
     private static final Logger logger = LoggerFactory.getLogger(S7PlcConnection.class);
 
+    // Header, CPU services parameter and payload header of a cyclic job request, each field adds an any-pointer.
+    private static final int CYCLIC_REQUEST_SIZE = 10 + 8 + 8;
+    private static final int CYCLIC_REQUEST_ITEM_SIZE = 12;
+    // Header, CPU services parameter, payload header and item count of the pushed values, each field adds an item
+    // header and its (even) data.
+    private static final int CYCLIC_PUSH_SIZE = 10 + 12 + 4 + 2;
+    private static final int CYCLIC_PUSH_ITEM_SIZE = 4;
+
     private final int rack;
     private final int slot;
 
@@ -95,6 +115,23 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
     private final short paramMaxAmqCaller;
     private final short paramMaxAmqCallee;
     private final S7ControllerType paramControllerType;
+    private final int paramReadCoalescingGap;
+    private final boolean paramLazyReadResponse;
+    private final Duration paramChangeOfStateInterval;
+    private final double paramDeadband;
+
+    private PollingPlcSubscriber subscriber;
+
+    // Set as soon as the PLC reported it doesn't support cyclic jobs, from then on all subscriptions are polled.
+    private volatile boolean cyclicServicesRejected;
+
+    // The pdu size negotiated with the PLC, which limits the number of fields of a cyclic job.
+    private volatile short negotiatedPduSize;
+
+    // All access is synchronized on this
+    private final Set<S7SubscriptionHandle> cyclicHandles = new HashSet<>();
+
+    private final Map<PlcConsumerRegistration, CyclicRegistration> cyclicRegistrations = new ConcurrentHashMap<>();
 
     public S7PlcConnection(InetAddress address, int rack, int slot, String params) {
         this(new TcpSocketChannelFactory(address, ISO_ON_TCP_PORT), rack, slot, params);
@@ -114,6 +151,10 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
         short curParamMaxAmqCaller = 8;
         short curParamMaxAmqCallee = 8;
         S7ControllerType curParamControllerType = S7ControllerType.ANY;
+        int curParamReadCoalescingGap = DefaultS7MessageProcessor.DEFAULT_READ_COALESCING_GAP;
+        boolean curParamLazyReadResponse = false;
+        Duration curParamChangeOfStateInterval = PollingPlcSubscriber.DEFAULT_CHANGE_OF_STATE_INTERVAL;
+        double curParamDeadband = 0;
 
         if (!StringUtils.isEmpty(params)) {
             for (String param : params.split("&")) {
@@ -134,6 +175,18 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
                         case "controller-type":
                             curParamControllerType = S7ControllerType.valueOf(paramValue);
                             break;
+                        case "read-coalescing-gap":
+                            curParamReadCoalescingGap = Integer.parseInt(paramValue);
+                            break;
+                        case "lazy-read-response":
+                            curParamLazyReadResponse = Boolean.parseBoolean(paramValue);
+                            break;
+                        case "change-of-state-interval":
+                            curParamChangeOfStateInterval = Duration.ofMillis(Long.parseLong(paramValue));
+                            break;
+                        case "deadband":
+                            curParamDeadband = Double.parseDouble(paramValue);
+                            break;
                         default:
                             logger.debug("Unknown parameter {} with value {}", paramName, paramValue);
                     }
@@ -156,6 +209,11 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
         this.paramMaxAmqCaller = curParamMaxAmqCaller;
         this.paramMaxAmqCallee = curParamMaxAmqCallee;
         this.paramControllerType = curParamControllerType;
+        this.paramReadCoalescingGap = curParamReadCoalescingGap;
+        this.paramLazyReadResponse = curParamLazyReadResponse;
+        this.paramChangeOfStateInterval = curParamChangeOfStateInterval;
+        this.paramDeadband = curParamDeadband;
+        this.negotiatedPduSize = curParamPduSize;
     }
 
     @Override
@@ -163,6 +221,11 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
         return true;
     }
 
+    @Override
+    public boolean canSubscribe() {
+        return true;
+    }
+
     @Override
     public boolean canWrite() {
         return true;
@@ -183,6 +246,11 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
                     public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
                         if (evt instanceof ConnectedEvent) {
                             sessionSetupCompleteFuture.complete(null);
+                        } else if (evt instanceof S7ConnectedEvent) {
+                            negotiatedPduSize = ((S7ConnectedEvent) evt).getPduSize();
+                            super.userEventTriggered(ctx, evt);
+                        } else if (evt instanceof S7CyclicDataEvent) {
+                            dispatch((S7CyclicDataEvent) evt);
                         } else {
                             super.userEventTriggered(ctx, evt);
                         }
@@ -191,8 +259,8 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
                 pipeline.addLast(new IsoOnTcpProtocol());
                 pipeline.addLast(new IsoTPProtocol(callingTsapId, calledTsapId, TpduSize.valueForGivenSize(paramPduSize)));
                 pipeline.addLast(new S7Protocol(paramMaxAmqCaller, paramMaxAmqCallee, paramPduSize, paramControllerType,
-                    new DefaultS7MessageProcessor()));
-                pipeline.addLast(new Plc4XS7Protocol());
+                    new DefaultS7MessageProcessor(paramReadCoalescingGap)));
+                pipeline.addLast(new Plc4XS7Protocol(paramLazyReadResponse));
             }
         };
     }
@@ -232,8 +300,21 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
         return paramControllerType;
     }
 
+    public int getParamReadCoalescingGap() {
+        return paramReadCoalescingGap;
+    }
+
     @Override
     public void close() throws PlcConnectionException {
+        synchronized (this) {
+            if (subscriber != null) {
+                subscriber.close();
+                subscriber = null;
+            }
+            // The PLC removes all cyclic jobs of a connection as soon as it's closed.
+            cyclicHandles.clear();
+        }
+        cyclicRegistrations.clear();
         if ((channel != null) && channel.isOpen()) {
             // Send the PLC a message that the connection is being closed.
             DisconnectRequestTpdu disconnectRequest = new DisconnectRequestTpdu(
@@ -262,13 +343,8 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
             } catch (ExecutionException e) {
                 throw new PlcConnectionException(e);
             }
-
-            // Do some additional cleanup operations ...
-            // In normal operation, the channels event loop has a parent, however when running with
-            // the embedded channel for unit tests, parent is null.
-            if (channel.eventLoop().parent() != null) {
-                channel.eventLoop().parent().shutdownGracefully();
-            }
+            // The event loop group is shared with other connections and is released by the channel factory
+            // as soon as the channel is closed, so there's nothing more to clean up here.
         }
         super.close();
     }
@@ -283,6 +359,16 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
         return new DefaultPlcWriteRequest.Builder(this, new S7PlcFieldHandler());
     }
 
+    @Override
+    public PlcSubscriptionRequest.Builder subscriptionRequestBuilder() {
+        return new DefaultPlcSubscriptionRequest.Builder(this, new S7PlcFieldHandler());
+    }
+
+    @Override
+    public PlcUnsubscriptionRequest.Builder unsubscriptionRequestBuilder() {
+        return new DefaultPlcUnsubscriptionRequest.Builder(this);
+    }
+
     @Override
     public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
         InternalPlcReadRequest internalReadRequest = checkInternal(readRequest, InternalPlcReadRequest.class);
@@ -313,4 +399,248 @@ public class S7PlcConnection extends NettyPlcConnection implements PlcReader, Pl
             .thenApply(PlcWriteResponse.class::cast);
     }
 
+    /**
+     * Cyclic subscriptions are registered as cyclic jobs on the PLC, which pushes the values of all fields of a job
+     * with the requested interval. One job is registered per interval, which is split into several jobs if its request
+     * or its pushed values don't fit into one pdu. S7-1200, S7-1500 and LOGO devices don't support these jobs, so their
+     * subscriptions are served by polling the subscribed fields with this connection, just as change of state
+     * subscriptions and the subscriptions of jobs the PLC rejected.
+     */
+    @Override
+    public CompletableFuture<PlcSubscriptionResponse> subscribe(PlcSubscriptionRequest subscriptionRequest) {
+        InternalPlcSubscriptionRequest internalSubscriptionRequest =
+            checkInternal(subscriptionRequest, InternalPlcSubscriptionRequest.class);
+        Map<Duration, LinkedHashMap<String, SubscriptionPlcField>> cyclicFields = new LinkedHashMap<>();
+        LinkedHashMap<String, SubscriptionPlcField> polledFields = new LinkedHashMap<>();
+        internalSubscriptionRequest.getSubscriptionPlcFieldMap().forEach((name, subscriptionPlcField) -> {
+            Optional<Duration> interval = subscriptionPlcField.getDuration();
+            if (supportsCyclicServices() && interval.isPresent()
+                && (subscriptionPlcField.getPlcSubscriptionType() == PlcSubscriptionType.CYCLIC)) {
+                cyclicFields.computeIfAbsent(interval.get(), key -> new LinkedHashMap<>()).put(name, subscriptionPlcField);
+            } else {
+                polledFields.put(name, subscriptionPlcField);
+            }
+        });
+
+        List<LinkedHashMap<String, SubscriptionPlcField>> jobs = new LinkedList<>();
+        cyclicFields.values().forEach(fields -> jobs.addAll(splitCyclicJob(fields, polledFields)));
+
+        List<CompletableFuture<PlcSubscriptionResponse>> futures = new LinkedList<>();
+        if (!polledFields.isEmpty()) {
+            futures.add(getSubscriber().subscribe(new DefaultPlcSubscriptionRequest(this, polledFields)));
+        }
+        jobs.forEach(fields -> futures.add(subscribeCyclic(fields)));
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignore -> {
+            Map<String, Pair<PlcResponseCode, PlcSubscriptionHandle>> values = new HashMap<>();
+            for (CompletableFuture<PlcSubscriptionResponse> future : futures) {
+                values.putAll(((InternalPlcSubscriptionResponse) future.join()).getValues());
+            }
+            return new DefaultPlcSubscriptionResponse(internalSubscriptionRequest, values);
+        });
+    }
+
+    /**
+     * @param fields       fields of one interval.
+     * @param polledFields fields which don't fit into a job of their own are added to these.
+     * @return the fields grouped into jobs which fit into the negotiated pdu size.
+     */
+    private List<LinkedHashMap<String, SubscriptionPlcField>> splitCyclicJob(LinkedHashMap<String, SubscriptionPlcField> fields,
+                                                                           Map<String, SubscriptionPlcField> polledFields) {
+        int pduSize = negotiatedPduSize;
+        List<LinkedHashMap<String, SubscriptionPlcField>> jobs = new LinkedList<>();
+        LinkedHashMap<String, SubscriptionPlcField> job = new LinkedHashMap<>();
+        int requestSize = CYCLIC_REQUEST_SIZE;
+        int pushSize = CYCLIC_PUSH_SIZE;
+        for (Map.Entry<String, SubscriptionPlcField> entry : fields.entrySet()) {
+            S7Field field = (S7Field) entry.getValue().getPlcField();
+            int dataSize = field.getDataType().getSizeInBytes() * field.getNumElements();
+            int itemPushSize = CYCLIC_PUSH_ITEM_SIZE + dataSize + (dataSize % 2);
+            if ((CYCLIC_REQUEST_SIZE + CYCLIC_REQUEST_ITEM_SIZE > pduSize) || (CYCLIC_PUSH_SIZE + itemPushSize > pduSize)) {
+                polledFields.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            if (!job.isEmpty()
+                && ((requestSize + CYCLIC_REQUEST_ITEM_SIZE > pduSize) || (pushSize + itemPushSize > pduSize))) {
+                jobs.add(job);
+                job = new LinkedHashMap<>();
+                requestSize = CYCLIC_REQUEST_SIZE;
+                pushSize = CYCLIC_PUSH_SIZE;
+            }
+            job.put(entry.getKey(), entry.getValue());
+            requestSize += CYCLIC_REQUEST_ITEM_SIZE;
+            pushSize += itemPushSize;
+        }
+        if (!job.isEmpty()) {
+            jobs.add(job);
+        }
+        return jobs;
+    }
+
+    boolean supportsCyclicServices() {
+        return !cyclicServicesRejected && (paramControllerType != S7ControllerType.S7_1200)
+            && (paramControllerType != S7ControllerType.S7_1500) && (paramControllerType != S7ControllerType.LOGO);
+    }
+
+    private CompletableFuture<PlcSubscriptionResponse> subscribeCyclic(LinkedHashMap<String, SubscriptionPlcField> fields) {
+        DefaultPlcSubscriptionRequest cyclicRequest = new DefaultPlcSubscriptionRequest(this, fields);
+        CompletableFuture<InternalPlcSubscriptionResponse> future = new CompletableFuture<>();
+        PlcRequestContainer<InternalPlcSubscriptionRequest, InternalPlcSubscriptionResponse> container =
+            new PlcRequestContainer<>(cyclicRequest, future);
+        channel.writeAndFlush(container).addListener(f -> {
+            if (!f.isSuccess()) {
+                future.completeExceptionally(f.cause());
+            }
+        });
+        return future.handle((response, throwable) -> {
+            if (throwable == null) {
+                synchronized (this) {
+                    for (Pair<PlcResponseCode, PlcSubscriptionHandle> value : response.getValues().values()) {
+                        if (value.getValue() instanceof S7SubscriptionHandle) {
+                            cyclicHandles.add((S7SubscriptionHandle) value.getValue());
+                        }
+                    }
+                }
+                return CompletableFuture.completedFuture((PlcSubscriptionResponse) response);
+            }
+            Throwable cause = (throwable instanceof CompletionException) ? throwable.getCause() : throwable;
+            if (cause instanceof PlcUnsupportedOperationException) {
+                // No need to try again with later subscriptions.
+                logger.info("Falling back to polling subscriptions: {}", cause.getMessage());
+                cyclicServicesRejected = true;
+            } else if (cause instanceof PlcProtocolException) {
+                // The PLC can't handle this job (e.g. it has no resources left), but may accept later ones.
+                logger.info("Polling the fields of the rejected cyclic job: {}", cause.getMessage());
+            } else {
+                CompletableFuture<PlcSubscriptionResponse> failed = new CompletableFuture<>();
+                failed.completeExceptionally(cause);
+                return failed;
+            }
+            return getSubscriber().subscribe(new DefaultPlcSubscriptionRequest(this, fields));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * A cyclic job is only removed from the PLC, when all of its handles are unsubscribed.
+     */
+    @Override
+    public CompletableFuture<PlcUnsubscriptionResponse> unsubscribe(PlcUnsubscriptionRequest unsubscriptionRequest) {
+        InternalPlcUnsubscriptionRequest internalUnsubscriptionRequest =
+            checkInternal(unsubscriptionRequest, InternalPlcUnsubscriptionRequest.class);
+        List<InternalPlcSubscriptionHandle> polledHandles = new LinkedList<>();
+        Map<Byte, List<S7SubscriptionHandle>> removedJobs = new HashMap<>();
+        synchronized (this) {
+            for (InternalPlcSubscriptionHandle handle : internalUnsubscriptionRequest.getInternalPlcSubscriptionHandles()) {
+                if (!(handle instanceof S7SubscriptionHandle)) {
+                    polledHandles.add(handle);
+                    continue;
+                }
+                S7SubscriptionHandle cyclicHandle = (S7SubscriptionHandle) handle;
+                if (cyclicHandles.remove(cyclicHandle)) {
+                    removedJobs.computeIfAbsent(cyclicHandle.getJobId(), key -> new LinkedList<>()).add(cyclicHandle);
+                }
+            }
+            // Jobs which still have subscribed handles are kept.
+            for (S7SubscriptionHandle cyclicHandle : cyclicHandles) {
+                removedJobs.remove(cyclicHandle.getJobId());
+            }
+        }
+
+        List<CompletableFuture<?>> futures = new LinkedList<>();
+        if (!polledHandles.isEmpty()) {
+            futures.add(getSubscriber().unsubscribe(new DefaultPlcUnsubscriptionRequest(this, polledHandles)));
+        }
+        for (List<S7SubscriptionHandle> jobHandles : removedJobs.values()) {
+            CompletableFuture<InternalPlcUnsubscriptionResponse> future = new CompletableFuture<>();
+            PlcRequestContainer<InternalPlcUnsubscriptionRequest, InternalPlcUnsubscriptionResponse> container =
+                new PlcRequestContainer<>(new DefaultPlcUnsubscriptionRequest(this, jobHandles), future);
+            channel.writeAndFlush(container).addListener(f -> {
+                if (!f.isSuccess()) {
+                    future.completeExceptionally(f.cause());
+                }
+            });
+            futures.add(future);
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(ignore -> new DefaultPlcUnsubscriptionResponse(internalUnsubscriptionRequest));
+    }
+
+    @Override
+    public PlcConsumerRegistration register(Consumer<PlcSubscriptionEvent> consumer, Collection<PlcSubscriptionHandle> handles) {
+        Set<S7SubscriptionHandle> registeredCyclicHandles = new HashSet<>();
+        List<PlcSubscriptionHandle> polledHandles = new LinkedList<>();
+        for (PlcSubscriptionHandle handle : handles) {
+            if (handle instanceof S7SubscriptionHandle) {
+                registeredCyclicHandles.add((S7SubscriptionHandle) handle);
+            } else {
+                polledHandles.add(handle);
+            }
+        }
+        if (registeredCyclicHandles.isEmpty()) {
+            return getSubscriber().register(consumer, handles);
+        }
+        PlcConsumerRegistration polledRegistration =
+            polledHandles.isEmpty() ? null : getSubscriber().register(consumer, polledHandles);
+        PlcConsumerRegistration registration = new DefaultPlcConsumerRegistration(this, consumer,
+            handles.toArray(new InternalPlcSubscriptionHandle[0]));
+        cyclicRegistrations.put(registration, new CyclicRegistration(consumer, registeredCyclicHandles, polledRegistration));
+        return registration;
+    }
+
+    @Override
+    public void unregister(PlcConsumerRegistration registration) {
+        CyclicRegistration cyclicRegistration = cyclicRegistrations.remove(registration);
+        if (cyclicRegistration == null) {
+            getSubscriber().unregister(registration);
+        } else if (cyclicRegistration.polledRegistration != null) {
+            getSubscriber().unregister(cyclicRegistration.polledRegistration);
+        }
+    }
+
+    /**
+     * Passes the values pushed for a cyclic job to all consumers registered for any of its handles. This runs on the
+     * event loop of the connection, so consumers shouldn't block.
+     */
+    private void dispatch(S7CyclicDataEvent event) {
+        for (CyclicRegistration registration : cyclicRegistrations.values()) {
+            Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> fields = new HashMap<>();
+            event.getValues().forEach((handle, value) -> {
+                if (registration.handles.contains(handle)) {
+                    fields.put(handle.getFieldName(), value);
+                }
+            });
+            if (fields.isEmpty()) {
+                continue;
+            }
+            try {
+                registration.consumer.accept(new DefaultPlcSubscriptionEvent(event.getTimestamp(), fields));
+            } catch (RuntimeException e) {
+                logger.warn("Consumer failed to handle subscription event", e);
+            }
+        }
+    }
+
+    private synchronized PollingPlcSubscriber getSubscriber() {
+        if (subscriber == null) {
+            subscriber = new PollingPlcSubscriber(this, paramChangeOfStateInterval, paramDeadband, null);
+        }
+        return subscriber;
+    }
+
+    private static final class CyclicRegistration {
+
+        private final Consumer<PlcSubscriptionEvent> consumer;
+
+        private final Set<S7SubscriptionHandle> handles;
+
+        // Registration of the polled handles registered together with the cyclic ones
+        private final PlcConsumerRegistration polledRegistration;
+
+        private CyclicRegistration(Consumer<PlcSubscriptionEvent> consumer, Set<S7SubscriptionHandle> handles,
+                                   PlcConsumerRegistration polledRegistration) {
+            this.consumer = consumer;
+            this.handles = handles;
+            this.polledRegistration = polledRegistration;
+        }
+    }
+
 }
@@ -18,21 +18,28 @@ under the License.
 */
 package org.apache.plc4x.java.s7.connection;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
-import org.apache.plc4x.java.api.messages.PlcReadRequest;
-import org.apache.plc4x.java.api.messages.PlcReadResponse;
-import org.apache.plc4x.java.api.messages.PlcWriteRequest;
-import org.apache.plc4x.java.api.messages.PlcWriteResponse;
+import org.apache.plc4x.java.api.messages.*;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.s7.model.S7SubscriptionHandle;
 import org.apache.plc4x.test.RequirePcapNg;
 import org.junit.Rule;
 import org.junit.jupiter.api.*;
 import org.junit.rules.Timeout;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.junit.Assert.assertThat;
 
@@ -134,4 +141,112 @@ public class S7PlcConnectionIT {
         SUT.close();
     }
 
+    /**
+     * Registers a cyclic job on the PLC, replays values pushed by the PLC for it and removes it again.
+     */
+    @Test
+    public void subscribeCyclic() throws Exception {
+        SUT.connect();
+        EmbeddedChannel channel = (EmbeddedChannel) SUT.getChannel();
+
+        PlcSubscriptionRequest request = SUT.subscriptionRequestBuilder()
+            .addCyclicField("int", "%DB1.DBW0:INT", Duration.ofMillis(500))
+            .addCyclicField("real", "%DB1.DBD2:REAL", Duration.ofMillis(500))
+            .build();
+        CompletableFuture<PlcSubscriptionResponse> responseFuture = SUT.subscribe(request);
+        byte[] pduReference = verifyRequest(channel, "org/apache/plc4x/java/s7/connection/s7-cyclic-subscribe-request.pcap");
+        sendResponse(channel, "org/apache/plc4x/java/s7/connection/s7-cyclic-subscribe-response.pcap", pduReference);
+
+        PlcSubscriptionResponse response = responseFuture.get(200, TimeUnit.MILLISECONDS);
+        assertThat(response.getResponseCode("int"), equalTo(PlcResponseCode.OK));
+        assertThat(response.getResponseCode("real"), equalTo(PlcResponseCode.OK));
+        PlcSubscriptionHandle intHandle = response.getSubscriptionHandle("int");
+        assertThat(intHandle, instanceOf(S7SubscriptionHandle.class));
+        assertThat(((S7SubscriptionHandle) intHandle).getJobId(), equalTo((byte) 3));
+
+        // Each consumer only gets the values of the handles it registered for.
+        List<PlcSubscriptionEvent> intEvents = new ArrayList<>();
+        List<PlcSubscriptionEvent> allEvents = new ArrayList<>();
+        intHandle.register(intEvents::add);
+        SUT.register(allEvents::add, response.getSubscriptionHandles());
+
+        channel.writeInbound(Unpooled.wrappedBuffer(
+            S7PlcTestConnection.readPcapFile("org/apache/plc4x/java/s7/connection/s7-cyclic-push.pcap")));
+
+        assertThat(intEvents.size(), equalTo(1));
+        assertThat(intEvents.get(0).getFieldNames().size(), equalTo(1));
+        assertThat(intEvents.get(0).getShort("int"), equalTo((short) 42));
+        assertThat(allEvents.size(), equalTo(1));
+        assertThat(allEvents.get(0).getShort("int"), equalTo((short) 42));
+        assertThat(allEvents.get(0).getFloat("real"), equalTo(1.5f));
+
+        // The job is only removed together with its last handle.
+        CompletableFuture<PlcUnsubscriptionResponse> unsubscribeFuture =
+            SUT.unsubscribe(SUT.unsubscriptionRequestBuilder().addHandles(intHandle).build());
+        assertThat(unsubscribeFuture.isDone(), is(true));
+        assertThat(channel.outboundMessages().size(), equalTo(0));
+
+        unsubscribeFuture = SUT.unsubscribe(
+            SUT.unsubscriptionRequestBuilder().addHandles(response.getSubscriptionHandle("real")).build());
+        pduReference = verifyRequest(channel, "org/apache/plc4x/java/s7/connection/s7-cyclic-unsubscribe-request.pcap");
+        sendResponse(channel, "org/apache/plc4x/java/s7/connection/s7-cyclic-unsubscribe-response.pcap", pduReference);
+        assertThat(unsubscribeFuture.get(200, TimeUnit.MILLISECONDS), notNullValue());
+
+        // Values still pushed for the removed job are dropped.
+        channel.writeInbound(Unpooled.wrappedBuffer(
+            S7PlcTestConnection.readPcapFile("org/apache/plc4x/java/s7/connection/s7-cyclic-push.pcap")));
+        assertThat(allEvents.size(), equalTo(1));
+
+        SUT.close();
+    }
+
+    /**
+     * The connection requested a pdu size of 128, but the PLC negotiated 256, so 19 fields fit into the first job.
+     */
+    @Test
+    public void subscribeCyclicSplitsJobsByThePduSize() throws Exception {
+        SUT.connect();
+        EmbeddedChannel channel = (EmbeddedChannel) SUT.getChannel();
+
+        PlcSubscriptionRequest.Builder builder = SUT.subscriptionRequestBuilder();
+        for (int i = 0; i < 20; i++) {
+            builder.addCyclicField("int" + i, "%DB1.DBW" + (i * 2) + ":INT", Duration.ofMillis(500));
+        }
+        SUT.subscribe(builder.build());
+
+        assertThat(channel.outboundMessages().size(), equalTo(2));
+        ByteBuf firstJob = channel.readOutbound();
+        ByteBuf secondJob = channel.readOutbound();
+        // The item count follows the TPKT, COTP and S7 header, the CPU services parameter and the payload header.
+        assertThat(firstJob.getShort(4 + 3 + 10 + 8 + 4), equalTo((short) 19));
+        assertThat(secondJob.getShort(4 + 3 + 10 + 8 + 4), equalTo((short) 1));
+
+        SUT.close();
+    }
+
+    /**
+     * Compares the request written to the channel with the reference, ignoring the generated pdu reference.
+     *
+     * @return the pdu reference of the request.
+     */
+    private static byte[] verifyRequest(EmbeddedChannel channel, String filename) {
+        byte[] refData = S7PlcTestConnection.readPcapFile(filename);
+        ByteBuf request = channel.readOutbound();
+        assertThat(request, notNullValue());
+        byte[] actData = new byte[request.readableBytes()];
+        request.readBytes(actData);
+        byte[] pduReference = {actData[11], actData[12]};
+        refData[11] = pduReference[0];
+        refData[12] = pduReference[1];
+        assertThat(actData, equalTo(refData));
+        return pduReference;
+    }
+
+    private static void sendResponse(EmbeddedChannel channel, String filename, byte[] pduReference) {
+        byte[] response = S7PlcTestConnection.readPcapFile(filename);
+        response[11] = pduReference[0];
+        response[12] = pduReference[1];
+        channel.writeInbound(Unpooled.wrappedBuffer(response));
+    }
+
 }
@@ -20,7 +20,6 @@
 package org.apache.plc4x.java.s7.connection;
 
 import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
-import org.apache.plc4x.java.api.exceptions.PlcUnsupportedOperationException;
 import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.s7.model.S7Field;
 import org.apache.plc4x.java.s7.netty.model.types.TransportSize;
@@ -31,7 +30,6 @@ import org.junit.Test;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNull.notNullValue;
 import static org.junit.Assert.assertThat;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class S7PlcConnectionTests {
 
@@ -74,9 +72,9 @@ public class S7PlcConnectionTests {
         assertThat(SUT.canWrite(), equalTo(true));
         assertThat(SUT.writeRequestBuilder(), notNullValue());
 
-        assertThat(SUT.canSubscribe(), equalTo(false));
-        assertThrows(PlcUnsupportedOperationException.class, () -> SUT.subscriptionRequestBuilder());
-        assertThrows(PlcUnsupportedOperationException.class, () -> SUT.unsubscriptionRequestBuilder());
+        assertThat(SUT.canSubscribe(), equalTo(true));
+        assertThat(SUT.subscriptionRequestBuilder(), notNullValue());
+        assertThat(SUT.unsubscriptionRequestBuilder(), notNullValue());
     }
 
     @Test
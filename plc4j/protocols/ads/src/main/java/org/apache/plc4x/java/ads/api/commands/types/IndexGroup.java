@@ -82,6 +82,9 @@ public class IndexGroup extends UnsignedIntLEByteValue {
         public static final IndexGroup ADSIGRP_IOIMAGE_CLEARI = IndexGroup.of(0xF040);
         public static final IndexGroup ADSIGRP_IOIMAGE_CLEARO = IndexGroup.of(0xF050);
         public static final IndexGroup ADSIGRP_IOIMAGE_RWIOB = IndexGroup.of(0xF060);
+        public static final IndexGroup ADSIGRP_SUMUP_READ = IndexGroup.of(0xF080);
+        public static final IndexGroup ADSIGRP_SUMUP_WRITE = IndexGroup.of(0xF081);
+        public static final IndexGroup ADSIGRP_SUMUP_READWRITE = IndexGroup.of(0xF082);
         public static final IndexGroup ADSIGRP_DEVICE_DATA = IndexGroup.of(0xF100);
         public static final IndexGroup ADSIOFFS_DEVDATA_ADSSTATE = IndexGroup.of(0x0000);
         public static final IndexGroup ADSIOFFS_DEVDATA_DEVSTATE = IndexGroup.of(0x0002);
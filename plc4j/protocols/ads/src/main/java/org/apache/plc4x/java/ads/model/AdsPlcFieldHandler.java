@@ -42,7 +42,7 @@ import java.util.stream.Collectors;
 public class AdsPlcFieldHandler extends DefaultPlcFieldHandler {
 
     @Override
-    public PlcField createField(String fieldQuery) throws PlcInvalidFieldException {
+    protected PlcField parseField(String fieldQuery) throws PlcInvalidFieldException {
         if (DirectAdsField.matches(fieldQuery)) {
             return DirectAdsField.of(fieldQuery);
         } else if (SymbolicAdsField.matches(fieldQuery)) {
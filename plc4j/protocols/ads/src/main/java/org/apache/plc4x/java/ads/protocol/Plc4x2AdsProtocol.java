@@ -27,7 +27,6 @@ import org.apache.plc4x.java.ads.api.generic.AmsPacket;
 import org.apache.plc4x.java.ads.api.generic.types.AmsNetId;
 import org.apache.plc4x.java.ads.api.generic.types.AmsPort;
 import org.apache.plc4x.java.ads.api.generic.types.Invoke;
-import org.apache.plc4x.java.ads.model.AdsDataType;
 import org.apache.plc4x.java.ads.model.AdsField;
 import org.apache.plc4x.java.ads.model.DirectAdsField;
 import org.apache.plc4x.java.ads.model.SymbolicAdsField;
@@ -47,11 +46,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -59,14 +62,37 @@ import java.util.stream.Collectors;
 import static org.apache.plc4x.java.ads.protocol.util.LittleEndianDecoder.decodeData;
 import static org.apache.plc4x.java.ads.protocol.util.LittleEndianEncoder.encodeData;
 
+/**
+ * Translates plc4x read, write and proprietary requests into ADS commands.
+ * <p>
+ * Read and write requests with a single field are sent as plain {@link AdsReadRequest}/{@link AdsWriteRequest}.
+ * Requests with multiple fields are sent as ADS sum commands ({@code ADSIGRP_SUMUP_READ}/{@code ADSIGRP_SUMUP_WRITE}
+ * wrapped in an {@link AdsReadWriteRequest}), each containing up to {@code maxItemsPerSumRequest} items. Larger
+ * requests are split into multiple sum commands and the per-item return codes are mapped back into one response.
+ */
 public class Plc4x2AdsProtocol extends MessageToMessageCodec<AmsPacket, PlcRequestContainer<InternalPlcRequest, InternalPlcResponse>> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Plc4x2AdsProtocol.class);
 
+    /**
+     * TwinCAT limits the number of sub commands in one sum command to 500.
+     */
+    public static final int DEFAULT_MAX_ITEMS_PER_SUM_REQUEST = 500;
+
+    // Each sum command item is described by index group, index offset and length (4 bytes each).
+    private static final int SUM_ITEM_HEADER_SIZE = IndexGroup.NUM_BYTES + IndexOffset.NUM_BYTES + Length.NUM_BYTES;
+
+    // Each item in the response of a sum command starts with its own 4 byte ADS return code.
+    private static final int SUM_ITEM_RESULT_SIZE = Result.NUM_BYTES;
+
     private static final AtomicLong correlationBuilder = new AtomicLong(1);
 
     private final ConcurrentMap<Long, PlcRequestContainer<InternalPlcRequest, InternalPlcResponse>> requests;
 
+    private final ConcurrentMap<Long, SumRequestChunk> sumRequests;
+
+    private final int maxItemsPerSumRequest;
+
     private final ConcurrentMap<SymbolicAdsField, DirectAdsField> fieldMapping;
 
     private List<Consumer<AdsDeviceNotificationRequest>> deviceNotificationListeners;
@@ -77,11 +103,21 @@ public class Plc4x2AdsProtocol extends MessageToMessageCodec<AmsPacket, PlcReque
     private final AmsPort sourceAmsPort;
 
     public Plc4x2AdsProtocol(AmsNetId targetAmsNetId, AmsPort targetAmsPort, AmsNetId sourceAmsNetId, AmsPort sourceAmsPort, ConcurrentMap<SymbolicAdsField, DirectAdsField> fieldMapping) {
+        this(targetAmsNetId, targetAmsPort, sourceAmsNetId, sourceAmsPort, fieldMapping, DEFAULT_MAX_ITEMS_PER_SUM_REQUEST);
+    }
+
+    /**
+     * @param maxItemsPerSumRequest maximum number of items sent in one sum command. A value smaller than 2 disables
+     *                              sum commands, so only requests with a single field are supported.
+     */
+    public Plc4x2AdsProtocol(AmsNetId targetAmsNetId, AmsPort targetAmsPort, AmsNetId sourceAmsNetId, AmsPort sourceAmsPort, ConcurrentMap<SymbolicAdsField, DirectAdsField> fieldMapping, int maxItemsPerSumRequest) {
         this.targetAmsNetId = targetAmsNetId;
         this.targetAmsPort = targetAmsPort;
         this.sourceAmsNetId = sourceAmsNetId;
         this.sourceAmsPort = sourceAmsPort;
         this.requests = new ConcurrentHashMap<>();
+        this.sumRequests = new ConcurrentHashMap<>();
+        this.maxItemsPerSumRequest = maxItemsPerSumRequest;
         this.fieldMapping = fieldMapping;
         this.deviceNotificationListeners = new LinkedList<>();
     }
@@ -108,8 +144,12 @@ public class Plc4x2AdsProtocol extends MessageToMessageCodec<AmsPacket, PlcReque
             Invoke invokeId = ((AdsException) cause).getInvokeId();
             if (invokeId != null) {
                 PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> remove = requests.remove(invokeId.getAsLong());
+                SumRequestChunk sumRequestChunk = sumRequests.remove(invokeId.getAsLong());
                 if (remove != null) {
                     remove.getResponseFuture().completeExceptionally(new PlcIoException(cause));
+                } else if (sumRequestChunk != null) {
+                    // If one part of a split request fails, the whole request fails.
+                    failSumRequest(sumRequestChunk.sumRequest, new PlcIoException(cause));
                 } else {
                     LOGGER.warn("Unrelated exception received {}", invokeId, cause);
                 }
@@ -128,6 +168,12 @@ public class Plc4x2AdsProtocol extends MessageToMessageCodec<AmsPacket, PlcReque
                 // Clear the list
                 requests.clear();
             }
+            if (!sumRequests.isEmpty()) {
+                for (SumRequestChunk sumRequestChunk : sumRequests.values()) {
+                    sumRequestChunk.sumRequest.container.getResponseFuture().completeExceptionally(new PlcIoException(reason));
+                }
+                sumRequests.clear();
+            }
         } else {
             super.exceptionCaught(ctx, cause);
         }
@@ -136,32 +182,18 @@ public class Plc4x2AdsProtocol extends MessageToMessageCodec<AmsPacket, PlcReque
     private void encodeWriteRequest(PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> msg, List<Object> out) throws PlcException {
         InternalPlcWriteRequest writeRequest = (InternalPlcWriteRequest) msg.getRequest();
         if (writeRequest.getFields().size() != 1) {
-            throw new PlcProtocolException("Only one item supported");
-        }
-        PlcField field = writeRequest.getFields().get(0);
-        if (field instanceof SymbolicAdsField) {
-            DirectAdsField mappedField = fieldMapping.get(field);
-            LOGGER.debug("Replacing {} with {}", field, mappedField);
-            field = mappedField;
-        }
-        if (!(field instanceof DirectAdsField)) {
-            throw new PlcProtocolException("PlcField not of type DirectAdsField: " + field.getClass());
+            if (writeRequest.getFields().isEmpty() || maxItemsPerSumRequest < 2) {
+                throw new PlcProtocolException("Only one item supported");
+            }
+            encodeSumWriteRequest(msg, out);
+            return;
         }
-        DirectAdsField directAdsField = (DirectAdsField) field;
+        DirectAdsField directAdsField = resolveField(writeRequest.getFields().get(0));
         Invoke invokeId = Invoke.of(correlationBuilder.incrementAndGet());
         IndexGroup indexGroup = IndexGroup.of(directAdsField.getIndexGroup());
         IndexOffset indexOffset = IndexOffset.of(directAdsField.getIndexOffset());
 
-        BaseDefaultFieldItem fieldItem = writeRequest.getFieldItems().get(0);
-        Object[] values = fieldItem.getValues();
-
-        byte[] bytes = encodeData(directAdsField.getAdsDataType(), values);
-        int bytesToBeWritten = bytes.length;
-        int maxTheoreticalSize = directAdsField.getAdsDataType().getTargetByteSize() * directAdsField.getNumberOfElements();
-        if (bytesToBeWritten > maxTheoreticalSize) {
-            LOGGER.debug("Requested AdsDatatype {} is exceeded by number of bytes {}. Limit {}.", directAdsField.getAdsDataType(), bytesToBeWritten, maxTheoreticalSize);
-            throw new PlcProtocolPayloadTooBigException("ADS", maxTheoreticalSize, bytesToBeWritten, values);
-        }
+        byte[] bytes = encodeWriteData(directAdsField, writeRequest.getFieldItems().get(0));
         Data data = Data.of(bytes);
         AmsPacket amsPacket = AdsWriteRequest.of(targetAmsNetId, targetAmsPort, sourceAmsNetId, sourceAmsPort, invokeId, indexGroup, indexOffset, data);
         LOGGER.debug("encoded write request {}", amsPacket);
@@ -173,9 +205,109 @@ public class Plc4x2AdsProtocol extends MessageToMessageCodec<AmsPacket, PlcReque
         PlcReadRequest readRequest = (PlcReadRequest) msg.getRequest();
 
         if (readRequest.getFields().size() != 1) {
-            throw new PlcProtocolException("Only one item supported");
+            if (readRequest.getFields().isEmpty() || maxItemsPerSumRequest < 2) {
+                throw new PlcProtocolException("Only one item supported");
+            }
+            encodeSumReadRequest(msg, out);
+            return;
+        }
+        DirectAdsField directAdsField = resolveField(readRequest.getFields().get(0));
+        Invoke invokeId = Invoke.of(correlationBuilder.incrementAndGet());
+        IndexGroup indexGroup = IndexGroup.of(directAdsField.getIndexGroup());
+        IndexOffset indexOffset = IndexOffset.of(directAdsField.getIndexOffset());
+        Length length = Length.of(getReadLength(directAdsField));
+        AmsPacket amsPacket = AdsReadRequest.of(targetAmsNetId, targetAmsPort, sourceAmsNetId, sourceAmsPort, invokeId, indexGroup, indexOffset, length);
+        LOGGER.debug("encoded read request {}", amsPacket);
+        out.add(amsPacket);
+        requests.put(invokeId.getAsLong(), msg);
+    }
+
+    /**
+     * Encodes a read request with multiple fields as one or more {@code ADSIGRP_SUMUP_READ} commands. The request data
+     * contains index group, index offset and length of every item, the response contains the return codes of all items
+     * followed by the data of all items.
+     */
+    private void encodeSumReadRequest(PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> msg, List<Object> out) throws PlcException {
+        InternalPlcReadRequest readRequest = (InternalPlcReadRequest) msg.getRequest();
+        List<String> fieldNames = new ArrayList<>(readRequest.getFieldNames());
+        List<DirectAdsField> fields = new ArrayList<>(fieldNames.size());
+        for (String fieldName : fieldNames) {
+            fields.add(resolveField(readRequest.getField(fieldName)));
         }
-        PlcField field = readRequest.getFields().get(0);
+
+        SumRequest sumRequest = new SumRequest(msg, fieldNames.size(), maxItemsPerSumRequest);
+        List<SumRequestChunk> chunks = new ArrayList<>();
+        for (int start = 0; start < fieldNames.size(); start += maxItemsPerSumRequest) {
+            int end = Math.min(start + maxItemsPerSumRequest, fieldNames.size());
+            List<DirectAdsField> chunkFields = fields.subList(start, end);
+
+            long readLength = (long) chunkFields.size() * SUM_ITEM_RESULT_SIZE;
+            ByteBuffer requestData = ByteBuffer.allocate(chunkFields.size() * SUM_ITEM_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            for (DirectAdsField field : chunkFields) {
+                putItemHeader(requestData, field, getReadLength(field));
+                readLength += getReadLength(field);
+            }
+
+            Invoke invokeId = Invoke.of(correlationBuilder.incrementAndGet());
+            AmsPacket amsPacket = AdsReadWriteRequest.of(targetAmsNetId, targetAmsPort, sourceAmsNetId, sourceAmsPort, invokeId,
+                IndexGroup.ReservedGroups.ADSIGRP_SUMUP_READ, IndexOffset.of(chunkFields.size()), ReadLength.of(readLength), Data.of(requestData.array()));
+            LOGGER.debug("encoded sum read request {}", amsPacket);
+            out.add(amsPacket);
+            chunks.add(new SumRequestChunk(invokeId.getAsLong(), sumRequest, fieldNames.subList(start, end), chunkFields));
+            sumRequest.chunkInvokeIds.add(invokeId.getAsLong());
+        }
+        // Only register the chunks after everything is encoded, so a failing encoding doesn't leave dangling chunks.
+        chunks.forEach(chunk -> sumRequests.put(chunk.invokeId, chunk));
+    }
+
+    /**
+     * Encodes a write request with multiple fields as one or more {@code ADSIGRP_SUMUP_WRITE} commands. The request
+     * data contains index group, index offset and length of every item followed by the data of all items, the
+     * response contains the return codes of all items.
+     */
+    private void encodeSumWriteRequest(PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> msg, List<Object> out) throws PlcException {
+        InternalPlcWriteRequest writeRequest = (InternalPlcWriteRequest) msg.getRequest();
+        List<String> fieldNames = new ArrayList<>(writeRequest.getFieldNames());
+        List<DirectAdsField> fields = new ArrayList<>(fieldNames.size());
+        List<byte[]> values = new ArrayList<>(fieldNames.size());
+        for (String fieldName : fieldNames) {
+            DirectAdsField directAdsField = resolveField(writeRequest.getField(fieldName));
+            fields.add(directAdsField);
+            values.add(encodeWriteData(directAdsField, writeRequest.getFieldItem(fieldName)));
+        }
+
+        SumRequest sumRequest = new SumRequest(msg, fieldNames.size(), maxItemsPerSumRequest);
+        List<SumRequestChunk> chunks = new ArrayList<>();
+        for (int start = 0; start < fieldNames.size(); start += maxItemsPerSumRequest) {
+            int end = Math.min(start + maxItemsPerSumRequest, fieldNames.size());
+            List<DirectAdsField> chunkFields = fields.subList(start, end);
+            List<byte[]> chunkValues = values.subList(start, end);
+
+            int dataSize = chunkFields.size() * SUM_ITEM_HEADER_SIZE + chunkValues.stream().mapToInt(bytes -> bytes.length).sum();
+            ByteBuffer requestData = ByteBuffer.allocate(dataSize).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < chunkFields.size(); i++) {
+                putItemHeader(requestData, chunkFields.get(i), chunkValues.get(i).length);
+            }
+            chunkValues.forEach(requestData::put);
+
+            Invoke invokeId = Invoke.of(correlationBuilder.incrementAndGet());
+            AmsPacket amsPacket = AdsReadWriteRequest.of(targetAmsNetId, targetAmsPort, sourceAmsNetId, sourceAmsPort, invokeId,
+                IndexGroup.ReservedGroups.ADSIGRP_SUMUP_WRITE, IndexOffset.of(chunkFields.size()), ReadLength.of((long) chunkFields.size() * SUM_ITEM_RESULT_SIZE), Data.of(requestData.array()));
+            LOGGER.debug("encoded sum write request {}", amsPacket);
+            out.add(amsPacket);
+            chunks.add(new SumRequestChunk(invokeId.getAsLong(), sumRequest, fieldNames.subList(start, end), chunkFields));
+            sumRequest.chunkInvokeIds.add(invokeId.getAsLong());
+        }
+        chunks.forEach(chunk -> sumRequests.put(chunk.invokeId, chunk));
+    }
+
+    private static void putItemHeader(ByteBuffer requestData, DirectAdsField field, long length) {
+        requestData.putInt((int) field.getIndexGroup());
+        requestData.putInt((int) field.getIndexOffset());
+        requestData.putInt((int) length);
+    }
+
+    private DirectAdsField resolveField(PlcField field) throws PlcProtocolException {
         if (field instanceof SymbolicAdsField) {
             DirectAdsField mappedField = fieldMapping.get(field);
             if (mappedField == null) {
@@ -187,18 +319,23 @@ public class Plc4x2AdsProtocol extends MessageToMessageCodec<AmsPacket, PlcReque
         if (!(field instanceof DirectAdsField)) {
             throw new PlcProtocolException("PlcField not of type DirectAdsField: " + field.getClass());
         }
-        DirectAdsField directAdsField = (DirectAdsField) field;
-        Invoke invokeId = Invoke.of(correlationBuilder.incrementAndGet());
-        IndexGroup indexGroup = IndexGroup.of(directAdsField.getIndexGroup());
-        IndexOffset indexOffset = IndexOffset.of(directAdsField.getIndexOffset());
-        AdsDataType adsDataType = directAdsField.getAdsDataType();
-        int numberOfElements = directAdsField.getNumberOfElements();
-        int readLength = adsDataType.getTargetByteSize() * numberOfElements;
-        Length length = Length.of(readLength);
-        AmsPacket amsPacket = AdsReadRequest.of(targetAmsNetId, targetAmsPort, sourceAmsNetId, sourceAmsPort, invokeId, indexGroup, indexOffset, length);
-        LOGGER.debug("encoded read request {}", amsPacket);
-        out.add(amsPacket);
-        requests.put(invokeId.getAsLong(), msg);
+        return (DirectAdsField) field;
+    }
+
+    private static int getReadLength(DirectAdsField directAdsField) {
+        return directAdsField.getAdsDataType().getTargetByteSize() * directAdsField.getNumberOfElements();
+    }
+
+    private static byte[] encodeWriteData(DirectAdsField directAdsField, BaseDefaultFieldItem fieldItem) throws PlcException {
+        Object[] values = fieldItem.getValues();
+        byte[] bytes = encodeData(directAdsField.getAdsDataType(), values);
+        int bytesToBeWritten = bytes.length;
+        int maxTheoreticalSize = getReadLength(directAdsField);
+        if (bytesToBeWritten > maxTheoreticalSize) {
+            LOGGER.debug("Requested AdsDatatype {} is exceeded by number of bytes {}. Limit {}.", directAdsField.getAdsDataType(), bytesToBeWritten, maxTheoreticalSize);
+            throw new PlcProtocolPayloadTooBigException("ADS", maxTheoreticalSize, bytesToBeWritten, values);
+        }
+        return bytes;
     }
 
     private void encodeProprietaryRequest(PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> msg, List<Object> out) throws PlcProtocolException {
@@ -220,6 +357,16 @@ public class Plc4x2AdsProtocol extends MessageToMessageCodec<AmsPacket, PlcReque
             handleAdsDeviceNotificationRequest((AdsDeviceNotificationRequest) amsPacket);
             return;
         }
+        SumRequestChunk sumRequestChunk = sumRequests.remove(amsPacket.getAmsHeader().getInvokeId().getAsLong());
+        if (sumRequestChunk != null) {
+            if (!(amsPacket instanceof AdsReadWriteResponse)) {
+                PlcProtocolException exception = new PlcProtocolException("Wrong type correlated " + amsPacket);
+                failSumRequest(sumRequestChunk.sumRequest, exception);
+                throw exception;
+            }
+            decodeSumResponse((AdsReadWriteResponse) amsPacket, sumRequestChunk);
+            return;
+        }
         PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> plcRequestContainer = requests.remove(amsPacket.getAmsHeader().getInvokeId().getAsLong());
         if (plcRequestContainer == null) {
             LOGGER.info("Unmapped packet received {}", amsPacket);
@@ -310,6 +457,69 @@ public class Plc4x2AdsProtocol extends MessageToMessageCodec<AmsPacket, PlcReque
         return new DefaultPlcReadResponse(plcReadRequest, responseItems);
     }
 
+    /**
+     * Decodes the response to one chunk of a sum command. As soon as the responses of all chunks are received, the
+     * response of the whole request is completed.
+     */
+    @SuppressWarnings("unchecked")
+    private void decodeSumResponse(AdsReadWriteResponse responseMessage, SumRequestChunk chunk) {
+        SumRequest sumRequest = chunk.sumRequest;
+        boolean isRead = sumRequest.container.getRequest() instanceof PlcReadRequest;
+        PlcResponseCode overallResponseCode = decodeResponseCode(responseMessage.getResult());
+        byte[] bytes = responseMessage.getData().getBytes();
+        int numberOfItems = chunk.fieldNames.size();
+        int dataOffset = numberOfItems * SUM_ITEM_RESULT_SIZE;
+        ByteBuffer responseData = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < numberOfItems; i++) {
+            String fieldName = chunk.fieldNames.get(i);
+            DirectAdsField field = chunk.fields.get(i);
+            int readLength = isRead ? getReadLength(field) : 0;
+
+            PlcResponseCode responseCode;
+            if (overallResponseCode != PlcResponseCode.OK) {
+                responseCode = overallResponseCode;
+            } else if (bytes.length < (i + 1) * SUM_ITEM_RESULT_SIZE || bytes.length < dataOffset + readLength) {
+                LOGGER.warn("Sum response too short for item {}: {} bytes", fieldName, bytes.length);
+                responseCode = PlcResponseCode.INTERNAL_ERROR;
+            } else {
+                responseCode = decodeResponseCode(Result.of(Integer.toUnsignedLong(responseData.getInt(i * SUM_ITEM_RESULT_SIZE))));
+            }
+
+            if (isRead) {
+                BaseDefaultFieldItem<?> fieldItem = null;
+                if (responseCode == PlcResponseCode.OK) {
+                    byte[] itemBytes = new byte[readLength];
+                    System.arraycopy(bytes, dataOffset, itemBytes, 0, readLength);
+                    fieldItem = decodeData(field.getAdsDataType(), itemBytes);
+                }
+                sumRequest.readItems.put(fieldName, Pair.of(responseCode, fieldItem));
+            } else {
+                sumRequest.writeItems.put(fieldName, responseCode);
+            }
+            // The data of failed items is still part of the response, so the offset has to be advanced in any case.
+            dataOffset += readLength;
+        }
+
+        if (sumRequest.pendingChunks.decrementAndGet() == 0) {
+            InternalPlcResponse response;
+            if (isRead) {
+                response = new DefaultPlcReadResponse((InternalPlcReadRequest) sumRequest.container.getRequest(), sumRequest.readItems);
+            } else {
+                response = new DefaultPlcWriteResponse((InternalPlcWriteRequest) sumRequest.container.getRequest(), sumRequest.writeItems);
+            }
+            LOGGER.debug("Plc4x response {}", response);
+            sumRequest.container.getResponseFuture().complete(response);
+        }
+    }
+
+    /**
+     * Fails the whole request a chunk belongs to, the responses of the other chunks are of no use anymore.
+     */
+    private void failSumRequest(SumRequest sumRequest, Throwable cause) {
+        sumRequest.chunkInvokeIds.forEach(sumRequests::remove);
+        sumRequest.container.getResponseFuture().completeExceptionally(cause);
+    }
+
     @SuppressWarnings("unchecked")
     private InternalPlcResponse decodeProprietaryResponse(AmsPacket amsPacket, PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> plcRequestContainer) {
         return new DefaultPlcProprietaryResponse<>((InternalPlcProprietaryRequest) plcRequestContainer.getRequest(), amsPacket);
@@ -448,4 +658,46 @@ public class Plc4x2AdsProtocol extends MessageToMessageCodec<AmsPacket, PlcReque
         throw new IllegalStateException(result.toAdsReturnCode() + " not mapped");
     }
 
+    /**
+     * Collects the results of all sum commands a single plc4x request was split into.
+     */
+    private static final class SumRequest {
+
+        private final PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> container;
+
+        private final AtomicInteger pendingChunks;
+
+        private final Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> readItems = new ConcurrentHashMap<>();
+
+        private final Map<String, PlcResponseCode> writeItems = new ConcurrentHashMap<>();
+
+        private final List<Long> chunkInvokeIds = new ArrayList<>();
+
+        private SumRequest(PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> container, int numberOfItems, int maxItemsPerSumRequest) {
+            this.container = container;
+            this.pendingChunks = new AtomicInteger((numberOfItems + maxItemsPerSumRequest - 1) / maxItemsPerSumRequest);
+        }
+    }
+
+    /**
+     * One sum command (identified by its invoke id) which is part of a {@link SumRequest}.
+     */
+    private static final class SumRequestChunk {
+
+        private final long invokeId;
+
+        private final SumRequest sumRequest;
+
+        private final List<String> fieldNames;
+
+        private final List<DirectAdsField> fields;
+
+        private SumRequestChunk(long invokeId, SumRequest sumRequest, List<String> fieldNames, List<DirectAdsField> fields) {
+            this.invokeId = invokeId;
+            this.sumRequest = sumRequest;
+            this.fieldNames = fieldNames;
+            this.fields = fields;
+        }
+    }
+
 }
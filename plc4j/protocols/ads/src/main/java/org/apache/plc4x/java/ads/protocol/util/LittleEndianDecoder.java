@@ -32,6 +32,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.concurrent.TimeUnit;
 
@@ -47,44 +48,41 @@ public class LittleEndianDecoder {
         ByteBuf wrappedBuffer = Unpooled.wrappedBuffer(adsData);
         switch (adsDataType) {
             case BIT: {
-                LinkedList<Boolean> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    short aByte = wrappedBuffer.readUnsignedByte();
-                    values.offer(aByte != 0);
+                int numberOfValues = wrappedBuffer.readableBytes();
+                BitSet values = new BitSet(numberOfValues);
+                for (int i = 0; i < numberOfValues; i++) {
+                    values.set(i, wrappedBuffer.readUnsignedByte() != 0);
                 }
-                return new DefaultBooleanFieldItem(values.toArray(new Boolean[0]));
+                return new DefaultPrimitiveBooleanFieldItem(values, numberOfValues);
             }
             case BIT8: {
-                LinkedList<Boolean> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    short aByte = wrappedBuffer.readUnsignedByte();
-                    values.offer(aByte != 0);
+                int numberOfValues = wrappedBuffer.readableBytes();
+                BitSet values = new BitSet(numberOfValues);
+                for (int i = 0; i < numberOfValues; i++) {
+                    values.set(i, wrappedBuffer.readUnsignedByte() != 0);
                 }
-                return new DefaultBooleanFieldItem(values.toArray(new Boolean[0]));
+                return new DefaultPrimitiveBooleanFieldItem(values, numberOfValues);
             }
             case BITARR8: {
-                LinkedList<Short> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    short aByte = wrappedBuffer.readUnsignedByte();
-                    values.offer(aByte);
+                short[] values = new short[wrappedBuffer.readableBytes()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedByte();
                 }
-                return new DefaultShortFieldItem(values.toArray(new Short[0]));
+                return new DefaultPrimitiveShortFieldItem(values);
             }
             case BITARR16: {
-                LinkedList<Integer> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    int aLong = wrappedBuffer.readUnsignedShortLE();
-                    values.offer(aLong);
+                int[] values = new int[wrappedBuffer.readableBytes() / 2];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedShortLE();
                 }
-                return new DefaultIntegerFieldItem(values.toArray(new Integer[0]));
+                return new DefaultPrimitiveIntegerFieldItem(values);
             }
             case BITARR32: {
-                LinkedList<Long> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    long aLong = wrappedBuffer.readUnsignedIntLE();
-                    values.offer(aLong);
+                long[] values = new long[wrappedBuffer.readableBytes() / 4];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedIntLE();
                 }
-                return new DefaultLongFieldItem(values.toArray(new Long[0]));
+                return new DefaultPrimitiveLongFieldItem(values);
             }
             case INT8: {
                 LinkedList<Byte> values = new LinkedList<>();
@@ -95,52 +93,46 @@ public class LittleEndianDecoder {
                 return new DefaultByteFieldItem(values.toArray(new Byte[0]));
             }
             case INT16: {
-                LinkedList<Short> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    short aLong = wrappedBuffer.readShortLE();
-                    values.offer(aLong);
+                short[] values = new short[wrappedBuffer.readableBytes() / 2];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readShortLE();
                 }
-                return new DefaultShortFieldItem(values.toArray(new Short[0]));
+                return new DefaultPrimitiveShortFieldItem(values);
             }
             case INT32: {
-                LinkedList<Integer> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    int intLE = wrappedBuffer.readIntLE();
-                    values.offer(intLE);
+                int[] values = new int[wrappedBuffer.readableBytes() / 4];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readIntLE();
                 }
-                return new DefaultIntegerFieldItem(values.toArray(new Integer[0]));
+                return new DefaultPrimitiveIntegerFieldItem(values);
             }
             case INT64: {
-                LinkedList<Long> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    long longLE = wrappedBuffer.readLongLE();
-                    values.offer(longLE);
+                long[] values = new long[wrappedBuffer.readableBytes() / 8];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readLongLE();
                 }
-                return new DefaultLongFieldItem(values.toArray(new Long[0]));
+                return new DefaultPrimitiveLongFieldItem(values);
             }
             case UINT8: {
-                LinkedList<Short> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    short aLong = wrappedBuffer.readUnsignedByte();
-                    values.offer(aLong);
+                short[] values = new short[wrappedBuffer.readableBytes()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedByte();
                 }
-                return new DefaultShortFieldItem(values.toArray(new Short[0]));
+                return new DefaultPrimitiveShortFieldItem(values);
             }
             case UINT16: {
-                LinkedList<Integer> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    int aLong = wrappedBuffer.readUnsignedShortLE();
-                    values.offer(aLong);
+                int[] values = new int[wrappedBuffer.readableBytes() / 2];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedShortLE();
                 }
-                return new DefaultIntegerFieldItem(values.toArray(new Integer[0]));
+                return new DefaultPrimitiveIntegerFieldItem(values);
             }
             case UINT32: {
-                LinkedList<Long> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    long aLong = wrappedBuffer.readUnsignedIntLE();
-                    values.offer(aLong);
+                long[] values = new long[wrappedBuffer.readableBytes() / 4];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedIntLE();
                 }
-                return new DefaultLongFieldItem(values.toArray(new Long[0]));
+                return new DefaultPrimitiveLongFieldItem(values);
             }
             case ULINT:
             case UINT64: {
@@ -155,52 +147,47 @@ public class LittleEndianDecoder {
                 return new DefaultBigIntegerFieldItem(values.toArray(new BigInteger[0]));
             }
             case FLOAT: {
-                LinkedList<Float> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    float aLong = wrappedBuffer.readFloatLE();
-                    values.offer(aLong);
+                float[] values = new float[wrappedBuffer.readableBytes() / 4];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readFloatLE();
                 }
-                return new DefaultFloatFieldItem(values.toArray(new Float[0]));
+                return new DefaultPrimitiveFloatFieldItem(values);
             }
             case DOUBLE: {
-                LinkedList<Double> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    double aLong = wrappedBuffer.readDoubleLE();
-                    values.offer(aLong);
+                double[] values = new double[wrappedBuffer.readableBytes() / 8];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readDoubleLE();
                 }
-                return new DefaultDoubleFieldItem(values.toArray(new Double[0]));
+                return new DefaultPrimitiveDoubleFieldItem(values);
             }
             case BOOL: {
-                LinkedList<Boolean> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    short aByte = wrappedBuffer.readUnsignedByte();
-                    values.offer(aByte != 0);
+                int numberOfValues = wrappedBuffer.readableBytes();
+                BitSet values = new BitSet(numberOfValues);
+                for (int i = 0; i < numberOfValues; i++) {
+                    values.set(i, wrappedBuffer.readUnsignedByte() != 0);
                 }
-                return new DefaultBooleanFieldItem(values.toArray(new Boolean[0]));
+                return new DefaultPrimitiveBooleanFieldItem(values, numberOfValues);
             }
             case BYTE: {
-                LinkedList<Short> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    short aByte = wrappedBuffer.readUnsignedByte();
-                    values.offer(aByte);
+                short[] values = new short[wrappedBuffer.readableBytes()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedByte();
                 }
-                return new DefaultShortFieldItem(values.toArray(new Short[0]));
+                return new DefaultPrimitiveShortFieldItem(values);
             }
             case WORD: {
-                LinkedList<Integer> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    int aByte = wrappedBuffer.readUnsignedShortLE();
-                    values.offer(aByte);
+                int[] values = new int[wrappedBuffer.readableBytes() / 2];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedShortLE();
                 }
-                return new DefaultIntegerFieldItem(values.toArray(new Integer[0]));
+                return new DefaultPrimitiveIntegerFieldItem(values);
             }
             case DWORD: {
-                LinkedList<Long> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    long aByte = wrappedBuffer.readUnsignedIntLE();
-                    values.offer(aByte);
+                long[] values = new long[wrappedBuffer.readableBytes() / 4];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedIntLE();
                 }
-                return new DefaultLongFieldItem(values.toArray(new Long[0]));
+                return new DefaultPrimitiveLongFieldItem(values);
             }
             case SINT: {
                 LinkedList<Byte> values = new LinkedList<>();
@@ -211,68 +198,60 @@ public class LittleEndianDecoder {
                 return new DefaultByteFieldItem(values.toArray(new Byte[0]));
             }
             case USINT: {
-                LinkedList<Short> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    short aByte = wrappedBuffer.readUnsignedByte();
-                    values.offer(aByte);
+                short[] values = new short[wrappedBuffer.readableBytes()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedByte();
                 }
-                return new DefaultShortFieldItem(values.toArray(new Short[0]));
+                return new DefaultPrimitiveShortFieldItem(values);
             }
             case INT: {
-                LinkedList<Short> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    short aByte = wrappedBuffer.readShortLE();
-                    values.offer(aByte);
+                short[] values = new short[wrappedBuffer.readableBytes() / 2];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readShortLE();
                 }
-                return new DefaultShortFieldItem(values.toArray(new Short[0]));
+                return new DefaultPrimitiveShortFieldItem(values);
             }
             case UINT: {
-                LinkedList<Integer> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    int aByte = wrappedBuffer.readUnsignedShortLE();
-                    values.offer(aByte);
+                int[] values = new int[wrappedBuffer.readableBytes() / 2];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedShortLE();
                 }
-                return new DefaultIntegerFieldItem(values.toArray(new Integer[0]));
+                return new DefaultPrimitiveIntegerFieldItem(values);
             }
             case DINT: {
-                LinkedList<Integer> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    int aByte = wrappedBuffer.readIntLE();
-                    values.offer(aByte);
+                int[] values = new int[wrappedBuffer.readableBytes() / 4];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readIntLE();
                 }
-                return new DefaultIntegerFieldItem(values.toArray(new Integer[0]));
+                return new DefaultPrimitiveIntegerFieldItem(values);
             }
             case UDINT: {
-                LinkedList<Long> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    long aByte = wrappedBuffer.readUnsignedIntLE();
-                    values.offer(aByte);
+                long[] values = new long[wrappedBuffer.readableBytes() / 4];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedIntLE();
                 }
-                return new DefaultLongFieldItem(values.toArray(new Long[0]));
+                return new DefaultPrimitiveLongFieldItem(values);
             }
             case LINT: {
-                LinkedList<Long> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    long aByte = wrappedBuffer.readLongLE();
-                    values.offer(aByte);
+                long[] values = new long[wrappedBuffer.readableBytes() / 8];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readLongLE();
                 }
-                return new DefaultLongFieldItem(values.toArray(new Long[0]));
+                return new DefaultPrimitiveLongFieldItem(values);
             }
             case REAL: {
-                LinkedList<Float> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    float aByte = wrappedBuffer.readFloatLE();
-                    values.offer(aByte);
+                float[] values = new float[wrappedBuffer.readableBytes() / 4];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readFloatLE();
                 }
-                return new DefaultFloatFieldItem(values.toArray(new Float[0]));
+                return new DefaultPrimitiveFloatFieldItem(values);
             }
             case LREAL: {
-                LinkedList<Double> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    double aByte = wrappedBuffer.readDoubleLE();
-                    values.offer(aByte);
+                double[] values = new double[wrappedBuffer.readableBytes() / 8];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readDoubleLE();
                 }
-                return new DefaultDoubleFieldItem(values.toArray(new Double[0]));
+                return new DefaultPrimitiveDoubleFieldItem(values);
             }
             case STRING: {
                 LinkedList<String> values = new LinkedList<>();
@@ -287,12 +266,11 @@ public class LittleEndianDecoder {
                 return new DefaultStringFieldItem(values.toArray(new String[0]));
             }
             case TIME: {
-                LinkedList<Long> values = new LinkedList<>();
-                while (wrappedBuffer.isReadable()) {
-                    long aByte = wrappedBuffer.readUnsignedIntLE();
-                    values.offer(aByte);
+                long[] values = new long[wrappedBuffer.readableBytes() / 4];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrappedBuffer.readUnsignedIntLE();
                 }
-                return new DefaultLongFieldItem(values.toArray(new Long[0]));
+                return new DefaultPrimitiveLongFieldItem(values);
             }
             case TIME_OF_DAY: {
                 LinkedList<LocalTime> values = new LinkedList<>();
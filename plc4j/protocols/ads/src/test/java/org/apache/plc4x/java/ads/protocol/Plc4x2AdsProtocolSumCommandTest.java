@@ -0,0 +1,172 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.ads.protocol;
+
+import org.apache.plc4x.java.ads.api.commands.AdsReadWriteRequest;
+import org.apache.plc4x.java.ads.api.commands.AdsReadWriteResponse;
+import org.apache.plc4x.java.ads.api.commands.types.AdsReturnCode;
+import org.apache.plc4x.java.ads.api.commands.types.Data;
+import org.apache.plc4x.java.ads.api.commands.types.IndexGroup;
+import org.apache.plc4x.java.ads.api.commands.types.Result;
+import org.apache.plc4x.java.ads.api.generic.AmsPacket;
+import org.apache.plc4x.java.ads.api.generic.types.AmsNetId;
+import org.apache.plc4x.java.ads.api.generic.types.AmsPort;
+import org.apache.plc4x.java.ads.model.AdsPlcFieldHandler;
+import org.apache.plc4x.java.ads.protocol.exception.AdsException;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcWriteResponse;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class Plc4x2AdsProtocolSumCommandTest {
+
+    private static final AmsNetId TARGET_AMS_NET_ID = AmsNetId.of("1.2.3.4.5.6");
+    private static final AmsPort TARGET_AMS_PORT = AmsPort.of(7);
+    private static final AmsNetId SOURCE_AMS_NET_ID = AmsNetId.of("8.9.10.11.12.13");
+    private static final AmsPort SOURCE_AMS_PORT = AmsPort.of(14);
+
+    private Plc4x2AdsProtocol SUT;
+
+    @BeforeEach
+    void setUp() {
+        SUT = new Plc4x2AdsProtocol(TARGET_AMS_NET_ID, TARGET_AMS_PORT, SOURCE_AMS_NET_ID, SOURCE_AMS_PORT, new ConcurrentHashMap<>(), 2);
+    }
+
+    @Test
+    void multiItemReadIsSplitIntoSumCommands() throws Exception {
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> container = new PlcRequestContainer<>(
+            (InternalPlcRequest) new DefaultPlcReadRequest.Builder(null, new AdsPlcFieldHandler())
+                .addItem("a", "1/10:INT")
+                .addItem("b", "1/12:INT")
+                .addItem("c", "2/20:BYTE")
+                .build(), new CompletableFuture<>());
+
+        List<Object> out = new ArrayList<>();
+        SUT.encode(null, container, out);
+
+        assertThat(out, hasSize(2));
+        AdsReadWriteRequest first = (AdsReadWriteRequest) out.get(0);
+        assertThat(first.getIndexGroup(), equalTo(IndexGroup.ReservedGroups.ADSIGRP_SUMUP_READ));
+        assertThat(first.getIndexOffset().getAsLong(), equalTo(2L));
+        // 2 return codes + 2 INT values
+        assertThat(first.getReadLength().getAsLong(), equalTo(2L * 4 + 2 * 2));
+        ByteBuffer requestData = ByteBuffer.wrap(first.getData().getBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(requestData.getInt(), equalTo(1));
+        assertThat(requestData.getInt(), equalTo(10));
+        assertThat(requestData.getInt(), equalTo(2));
+        AdsReadWriteRequest second = (AdsReadWriteRequest) out.get(1);
+        assertThat(second.getIndexOffset().getAsLong(), equalTo(1L));
+        assertThat(second.getReadLength().getAsLong(), equalTo(4L + 1));
+
+        // Answer in reverse order, the request is only completed as soon as all parts are received.
+        SUT.decode(null, response(second, new long[]{0}, new byte[]{0x2A}), new ArrayList<>());
+        assertThat(container.getResponseFuture().isDone(), is(false));
+        SUT.decode(null, response(first, new long[]{0, AdsReturnCode.ADS_CODE_1793.getHex()}, new byte[]{0x01, 0x00, 0x00, 0x00}), new ArrayList<>());
+
+        PlcReadResponse response = (PlcReadResponse) container.getResponseFuture().get();
+        assertThat(response.getResponseCode("a"), equalTo(PlcResponseCode.OK));
+        assertThat(response.getShort("a"), equalTo((short) 1));
+        assertThat(response.getResponseCode("b"), not(equalTo(PlcResponseCode.OK)));
+        assertThat(response.getResponseCode("c"), equalTo(PlcResponseCode.OK));
+        assertThat(response.getByte("c"), equalTo((byte) 0x2A));
+    }
+
+    @Test
+    void multiItemWriteIsSentAsSumCommand() throws Exception {
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> container = new PlcRequestContainer<>(
+            (InternalPlcRequest) new DefaultPlcWriteRequest.Builder(null, new AdsPlcFieldHandler())
+                .addItem("a", "1/10:INT", (short) 3)
+                .addItem("b", "1/12:BYTE", (byte) 4)
+                .build(), new CompletableFuture<>());
+
+        List<Object> out = new ArrayList<>();
+        SUT.encode(null, container, out);
+
+        assertThat(out, hasSize(1));
+        AdsReadWriteRequest request = (AdsReadWriteRequest) out.get(0);
+        assertThat(request.getIndexGroup(), equalTo(IndexGroup.ReservedGroups.ADSIGRP_SUMUP_WRITE));
+        assertThat(request.getReadLength().getAsLong(), equalTo(2L * 4));
+        // 2 item headers followed by the values
+        byte[] data = request.getData().getBytes();
+        assertThat(data.length, equalTo(2 * 12 + 2 + 1));
+        assertThat(data[24], equalTo((byte) 3));
+        assertThat(data[26], equalTo((byte) 4));
+
+        SUT.decode(null, response(request, new long[]{0, 0}, new byte[0]), new ArrayList<>());
+
+        PlcWriteResponse response = (PlcWriteResponse) container.getResponseFuture().get();
+        assertThat(response.getResponseCode("a"), equalTo(PlcResponseCode.OK));
+        assertThat(response.getResponseCode("b"), equalTo(PlcResponseCode.OK));
+    }
+
+    @Test
+    void failedChunkFailsWholeRequest() throws Exception {
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> container = new PlcRequestContainer<>(
+            (InternalPlcRequest) new DefaultPlcReadRequest.Builder(null, new AdsPlcFieldHandler())
+                .addItem("a", "1/10:INT")
+                .addItem("b", "1/12:INT")
+                .addItem("c", "2/20:BYTE")
+                .build(), new CompletableFuture<>());
+
+        List<Object> out = new ArrayList<>();
+        SUT.encode(null, container, out);
+        assertThat(out, hasSize(2));
+        assertThat(getSumRequests().keySet(), hasSize(2));
+
+        AdsReadWriteRequest first = (AdsReadWriteRequest) out.get(0);
+        SUT.exceptionCaught(null, new AdsException(first.getAmsHeader().getInvokeId(), "failed"));
+
+        assertThat(container.getResponseFuture().isCompletedExceptionally(), is(true));
+        // The other chunk isn't pending anymore, its response is simply ignored.
+        assertThat(getSumRequests().keySet(), empty());
+        AdsReadWriteRequest second = (AdsReadWriteRequest) out.get(1);
+        SUT.decode(null, response(second, new long[]{0}, new byte[]{0x2A}), new ArrayList<>());
+    }
+
+    private Map<?, ?> getSumRequests() throws Exception {
+        Field sumRequestsField = Plc4x2AdsProtocol.class.getDeclaredField("sumRequests");
+        sumRequestsField.setAccessible(true);
+        return (Map<?, ?>) sumRequestsField.get(SUT);
+    }
+
+    private static AmsPacket response(AdsReadWriteRequest request, long[] returnCodes, byte[] data) {
+        ByteBuffer responseData = ByteBuffer.allocate(returnCodes.length * 4 + data.length).order(ByteOrder.LITTLE_ENDIAN);
+        for (long returnCode : returnCodes) {
+            responseData.putInt((int) returnCode);
+        }
+        responseData.put(data);
+        return AdsReadWriteResponse.of(SOURCE_AMS_NET_ID, SOURCE_AMS_PORT, TARGET_AMS_NET_ID, TARGET_AMS_PORT,
+            request.getAmsHeader().getInvokeId(), Result.of(0), Data.of(responseData.array()));
+    }
+
+}
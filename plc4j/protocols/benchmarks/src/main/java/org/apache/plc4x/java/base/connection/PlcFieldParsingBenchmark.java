@@ -0,0 +1,130 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.base.connection;
+
+import org.apache.plc4x.java.modbus.model.CoilModbusField;
+import org.apache.plc4x.java.modbus.model.ModbusField;
+import org.apache.plc4x.java.modbus.util.ModbusPlcFieldHandler;
+import org.apache.plc4x.java.s7.model.S7Field;
+import org.apache.plc4x.java.s7.netty.util.S7PlcFieldHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing field queries: with the patterns, with the hand-written parsers for the common address forms and
+ * through the field handlers, once parsing every query and once serving the fields out of the {@link PlcFieldCache}.
+ */
+public class PlcFieldParsingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MyState {
+
+        // Same address, once in the common form and once in a form only the patterns accept.
+        String s7Query = "%DB444.DBW4:INT[10]";
+        String s7PatternQuery = "%DB444_DBW4:INT[10]";
+        String modbusQuery = "coil:1234[4]";
+
+        DefaultPlcFieldHandler s7FieldHandler = new S7PlcFieldHandler();
+        DefaultPlcFieldHandler modbusFieldHandler = new ModbusPlcFieldHandler();
+
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureS7Pattern(Blackhole blackhole, MyState myState) {
+        blackhole.consume(S7Field.of(myState.s7PatternQuery));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureS7FastPath(Blackhole blackhole, MyState myState) {
+        blackhole.consume(S7Field.of(myState.s7Query));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureS7Uncached(Blackhole blackhole, MyState myState) {
+        blackhole.consume(myState.s7FieldHandler.parseField(myState.s7Query));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureS7Cached(Blackhole blackhole, MyState myState) {
+        blackhole.consume(myState.s7FieldHandler.createField(myState.s7Query));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureModbusPattern(Blackhole blackhole, MyState myState) {
+        blackhole.consume(CoilModbusField.of(myState.modbusQuery));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureModbusFastPath(Blackhole blackhole, MyState myState) {
+        blackhole.consume(ModbusField.parseSimpleAddress(myState.modbusQuery));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureModbusUncached(Blackhole blackhole, MyState myState) {
+        blackhole.consume(myState.modbusFieldHandler.parseField(myState.modbusQuery));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureModbusCached(Blackhole blackhole, MyState myState) {
+        blackhole.consume(myState.modbusFieldHandler.createField(myState.modbusQuery));
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.java.base.connection;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time needed to open (and close) a number of connections via the {@link TcpSocketChannelFactory} to a
+ * local netty server and reports the number of live threads while all connections are open.
+ */
+public class TcpSocketChannelFactoryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MyState {
+
+        @Param({"1", "100", "1000"})
+        int connections;
+
+        @Param({"nio", "epoll"})
+        String transport;
+
+        NioEventLoopGroup serverGroup;
+        Channel serverChannel;
+        TcpSocketChannelFactory SUT;
+
+        @Setup(Level.Trial)
+        public void doSetup() throws Exception {
+            serverGroup = new NioEventLoopGroup(1);
+            serverChannel = new ServerBootstrap()
+                .group(serverGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new AcceptingHandler())
+                .bind(InetAddress.getLoopbackAddress(), 0)
+                .sync()
+                .channel();
+            int port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+            System.setProperty(TcpTransport.TRANSPORT_PROPERTY, transport);
+            SUT = new TcpSocketChannelFactory(InetAddress.getLoopbackAddress(), port);
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() throws Exception {
+            serverChannel.close().sync();
+            serverGroup.shutdownGracefully().sync();
+            System.clearProperty(TcpTransport.TRANSPORT_PROPERTY);
+        }
+
+    }
+
+    /**
+     * The server only accepts the connections, so all of them share one handler.
+     */
+    @ChannelHandler.Sharable
+    private static class AcceptingHandler extends ChannelInboundHandlerAdapter {
+    }
+
+    /**
+     * The number of live threads while all connections are open. JMH sums event counters over the measurement
+     * iterations, so it is only recorded by {@link #measureLiveThreads} running a single one.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ThreadCounters {
+
+        public int liveThreads;
+
+    }
+
+    @Benchmark
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureConnect(MyState myState) throws Exception {
+        closeAll(openAll(myState));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 1, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureLiveThreads(MyState myState, ThreadCounters threadCounters) throws Exception {
+        List<Channel> channels = openAll(myState);
+        threadCounters.liveThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+        closeAll(channels);
+    }
+
+    private static List<Channel> openAll(MyState myState) throws PlcConnectionException {
+        List<Channel> channels = new ArrayList<>(myState.connections);
+        for (int i = 0; i < myState.connections; i++) {
+            channels.add(myState.SUT.createChannel(new ChannelInboundHandlerAdapter()));
+        }
+        return channels;
+    }
+
+    private static void closeAll(List<Channel> channels) throws InterruptedException {
+        for (Channel channel : channels) {
+            channel.close().sync();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.modbus.netty;
+
+import io.netty.buffer.Unpooled;
+import org.apache.plc4x.java.api.exceptions.PlcProtocolException;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding the largest possible Modbus responses (125 registers and 2000 coils) into field items and reading
+ * them back as primitive arrays. Run with {@code -prof gc} to see the allocation rate.
+ */
+public class ModbusDecodeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MyState {
+
+        Plc4XModbusProtocol SUT = new Plc4XModbusProtocol();
+        byte[] registers = new byte[125 * 2];
+        byte[] coils = new byte[2000 / 8];
+
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void measureDecodingRegisters(Blackhole blackhole, MyState myState) throws PlcProtocolException {
+        BaseDefaultFieldItem fieldItem = myState.SUT.produceRegisterValueList(Unpooled.wrappedBuffer(myState.registers), 125);
+        blackhole.consume(fieldItem.getShortArray());
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void measureDecodingCoils(Blackhole blackhole, MyState myState) {
+        BaseDefaultFieldItem fieldItem = myState.SUT.produceCoilValueList(Unpooled.wrappedBuffer(myState.coils), 2000);
+        blackhole.consume(fieldItem.getBooleanArray());
+    }
+
+}
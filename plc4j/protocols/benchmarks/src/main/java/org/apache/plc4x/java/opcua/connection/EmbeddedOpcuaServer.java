@@ -0,0 +1,169 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.java.opcua.connection;
+
+import org.eclipse.milo.opcua.sdk.core.AccessLevel;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.api.DataItem;
+import org.eclipse.milo.opcua.sdk.server.api.ManagedNamespace;
+import org.eclipse.milo.opcua.sdk.server.api.MonitoredItem;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfig;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfigLimits;
+import org.eclipse.milo.opcua.sdk.server.identity.AnonymousIdentityValidator;
+import org.eclipse.milo.opcua.sdk.server.nodes.UaVariableNode;
+import org.eclipse.milo.opcua.stack.core.Identifiers;
+import org.eclipse.milo.opcua.stack.core.security.DefaultCertificateManager;
+import org.eclipse.milo.opcua.stack.core.security.SecurityPolicy;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.UInteger;
+import org.eclipse.milo.opcua.stack.core.types.enumerated.MessageSecurityMode;
+import org.eclipse.milo.opcua.stack.server.EndpointConfiguration;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.List;
+
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.ubyte;
+import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.uint;
+
+/**
+ * Milo OPC UA server for the {@link OpcuaTcpPlcConnectionBenchmark}, listening on the loopback interface without
+ * security. It provides a number of writable {@code Double} variables with the numeric node ids {@code 0..nodes-1} and
+ * reports the given MaxNodesPerRead and MaxNodesPerWrite operation limits, which it also enforces.
+ */
+public class EmbeddedOpcuaServer implements AutoCloseable {
+
+    static final String PATH = "plc4x";
+
+    private final int port;
+
+    private final OpcUaServer server;
+
+    private final VariableNamespace namespace;
+
+    public EmbeddedOpcuaServer(int nodes, int maxNodesPerOperation) throws Exception {
+        port = findFreePort();
+        EndpointConfiguration endpoint = EndpointConfiguration.newBuilder()
+            .setBindAddress(InetAddress.getLoopbackAddress().getHostAddress())
+            .setHostname(InetAddress.getLoopbackAddress().getHostAddress())
+            .setBindPort(port)
+            .setPath("/" + PATH)
+            .setSecurityPolicy(SecurityPolicy.None)
+            .setSecurityMode(MessageSecurityMode.None)
+            .addTokenPolicy(OpcUaServerConfig.USER_TOKEN_POLICY_ANONYMOUS)
+            .build();
+        OpcUaServerConfig config = OpcUaServerConfig.builder()
+            .setApplicationName(LocalizedText.english("PLC4X benchmark server"))
+            .setApplicationUri("urn:apache:plc4x:benchmark-server")
+            .setProductUri("urn:apache:plc4x:benchmark-server")
+            .setEndpoints(Collections.singleton(endpoint))
+            .setCertificateManager(new DefaultCertificateManager())
+            .setIdentityValidator(AnonymousIdentityValidator.INSTANCE)
+            .setLimits(new OpcUaServerConfigLimits() {
+                @Override
+                public UInteger getMaxNodesPerRead() {
+                    return uint(maxNodesPerOperation);
+                }
+
+                @Override
+                public UInteger getMaxNodesPerWrite() {
+                    return uint(maxNodesPerOperation);
+                }
+            })
+            .build();
+        server = new OpcUaServer(config);
+        namespace = new VariableNamespace(server, nodes);
+        server.startup().get();
+        namespace.startup();
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * @return the PLC4X address of the variable with the given index.
+     */
+    public String getAddress(int index) {
+        return "ns=" + namespace.getNamespaceIndex() + ";i=" + index;
+    }
+
+    @Override
+    public void close() throws Exception {
+        namespace.shutdown();
+        server.shutdown().get();
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static class VariableNamespace extends ManagedNamespace {
+
+        private final int nodes;
+
+        private VariableNamespace(OpcUaServer server, int nodes) {
+            super(server, "urn:apache:plc4x:benchmark");
+            this.nodes = nodes;
+        }
+
+        @Override
+        protected void onStartup() {
+            super.onStartup();
+            for (int index = 0; index < nodes; index++) {
+                UaVariableNode node = new UaVariableNode.UaVariableNodeBuilder(getNodeContext())
+                    .setNodeId(newNodeId(index))
+                    .setBrowseName(newQualifiedName("Variable" + index))
+                    .setDisplayName(LocalizedText.english("Variable" + index))
+                    .setDataType(Identifiers.Double)
+                    .setTypeDefinition(Identifiers.BaseDataVariableType)
+                    .setAccessLevel(ubyte(AccessLevel.getMask(AccessLevel.READ_WRITE)))
+                    .setUserAccessLevel(ubyte(AccessLevel.getMask(AccessLevel.READ_WRITE)))
+                    .setValue(new DataValue(new Variant((double) index)))
+                    .build();
+                getNodeManager().addNode(node);
+            }
+        }
+
+        @Override
+        public void onDataItemsCreated(List<DataItem> dataItems) {
+        }
+
+        @Override
+        public void onDataItemsModified(List<DataItem> dataItems) {
+        }
+
+        @Override
+        public void onDataItemsDeleted(List<DataItem> dataItems) {
+        }
+
+        @Override
+        public void onMonitoringModeChanged(List<MonitoredItem> monitoredItems) {
+        }
+
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.java.opcua.connection;
+
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcWriteRequest;
+import org.apache.plc4x.java.api.messages.PlcWriteResponse;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and writing {@link #NODES} variables of an {@link EmbeddedOpcuaServer} with one request. The server
+ * limits the nodes per read and write service call, so the {@link OpcuaTcpPlcConnection} has to split the requests into
+ * chunks of {@code maxNodesPerOperation} nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 10, time = 5)
+@Fork(1)
+public class OpcuaTcpPlcConnectionBenchmark {
+
+    static final int NODES = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class MyState {
+
+        @Param({"100", "1000", "10000"})
+        int maxNodesPerOperation;
+
+        EmbeddedOpcuaServer server;
+        OpcuaTcpPlcConnection connection;
+        PlcReadRequest readRequest;
+        PlcWriteRequest writeRequest;
+
+        @Setup(Level.Trial)
+        public void doSetup() throws Exception {
+            server = new EmbeddedOpcuaServer(NODES, maxNodesPerOperation);
+            connection = OpcuaTcpPlcConnection.of(InetAddress.getLoopbackAddress(), server.getPort(),
+                EmbeddedOpcuaServer.PATH, 10_000);
+            connection.connect();
+            PlcReadRequest.Builder readRequestBuilder = connection.readRequestBuilder();
+            PlcWriteRequest.Builder writeRequestBuilder = connection.writeRequestBuilder();
+            for (int index = 0; index < NODES; index++) {
+                readRequestBuilder.addItem("value" + index, server.getAddress(index));
+                writeRequestBuilder.addItem("value" + index, server.getAddress(index), (double) -index);
+            }
+            readRequest = readRequestBuilder.build();
+            writeRequest = writeRequestBuilder.build();
+
+            // A request rejected by the server completes without an exception, so make sure the chunks are accepted.
+            PlcWriteResponse writeResponse = connection.write(writeRequest).get(10, TimeUnit.SECONDS);
+            PlcReadResponse readResponse = connection.read(readRequest).get(10, TimeUnit.SECONDS);
+            for (String fieldName : readRequest.getFieldNames()) {
+                if (writeResponse.getResponseCode(fieldName) != PlcResponseCode.OK
+                    || readResponse.getResponseCode(fieldName) != PlcResponseCode.OK) {
+                    throw new IllegalStateException("Unable to access " + fieldName);
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() throws Exception {
+            connection.close();
+            server.close();
+        }
+
+    }
+
+    @Benchmark
+    public PlcReadResponse read(MyState state) throws Exception {
+        return state.connection.read(state.readRequest).get(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public PlcWriteResponse write(MyState state) throws Exception {
+        return state.connection.write(state.writeRequest).get(10, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.opm;
+
+import org.apache.plc4x.java.utils.connectionpool.LatencyPlcDriver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of reading all eight fields of a connected entity through its getters, once for fields
+ * which are fetched on every access and once for fields which are cached for a few milliseconds. Furthermore it
+ * compares reading {@value #ENTITIES_PER_PLC} entities on each of {@value #PLCS} PLCs one after another with reading
+ * them all at once. The PLCs are simulated by the {@link LatencyPlcDriver}.
+ */
+public class PlcEntityManagerBenchmark {
+
+    static final int PLCS = 40;
+
+    static final int ENTITIES_PER_PLC = 5;
+
+    @State(Scope.Benchmark)
+    public static class MyState {
+
+        PlcEntityManager SUT;
+
+        UncachedEntity uncachedEntity;
+
+        CachedEntity cachedEntity;
+
+        List<String> addresses;
+
+        @Setup(Level.Trial)
+        public void doSetup() throws OPMException {
+            SUT = new PlcEntityManager();
+            uncachedEntity = SUT.connect(UncachedEntity.class, "latency:uncached");
+            cachedEntity = SUT.connect(CachedEntity.class, "latency:cached");
+            addresses = new ArrayList<>();
+            for (int i = 0; i < ENTITIES_PER_PLC; i++) {
+                for (int plc = 0; plc < PLCS; plc++) {
+                    addresses.add("latency:plc" + plc);
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            SUT.close();
+        }
+
+    }
+
+    @Benchmark
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void measureUncachedGetters(Blackhole blackhole, MyState myState) {
+        UncachedEntity entity = myState.uncachedEntity;
+        blackhole.consume(entity.getValue1());
+        blackhole.consume(entity.getValue2());
+        blackhole.consume(entity.getValue3());
+        blackhole.consume(entity.getValue4());
+        blackhole.consume(entity.getValue5());
+        blackhole.consume(entity.getValue6());
+        blackhole.consume(entity.getValue7());
+        blackhole.consume(entity.getValue8());
+    }
+
+    @Benchmark
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void measureCachedGetters(Blackhole blackhole, MyState myState) {
+        CachedEntity entity = myState.cachedEntity;
+        blackhole.consume(entity.getValue1());
+        blackhole.consume(entity.getValue2());
+        blackhole.consume(entity.getValue3());
+        blackhole.consume(entity.getValue4());
+        blackhole.consume(entity.getValue5());
+        blackhole.consume(entity.getValue6());
+        blackhole.consume(entity.getValue7());
+        blackhole.consume(entity.getValue8());
+    }
+
+    @Benchmark
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void measureSequentialReads(Blackhole blackhole, MyState myState) throws OPMException {
+        for (String address : myState.addresses) {
+            blackhole.consume(myState.SUT.read(UncachedEntity.class, address));
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void measureReadAll(Blackhole blackhole, MyState myState) throws Exception {
+        for (CompletableFuture<UncachedEntity> entity : myState.SUT.readAll(UncachedEntity.class, myState.addresses)) {
+            blackhole.consume(entity.get());
+        }
+    }
+
+    @PlcEntity
+    public static class UncachedEntity {
+
+        @PlcField("value1")
+        private Long value1;
+        @PlcField("value2")
+        private Long value2;
+        @PlcField("value3")
+        private Long value3;
+        @PlcField("value4")
+        private Long value4;
+        @PlcField("value5")
+        private Long value5;
+        @PlcField("value6")
+        private Long value6;
+        @PlcField("value7")
+        private Long value7;
+        @PlcField("value8")
+        private Long value8;
+
+        public UncachedEntity() {
+            // For OPM
+        }
+
+        public Long getValue1() {
+            return value1;
+        }
+
+        public Long getValue2() {
+            return value2;
+        }
+
+        public Long getValue3() {
+            return value3;
+        }
+
+        public Long getValue4() {
+            return value4;
+        }
+
+        public Long getValue5() {
+            return value5;
+        }
+
+        public Long getValue6() {
+            return value6;
+        }
+
+        public Long getValue7() {
+            return value7;
+        }
+
+        public Long getValue8() {
+            return value8;
+        }
+    }
+
+    @PlcEntity
+    public static class CachedEntity {
+
+        @PlcField(value = "value1", cacheDurationMillis = 5)
+        private Long value1;
+        @PlcField(value = "value2", cacheDurationMillis = 5)
+        private Long value2;
+        @PlcField(value = "value3", cacheDurationMillis = 5)
+        private Long value3;
+        @PlcField(value = "value4", cacheDurationMillis = 5)
+        private Long value4;
+        @PlcField(value = "value5", cacheDurationMillis = 5)
+        private Long value5;
+        @PlcField(value = "value6", cacheDurationMillis = 5)
+        private Long value6;
+        @PlcField(value = "value7", cacheDurationMillis = 5)
+        private Long value7;
+        @PlcField(value = "value8", cacheDurationMillis = 5)
+        private Long value8;
+
+        public CachedEntity() {
+            // For OPM
+        }
+
+        public Long getValue1() {
+            return value1;
+        }
+
+        public Long getValue2() {
+            return value2;
+        }
+
+        public Long getValue3() {
+            return value3;
+        }
+
+        public Long getValue4() {
+            return value4;
+        }
+
+        public Long getValue5() {
+            return value5;
+        }
+
+        public Long getValue6() {
+            return value6;
+        }
+
+        public Long getValue7() {
+            return value7;
+        }
+
+        public Long getValue8() {
+            return value8;
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.s7.netty;
+
+import io.netty.buffer.Unpooled;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+import org.apache.plc4x.java.s7.model.S7Field;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding large S7 arrays into field items and reading them back as primitive arrays.
+ * Run with {@code -prof gc} to see the allocation rate.
+ */
+public class S7DecodeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MyState {
+
+        @Param({"1000"})
+        int numElements;
+
+        Plc4XS7Protocol SUT = new Plc4XS7Protocol();
+        S7Field realField;
+        S7Field dintField;
+        byte[] data;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            realField = S7Field.of("%DB1.DBD0:REAL[" + numElements + "]");
+            dintField = S7Field.of("%DB1.DBD0:DINT[" + numElements + "]");
+            data = new byte[numElements * 4];
+        }
+
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void measureDecodingRealArray(Blackhole blackhole, MyState myState) {
+        BaseDefaultFieldItem fieldItem = myState.SUT.decodeReadResponseFloatField(myState.realField, Unpooled.wrappedBuffer(myState.data));
+        blackhole.consume(fieldItem.getFloatArray());
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void measureDecodingDintArray(Blackhole blackhole, MyState myState) {
+        BaseDefaultFieldItem fieldItem = myState.SUT.decodeReadResponseSignedIntegerField(myState.dintField, Unpooled.wrappedBuffer(myState.data));
+        blackhole.consume(fieldItem.getIntArray());
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.s7.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.base.messages.*;
+import org.apache.plc4x.java.isotp.protocol.model.IsoTPMessage;
+import org.apache.plc4x.java.isotp.protocol.model.tpdus.DataTpdu;
+import org.apache.plc4x.java.s7.netty.strategies.DefaultS7MessageProcessor;
+import org.apache.plc4x.java.s7.netty.util.S7PlcFieldHandler;
+import org.apache.plc4x.java.s7.types.S7ControllerType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CPU time of one poll of the same read request through the S7 protocol layers: once building the
+ * request for every poll, once reusing the built request and once reusing a prepared request. The PLC is simulated
+ * by answering every request with the same response.
+ */
+public class S7PreparedReadBenchmark {
+
+    private static final int PDU_REFERENCE_OFFSET = 4;
+
+    @State(Scope.Thread)
+    public static class MyState {
+
+        @Param({"8"})
+        int numFields;
+
+        EmbeddedChannel channel;
+        S7PlcFieldHandler fieldHandler;
+        InternalPlcReadRequest readRequest;
+        InternalPlcReadRequest preparedReadRequest;
+        byte[] response;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            channel = new EmbeddedChannel(
+                new S7Protocol((short) 1, (short) 1, (short) 240, S7ControllerType.S7_300, new DefaultS7MessageProcessor()),
+                new Plc4XS7Protocol());
+            fieldHandler = new S7PlcFieldHandler();
+            readRequest = buildRequest(this);
+            LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+            for (String fieldName : readRequest.getFieldNames()) {
+                fields.put(fieldName, readRequest.getField(fieldName));
+            }
+            preparedReadRequest = new PreparedPlcReadRequest(null, fields);
+
+            // Every field is an INT of its own data block, so none of them are merged.
+            ByteBuf buf = Unpooled.buffer();
+            buf.writeByte(0x32).writeByte(0x03).writeShort(0x0000).writeShort(0x0000)
+                .writeShort(2).writeShort(numFields * 6).writeByte(0x00).writeByte(0x00);
+            buf.writeByte(0x04).writeByte(numFields);
+            for (int i = 0; i < numFields; i++) {
+                buf.writeByte(0xFF).writeByte(0x04).writeShort(16).writeShort(i);
+            }
+            response = new byte[buf.readableBytes()];
+            buf.readBytes(response);
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            channel.finishAndReleaseAll();
+        }
+
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void measureBuildAndRead(Blackhole blackhole, MyState myState) {
+        blackhole.consume(poll(myState, buildRequest(myState)));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void measureRead(Blackhole blackhole, MyState myState) {
+        blackhole.consume(poll(myState, myState.readRequest));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void measurePreparedRead(Blackhole blackhole, MyState myState) {
+        blackhole.consume(poll(myState, myState.preparedReadRequest));
+    }
+
+    private static InternalPlcReadRequest buildRequest(MyState myState) {
+        PlcReadRequest.Builder builder = new DefaultPlcReadRequest.Builder(null, myState.fieldHandler);
+        for (int i = 0; i < myState.numFields; i++) {
+            builder.addItem("field" + i, "%DB" + (i + 1) + ".DBW0:INT");
+        }
+        return (InternalPlcReadRequest) builder.build();
+    }
+
+    private static InternalPlcReadResponse poll(MyState myState, InternalPlcReadRequest readRequest) {
+        CompletableFuture<InternalPlcReadResponse> future = new CompletableFuture<>();
+        myState.channel.writeAndFlush(new PlcRequestContainer<>(readRequest, future));
+        DataTpdu request = myState.channel.readOutbound();
+        short pduReference = request.getUserData().getShort(PDU_REFERENCE_OFFSET);
+        request.getUserData().release();
+
+        ByteBuf response = Unpooled.wrappedBuffer(myState.response.clone());
+        response.setShort(PDU_REFERENCE_OFFSET, pduReference);
+        myState.channel.writeInbound(new IsoTPMessage(
+            new DataTpdu(true, (byte) 0x00, Collections.emptyList(), response), response));
+        myState.channel.releaseInbound();
+        InternalPlcReadResponse readResponse = future.getNow(null);
+        if (readResponse == null) {
+            throw new PlcRuntimeException("The read request has not been answered");
+        }
+        return readResponse;
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.authentication.PlcAuthentication;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.connection.AbstractPlcConnection;
+import org.apache.plc4x.java.base.connection.DefaultPlcFieldHandler;
+import org.apache.plc4x.java.base.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.base.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.base.messages.InternalPlcReadRequest;
+import org.apache.plc4x.java.base.messages.PlcReader;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+import org.apache.plc4x.java.base.messages.items.DefaultLongFieldItem;
+import org.apache.plc4x.java.spi.PlcDriver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Driver for the {@link PooledPlcDriverManagerBenchmark} simulating a PLC with a costly connection setup and a fixed
+ * round trip time for reads. Every field is read as the long value {@code 42}. The URL schema is
+ * {@code latency:<device_name>}.
+ */
+public class LatencyPlcDriver implements PlcDriver {
+
+    static final long CONNECT_MILLIS = 10;
+
+    static final long READ_MILLIS = 1;
+
+    private static final ScheduledExecutorService RESPONDER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "latency-plc-responder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public String getProtocolCode() {
+        return "latency";
+    }
+
+    @Override
+    public String getProtocolName() {
+        return "PLC4X Latency Benchmark Protocol";
+    }
+
+    @Override
+    public PlcConnection connect(String url) {
+        return new LatencyPlcConnection();
+    }
+
+    @Override
+    public PlcConnection connect(String url, PlcAuthentication authentication) throws PlcConnectionException {
+        throw new PlcConnectionException("Latency driver does not support authentication.");
+    }
+
+    static class LatencyPlcConnection extends AbstractPlcConnection implements PlcReader {
+
+        private volatile boolean connected = false;
+
+        @Override
+        public void connect() throws PlcConnectionException {
+            try {
+                TimeUnit.MILLISECONDS.sleep(CONNECT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PlcConnectionException(e);
+            }
+            connected = true;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public void close() {
+            connected = false;
+        }
+
+        @Override
+        public boolean canRead() {
+            return true;
+        }
+
+        @Override
+        public PlcReadRequest.Builder readRequestBuilder() {
+            return new DefaultPlcReadRequest.Builder(this, new DefaultPlcFieldHandler() {
+                @Override
+                protected PlcField parseField(String fieldQuery) {
+                    return new PlcField() {
+                    };
+                }
+            });
+        }
+
+        @Override
+        public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
+            InternalPlcReadRequest request = checkInternal(readRequest, InternalPlcReadRequest.class);
+            CompletableFuture<PlcReadResponse> future = new CompletableFuture<>();
+            Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> values = new HashMap<>();
+            for (String fieldName : request.getFieldNames()) {
+                values.put(fieldName, ImmutablePair.of(PlcResponseCode.OK, new DefaultLongFieldItem(42L)));
+            }
+            RESPONDER.schedule(() -> future.complete(new DefaultPlcReadResponse(request, values)),
+                READ_MILLIS, TimeUnit.MILLISECONDS);
+            return future;
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.apache.plc4x.java.api.PlcConnection;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the read throughput of 64 threads sharing one PLC through the {@link PooledPlcDriverManager}, comparing the
+ * exclusive pool (where callers wait for one of the pooled connections) with the multiplexed mode (where all callers
+ * pipeline their requests over a single connection). The PLC is simulated by the {@link LatencyPlcDriver}.
+ */
+public class PooledPlcDriverManagerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MyState {
+
+        @Param({"EXCLUSIVE", "MULTIPLEXED"})
+        PooledPlcDriverManager.Mode mode;
+
+        PooledPlcDriverManager SUT;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            SUT = new PooledPlcDriverManager(mode);
+        }
+
+    }
+
+    @Benchmark
+    @Threads(64)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void measureRead(Blackhole blackhole, MyState myState) throws Exception {
+        try (PlcConnection connection = myState.SUT.getConnection("latency:device")) {
+            blackhole.consume(connection.readRequestBuilder().addItem("value", "value").build().execute().get());
+        }
+    }
+
+}
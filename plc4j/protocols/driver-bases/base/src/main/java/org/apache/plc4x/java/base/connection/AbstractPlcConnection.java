@@ -18,6 +18,7 @@ under the License.
 */
 package org.apache.plc4x.java.base.connection;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.plc4x.java.api.PlcConnection;
 import org.apache.plc4x.java.api.exceptions.PlcUnsupportedOperationException;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
@@ -25,8 +26,13 @@ import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
 import org.apache.plc4x.java.api.messages.PlcUnsubscriptionRequest;
 import org.apache.plc4x.java.api.messages.PlcWriteRequest;
 import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
+import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.base.messages.InternalPlcMessage;
+import org.apache.plc4x.java.base.messages.InternalPlcReadRequest;
+import org.apache.plc4x.java.base.messages.PlcReader;
+import org.apache.plc4x.java.base.messages.PreparedPlcReadRequest;
 
+import java.util.LinkedHashMap;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
@@ -70,6 +76,22 @@ public abstract class AbstractPlcConnection implements PlcConnection, PlcConnect
         throw new PlcUnsupportedOperationException("The connection does not support reading");
     }
 
+    @Override
+    public PlcReadRequest prepareRead(PlcReadRequest readRequest) {
+        if (!canRead() || !(this instanceof PlcReader)) {
+            throw new PlcUnsupportedOperationException("The connection does not support reading");
+        }
+        InternalPlcReadRequest internalReadRequest = checkInternal(readRequest, InternalPlcReadRequest.class);
+        if (internalReadRequest instanceof PreparedPlcReadRequest) {
+            return internalReadRequest;
+        }
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        for (Pair<String, PlcField> namedField : internalReadRequest.getNamedFields()) {
+            fields.put(namedField.getKey(), namedField.getValue());
+        }
+        return new PreparedPlcReadRequest((PlcReader) this, fields);
+    }
+
     @Override
     public PlcWriteRequest.Builder writeRequestBuilder() {
         throw new PlcUnsupportedOperationException("The connection does not support writing");
@@ -19,6 +19,7 @@
 
 package org.apache.plc4x.java.base.connection;
 
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
@@ -26,9 +27,35 @@ import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
 /**
  * Base Implementation of {@link PlcFieldHandler} which throws a {@link PlcRuntimeException} for all
  * encodeXXX methods.
+ * Implementations parse their fields with {@link #parseField(String)}, which are cached by a {@link PlcFieldCache},
+ * so a field query is only parsed once.
  */
 public abstract class DefaultPlcFieldHandler implements PlcFieldHandler {
 
+    private final PlcFieldCache fieldCache;
+
+    protected DefaultPlcFieldHandler() {
+        this(PlcFieldCache.getDefault());
+    }
+
+    protected DefaultPlcFieldHandler(PlcFieldCache fieldCache) {
+        this.fieldCache = fieldCache;
+    }
+
+    @Override
+    public final PlcField createField(String fieldQuery) throws PlcInvalidFieldException {
+        return fieldCache.getField(getClass(), fieldQuery, this::parseField);
+    }
+
+    /**
+     * Parses a field query, which isn't cached yet.
+     *
+     * @param fieldQuery the field query.
+     * @return the parsed field, which has to be immutable.
+     * @throws PlcInvalidFieldException if the field query can't be parsed.
+     */
+    protected abstract PlcField parseField(String fieldQuery) throws PlcInvalidFieldException;
+
     @Override
     public BaseDefaultFieldItem encodeBoolean(PlcField field, Object[] values) {
         throw new PlcRuntimeException("Invalid encoder for type " + field);
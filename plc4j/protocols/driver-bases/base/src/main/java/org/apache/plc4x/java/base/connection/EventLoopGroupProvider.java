@@ -0,0 +1,184 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.base.connection;
+
+import io.netty.channel.EventLoopGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Process wide registry of {@link EventLoopGroup}s shared by all {@link ChannelFactory} implementations.
+ * <p>
+ * Instead of creating a new group (and with that a new set of threads) for every connection, channel factories
+ * acquire a group for a given transport name and release it as soon as the channel is closed. Groups are reference
+ * counted. When the last channel using a group is released, the group is kept alive for a while, so connections which
+ * are closed and opened again right away don't create and destroy a whole group each time.
+ * <p>
+ * The number of threads per group can be configured with the system property {@value #THREADS_PROPERTY}. If not set
+ * (or set to 0) netty's default is used. The time in milliseconds an unused group is kept alive can be configured with
+ * {@value #SHUTDOWN_DELAY_PROPERTY}, 0 shuts unused groups down immediately.
+ */
+public final class EventLoopGroupProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventLoopGroupProvider.class);
+
+    public static final String THREADS_PROPERTY = "plc4x.eventloop.threads";
+
+    public static final String SHUTDOWN_DELAY_PROPERTY = "plc4x.eventloop.shutdown.delay";
+
+    private static final long DEFAULT_SHUTDOWN_DELAY_MS = 5_000;
+
+    private static final long SHUTDOWN_QUIET_PERIOD_MS = 100;
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 2_000;
+
+    private static final Map<String, SharedGroup> groupsByName = new HashMap<>();
+
+    private static final Map<EventLoopGroup, SharedGroup> groupsByInstance = new IdentityHashMap<>();
+
+    // Not every group supports scheduling (e.g. the oio group), so the delayed shutdowns get their own thread.
+    private static ScheduledThreadPoolExecutor shutdownScheduler;
+
+    private EventLoopGroupProvider() {
+        // Utility class
+    }
+
+    /**
+     * Acquires the shared group for the given transport name, creating it with the supplied factory if no channel is
+     * currently using it. Every call has to be paired with a call to {@link #release(EventLoopGroup)}.
+     *
+     * @param transportName name identifying the kind of group (e.g. "nio", "epoll", "oio").
+     * @param groupFactory  creates a new group with the given number of threads (0 meaning netty's default).
+     * @return the shared group.
+     */
+    public static synchronized EventLoopGroup acquire(String transportName, IntFunction<EventLoopGroup> groupFactory) {
+        SharedGroup sharedGroup = groupsByName.get(transportName);
+        if (sharedGroup == null) {
+            EventLoopGroup group = groupFactory.apply(getConfiguredThreads());
+            LOGGER.debug("Created shared {} event loop group", transportName);
+            sharedGroup = new SharedGroup(transportName, group);
+            groupsByName.put(transportName, sharedGroup);
+            groupsByInstance.put(group, sharedGroup);
+        }
+        if (sharedGroup.pendingShutdown != null) {
+            sharedGroup.pendingShutdown.cancel(false);
+            sharedGroup.pendingShutdown = null;
+        }
+        sharedGroup.references++;
+        return sharedGroup.group;
+    }
+
+    /**
+     * Releases a group previously obtained by {@link #acquire(String, IntFunction)}. If no channel acquires the group
+     * again within the configured shutdown delay, it is shut down gracefully.
+     *
+     * @param group the group to release.
+     */
+    public static synchronized void release(EventLoopGroup group) {
+        SharedGroup sharedGroup = groupsByInstance.get(group);
+        if (sharedGroup == null) {
+            LOGGER.warn("Released an event loop group which is not managed by this provider");
+            return;
+        }
+        sharedGroup.references--;
+        if (sharedGroup.references > 0) {
+            return;
+        }
+        long shutdownDelay = getConfiguredShutdownDelay();
+        if (shutdownDelay <= 0) {
+            shutdown(sharedGroup);
+            return;
+        }
+        if (shutdownScheduler == null) {
+            shutdownScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "plc4x-eventloop-shutdown");
+                thread.setDaemon(true);
+                return thread;
+            });
+            shutdownScheduler.setRemoveOnCancelPolicy(true);
+        }
+        sharedGroup.pendingShutdown = shutdownScheduler.schedule(
+            () -> shutdownIfUnused(sharedGroup), shutdownDelay, TimeUnit.MILLISECONDS);
+    }
+
+    private static synchronized void shutdownIfUnused(SharedGroup sharedGroup) {
+        // The group might have been acquired again while this task was waiting for the lock.
+        if ((sharedGroup.references <= 0) && (groupsByInstance.get(sharedGroup.group) == sharedGroup)) {
+            shutdown(sharedGroup);
+        }
+    }
+
+    private static void shutdown(SharedGroup sharedGroup) {
+        LOGGER.debug("Shutting down unused shared {} event loop group", sharedGroup.transportName);
+        groupsByName.remove(sharedGroup.transportName);
+        groupsByInstance.remove(sharedGroup.group);
+        sharedGroup.pendingShutdown = null;
+        sharedGroup.group.shutdownGracefully(SHUTDOWN_QUIET_PERIOD_MS, SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param transportName name of the group.
+     * @return the number of channels currently using the group with the given name.
+     */
+    public static synchronized int getReferenceCount(String transportName) {
+        SharedGroup sharedGroup = groupsByName.get(transportName);
+        return sharedGroup == null ? 0 : sharedGroup.references;
+    }
+
+    private static int getConfiguredThreads() {
+        try {
+            return Math.max(0, Integer.getInteger(THREADS_PROPERTY, 0));
+        } catch (SecurityException e) {
+            return 0;
+        }
+    }
+
+    private static long getConfiguredShutdownDelay() {
+        try {
+            return Long.getLong(SHUTDOWN_DELAY_PROPERTY, DEFAULT_SHUTDOWN_DELAY_MS);
+        } catch (SecurityException e) {
+            return DEFAULT_SHUTDOWN_DELAY_MS;
+        }
+    }
+
+    private static final class SharedGroup {
+
+        private final String transportName;
+
+        private final EventLoopGroup group;
+
+        private int references;
+
+        private ScheduledFuture<?> pendingShutdown;
+
+        private SharedGroup(String transportName, EventLoopGroup group) {
+            this.transportName = transportName;
+            this.group = group;
+        }
+    }
+
+}
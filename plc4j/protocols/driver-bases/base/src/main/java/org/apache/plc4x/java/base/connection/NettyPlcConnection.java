@@ -106,6 +106,16 @@ public abstract class NettyPlcConnection extends AbstractPlcConnection {
 
     @Override
     public void close() throws PlcConnectionException {
+        // Closing the channel releases the shared event loop group it was registered with.
+        if ((channel != null) && channel.isOpen()) {
+            // Waiting for the close on the channel's own event loop would dead lock (netty throws a
+            // BlockingOperationException instead), so in that case the channel is closed asynchronously.
+            if (channel.eventLoop().inEventLoop()) {
+                channel.close();
+            } else {
+                channel.close().awaitUninterruptibly();
+            }
+        }
         channel = null;
         connected = false;
     }
@@ -0,0 +1,138 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.base.connection;
+
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.model.PlcField;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size-bounded cache of parsed fields, shared by all {@link DefaultPlcFieldHandler}s. Fields are cached by the type
+ * of the handler which parsed them and the field query, so they have to be immutable. Once the cache is full, an
+ * arbitrary entry is evicted for every new one.
+ */
+public class PlcFieldCache {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private static final PlcFieldCache DEFAULT = new PlcFieldCache(DEFAULT_MAX_SIZE);
+
+    private final int maxSize;
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<String, PlcField>> fieldsByHandlerType;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxSize maximum number of cached fields, 0 disables caching.
+     */
+    public PlcFieldCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative. Was " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.fieldsByHandlerType = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return the cache used by all field handlers which aren't given one explicitly.
+     */
+    public static PlcFieldCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param handlerType type of the handler parsing the field query.
+     * @param fieldQuery  the field query.
+     * @param parser      parses the field query, if it isn't cached yet.
+     * @return the cached or parsed field.
+     * @throws PlcInvalidFieldException if the field query can't be parsed.
+     */
+    public PlcField getField(Class<?> handlerType, String fieldQuery, Function<String, PlcField> parser)
+        throws PlcInvalidFieldException {
+        ConcurrentMap<String, PlcField> fields = fieldsByHandlerType.get(handlerType);
+        if (fields == null) {
+            fields = fieldsByHandlerType.computeIfAbsent(handlerType, key -> new ConcurrentHashMap<>());
+        }
+        PlcField field = fields.get(fieldQuery);
+        if (field != null) {
+            hits.increment();
+            return field;
+        }
+        misses.increment();
+        field = parser.apply(fieldQuery);
+        if ((maxSize > 0) && (fields.putIfAbsent(fieldQuery, field) == null) && (size.incrementAndGet() > maxSize)) {
+            evictOne();
+        }
+        return field;
+    }
+
+    private void evictOne() {
+        for (ConcurrentMap<String, PlcField> fields : fieldsByHandlerType.values()) {
+            Iterator<String> iterator = fields.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (fields.remove(iterator.next()) != null) {
+                    size.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all cached fields, the hit and miss counters are kept.
+     */
+    public void clear() {
+        for (ConcurrentMap<String, PlcField> fields : fieldsByHandlerType.values()) {
+            Iterator<String> iterator = fields.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (fields.remove(iterator.next()) != null) {
+                    size.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getSize() {
+        return size.get();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+}
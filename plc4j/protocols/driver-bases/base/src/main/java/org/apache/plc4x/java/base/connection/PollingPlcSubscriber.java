@@ -0,0 +1,466 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.base.connection;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.apache.plc4x.java.api.messages.*;
+import org.apache.plc4x.java.api.model.PlcConsumerRegistration;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.*;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+import org.apache.plc4x.java.base.model.DefaultPlcConsumerRegistration;
+import org.apache.plc4x.java.base.model.DefaultPlcSubscriptionHandle;
+import org.apache.plc4x.java.base.model.InternalPlcSubscriptionHandle;
+import org.apache.plc4x.java.base.model.SubscriptionPlcField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * {@link PlcSubscriber} for connections without native subscriptions, which polls the subscribed fields with a
+ * {@link PlcReader}.
+ * <p>
+ * All subscribed fields with the same cycle time are read with one shared request per cycle and a field subscribed
+ * several times (i.e. the {@link PlcField}s are equal) is only read once. Cyclic subscriptions get an event every
+ * cycle, change of state subscriptions are polled with a fixed interval and only get an event if the value or the
+ * response code of the field changed. Numeric values have to change by more than a deadband for that. Each consumer
+ * gets one {@link DefaultPlcSubscriptionEvent} per cycle holding all its fields with an update.
+ * <p>
+ * The polls and the consumers run on the scheduler, by default on a pool shared by all subscribers, so connections
+ * don't start a thread each. The polls of one cycle time are serialized and their consumers get the events in order. A
+ * poll is skipped while the previous read of the same cycle time is still outstanding.
+ */
+public class PollingPlcSubscriber implements PlcSubscriber, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PollingPlcSubscriber.class);
+
+    public static final Duration DEFAULT_CHANGE_OF_STATE_INTERVAL = Duration.ofMillis(100);
+
+    // A read which is outstanding for this many cycles is considered lost and the next poll is sent.
+    static final int MAX_SKIPPED_POLLS = 10;
+
+    private final PlcReader reader;
+
+    private final Duration changeOfStateInterval;
+
+    private final double deadband;
+
+    private final ScheduledExecutorService scheduler;
+
+    // All access is synchronized on this
+    private final Map<Long, PollingGroup> groups = new HashMap<>();
+
+    private final Map<PlcConsumerRegistration, Registration> registrations = new ConcurrentHashMap<>();
+
+    private boolean closed;
+
+    public PollingPlcSubscriber(PlcReader reader) {
+        this(reader, DEFAULT_CHANGE_OF_STATE_INTERVAL, 0, null);
+    }
+
+    /**
+     * @param reader                reader to poll the fields with.
+     * @param changeOfStateInterval polling interval for change of state subscriptions.
+     * @param deadband              minimal change of a numeric value which is reported to change of state
+     *                              subscriptions, 0 to report every change.
+     * @param scheduler             scheduler to poll with, if null the scheduler shared by all subscribers is used.
+     */
+    public PollingPlcSubscriber(PlcReader reader, Duration changeOfStateInterval, double deadband, ScheduledExecutorService scheduler) {
+        if (changeOfStateInterval.isNegative() || changeOfStateInterval.isZero()) {
+            throw new IllegalArgumentException("The change of state interval must be positive, but was " + changeOfStateInterval);
+        }
+        if (deadband < 0) {
+            throw new IllegalArgumentException("The deadband must not be negative, but was " + deadband);
+        }
+        this.reader = Objects.requireNonNull(reader);
+        this.changeOfStateInterval = changeOfStateInterval;
+        this.deadband = deadband;
+        this.scheduler = (scheduler != null) ? scheduler : SharedScheduler.INSTANCE;
+    }
+
+    @Override
+    public CompletableFuture<PlcSubscriptionResponse> subscribe(PlcSubscriptionRequest subscriptionRequest) {
+        InternalPlcSubscriptionRequest request = (InternalPlcSubscriptionRequest) subscriptionRequest;
+        Map<String, Pair<PlcResponseCode, PlcSubscriptionHandle>> values = new HashMap<>();
+        synchronized (this) {
+            if (closed) {
+                CompletableFuture<PlcSubscriptionResponse> future = new CompletableFuture<>();
+                future.completeExceptionally(new PlcRuntimeException("The subscriber has been closed"));
+                return future;
+            }
+            request.getSubscriptionPlcFieldMap().forEach((name, subscriptionPlcField) ->
+                values.put(name, subscribe(name, subscriptionPlcField)));
+        }
+        return CompletableFuture.completedFuture(new DefaultPlcSubscriptionResponse(request, values));
+    }
+
+    private Pair<PlcResponseCode, PlcSubscriptionHandle> subscribe(String name, SubscriptionPlcField subscriptionPlcField) {
+        Duration interval;
+        boolean cyclic;
+        switch (subscriptionPlcField.getPlcSubscriptionType()) {
+            case CYCLIC:
+                interval = subscriptionPlcField.getDuration().orElse(changeOfStateInterval);
+                cyclic = true;
+                break;
+            case CHANGE_OF_STATE:
+                interval = changeOfStateInterval;
+                cyclic = false;
+                break;
+            default:
+                LOGGER.debug("Subscriptions of type {} can't be polled", subscriptionPlcField.getPlcSubscriptionType());
+                return ImmutablePair.of(PlcResponseCode.INTERNAL_ERROR, null);
+        }
+        long intervalMillis = Math.max(interval.toMillis(), 1);
+        PollingGroup group = groups.computeIfAbsent(intervalMillis, PollingGroup::new);
+        PolledField polledField = group.fields.computeIfAbsent(subscriptionPlcField.getPlcField(), field -> new PolledField(field, group));
+        PollingHandle handle = new PollingHandle(name, polledField, cyclic);
+        polledField.handles.add(handle);
+        group.update();
+        return ImmutablePair.of(PlcResponseCode.OK, handle);
+    }
+
+    @Override
+    public CompletableFuture<PlcUnsubscriptionResponse> unsubscribe(PlcUnsubscriptionRequest unsubscriptionRequest) {
+        InternalPlcUnsubscriptionRequest request = (InternalPlcUnsubscriptionRequest) unsubscriptionRequest;
+        synchronized (this) {
+            for (InternalPlcSubscriptionHandle handle : request.getInternalPlcSubscriptionHandles()) {
+                if (handle instanceof PollingHandle) {
+                    unsubscribe((PollingHandle) handle);
+                }
+            }
+        }
+        return CompletableFuture.completedFuture(new DefaultPlcUnsubscriptionResponse(request));
+    }
+
+    private void unsubscribe(PollingHandle handle) {
+        PolledField polledField = handle.polledField;
+        if (!polledField.handles.remove(handle)) {
+            return;
+        }
+        if (!polledField.handles.isEmpty()) {
+            return;
+        }
+        PollingGroup group = polledField.group;
+        group.fields.remove(polledField.field);
+        if (group.fields.isEmpty()) {
+            group.cancel();
+            groups.remove(group.intervalMillis);
+        } else {
+            group.update();
+        }
+    }
+
+    @Override
+    public PlcConsumerRegistration register(Consumer<PlcSubscriptionEvent> consumer, Collection<PlcSubscriptionHandle> handles) {
+        InternalPlcSubscriptionHandle[] internalHandles = handles.toArray(new InternalPlcSubscriptionHandle[0]);
+        DefaultPlcConsumerRegistration consumerRegistration = new DefaultPlcConsumerRegistration(this, consumer, internalHandles);
+        Registration registration = new Registration(consumer);
+        registrations.put(consumerRegistration, registration);
+        for (InternalPlcSubscriptionHandle handle : internalHandles) {
+            if (handle instanceof PollingHandle) {
+                ((PollingHandle) handle).registrations.add(registration);
+            }
+        }
+        return consumerRegistration;
+    }
+
+    @Override
+    public void unregister(PlcConsumerRegistration registration) {
+        Registration removed = registrations.remove(registration);
+        if (removed == null) {
+            return;
+        }
+        for (InternalPlcSubscriptionHandle handle : ((DefaultPlcConsumerRegistration) registration).getAssociatedHandles()) {
+            if (handle instanceof PollingHandle) {
+                ((PollingHandle) handle).registrations.remove(removed);
+            }
+        }
+    }
+
+    /**
+     * Stops polling all fields. Later subscriptions fail.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            groups.values().forEach(PollingGroup::cancel);
+            groups.clear();
+        }
+        registrations.clear();
+    }
+
+    /**
+     * @return the number of reads which are sent per second for all subscriptions.
+     */
+    public synchronized double getReadsPerSecond() {
+        return groups.keySet().stream().mapToDouble(intervalMillis -> 1000.0 / intervalMillis).sum();
+    }
+
+    /**
+     * @return the number of distinct fields which are polled.
+     */
+    public synchronized int getNumberOfPolledFields() {
+        return groups.values().stream().mapToInt(group -> group.fields.size()).sum();
+    }
+
+    /**
+     * @param previous value which was reported last.
+     * @param current  value which was read.
+     * @return true if the value changed by more than the deadband.
+     */
+    boolean hasChanged(Pair<PlcResponseCode, BaseDefaultFieldItem> previous, Pair<PlcResponseCode, BaseDefaultFieldItem> current) {
+        if ((previous == null) || (previous.getKey() != current.getKey())) {
+            return true;
+        }
+        BaseDefaultFieldItem previousItem = previous.getValue();
+        BaseDefaultFieldItem currentItem = current.getValue();
+        if ((previousItem == null) || (currentItem == null)) {
+            return previousItem != currentItem;
+        }
+        int numberOfValues = currentItem.getNumberOfValues();
+        if (previousItem.getNumberOfValues() != numberOfValues) {
+            return true;
+        }
+        for (int i = 0; i < numberOfValues; i++) {
+            if (hasChanged(previousItem, currentItem, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasChanged(BaseDefaultFieldItem previous, BaseDefaultFieldItem current, int index) {
+        if ((deadband > 0) && (previous.getClass() == current.getClass())
+            && previous.isValidDouble(index) && current.isValidDouble(index)) {
+            return Math.abs(current.getDouble(index) - previous.getDouble(index)) > deadband;
+        }
+        return !Objects.equals(previous.getObject(index), current.getObject(index));
+    }
+
+    /**
+     * All fields polled with the same interval.
+     */
+    private final class PollingGroup implements Runnable {
+
+        private final long intervalMillis;
+
+        // Modified while synchronized on the subscriber, only read by polls through the snapshot
+        private final Map<PlcField, PolledField> fields = new LinkedHashMap<>();
+
+        private final ScheduledFuture<?> task;
+
+        private volatile Snapshot snapshot;
+
+        // All access is synchronized on this
+        private CompletableFuture<PlcReadResponse> outstanding;
+
+        private int skippedPolls;
+
+        private PollingGroup(long intervalMillis) {
+            this.intervalMillis = intervalMillis;
+            this.task = scheduler.scheduleAtFixedRate(this, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Builds the request for the current fields, which is used from the next poll on.
+         */
+        private void update() {
+            LinkedHashMap<String, PlcField> requestFields = new LinkedHashMap<>();
+            PolledField[] polledFields = fields.values().toArray(new PolledField[0]);
+            for (int i = 0; i < polledFields.length; i++) {
+                requestFields.put(String.valueOf(i), polledFields[i].field);
+            }
+            snapshot = new Snapshot(new PreparedPlcReadRequest(reader, requestFields), polledFields);
+        }
+
+        private void cancel() {
+            task.cancel(false);
+            snapshot = null;
+        }
+
+        @Override
+        public synchronized void run() {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            if ((outstanding != null) && (++skippedPolls < MAX_SKIPPED_POLLS)) {
+                LOGGER.trace("Skipping poll of {} ms fields, the previous read is still outstanding", intervalMillis);
+                return;
+            }
+            if (outstanding != null) {
+                LOGGER.warn("No response for the poll of {} ms fields after {} cycles", intervalMillis, skippedPolls);
+            }
+            skippedPolls = 0;
+            CompletableFuture<PlcReadResponse> response;
+            try {
+                response = reader.read(current.request);
+            } catch (RuntimeException e) {
+                response = new CompletableFuture<>();
+                response.completeExceptionally(e);
+            }
+            outstanding = response;
+            CompletableFuture<PlcReadResponse> read = response;
+            read.whenCompleteAsync((plcReadResponse, throwable) -> complete(current, read, plcReadResponse, throwable),
+                scheduler);
+        }
+
+        private synchronized void complete(Snapshot current, CompletableFuture<PlcReadResponse> read,
+                                           PlcReadResponse response, Throwable throwable) {
+            // Responses to abandoned reads are dropped
+            if (outstanding != read) {
+                return;
+            }
+            outstanding = null;
+            if (throwable != null) {
+                LOGGER.debug("Poll of {} ms fields failed", intervalMillis, throwable);
+                return;
+            }
+            dispatch(current, (InternalPlcReadResponse) response);
+        }
+
+        private void dispatch(Snapshot current, InternalPlcReadResponse response) {
+            Instant timestamp = Instant.now();
+            Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> values = response.getValues();
+            Map<Registration, Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>> events = new LinkedHashMap<>();
+            for (int i = 0; i < current.fields.length; i++) {
+                PolledField polledField = current.fields[i];
+                Pair<PlcResponseCode, BaseDefaultFieldItem> value = values.get(String.valueOf(i));
+                if (value == null) {
+                    value = ImmutablePair.of(PlcResponseCode.INTERNAL_ERROR, null);
+                }
+                boolean changed = hasChanged(polledField.lastReported, value);
+                if (changed) {
+                    polledField.lastReported = value;
+                }
+                for (PollingHandle handle : polledField.handles) {
+                    if (!handle.cyclic && !changed && handle.initialValueSent) {
+                        continue;
+                    }
+                    // A handle without consumers gets the current value as soon as one registers
+                    for (Registration registration : handle.registrations) {
+                        events.computeIfAbsent(registration, key -> new HashMap<>()).put(handle.name, value);
+                        handle.initialValueSent = true;
+                    }
+                }
+            }
+            events.forEach((registration, fields) -> {
+                try {
+                    registration.consumer.accept(new DefaultPlcSubscriptionEvent(timestamp, fields));
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Consumer failed to handle subscription event", e);
+                }
+            });
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final InternalPlcReadRequest request;
+
+        private final PolledField[] fields;
+
+        private Snapshot(InternalPlcReadRequest request, PolledField[] fields) {
+            this.request = request;
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * A distinct field, which is shared by all its subscriptions.
+     */
+    private static final class PolledField {
+
+        private final PlcField field;
+
+        private final PollingGroup group;
+
+        private final List<PollingHandle> handles = new CopyOnWriteArrayList<>();
+
+        // Only accessed while synchronized on the group
+        private Pair<PlcResponseCode, BaseDefaultFieldItem> lastReported;
+
+        private PolledField(PlcField field, PollingGroup group) {
+            this.field = field;
+            this.group = group;
+        }
+    }
+
+    private final class PollingHandle extends DefaultPlcSubscriptionHandle {
+
+        private final String name;
+
+        private final PolledField polledField;
+
+        private final boolean cyclic;
+
+        private final Set<Registration> registrations = new CopyOnWriteArraySet<>();
+
+        // Only accessed while synchronized on the group
+        private boolean initialValueSent;
+
+        private PollingHandle(String name, PolledField polledField, boolean cyclic) {
+            super(PollingPlcSubscriber.this);
+            this.name = name;
+            this.polledField = polledField;
+            this.cyclic = cyclic;
+        }
+    }
+
+    /**
+     * Scheduler of all subscribers which aren't given one, created on first use.
+     */
+    private static final class SharedScheduler {
+
+        private static final ScheduledExecutorService INSTANCE = create();
+
+        private static ScheduledExecutorService create() {
+            AtomicInteger threadCount = new AtomicInteger();
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "plc4x-polling-subscriber-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+
+    private static final class Registration {
+
+        private final Consumer<PlcSubscriptionEvent> consumer;
+
+        private Registration(Consumer<PlcSubscriptionEvent> consumer) {
+            this.consumer = consumer;
+        }
+    }
+
+}
@@ -567,6 +567,53 @@ public class DefaultPlcReadResponse implements InternalPlcReadResponse {
         return values;
     }
 
+    @Override
+    public int getInt(String name) {
+        return getInt(name, 0);
+    }
+
+    @Override
+    public int getInt(String name, int index) {
+        BaseDefaultFieldItem fieldInternal = getFieldInternal(name);
+        return fieldInternal.getInt(index);
+    }
+
+    @Override
+    public boolean[] getBooleanArray(String name) {
+        BaseDefaultFieldItem fieldInternal = getFieldInternal(name);
+        return fieldInternal.getBooleanArray();
+    }
+
+    @Override
+    public short[] getShortArray(String name) {
+        BaseDefaultFieldItem fieldInternal = getFieldInternal(name);
+        return fieldInternal.getShortArray();
+    }
+
+    @Override
+    public int[] getIntArray(String name) {
+        BaseDefaultFieldItem fieldInternal = getFieldInternal(name);
+        return fieldInternal.getIntArray();
+    }
+
+    @Override
+    public long[] getLongArray(String name) {
+        BaseDefaultFieldItem fieldInternal = getFieldInternal(name);
+        return fieldInternal.getLongArray();
+    }
+
+    @Override
+    public float[] getFloatArray(String name) {
+        BaseDefaultFieldItem fieldInternal = getFieldInternal(name);
+        return fieldInternal.getFloatArray();
+    }
+
+    @Override
+    public double[] getDoubleArray(String name) {
+        BaseDefaultFieldItem fieldInternal = getFieldInternal(name);
+        return fieldInternal.getDoubleArray();
+    }
+
     protected BaseDefaultFieldItem getFieldInternal(String name) {
         Objects.requireNonNull(name, "Name argument required");
         // If this field doesn't exist, ignore it.
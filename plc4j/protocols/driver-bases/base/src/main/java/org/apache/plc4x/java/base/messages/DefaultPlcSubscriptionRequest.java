@@ -98,7 +98,7 @@ public class DefaultPlcSubscriptionRequest implements InternalPlcSubscriptionReq
             .collect(Collectors.toCollection(LinkedList::new));
     }
 
-    protected PlcSubscriber getSubscriber() {
+    public PlcSubscriber getSubscriber() {
         return subscriber;
     }
 
@@ -0,0 +1,240 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.base.messages;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.exceptions.PlcProtocolException;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link DefaultPlcReadResponse} which keeps the raw data of every field and only decodes it into a
+ * {@link BaseDefaultFieldItem} when the field is accessed for the first time. Fields which are never accessed are
+ * never decoded.
+ * <p>
+ * The response takes ownership of the passed buffers (which may be retained slices of pooled buffers). The buffer of a
+ * field is released as soon as it is decoded, all remaining buffers are released on {@link #close()}. Accessing a
+ * field which wasn't decoded before closing the response results in a {@link PlcRuntimeException}, so does every
+ * access of a field whose decoding failed.
+ */
+public class LazyPlcReadResponse extends DefaultPlcReadResponse implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface FieldDecoder {
+        BaseDefaultFieldItem decode(PlcField field, ByteBuf data) throws PlcProtocolException;
+    }
+
+    private final Map<String, LazyField> lazyFields;
+
+    /**
+     * @param request       the request this response belongs to.
+     * @param responseCodes the response code of every field.
+     * @param data          the raw data of every field with response code {@link PlcResponseCode#OK}.
+     * @param fieldDecoder  decodes the raw data of a single field.
+     */
+    public LazyPlcReadResponse(InternalPlcReadRequest request, Map<String, PlcResponseCode> responseCodes,
+                               Map<String, ByteBuf> data, FieldDecoder fieldDecoder) {
+        this(request, toLazyFields(request, responseCodes, data, fieldDecoder));
+    }
+
+    private LazyPlcReadResponse(InternalPlcReadRequest request, Map<String, LazyField> lazyFields) {
+        super(request, new DecodingFieldMap(lazyFields));
+        this.lazyFields = lazyFields;
+    }
+
+    private static Map<String, LazyField> toLazyFields(InternalPlcReadRequest request,
+                                                       Map<String, PlcResponseCode> responseCodes,
+                                                       Map<String, ByteBuf> data, FieldDecoder fieldDecoder) {
+        Map<String, LazyField> fields = new HashMap<>();
+        for (Map.Entry<String, PlcResponseCode> responseCode : responseCodes.entrySet()) {
+            String name = responseCode.getKey();
+            fields.put(name, new LazyField(request.getField(name), responseCode.getValue(), data.get(name), fieldDecoder));
+        }
+        return fields;
+    }
+
+    @Override
+    public PlcResponseCode getResponseCode(String name) {
+        return getLazyField(name).responseCode;
+    }
+
+    @Override
+    protected BaseDefaultFieldItem getFieldInternal(String name) {
+        Objects.requireNonNull(name, "Name argument required");
+        LazyField lazyField = getLazyField(name);
+        if (lazyField.responseCode != PlcResponseCode.OK) {
+            throw new PlcRuntimeException("Field '" + name + "' could not be fetched, response was " + lazyField.responseCode);
+        }
+        return lazyField.decode();
+    }
+
+    private LazyField getLazyField(String name) {
+        LazyField lazyField = lazyFields.get(name);
+        if (lazyField == null) {
+            throw new PlcInvalidFieldException(name);
+        }
+        return lazyField;
+    }
+
+    /**
+     * @param name name of the field.
+     * @return true if the field has already been decoded.
+     */
+    public boolean isDecoded(String name) {
+        LazyField lazyField = lazyFields.get(name);
+        return (lazyField != null) && lazyField.isDecoded();
+    }
+
+    /**
+     * Releases the buffers of all fields which haven't been decoded yet.
+     */
+    @Override
+    public void close() {
+        for (LazyField lazyField : lazyFields.values()) {
+            lazyField.release();
+        }
+    }
+
+    private static final class LazyField {
+
+        private final PlcField field;
+
+        private final PlcResponseCode responseCode;
+
+        private final FieldDecoder fieldDecoder;
+
+        private ByteBuf data;
+
+        private BaseDefaultFieldItem fieldItem;
+
+        // Cause of the failed decoding, every further access fails the same way.
+        private Exception decodingError;
+
+        private boolean released;
+
+        private LazyField(PlcField field, PlcResponseCode responseCode, ByteBuf data, FieldDecoder fieldDecoder) {
+            this.field = field;
+            this.responseCode = responseCode;
+            this.data = data;
+            this.fieldDecoder = fieldDecoder;
+        }
+
+        synchronized BaseDefaultFieldItem decode() {
+            if (decodingError != null) {
+                throw new PlcRuntimeException("Error decoding field " + field, decodingError);
+            }
+            if ((fieldItem == null) && (data != null)) {
+                try {
+                    fieldItem = fieldDecoder.decode(field, data);
+                } catch (PlcProtocolException | RuntimeException e) {
+                    decodingError = e;
+                    throw new PlcRuntimeException("Error decoding field " + field, e);
+                } finally {
+                    data.release();
+                    data = null;
+                }
+            } else if ((fieldItem == null) && released) {
+                throw new PlcRuntimeException("Response has already been closed, field " + field + " wasn't decoded");
+            }
+            return fieldItem;
+        }
+
+        synchronized boolean isDecoded() {
+            return fieldItem != null;
+        }
+
+        synchronized void release() {
+            if (data != null) {
+                data.release();
+                data = null;
+                released = true;
+            }
+        }
+    }
+
+    /**
+     * Read-only view of the lazy fields as returned by {@link #getValues()}, a field is decoded as soon as its entry
+     * is accessed.
+     */
+    private static final class DecodingFieldMap extends AbstractMap<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> {
+
+        private final Map<String, LazyField> lazyFields;
+
+        private DecodingFieldMap(Map<String, LazyField> lazyFields) {
+            this.lazyFields = lazyFields;
+        }
+
+        @Override
+        public Pair<PlcResponseCode, BaseDefaultFieldItem> get(Object key) {
+            LazyField lazyField = lazyFields.get(key);
+            return (lazyField != null) ? toPair(lazyField) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return lazyFields.containsKey(key);
+        }
+
+        @Override
+        public Set<Entry<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>> entrySet() {
+            return new AbstractSet<Entry<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>>() {
+                @Override
+                public Iterator<Entry<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>> iterator() {
+                    Iterator<Entry<String, LazyField>> iterator = lazyFields.entrySet().iterator();
+                    return new Iterator<Entry<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> next() {
+                            Entry<String, LazyField> entry = iterator.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), toPair(entry.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return lazyFields.size();
+                }
+            };
+        }
+
+        private static Pair<PlcResponseCode, BaseDefaultFieldItem> toPair(LazyField lazyField) {
+            BaseDefaultFieldItem fieldItem = (lazyField.responseCode == PlcResponseCode.OK) ? lazyField.decode() : null;
+            return ImmutablePair.of(lazyField.responseCode, fieldItem);
+        }
+    }
+
+}
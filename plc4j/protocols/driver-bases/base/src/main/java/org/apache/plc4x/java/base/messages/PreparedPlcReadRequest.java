@@ -0,0 +1,53 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.base.messages;
+
+import org.apache.plc4x.java.api.model.PlcField;
+
+import java.util.LinkedHashMap;
+
+/**
+ * A read request which is meant to be executed over and over again, for example by a poller. Its fields are only
+ * parsed once and protocol layers may cache anything derived from it (how it's split up into protocol messages, the
+ * encoded messages themselves) for the lifetime of the connection, using the request as key.
+ */
+public class PreparedPlcReadRequest extends DefaultPlcReadRequest {
+
+    public PreparedPlcReadRequest(PlcReader reader, LinkedHashMap<String, PlcField> fields) {
+        super(reader, fields);
+    }
+
+    /**
+     * @param message a protocol message.
+     * @return the prepared read request the given message has been created for, or null if it hasn't been created
+     * for a prepared read request.
+     */
+    public static PreparedPlcReadRequest of(PlcProtocolMessage message) {
+        PlcProtocolMessage current = message;
+        while (current != null) {
+            if (current instanceof PlcRequestContainer) {
+                Object request = ((PlcRequestContainer) current).getRequest();
+                return (request instanceof PreparedPlcReadRequest) ? (PreparedPlcReadRequest) request : null;
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+}
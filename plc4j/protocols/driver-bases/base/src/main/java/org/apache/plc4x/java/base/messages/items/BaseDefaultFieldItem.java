@@ -155,6 +155,79 @@ public abstract class BaseDefaultFieldItem<T> {
         throw new PlcIncompatibleDatatypeException(Byte[].class, index);
     }
 
+    /**
+     * Primitive variant of {@link #getInteger(int)}.
+     */
+    public int getInt(int index) {
+        return getInteger(index);
+    }
+
+    /**
+     * @return all values as {@code boolean[]}. Items backed by primitive values return them without boxing.
+     */
+    public boolean[] getBooleanArray() {
+        boolean[] result = new boolean[getNumberOfValues()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getBoolean(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return all values as {@code short[]}. Items backed by primitive values return them without boxing.
+     */
+    public short[] getShortArray() {
+        short[] result = new short[getNumberOfValues()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getShort(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return all values as {@code int[]}. Items backed by primitive values return them without boxing.
+     */
+    public int[] getIntArray() {
+        int[] result = new int[getNumberOfValues()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getInt(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return all values as {@code long[]}. Items backed by primitive values return them without boxing.
+     */
+    public long[] getLongArray() {
+        long[] result = new long[getNumberOfValues()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getLong(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return all values as {@code float[]}. Items backed by primitive values return them without boxing.
+     */
+    public float[] getFloatArray() {
+        float[] result = new float[getNumberOfValues()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getFloat(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return all values as {@code double[]}. Items backed by primitive values return them without boxing.
+     */
+    public double[] getDoubleArray() {
+        double[] result = new double[getNumberOfValues()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getDouble(i);
+        }
+        return result;
+    }
+
     public T[] getValues() {
         return values;
     }
@@ -166,6 +239,15 @@ public abstract class BaseDefaultFieldItem<T> {
         return values[index];
     }
 
+    /**
+     * Range check for subclasses which keep their values outside of {@link #getValues()}.
+     */
+    protected void checkIndex(int index) {
+        if ((index < 0) || (index >= getNumberOfValues())) {
+            throw new PlcFieldRangeException(getNumberOfValues() - 1, index);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -175,18 +257,18 @@ public abstract class BaseDefaultFieldItem<T> {
             return false;
         }
         BaseDefaultFieldItem<?> fieldItem = (BaseDefaultFieldItem<?>) o;
-        return Arrays.equals(values, fieldItem.values);
+        return Arrays.equals(getValues(), fieldItem.getValues());
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(values);
+        return Arrays.hashCode(getValues());
     }
 
     @Override
     public String toString() {
         return getClass().getSimpleName() + "{" +
-            "values=" + Arrays.toString(values) +
+            "values=" + Arrays.toString(getValues()) +
             '}';
     }
 
@@ -0,0 +1,110 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.base.messages.items;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * {@link DefaultBooleanFieldItem} backed by a {@link BitSet}, so decoding large arrays of bits doesn't create a
+ * {@code Boolean[]}.
+ */
+public class DefaultPrimitiveBooleanFieldItem extends DefaultBooleanFieldItem {
+
+    private final BitSet bits;
+
+    private final int numberOfValues;
+
+    public DefaultPrimitiveBooleanFieldItem(BitSet bits, int numberOfValues) {
+        // The values are kept in the bit set instead of the boxed array of the super class.
+        super();
+        // Only keep the bits belonging to the values, so two items with the same values have equal bit sets.
+        this.bits = Objects.requireNonNull(bits).get(0, numberOfValues);
+        this.numberOfValues = numberOfValues;
+    }
+
+    public DefaultPrimitiveBooleanFieldItem(boolean... values) {
+        this(toBitSet(values), values.length);
+    }
+
+    @Override
+    public int getNumberOfValues() {
+        return numberOfValues;
+    }
+
+    @Override
+    protected Boolean getValue(int index) {
+        checkIndex(index);
+        return bits.get(index);
+    }
+
+    @Override
+    public Boolean[] getValues() {
+        Boolean[] values = new Boolean[numberOfValues];
+        for (int i = 0; i < numberOfValues; i++) {
+            values[i] = bits.get(i);
+        }
+        return values;
+    }
+
+    @Override
+    public boolean[] getBooleanArray() {
+        boolean[] values = new boolean[numberOfValues];
+        for (int i = bits.nextSetBit(0); (i >= 0) && (i < numberOfValues); i = bits.nextSetBit(i + 1)) {
+            values[i] = true;
+        }
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof DefaultPrimitiveBooleanFieldItem) {
+            DefaultPrimitiveBooleanFieldItem other = (DefaultPrimitiveBooleanFieldItem) o;
+            return (numberOfValues == other.numberOfValues) && bits.equals(other.bits);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        // Equal to the hash code of the boxed values, so it stays consistent with the boxed items.
+        int result = 1;
+        for (int i = 0; i < numberOfValues; i++) {
+            result = 31 * result + Boolean.hashCode(bits.get(i));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+            "values=" + Arrays.toString(getBooleanArray()) +
+            '}';
+    }
+
+    private static BitSet toBitSet(boolean[] values) {
+        BitSet bitSet = new BitSet(values.length);
+        for (int i = 0; i < values.length; i++) {
+            bitSet.set(i, values[i]);
+        }
+        return bitSet;
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.base.messages.items;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@link DefaultDoubleFieldItem} backed by a {@code double[]}, so decoding large arrays doesn't create a
+ * {@link Double} per element. Boxed values are only created when accessed through the boxed getters.
+ */
+public class DefaultPrimitiveDoubleFieldItem extends DefaultDoubleFieldItem {
+
+    private final double[] primitiveValues;
+
+    public DefaultPrimitiveDoubleFieldItem(double... values) {
+        // The values are kept in primitiveValues instead of the boxed array of the super class.
+        super();
+        this.primitiveValues = Objects.requireNonNull(values);
+    }
+
+    @Override
+    public int getNumberOfValues() {
+        return primitiveValues.length;
+    }
+
+    @Override
+    protected Double getValue(int index) {
+        checkIndex(index);
+        return primitiveValues[index];
+    }
+
+    @Override
+    public Double[] getValues() {
+        Double[] values = new Double[primitiveValues.length];
+        for (int i = 0; i < primitiveValues.length; i++) {
+            values[i] = primitiveValues[i];
+        }
+        return values;
+    }
+
+    @Override
+    public double[] getDoubleArray() {
+        return primitiveValues.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof DefaultPrimitiveDoubleFieldItem) {
+            return Arrays.equals(primitiveValues, ((DefaultPrimitiveDoubleFieldItem) o).primitiveValues);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        // Equal to the hash code of the boxed values, so it stays consistent with the boxed items.
+        return Arrays.hashCode(primitiveValues);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+            "values=" + Arrays.toString(primitiveValues) +
+            '}';
+    }
+
+}
@@ -160,7 +160,8 @@ public class SingleItemToSingleRequestProtocol extends ChannelDuplexHandler {
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         // Send everything so we get a proper failure for those pending writes
         this.queue.removeAndWriteAll();
-        this.timer.stop();
+        // The timer is shared between all connections, so only our own timeouts are cancelled.
+        this.scheduledTimeouts.values().forEach(Timeout::cancel);
         this.scheduledTimeouts.clear();
         this.sentButUnacknowledgedSubContainer.clear();
         this.correlationToParentContainer.clear();
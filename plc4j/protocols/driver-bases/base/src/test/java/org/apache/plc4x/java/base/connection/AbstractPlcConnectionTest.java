@@ -21,13 +21,20 @@ package org.apache.plc4x.java.base.connection;
 
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.plc4x.java.api.exceptions.PlcUnsupportedOperationException;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.base.messages.DefaultPlcReadRequest;
 import org.apache.plc4x.java.base.messages.PlcReader;
+import org.apache.plc4x.java.base.messages.PreparedPlcReadRequest;
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class AbstractPlcConnectionTest implements WithAssertions {
 
@@ -73,6 +80,25 @@ class AbstractPlcConnectionTest implements WithAssertions {
         assertThatThrownBy(() -> SUT.readRequestBuilder()).isInstanceOf(PlcUnsupportedOperationException.class);
     }
 
+    @Test
+    void prepareRead() {
+        assertThatThrownBy(() -> SUT.prepareRead(mock(PlcReadRequest.class))).isInstanceOf(PlcUnsupportedOperationException.class);
+
+        ReadingPlcConnection connection = new ReadingPlcConnection();
+        PlcFieldHandler fieldHandler = mock(PlcFieldHandler.class);
+        PlcField field = mock(PlcField.class);
+        when(fieldHandler.createField("field")).thenReturn(field);
+        PlcReadRequest readRequest = new DefaultPlcReadRequest.Builder(connection, fieldHandler)
+            .addItem("name", "field")
+            .build();
+
+        PlcReadRequest preparedRequest = connection.prepareRead(readRequest);
+        assertThat(preparedRequest).isInstanceOf(PreparedPlcReadRequest.class);
+        assertThat(preparedRequest.getFieldNames()).containsExactly("name");
+        assertThat(preparedRequest.getField("name")).isSameAs(field);
+        assertThat(connection.prepareRead(preparedRequest)).isSameAs(preparedRequest);
+    }
+
     @Test
     void writeRequestBuilder() {
         assertThatThrownBy(() -> SUT.writeRequestBuilder()).isInstanceOf(PlcUnsupportedOperationException.class);
@@ -97,5 +123,33 @@ class AbstractPlcConnectionTest implements WithAssertions {
         assertThat(readRequest).isNotNull();
     }
 
+    private static class ReadingPlcConnection extends AbstractPlcConnection implements PlcReader {
+
+        @Override
+        public void connect() {
+            throw new NotImplementedException("not used");
+        }
+
+        @Override
+        public boolean isConnected() {
+            throw new NotImplementedException("not used");
+        }
+
+        @Override
+        public void close() {
+            throw new NotImplementedException("not used");
+        }
+
+        @Override
+        public boolean canRead() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
+            throw new NotImplementedException("not used");
+        }
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.java.base.connection;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class EventLoopGroupProviderTest implements WithAssertions {
+
+    private static final String TRANSPORT_NAME = "test-nio";
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(EventLoopGroupProvider.SHUTDOWN_DELAY_PROPERTY);
+    }
+
+    @Test
+    public void sharedGroupIsReusedAndShutDownAfterLastRelease() {
+        System.setProperty(EventLoopGroupProvider.SHUTDOWN_DELAY_PROPERTY, "0");
+        EventLoopGroup first = EventLoopGroupProvider.acquire(TRANSPORT_NAME, NioEventLoopGroup::new);
+        EventLoopGroup second = EventLoopGroupProvider.acquire(TRANSPORT_NAME, NioEventLoopGroup::new);
+        assertThat(second).isSameAs(first);
+        assertThat(EventLoopGroupProvider.getReferenceCount(TRANSPORT_NAME)).isEqualTo(2);
+
+        EventLoopGroupProvider.release(first);
+        assertThat(first.isShuttingDown()).isFalse();
+
+        EventLoopGroupProvider.release(second);
+        assertThat(first.isShuttingDown()).isTrue();
+        assertThat(EventLoopGroupProvider.getReferenceCount(TRANSPORT_NAME)).isEqualTo(0);
+    }
+
+    @Test
+    public void newGroupIsCreatedAfterShutdown() {
+        System.setProperty(EventLoopGroupProvider.SHUTDOWN_DELAY_PROPERTY, "0");
+        EventLoopGroup first = EventLoopGroupProvider.acquire(TRANSPORT_NAME, NioEventLoopGroup::new);
+        EventLoopGroupProvider.release(first);
+
+        EventLoopGroup second = EventLoopGroupProvider.acquire(TRANSPORT_NAME, NioEventLoopGroup::new);
+        try {
+            assertThat(second).isNotSameAs(first);
+            assertThat(second.isShuttingDown()).isFalse();
+        } finally {
+            EventLoopGroupProvider.release(second);
+        }
+    }
+
+    @Test
+    public void unusedGroupIsKeptAliveForTheShutdownDelay() throws Exception {
+        System.setProperty(EventLoopGroupProvider.SHUTDOWN_DELAY_PROPERTY, "200");
+        EventLoopGroup first = EventLoopGroupProvider.acquire(TRANSPORT_NAME, NioEventLoopGroup::new);
+        EventLoopGroupProvider.release(first);
+        assertThat(first.isShuttingDown()).isFalse();
+
+        // Acquiring the group again within the delay cancels the shutdown.
+        EventLoopGroup second = EventLoopGroupProvider.acquire(TRANSPORT_NAME, NioEventLoopGroup::new);
+        assertThat(second).isSameAs(first);
+        TimeUnit.MILLISECONDS.sleep(400);
+        assertThat(second.isShuttingDown()).isFalse();
+
+        EventLoopGroupProvider.release(second);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!second.isShuttingDown() && (System.nanoTime() < deadline)) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(second.isShuttingDown()).isTrue();
+        assertThat(EventLoopGroupProvider.getReferenceCount(TRANSPORT_NAME)).isEqualTo(0);
+    }
+
+}
@@ -22,6 +22,8 @@ package org.apache.plc4x.java.base.connection;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.base.events.ConnectEvent;
@@ -84,6 +86,41 @@ public class NettyPlcConnectionTest implements WithAssertions {
         SUT.close();
     }
 
+    @Test
+    public void closeOnTheEventLoop() throws Exception {
+        // Completes the close only later, so waiting for it on the event loop would fail.
+        ChannelPromise[] closePromise = new ChannelPromise[1];
+        EmbeddedChannel embeddedChannel = new EmbeddedChannel(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+                closePromise[0] = promise;
+            }
+        });
+        NettyPlcConnection connection = new NettyPlcConnection(new ChannelFactory() {
+            @Override
+            public Channel createChannel(ChannelHandler channelHandler) {
+                return embeddedChannel;
+            }
+
+            @Override
+            public void ping() {
+                // Ignore ...
+            }
+        }) {
+            @Override
+            protected ChannelHandler getChannelHandler(CompletableFuture<Void> sessionSetupCompleteFuture) {
+                return null;
+            }
+        };
+        connection.connect();
+
+        // The embedded channel's event loop is always the current thread.
+        connection.close();
+
+        assertThat(closePromise[0]).isNotNull();
+        assertThat(connection.getChannel()).isNull();
+    }
+
     @Test
     public void isConnected() {
         SUT.isConnected();
@@ -0,0 +1,117 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.base.connection;
+
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class PlcFieldCacheTest implements WithAssertions {
+
+    @Test
+    void fieldsAreOnlyParsedOnce() {
+        PlcFieldCache SUT = new PlcFieldCache(10);
+        CountingFieldHandler handler = new CountingFieldHandler(SUT);
+
+        PlcField first = handler.createField("a");
+        PlcField second = handler.createField("a");
+
+        assertThat(second).isSameAs(first);
+        assertThat(handler.parsed.get()).isEqualTo(1);
+        assertThat(SUT.getHits()).isEqualTo(1);
+        assertThat(SUT.getMisses()).isEqualTo(1);
+        assertThat(SUT.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void fieldsAreCachedPerHandlerType() {
+        PlcFieldCache SUT = new PlcFieldCache(10);
+        PlcField first = new CountingFieldHandler(SUT).createField("a");
+        PlcField second = new OtherFieldHandler(SUT).createField("a");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(SUT.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void cacheIsBounded() {
+        PlcFieldCache SUT = new PlcFieldCache(2);
+        CountingFieldHandler handler = new CountingFieldHandler(SUT);
+        handler.createField("a");
+        handler.createField("b");
+        handler.createField("c");
+
+        assertThat(SUT.getSize()).isEqualTo(2);
+        SUT.clear();
+        assertThat(SUT.getSize()).isEqualTo(0);
+        assertThat(SUT.getMisses()).isEqualTo(3);
+    }
+
+    @Test
+    void invalidFieldsAreNotCached() {
+        PlcFieldCache SUT = new PlcFieldCache(10);
+        CountingFieldHandler handler = new CountingFieldHandler(SUT);
+
+        assertThatThrownBy(() -> handler.createField("")).isInstanceOf(PlcInvalidFieldException.class);
+        assertThatThrownBy(() -> handler.createField("")).isInstanceOf(PlcInvalidFieldException.class);
+        assertThat(handler.parsed.get()).isEqualTo(2);
+        assertThat(SUT.getSize()).isEqualTo(0);
+    }
+
+    @Test
+    void disabledCacheParsesEveryTime() {
+        PlcFieldCache SUT = new PlcFieldCache(0);
+        CountingFieldHandler handler = new CountingFieldHandler(SUT);
+        handler.createField("a");
+        handler.createField("a");
+
+        assertThat(handler.parsed.get()).isEqualTo(2);
+        assertThat(SUT.getSize()).isEqualTo(0);
+    }
+
+    private static class CountingFieldHandler extends DefaultPlcFieldHandler {
+
+        private final AtomicInteger parsed = new AtomicInteger();
+
+        private CountingFieldHandler(PlcFieldCache fieldCache) {
+            super(fieldCache);
+        }
+
+        @Override
+        protected PlcField parseField(String fieldQuery) {
+            parsed.incrementAndGet();
+            if (fieldQuery.isEmpty()) {
+                throw new PlcInvalidFieldException(fieldQuery);
+            }
+            return new PlcField() {
+            };
+        }
+    }
+
+    private static class OtherFieldHandler extends CountingFieldHandler {
+
+        private OtherFieldHandler(PlcFieldCache fieldCache) {
+            super(fieldCache);
+        }
+    }
+
+}
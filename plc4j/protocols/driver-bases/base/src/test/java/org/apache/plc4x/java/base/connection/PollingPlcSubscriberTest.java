@@ -0,0 +1,304 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.base.connection;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.plc4x.java.api.messages.*;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.base.messages.DefaultPlcSubscriptionRequest;
+import org.apache.plc4x.java.base.messages.DefaultPlcUnsubscriptionRequest;
+import org.apache.plc4x.java.base.messages.InternalPlcReadRequest;
+import org.apache.plc4x.java.base.messages.PlcReader;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+import org.apache.plc4x.java.base.messages.items.DefaultDoubleFieldItem;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PollingPlcSubscriberTest implements WithAssertions {
+
+    private final Map<Long, Runnable> polls = new HashMap<>();
+
+    private final Map<Long, ScheduledFuture<?>> pollFutures = new HashMap<>();
+
+    private final List<InternalPlcReadRequest> reads = new ArrayList<>();
+
+    private final Map<String, Double> values = new HashMap<>();
+
+    private CompletableFuture<PlcReadResponse> pendingResponse;
+
+    private PlcReader reader;
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    void setUp() {
+        reader = mock(PlcReader.class);
+        when(reader.read(any())).thenAnswer(invocation -> {
+            InternalPlcReadRequest request = invocation.getArgument(0);
+            reads.add(request);
+            if (pendingResponse != null) {
+                return pendingResponse;
+            }
+            Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> fields = new HashMap<>();
+            for (String name : request.getFieldNames()) {
+                Double value = values.get(((TestField) request.getField(name)).address);
+                fields.put(name, value != null
+                    ? ImmutablePair.of(PlcResponseCode.OK, new DefaultDoubleFieldItem(value))
+                    : ImmutablePair.of(PlcResponseCode.NOT_FOUND, null));
+            }
+            return CompletableFuture.completedFuture(new DefaultPlcReadResponse(request, fields));
+        });
+
+        // Polls are run by the test, everything else right away
+        scheduler = mock(ScheduledExecutorService.class);
+        when(scheduler.scheduleAtFixedRate(any(), anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS))).thenAnswer(invocation -> {
+            long period = invocation.getArgument(2);
+            ScheduledFuture<?> future = mock(ScheduledFuture.class);
+            polls.put(period, invocation.getArgument(0));
+            pollFutures.put(period, future);
+            return future;
+        });
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(scheduler).execute(any());
+    }
+
+    @Test
+    void fieldsAreGroupedByIntervalAndReadOnce() {
+        values.put("a", 1.0);
+        values.put("b", 2.0);
+        values.put("c", 3.0);
+        PollingPlcSubscriber SUT = new PollingPlcSubscriber(reader, Duration.ofSeconds(1), 0, scheduler);
+        List<PlcSubscriptionEvent> firstEvents = new ArrayList<>();
+        List<PlcSubscriptionEvent> secondEvents = new ArrayList<>();
+
+        PlcSubscriptionResponse first = subscribe(SUT, subscriptionRequest(SUT)
+            .addCyclicField("a1", "a", Duration.ofMillis(100))
+            .addCyclicField("b1", "b", Duration.ofMillis(100)));
+        register(SUT, first, firstEvents);
+        PlcSubscriptionResponse second = subscribe(SUT, subscriptionRequest(SUT)
+            .addCyclicField("a2", "a", Duration.ofMillis(100))
+            .addChangeOfStateField("c2", "c"));
+        register(SUT, second, secondEvents);
+
+        assertThat(polls.keySet()).containsExactlyInAnyOrder(100L, 1000L);
+        assertThat(SUT.getNumberOfPolledFields()).isEqualTo(3);
+        assertThat(SUT.getReadsPerSecond()).isEqualTo(11.0);
+
+        polls.get(100L).run();
+
+        assertThat(reads).hasSize(1);
+        assertThat(reads.get(0).getNumberOfFields()).isEqualTo(2);
+        assertThat(firstEvents).hasSize(1);
+        assertThat(firstEvents.get(0).getFieldNames()).containsExactlyInAnyOrder("a1", "b1");
+        assertThat(firstEvents.get(0).getDouble("b1")).isEqualTo(2.0);
+        assertThat(secondEvents).hasSize(1);
+        assertThat(secondEvents.get(0).getFieldNames()).containsExactly("a2");
+        assertThat(secondEvents.get(0).getDouble("a2")).isEqualTo(1.0);
+    }
+
+    @Test
+    void changeOfStateOnlyReportsChangesBeyondTheDeadband() {
+        PollingPlcSubscriber SUT = new PollingPlcSubscriber(reader, Duration.ofMillis(100), 0.5, scheduler);
+        List<PlcSubscriptionEvent> changes = new ArrayList<>();
+        List<PlcSubscriptionEvent> cycles = new ArrayList<>();
+        register(SUT, subscribe(SUT, subscriptionRequest(SUT).addChangeOfStateField("value", "a")), changes);
+        register(SUT, subscribe(SUT, subscriptionRequest(SUT).addCyclicField("value", "a", Duration.ofMillis(100))), cycles);
+
+        for (double value : new double[]{1.0, 1.2, 1.4, 1.6, 1.6}) {
+            values.put("a", value);
+            polls.get(100L).run();
+        }
+        values.remove("a");
+        polls.get(100L).run();
+
+        assertThat(reads).hasSize(6);
+        assertThat(cycles).hasSize(6);
+        // The initial value, the first value which differs by more than the deadband from it and the failed read
+        assertThat(changes).hasSize(3);
+        assertThat(changes.get(0).getDouble("value")).isEqualTo(1.0);
+        assertThat(changes.get(1).getDouble("value")).isEqualTo(1.6);
+        assertThat(changes.get(2).getResponseCode("value")).isEqualTo(PlcResponseCode.NOT_FOUND);
+    }
+
+    @Test
+    void consumerRegisteredAfterThePollsStartedGetsTheCurrentValue() {
+        values.put("a", 1.0);
+        PollingPlcSubscriber SUT = new PollingPlcSubscriber(reader, Duration.ofMillis(100), 0, scheduler);
+        List<PlcSubscriptionEvent> events = new ArrayList<>();
+        PlcSubscriptionResponse response = subscribe(SUT, subscriptionRequest(SUT).addChangeOfStateField("value", "a"));
+
+        polls.get(100L).run();
+        register(SUT, response, events);
+        polls.get(100L).run();
+        polls.get(100L).run();
+
+        assertThat(reads).hasSize(3);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getDouble("value")).isEqualTo(1.0);
+    }
+
+    @Test
+    void subscribersWithoutSchedulerShareOne() throws Exception {
+        values.put("a", 1.0);
+        PollingPlcSubscriber first = new PollingPlcSubscriber(reader, Duration.ofMillis(10), 0, null);
+        PollingPlcSubscriber second = new PollingPlcSubscriber(reader, Duration.ofMillis(10), 0, null);
+        try {
+            CompletableFuture<Thread> firstThread = new CompletableFuture<>();
+            BlockingQueue<Thread> secondThreads = new LinkedBlockingQueue<>();
+            first.register(event -> firstThread.complete(Thread.currentThread()),
+                subscribe(first, subscriptionRequest(first).addChangeOfStateField("value", "a")).getSubscriptionHandles());
+            second.register(event -> secondThreads.add(Thread.currentThread()),
+                subscribe(second, subscriptionRequest(second).addCyclicField("value", "a", Duration.ofMillis(10))).getSubscriptionHandles());
+
+            assertThat(firstThread.get(5, TimeUnit.SECONDS).getName()).startsWith("plc4x-polling-subscriber-");
+            assertThat(secondThreads.poll(5, TimeUnit.SECONDS).getName()).startsWith("plc4x-polling-subscriber-");
+            assertThat(Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("plc4x-polling-subscriber-"))
+                .count()).isLessThanOrEqualTo(Runtime.getRuntime().availableProcessors());
+
+            // Closing one subscriber doesn't stop the shared scheduler
+            first.close();
+            secondThreads.clear();
+            assertThat(secondThreads.poll(5, TimeUnit.SECONDS)).isNotNull();
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    void pollsAreSkippedWhileAReadIsOutstanding() {
+        values.put("a", 1.0);
+        PollingPlcSubscriber SUT = new PollingPlcSubscriber(reader, Duration.ofMillis(100), 0, scheduler);
+        List<PlcSubscriptionEvent> events = new ArrayList<>();
+        register(SUT, subscribe(SUT, subscriptionRequest(SUT).addChangeOfStateField("value", "a")), events);
+        pendingResponse = new CompletableFuture<>();
+
+        polls.get(100L).run();
+        polls.get(100L).run();
+        assertThat(reads).hasSize(1);
+
+        CompletableFuture<PlcReadResponse> lostResponse = pendingResponse;
+        pendingResponse = new CompletableFuture<>();
+        for (int i = 1; i < PollingPlcSubscriber.MAX_SKIPPED_POLLS; i++) {
+            polls.get(100L).run();
+        }
+        // The read is considered lost and polled again
+        assertThat(reads).hasSize(2);
+        lostResponse.complete(new DefaultPlcReadResponse(reads.get(0), Collections.singletonMap("0",
+            ImmutablePair.of(PlcResponseCode.OK, new DefaultDoubleFieldItem(1.0)))));
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void unsubscribingTheLastHandleStopsPolling() {
+        values.put("a", 1.0);
+        PollingPlcSubscriber SUT = new PollingPlcSubscriber(reader, Duration.ofMillis(100), 0, scheduler);
+        PlcSubscriptionResponse first = subscribe(SUT, subscriptionRequest(SUT).addChangeOfStateField("value", "a"));
+        PlcSubscriptionResponse second = subscribe(SUT, subscriptionRequest(SUT).addChangeOfStateField("value", "a"));
+        assertThat(SUT.getNumberOfPolledFields()).isEqualTo(1);
+
+        SUT.unsubscribe(new DefaultPlcUnsubscriptionRequest.Builder(SUT).addHandles(first.getSubscriptionHandles()).build());
+        assertThat(SUT.getNumberOfPolledFields()).isEqualTo(1);
+        verify(pollFutures.get(100L), never()).cancel(anyBoolean());
+
+        SUT.unsubscribe(new DefaultPlcUnsubscriptionRequest.Builder(SUT).addHandles(second.getSubscriptionHandles()).build());
+        assertThat(SUT.getNumberOfPolledFields()).isEqualTo(0);
+        verify(pollFutures.get(100L)).cancel(false);
+    }
+
+    @Test
+    void eventSubscriptionsAreNotSupported() {
+        PollingPlcSubscriber SUT = new PollingPlcSubscriber(reader, Duration.ofMillis(100), 0, scheduler);
+
+        PlcSubscriptionResponse response = subscribe(SUT, subscriptionRequest(SUT).addEventField("value", "a"));
+
+        assertThat(response.getResponseCode("value")).isEqualTo(PlcResponseCode.INTERNAL_ERROR);
+        assertThat(polls).isEmpty();
+    }
+
+    @Test
+    void closedSubscriberRejectsSubscriptions() {
+        PollingPlcSubscriber SUT = new PollingPlcSubscriber(reader, Duration.ofMillis(100), 0, scheduler);
+        subscribe(SUT, subscriptionRequest(SUT).addChangeOfStateField("value", "a"));
+
+        SUT.close();
+
+        verify(pollFutures.get(100L)).cancel(false);
+        assertThat(SUT.subscribe(subscriptionRequest(SUT).addChangeOfStateField("value", "a").build()))
+            .isCompletedExceptionally();
+    }
+
+    private static PlcSubscriptionRequest.Builder subscriptionRequest(PollingPlcSubscriber subscriber) {
+        return new DefaultPlcSubscriptionRequest.Builder(subscriber, new DefaultPlcFieldHandler() {
+            @Override
+            protected PlcField parseField(String fieldQuery) {
+                return new TestField(fieldQuery);
+            }
+        });
+    }
+
+    private static PlcSubscriptionResponse subscribe(PollingPlcSubscriber subscriber, PlcSubscriptionRequest.Builder builder) {
+        return subscriber.subscribe(builder.build()).join();
+    }
+
+    private static void register(PollingPlcSubscriber subscriber, PlcSubscriptionResponse response, List<PlcSubscriptionEvent> events) {
+        subscriber.register(events::add, response.getSubscriptionHandles());
+    }
+
+    private static class TestField implements PlcField {
+
+        private final String address;
+
+        private TestField(String address) {
+            this.address = address;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof TestField) && address.equals(((TestField) o).address);
+        }
+
+        @Override
+        public int hashCode() {
+            return address.hashCode();
+        }
+    }
+
+}
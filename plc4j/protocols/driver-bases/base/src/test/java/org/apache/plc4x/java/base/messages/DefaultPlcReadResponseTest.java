@@ -27,6 +27,8 @@ import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
 import org.apache.plc4x.java.base.messages.items.DefaultByteArrayFieldItem;
+import org.apache.plc4x.java.base.messages.items.DefaultIntegerFieldItem;
+import org.apache.plc4x.java.base.messages.items.DefaultPrimitiveFloatFieldItem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -117,4 +119,16 @@ class DefaultPlcReadResponseTest {
         assertThat(byteArrays, notNullValue());
     }
 
-}
\ No newline at end of file
+    @Test
+    void getPrimitiveArrays() {
+        Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> fields = new HashMap<>();
+        fields.put("floats", new ImmutablePair<>(PlcResponseCode.OK, new DefaultPrimitiveFloatFieldItem(1.5f, 2.5f)));
+        fields.put("ints", new ImmutablePair<>(PlcResponseCode.OK, new DefaultIntegerFieldItem(1, 2)));
+        DefaultPlcReadResponse response = new DefaultPlcReadResponse(request, fields);
+        assertThat(response.getFloatArray("floats"), equalTo(new float[]{1.5f, 2.5f}));
+        assertThat(response.getDoubleArray("floats"), equalTo(new double[]{1.5, 2.5}));
+        assertThat(response.getIntArray("ints"), equalTo(new int[]{1, 2}));
+        assertThat(response.getInt("ints", 1), equalTo(2));
+    }
+
+}
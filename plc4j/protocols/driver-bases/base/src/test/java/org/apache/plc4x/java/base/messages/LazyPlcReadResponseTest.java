@@ -0,0 +1,145 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.base.messages;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+import org.apache.plc4x.java.base.messages.items.DefaultPrimitiveIntegerFieldItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LazyPlcReadResponseTest {
+
+    @Mock
+    private InternalPlcReadRequest request;
+
+    private ByteBuf inbound;
+    private ByteBuf fooData;
+    private ByteBuf barData;
+    private AtomicInteger decodeCount;
+    private LazyPlcReadResponse SUT;
+
+    @BeforeEach
+    void setUp() {
+        when(request.getField("foo")).thenReturn(mock(PlcField.class));
+        when(request.getField("bar")).thenReturn(mock(PlcField.class));
+        when(request.getField("baz")).thenReturn(mock(PlcField.class));
+        inbound = PooledByteBufAllocator.DEFAULT.buffer();
+        inbound.writeInt(42).writeInt(23);
+        fooData = inbound.retainedSlice(0, 4);
+        barData = inbound.retainedSlice(4, 4);
+        // The inbound buffer itself is released by the pipeline, the response holds its slices.
+        inbound.release();
+
+        Map<String, PlcResponseCode> responseCodes = new HashMap<>();
+        responseCodes.put("foo", PlcResponseCode.OK);
+        responseCodes.put("bar", PlcResponseCode.OK);
+        responseCodes.put("baz", PlcResponseCode.NOT_FOUND);
+        Map<String, ByteBuf> data = new HashMap<>();
+        data.put("foo", fooData);
+        data.put("bar", barData);
+        decodeCount = new AtomicInteger();
+        SUT = new LazyPlcReadResponse(request, responseCodes, data, (field, fieldData) -> {
+            decodeCount.incrementAndGet();
+            return new DefaultPrimitiveIntegerFieldItem(fieldData.readInt());
+        });
+    }
+
+    @Test
+    void fieldsAreOnlyDecodedOnAccess() {
+        assertThat(SUT.getResponseCode("foo"), equalTo(PlcResponseCode.OK));
+        assertThat(SUT.getResponseCode("baz"), equalTo(PlcResponseCode.NOT_FOUND));
+        assertThat(decodeCount.get(), equalTo(0));
+
+        assertThat(SUT.getInt("foo"), equalTo(42));
+        assertThat(SUT.getInteger("foo"), equalTo(42));
+        assertThat(decodeCount.get(), equalTo(1));
+        assertThat(SUT.isDecoded("foo"), is(true));
+        assertThat(SUT.isDecoded("bar"), is(false));
+        // The buffer of a decoded field is released right away.
+        assertThat(fooData.refCnt(), equalTo(0));
+        assertThat(barData.refCnt(), equalTo(1));
+
+        SUT.close();
+        assertThat(inbound.refCnt(), equalTo(0));
+    }
+
+    @Test
+    void decodingErrorsAreRethrownOnEveryAccess() {
+        Map<String, ByteBuf> data = new HashMap<>();
+        ByteBuf brokenData = PooledByteBufAllocator.DEFAULT.buffer().writeByte(1);
+        data.put("foo", brokenData);
+        LazyPlcReadResponse brokenResponse = new LazyPlcReadResponse(request,
+            Collections.singletonMap("foo", PlcResponseCode.OK), data, (field, fieldData) -> {
+                decodeCount.incrementAndGet();
+                return new DefaultPrimitiveIntegerFieldItem(fieldData.readInt());
+            });
+
+        PlcRuntimeException first = assertThrows(PlcRuntimeException.class, () -> brokenResponse.getInt("foo"));
+        PlcRuntimeException second = assertThrows(PlcRuntimeException.class, () -> brokenResponse.getInt("foo"));
+        assertThat(second.getCause(), sameInstance(first.getCause()));
+        assertThat(decodeCount.get(), equalTo(1));
+        assertThat(brokenData.refCnt(), equalTo(0));
+        SUT.close();
+    }
+
+    @Test
+    void valuesAreReadOnlyPairs() {
+        Pair<PlcResponseCode, BaseDefaultFieldItem> foo = SUT.getValues().get("foo");
+        assertThat(foo, instanceOf(ImmutablePair.class));
+        assertThat(foo.getRight().getInteger(0), equalTo(42));
+        assertThat(SUT.getValues().get("baz").getLeft(), equalTo(PlcResponseCode.NOT_FOUND));
+        assertThat(SUT.getValues().size(), equalTo(3));
+        SUT.close();
+    }
+
+    @Test
+    void closeReleasesUndecodedFields() {
+        SUT.close();
+        assertThat(inbound.refCnt(), equalTo(0));
+        assertThrows(PlcRuntimeException.class, () -> SUT.getInt("bar"));
+        assertThrows(PlcRuntimeException.class, () -> SUT.getInt("baz"));
+        assertThat(decodeCount.get(), equalTo(0));
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.base.messages.items;
+
+import org.apache.plc4x.java.api.exceptions.PlcFieldRangeException;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DefaultPrimitiveFieldItemTest {
+
+    @Test
+    void primitiveItemsBehaveLikeTheirBoxedCounterparts() {
+        assertThat(new DefaultPrimitiveShortFieldItem((short) 1, (short) 2), equalTo(new DefaultShortFieldItem((short) 1, (short) 2)));
+        assertThat(new DefaultPrimitiveIntegerFieldItem(1, 2), equalTo(new DefaultIntegerFieldItem(1, 2)));
+        assertThat(new DefaultPrimitiveLongFieldItem(1L, 2L), equalTo(new DefaultLongFieldItem(1L, 2L)));
+        assertThat(new DefaultPrimitiveFloatFieldItem(1.5f, 2f), equalTo(new DefaultFloatFieldItem(1.5f, 2f)));
+        assertThat(new DefaultPrimitiveDoubleFieldItem(1.5, 2), equalTo(new DefaultDoubleFieldItem(1.5, 2.0)));
+        assertThat(new DefaultPrimitiveBooleanFieldItem(true, false, true), equalTo(new DefaultBooleanFieldItem(true, false, true)));
+        assertThat(new DefaultPrimitiveIntegerFieldItem(1, 2).hashCode(), equalTo(new DefaultIntegerFieldItem(1, 2).hashCode()));
+    }
+
+    @Test
+    void equalsHashCodeAndToStringUseThePrimitiveValues() {
+        assertThat(new DefaultPrimitiveLongFieldItem(1L, 2L), equalTo(new DefaultPrimitiveLongFieldItem(1L, 2L)));
+        assertThat(new DefaultPrimitiveLongFieldItem(1L, 2L), not(equalTo(new DefaultPrimitiveLongFieldItem(1L, 3L))));
+        assertThat(new DefaultPrimitiveShortFieldItem((short) 1).hashCode(), equalTo(new DefaultShortFieldItem((short) 1).hashCode()));
+        assertThat(new DefaultPrimitiveLongFieldItem(1L, -2L).hashCode(), equalTo(new DefaultLongFieldItem(1L, -2L).hashCode()));
+        assertThat(new DefaultPrimitiveFloatFieldItem(1.5f).hashCode(), equalTo(new DefaultFloatFieldItem(1.5f).hashCode()));
+        assertThat(new DefaultPrimitiveDoubleFieldItem(1.5, 2).hashCode(), equalTo(new DefaultDoubleFieldItem(1.5, 2.0).hashCode()));
+        assertThat(new DefaultPrimitiveShortFieldItem((short) 1, (short) 2).toString(),
+            equalTo("DefaultPrimitiveShortFieldItem{values=[1, 2]}"));
+
+        // Bits beyond the number of values don't matter.
+        BitSet bits = new BitSet();
+        bits.set(1);
+        bits.set(5);
+        DefaultPrimitiveBooleanFieldItem booleanItem = new DefaultPrimitiveBooleanFieldItem(bits, 3);
+        assertThat(booleanItem, equalTo(new DefaultPrimitiveBooleanFieldItem(false, true, false)));
+        assertThat(booleanItem.hashCode(), equalTo(new DefaultBooleanFieldItem(false, true, false).hashCode()));
+        assertThat(booleanItem.toString(), equalTo("DefaultPrimitiveBooleanFieldItem{values=[false, true, false]}"));
+    }
+
+    @Test
+    void conversionsUseThePrimitiveValues() {
+        DefaultPrimitiveFloatFieldItem SUT = new DefaultPrimitiveFloatFieldItem(1.5f, 300f);
+        assertThat(SUT.getNumberOfValues(), equalTo(2));
+        assertThat(SUT.getObject(0), equalTo(1.5f));
+        assertThat(SUT.getDouble(1), equalTo(300.0));
+        assertThat(SUT.isValidByte(1), is(false));
+        assertThat(SUT.getInt(1), equalTo(300));
+        assertThat(SUT.getValues(), arrayContaining(1.5f, 300f));
+        assertThrows(PlcFieldRangeException.class, () -> SUT.getFloat(2));
+        assertThrows(PlcFieldRangeException.class, () -> SUT.getFloat(-1));
+    }
+
+    @Test
+    void primitiveArraysAreCopies() {
+        int[] values = {1, 2, 3};
+        DefaultPrimitiveIntegerFieldItem SUT = new DefaultPrimitiveIntegerFieldItem(values);
+        int[] intArray = SUT.getIntArray();
+        assertThat(intArray, equalTo(values));
+        intArray[0] = 42;
+        assertThat(SUT.getInt(0), equalTo(1));
+        assertThat(SUT.getLongArray(), equalTo(new long[]{1, 2, 3}));
+    }
+
+    @Test
+    void booleansAreBackedByABitSet() {
+        BitSet bits = new BitSet();
+        bits.set(1);
+        bits.set(9);
+        DefaultPrimitiveBooleanFieldItem SUT = new DefaultPrimitiveBooleanFieldItem(bits, 10);
+        // Changes to the passed bit set must not affect the item.
+        bits.set(0);
+        assertThat(SUT.getNumberOfValues(), equalTo(10));
+        assertThat(SUT.getBoolean(0), is(false));
+        assertThat(SUT.getBoolean(9), is(true));
+        assertThat(SUT.getBooleanArray(), equalTo(new boolean[]{false, true, false, false, false, false, false, false, false, true}));
+        assertThat(SUT.getCompleteByte(0), equalTo((byte) 0x02));
+        assertThrows(PlcFieldRangeException.class, () -> SUT.getBoolean(10));
+    }
+
+}
@@ -18,10 +18,17 @@ under the License.
 */
 package org.apache.plc4x.java.base.connection;
 
+import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.api.exceptions.PlcException;
+import org.apache.plc4x.java.utils.rawsockets.netty.RawSocketAddress;
+import org.apache.plc4x.java.utils.rawsockets.netty.RawSocketChannel;
+import org.apache.plc4x.java.utils.rawsockets.netty.RawSocketChannelOption;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -44,23 +51,29 @@ public class RawSocketChannelFactory implements ChannelFactory {
     @Override
     public Channel createChannel(ChannelHandler channelHandler)
         throws PlcConnectionException {
-        /*try {
+        // Raw socket channels block while connecting, so they share a group of plain event loops.
+        EventLoopGroup group = EventLoopGroupProvider.acquire("raw-socket", DefaultEventLoopGroup::new);
+        try {
             Bootstrap bootstrap = new Bootstrap();
-            bootstrap.group(new NioEventLoopGroup());
+            bootstrap.group(group);
             bootstrap.channel(RawSocketChannel.class);
-            bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
-            bootstrap.option(ChannelOption.TCP_NODELAY, true);
+            bootstrap.option(RawSocketChannelOption.PROTOCOL_ID, protocolId);
             bootstrap.handler(channelHandler);
             // Start the client.
-            ChannelFuture f = bootstrap.connect(address).sync();
+            ChannelFuture f = bootstrap.connect(new RawSocketAddress(address.getHostAddress())).sync();
             f.awaitUninterruptibly();
+            Channel channel = f.channel();
+            channel.closeFuture().addListener(future -> EventLoopGroupProvider.release(group));
             // Wait till the session is finished initializing.
-            return f.channel();
+            return channel;
         } catch (InterruptedException e) {
+            EventLoopGroupProvider.release(group);
             Thread.currentThread().interrupt();
             throw new PlcConnectionException("Error creating channel.", e);
-        }*/
-        return null;
+        } catch (Exception e) {
+            EventLoopGroupProvider.release(group);
+            throw new PlcConnectionException("Error creating channel.", e);
+        }
     }
 
     @Override
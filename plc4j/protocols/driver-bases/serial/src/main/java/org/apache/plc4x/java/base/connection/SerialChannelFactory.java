@@ -23,6 +23,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.jsc.JSerialCommChannel;
 import io.netty.channel.jsc.JSerialCommDeviceAddress;
 import io.netty.channel.oio.OioEventLoopGroup;
@@ -30,6 +31,8 @@ import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 
 public class SerialChannelFactory implements ChannelFactory {
 
+    private static final String TRANSPORT_NAME = "oio";
+
     private final String serialPort;
 
     public SerialChannelFactory(String serialPort) {
@@ -41,9 +44,12 @@ public class SerialChannelFactory implements ChannelFactory {
         throws PlcConnectionException {
         JSerialCommDeviceAddress address = new JSerialCommDeviceAddress(serialPort);
 
+        // Oio groups use one thread per registered channel anyway (so the configured thread count is ignored),
+        // sharing the group just makes sure we don't leave unused groups behind.
+        EventLoopGroup group = EventLoopGroupProvider.acquire(TRANSPORT_NAME, threads -> new OioEventLoopGroup());
         try {
             Bootstrap bootstrap = new Bootstrap();
-            bootstrap.group(new OioEventLoopGroup());
+            bootstrap.group(group);
             bootstrap.channel(JSerialCommChannel.class);
             bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
             bootstrap.option(ChannelOption.TCP_NODELAY, true);
@@ -51,11 +57,17 @@ public class SerialChannelFactory implements ChannelFactory {
             // Start the client.
             ChannelFuture f = bootstrap.connect(address).sync();
             f.awaitUninterruptibly();
+            Channel channel = f.channel();
+            channel.closeFuture().addListener(future -> EventLoopGroupProvider.release(group));
             // Wait till the session is finished initializing.
-            return f.channel();
+            return channel;
         } catch (InterruptedException e) {
+            EventLoopGroupProvider.release(group);
             Thread.currentThread().interrupt();
             throw new PlcConnectionException("Error creating channel.", e);
+        } catch (Exception e) {
+            EventLoopGroupProvider.release(group);
+            throw new PlcConnectionException("Error creating channel.", e);
         }
     }
 
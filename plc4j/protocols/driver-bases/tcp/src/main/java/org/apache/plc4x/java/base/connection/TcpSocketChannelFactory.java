@@ -23,8 +23,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.EventLoopGroup;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.api.exceptions.PlcException;
 
@@ -39,30 +38,43 @@ public class TcpSocketChannelFactory implements ChannelFactory {
     private final InetAddress address;
     private final int port;
 
+    private final TcpTransport transport;
+
     public TcpSocketChannelFactory(InetAddress address, int port) {
+        this(address, port, TcpTransport.select());
+    }
+
+    public TcpSocketChannelFactory(InetAddress address, int port, TcpTransport transport) {
         this.address = address;
         this.port = port;
+        this.transport = transport;
     }
 
     @Override
     public Channel createChannel(ChannelHandler channelHandler)
         throws PlcConnectionException {
+        // All channels share the same event loop group, which is released as soon as the channel is closed.
+        EventLoopGroup group = transport.acquireGroup();
         try {
             Bootstrap bootstrap = new Bootstrap();
-            bootstrap.group(new NioEventLoopGroup());
-            bootstrap.channel(NioSocketChannel.class);
+            bootstrap.group(group);
+            bootstrap.channel(transport.getChannelClass());
             bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
             bootstrap.option(ChannelOption.TCP_NODELAY, true);
             bootstrap.handler(channelHandler);
             // Start the client.
             ChannelFuture f = bootstrap.connect(address, port).sync();
             f.awaitUninterruptibly();
+            Channel channel = f.channel();
+            channel.closeFuture().addListener(future -> EventLoopGroupProvider.release(group));
             // Wait till the session is finished initializing.
-            return f.channel();
+            return channel;
         } catch (InterruptedException e) {
+            EventLoopGroupProvider.release(group);
             Thread.currentThread().interrupt();
             throw new PlcConnectionException("Error creating channel.", e);
         } catch (Exception e) {
+            EventLoopGroupProvider.release(group);
             throw new PlcConnectionException("Error creating channel.", e);
         }
     }
@@ -88,4 +100,8 @@ public class TcpSocketChannelFactory implements ChannelFactory {
         return port;
     }
 
+    public TcpTransport getTransport() {
+        return transport;
+    }
+
 }
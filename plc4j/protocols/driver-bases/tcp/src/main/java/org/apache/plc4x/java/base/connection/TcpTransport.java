@@ -0,0 +1,112 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.base.connection;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * The netty transport used by {@link TcpSocketChannelFactory}.
+ * <p>
+ * The transport is selected with the system property {@value #TRANSPORT_PROPERTY} which can be set to "nio", "epoll"
+ * or "auto" (default). In "auto" mode the native epoll transport is used if it is available on the classpath and
+ * the current platform supports it, otherwise nio is used.
+ */
+public enum TcpTransport {
+
+    NIO("nio") {
+        @Override
+        EventLoopGroup createGroup(int threads) {
+            return new NioEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends SocketChannel> getChannelClass() {
+            return NioSocketChannel.class;
+        }
+    },
+    EPOLL("epoll") {
+        @Override
+        EventLoopGroup createGroup(int threads) {
+            return new EpollEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends SocketChannel> getChannelClass() {
+            return EpollSocketChannel.class;
+        }
+    };
+
+    public static final String TRANSPORT_PROPERTY = "plc4x.tcp.transport";
+
+    private final String transportName;
+
+    TcpTransport(String transportName) {
+        this.transportName = transportName;
+    }
+
+    abstract EventLoopGroup createGroup(int threads);
+
+    public abstract Class<? extends SocketChannel> getChannelClass();
+
+    public String getTransportName() {
+        return transportName;
+    }
+
+    /**
+     * @return a shared event loop group for this transport, which has to be released via
+     * {@link EventLoopGroupProvider#release(EventLoopGroup)} as soon as the channel using it is closed.
+     */
+    public EventLoopGroup acquireGroup() {
+        return EventLoopGroupProvider.acquire(transportName, this::createGroup);
+    }
+
+    public static TcpTransport select() {
+        String configured = System.getProperty(TRANSPORT_PROPERTY, "auto");
+        switch (configured.toLowerCase()) {
+            case "nio":
+                return NIO;
+            case "epoll":
+                if (!isEpollAvailable()) {
+                    throw new IllegalStateException("Native epoll transport requested but not available");
+                }
+                return EPOLL;
+            case "auto":
+                return isEpollAvailable() ? EPOLL : NIO;
+            default:
+                throw new IllegalArgumentException("Unsupported value for " + TRANSPORT_PROPERTY + ": " + configured);
+        }
+    }
+
+    private static boolean isEpollAvailable() {
+        // The native transport is an optional dependency, so we have to check its presence first.
+        try {
+            Class.forName("io.netty.channel.epoll.Epoll", false, TcpTransport.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+        return Epoll.isAvailable();
+    }
+
+}
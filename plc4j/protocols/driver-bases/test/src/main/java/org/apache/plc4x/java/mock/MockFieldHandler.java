@@ -27,7 +27,7 @@ import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
 public class MockFieldHandler extends DefaultPlcFieldHandler {
 
     @Override
-    public PlcField createField(String fieldQuery) throws PlcInvalidFieldException {
+    protected PlcField parseField(String fieldQuery) throws PlcInvalidFieldException {
         return new MockField(fieldQuery);
     }
 
@@ -23,10 +23,12 @@ import com.digitalpetri.enip.EnipStatus;
 import com.digitalpetri.enip.cip.epath.EPath;
 import com.digitalpetri.enip.cip.epath.LogicalSegment;
 import com.digitalpetri.enip.cip.services.GetAttributeSingleService;
+import com.digitalpetri.enip.cip.structs.MessageRouterRequest;
 import com.digitalpetri.enip.cip.structs.MessageRouterResponse;
 import com.digitalpetri.enip.commands.*;
 import com.digitalpetri.enip.cpf.*;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageCodec;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -46,7 +48,10 @@ import org.apache.plc4x.java.ethernetip.model.EtherNetIpField;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -59,6 +64,28 @@ public class Plc4XEtherNetIpProtocol extends MessageToMessageCodec<EnipPacket, P
 
     private static final int SERVICE_COMMUNICATIONS_TYPE_CODE = 0x0100;
 
+    // Maximum size of an unconnected (UCMM) message.
+    public static final int DEFAULT_MAX_MESSAGE_SIZE = 504;
+
+    private static final int MULTIPLE_SERVICE_PACKET_SERVICE_CODE = 0x0A;
+    private static final int SET_ATTRIBUTE_SINGLE_SERVICE_CODE = 0x10;
+    // Service code, path size, path to the message router and number of services.
+    private static final int MULTIPLE_SERVICE_PACKET_HEADER_SIZE = 8;
+    private static final int MULTIPLE_SERVICE_PACKET_OFFSET_SIZE = 2;
+    private static final EPath.PaddedEPath MESSAGE_ROUTER_PATH = new EPath.PaddedEPath(
+        new LogicalSegment.ClassId(0x02), new LogicalSegment.InstanceId(0x01));
+
+    private static final int CIP_STATUS_SUCCESS = 0x00;
+    private static final int CIP_STATUS_PATH_SEGMENT_ERROR = 0x04;
+    private static final int CIP_STATUS_PATH_DESTINATION_UNKNOWN = 0x05;
+    private static final int CIP_STATUS_ATTRIBUTE_NOT_SETTABLE = 0x0E;
+    private static final int CIP_STATUS_PRIVILEGE_VIOLATION = 0x0F;
+    private static final int CIP_STATUS_NOT_ENOUGH_DATA = 0x13;
+    private static final int CIP_STATUS_ATTRIBUTE_NOT_SUPPORTED = 0x14;
+    private static final int CIP_STATUS_TOO_MUCH_DATA = 0x15;
+    private static final int CIP_STATUS_OBJECT_DOES_NOT_EXIST = 0x16;
+    private static final int CIP_STATUS_EMBEDDED_SERVICE_ERROR = 0x1E;
+
     private long sessionHandle = 0;
     private static final AtomicLong messageId = new AtomicLong();
 
@@ -78,7 +105,21 @@ public class Plc4XEtherNetIpProtocol extends MessageToMessageCodec<EnipPacket, P
     // for quire some time. Hereby freeing resources on both client and server.
     private Map<PlcField, Long> fieldConnectionMap = new ConcurrentHashMap<>();
 
-    private final Map<Long, PlcRequestContainer<InternalPlcRequest, InternalPlcResponse>> requestsMap = new ConcurrentHashMap<>();
+    private final Map<Long, Batch> requestsMap = new ConcurrentHashMap<>();
+
+    private final int maxMessageSize;
+
+    public Plc4XEtherNetIpProtocol() {
+        this(DEFAULT_MAX_MESSAGE_SIZE);
+    }
+
+    /**
+     * @param maxMessageSize maximum size of the CIP request sent with one packet. Fields of one request are packed into
+     *                       Multiple Service Packet requests of at most this size.
+     */
+    public Plc4XEtherNetIpProtocol(int maxMessageSize) {
+        this.maxMessageSize = maxMessageSize;
+    }
 
     /**
      * If the IsoTP protocol is used on top of the ISO on TCP protocol, then as soon as the pipeline receives the
@@ -136,41 +177,22 @@ public class Plc4XEtherNetIpProtocol extends MessageToMessageCodec<EnipPacket, P
             LOGGER.warn("CIP Encapsulation not supported by remote, payload encapsulation must be handled by target and originator");
         }
 
-        /*PlcWriteRequest request = (PlcWriteRequest) msg.getRequest();
-
-        // Create a ForwardOpen CIP request
-
-        // Create EIP UnconnectedDataItemRequest
-        UnconnectedDataItemRequest dataItem = new UnconnectedDataItemRequest(dataEncoder);
-        CpfPacket packet = new CpfPacket(new NullAddressItem(), dataItem);
-
-        // Send that via EIP SendRRData packet
-        CompletableFuture<T> future = new CompletableFuture<>();
-
-        sendRRData(new SendRRData(packet)).whenComplete((command, ex) -> {
-            if (command != null) {
-                CpfItem[] items = command.getPacket().getItems();
-
-                if (items.length == 2 &&
-                    items[0].getTypeId() == NullAddressItem.TYPE_ID &&
-                    items[1].getTypeId() == UnconnectedDataItemResponse.TYPE_ID) {
-
-                    ByteBuf data = ((UnconnectedDataItemResponse) items[1]).getData();
-
-                    future.complete(data);
-                } else {
-                    future.completeExceptionally(new Exception("received unexpected items"));
+        InternalPlcWriteRequest request = (InternalPlcWriteRequest) msg.getRequest();
+        List<Pair<String, ByteBuf>> services = new ArrayList<>(request.getNumberOfFields());
+        for (String fieldName : request.getFieldNames()) {
+            EtherNetIpField enipField = (EtherNetIpField) request.getField(fieldName);
+            BaseDefaultFieldItem fieldItem = request.getFieldItem(fieldName);
+            MessageRouterRequest service = new MessageRouterRequest(SET_ATTRIBUTE_SINGLE_SERVICE_CODE,
+                getPath(enipField), data -> {
+                for (int i = 0; i < fieldItem.getNumberOfValues(); i++) {
+                    data.writeShort(fieldItem.getShort(i));
                 }
-            } else {
-                future.completeExceptionally(ex);
-            }
-        });
-
-        channelManager.getChannel().whenComplete((ch, ex) -> {
-            if (ch != null) writeCommand(ch, command, future);
-            else future.completeExceptionally(ex);
-        });*/
-
+            });
+            ByteBuf serviceData = Unpooled.buffer().order(ByteOrder.LITTLE_ENDIAN);
+            MessageRouterRequest.encode(service, serviceData);
+            services.add(new ImmutablePair<>(fieldName, serviceData));
+        }
+        encodeBatches(msg, services, out);
     }
 
     private void encodeReadRequest(PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> msg, List<Object> out) {
@@ -179,24 +201,55 @@ public class Plc4XEtherNetIpProtocol extends MessageToMessageCodec<EnipPacket, P
         }
 
         InternalPlcReadRequest request = (InternalPlcReadRequest) msg.getRequest();
+        List<Pair<String, ByteBuf>> services = new ArrayList<>(request.getNumberOfFields());
         for (String fieldName : request.getFieldNames()) {
-            PlcField field = request.getField(fieldName);
+            EtherNetIpField enipField = (EtherNetIpField) request.getField(fieldName);
+            GetAttributeSingleService service = new GetAttributeSingleService(getPath(enipField));
+            ByteBuf serviceData = Unpooled.buffer().order(ByteOrder.LITTLE_ENDIAN);
+            service.encodeRequest(serviceData);
+            services.add(new ImmutablePair<>(fieldName, serviceData));
+        }
+        encodeBatches(msg, services, out);
+    }
 
-            // CIP Part
-            EtherNetIpField enipField = (EtherNetIpField) field;
-            EPath.PaddedEPath path = new EPath.PaddedEPath(new LogicalSegment.ClassId(enipField.getObjectNumber()),
-                new LogicalSegment.InstanceId(enipField.getInstanceNumber()),
-                new LogicalSegment.AttributeId(enipField.getAttributeNumber()));
-            GetAttributeSingleService service = new GetAttributeSingleService(path);
+    /**
+     * Packs the encoded services of one request into as few {@link SendRRData} packets as possible. As long as the
+     * request doesn't exceed the maximum message size, multiple services are wrapped in one Multiple Service Packet
+     * request, a batch with only one service is sent as it is.
+     */
+    private void encodeBatches(PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> msg,
+                               List<Pair<String, ByteBuf>> services, List<Object> out) {
+        PendingRequest pendingRequest = new PendingRequest(msg);
+        List<Batch> batches = new ArrayList<>();
+        Batch batch = null;
+        int batchSize = 0;
+        for (Pair<String, ByteBuf> service : services) {
+            int serviceSize = MULTIPLE_SERVICE_PACKET_OFFSET_SIZE + service.getValue().readableBytes();
+            if ((batch == null) || (batchSize + serviceSize > maxMessageSize)) {
+                batch = new Batch(pendingRequest);
+                batches.add(batch);
+                batchSize = MULTIPLE_SERVICE_PACKET_HEADER_SIZE;
+            }
+            batch.add(service.getKey(), service.getValue());
+            batchSize += serviceSize;
+        }
+        if (batches.isEmpty()) {
+            pendingRequest.complete();
+            return;
+        }
+        pendingRequest.batches = batches;
+        pendingRequest.outstandingBatches = batches.size();
 
+        for (Batch currentBatch : batches) {
             // ENIP Part
             EnipPacket packet = new EnipPacket(CommandCode.SendRRData, sessionHandle, EnipStatus.EIP_SUCCESS,
                 messageId.getAndIncrement(), new SendRRData(new CpfPacket(
                 new NullAddressItem(),
-                new UnconnectedDataItemRequest(service::encodeRequest)
+                new UnconnectedDataItemRequest(currentBatch::encode)
             )));
 
-            requestsMap.put(packet.getSenderContext(), msg);
+            currentBatch.senderContext = packet.getSenderContext();
+            requestsMap.put(currentBatch.senderContext, currentBatch);
 
             out.add(packet);
         }
@@ -430,68 +483,248 @@ public class Plc4XEtherNetIpProtocol extends MessageToMessageCodec<EnipPacket, P
     private void handleSendRRDataResponse(ChannelHandlerContext ctx, EnipPacket msg) {
         // This is where the typical request/response stuff is handled.
         long senderContext = msg.getSenderContext();
-        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> plcRequestContainer = requestsMap.get(senderContext);
-        if (plcRequestContainer == null) {
+        Batch batch = requestsMap.remove(senderContext);
+        if (batch == null) {
             ctx.channel().pipeline().fireExceptionCaught(
                 new PlcProtocolException("Unrelated payload received for message " + msg));
             return;
         }
+        // The request has been sent, so the encoded services aren't needed anymore.
+        batch.release();
 
-        if (!(plcRequestContainer.getRequest() instanceof PlcReadRequest)) {
-            ctx.fireExceptionCaught(new PlcProtocolException("Expecting a PlcReadRequest here."));
-            return;
-        }
-        InternalPlcReadRequest request = (InternalPlcReadRequest) plcRequestContainer.getRequest();
-        PlcResponseCode responseCode;
         if (msg.getStatus() != EnipStatus.EIP_SUCCESS) {
-            responseCode = PlcResponseCode.NOT_FOUND;
-        } else {
-            responseCode = PlcResponseCode.OK;
+            batch.fail(PlcResponseCode.NOT_FOUND);
+            return;
         }
 
         SendRRData sendRRDataCommand = (SendRRData) msg.getCommand();
         if (sendRRDataCommand == null) {
-            ctx.fireExceptionCaught(new PlcProtocolException("Expecting a SendRRData command here."));
+            failRequest(ctx, batch, new PlcProtocolException("Expecting a SendRRData command here."));
             return;
         }
         CpfItem[] items = sendRRDataCommand.getPacket().getItems();
         if (items.length != 2) {
-            ctx.fireExceptionCaught(new PlcProtocolException("Expecting 2 items here."));
+            failRequest(ctx, batch, new PlcProtocolException("Expecting 2 items here."));
             return;
         }
         CpfItem payload = items[1];
         if (!(payload instanceof UnconnectedDataItemResponse)) {
-            ctx.fireExceptionCaught(new PlcProtocolException("Item[1] should be of type UnconnectedDataItemResponse"));
+            failRequest(ctx, batch, new PlcProtocolException("Item[1] should be of type UnconnectedDataItemResponse"));
             return;
         }
         UnconnectedDataItemResponse enipResponse = (UnconnectedDataItemResponse) payload;
-        ByteBuf data = enipResponse.getData();
-        if (data.readableBytes() > 0) {
-            Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> values = new HashMap<>();
-            // TODO: This is not quite correct as this will probalby not work when requesting more than one item.
-            for (String fieldName : request.getFieldNames()) {
-                MessageRouterResponse cipResponse = MessageRouterResponse.decode(data);
-                short value;
-                // TODO: This is not quite correct as we assume everything is an integer.
-                if (cipResponse.getData().readableBytes() >= 2) {
-                    value = cipResponse.getData().readShort();
-                } else {
-                    value = -1;
-                }
-                DefaultLongFieldItem fieldItem = new DefaultLongFieldItem((long) value);
-                values.put(fieldName, new ImmutablePair<>(responseCode, fieldItem));
+        MessageRouterResponse cipResponse = MessageRouterResponse.decode(enipResponse.getData());
+        if (!batch.isMultipleServicePacket()) {
+            batch.complete(0, cipResponse);
+            return;
+        }
+
+        // If some of the embedded services failed, the Multiple Service Packet reports an embedded service error
+        // but still contains the responses of all services.
+        int generalStatus = cipResponse.getGeneralStatus();
+        if ((generalStatus != CIP_STATUS_SUCCESS) && (generalStatus != CIP_STATUS_EMBEDDED_SERVICE_ERROR)) {
+            batch.fail(toResponseCode(generalStatus));
+            return;
+        }
+        ByteBuf data = cipResponse.getData();
+        int start = data.readerIndex();
+        int numberOfServices = data.getUnsignedShort(start);
+        if (numberOfServices != batch.size()) {
+            failRequest(ctx, batch, new PlcProtocolException(
+                "Expecting " + batch.size() + " service responses but got " + numberOfServices));
+            return;
+        }
+        for (int i = 0; i < numberOfServices; i++) {
+            int offset = data.getUnsignedShort(start + 2 + (2 * i));
+            int end = (i + 1 < numberOfServices) ?
+                data.getUnsignedShort(start + 2 + (2 * (i + 1))) : data.writerIndex() - start;
+            batch.complete(i, MessageRouterResponse.decode(data.slice(start + offset, end - offset)));
+        }
+    }
+
+    /**
+     * Fails the whole request the given batch belongs to. The other batches of the request are dropped, their
+     * responses are of no interest anymore.
+     */
+    private void failRequest(ChannelHandlerContext ctx, Batch batch, PlcProtocolException exception) {
+        for (Batch sibling : batch.pendingRequest.batches) {
+            if (requestsMap.remove(sibling.senderContext, sibling)) {
+                sibling.release();
             }
-            InternalPlcReadResponse response = new DefaultPlcReadResponse(request, values);
-            plcRequestContainer.getResponseFuture().complete(response);
         }
+        batch.pendingRequest.container.getResponseFuture().completeExceptionally(exception);
+        ctx.fireExceptionCaught(exception);
     }
 
     ////////////////////////////////////////////////////////////////////////////////
     // Encoding helpers.
     ////////////////////////////////////////////////////////////////////////////////
 
+    private static EPath.PaddedEPath getPath(EtherNetIpField enipField) {
+        return new EPath.PaddedEPath(new LogicalSegment.ClassId(enipField.getObjectNumber()),
+            new LogicalSegment.InstanceId(enipField.getInstanceNumber()),
+            new LogicalSegment.AttributeId(enipField.getAttributeNumber()));
+    }
+
     ////////////////////////////////////////////////////////////////////////////////
     // Decoding helpers.
     ////////////////////////////////////////////////////////////////////////////////
 
+    private static PlcResponseCode toResponseCode(int generalStatus) {
+        switch (generalStatus) {
+            case CIP_STATUS_SUCCESS:
+                return PlcResponseCode.OK;
+            case CIP_STATUS_PATH_SEGMENT_ERROR:
+            case CIP_STATUS_PATH_DESTINATION_UNKNOWN:
+            case CIP_STATUS_ATTRIBUTE_NOT_SUPPORTED:
+            case CIP_STATUS_OBJECT_DOES_NOT_EXIST:
+                return PlcResponseCode.NOT_FOUND;
+            case CIP_STATUS_PRIVILEGE_VIOLATION:
+            case CIP_STATUS_ATTRIBUTE_NOT_SETTABLE:
+                return PlcResponseCode.ACCESS_DENIED;
+            case CIP_STATUS_NOT_ENOUGH_DATA:
+            case CIP_STATUS_TOO_MUCH_DATA:
+                return PlcResponseCode.INVALID_DATATYPE;
+            default:
+                return PlcResponseCode.INTERNAL_ERROR;
+        }
+    }
+
+    /**
+     * All packets sent for one {@link PlcRequestContainer}, which is completed as soon as all of them are answered.
+     */
+    private static class PendingRequest {
+
+        private final PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> container;
+
+        private final Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> readValues = new HashMap<>();
+
+        private final Map<String, PlcResponseCode> writeValues = new HashMap<>();
+
+        private List<Batch> batches = Collections.emptyList();
+
+        private int outstandingBatches;
+
+        private PendingRequest(PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> container) {
+            this.container = container;
+        }
+
+        private boolean isRead() {
+            return container.getRequest() instanceof InternalPlcReadRequest;
+        }
+
+        private void batchDone() {
+            outstandingBatches--;
+            if (outstandingBatches == 0) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            if (isRead()) {
+                container.getResponseFuture().complete(
+                    new DefaultPlcReadResponse((InternalPlcReadRequest) container.getRequest(), readValues));
+            } else {
+                container.getResponseFuture().complete(
+                    new DefaultPlcWriteResponse((InternalPlcWriteRequest) container.getRequest(), writeValues));
+            }
+        }
+    }
+
+    /**
+     * The services sent with one {@link SendRRData} packet. More than one service is sent as a Multiple Service
+     * Packet request.
+     */
+    private static class Batch {
+
+        private final PendingRequest pendingRequest;
+
+        private final List<String> fieldNames = new ArrayList<>();
+
+        private final List<ByteBuf> services = new ArrayList<>();
+
+        private long senderContext;
+
+        private Batch(PendingRequest pendingRequest) {
+            this.pendingRequest = pendingRequest;
+        }
+
+        private void add(String fieldName, ByteBuf service) {
+            fieldNames.add(fieldName);
+            services.add(service);
+        }
+
+        private int size() {
+            return fieldNames.size();
+        }
+
+        private boolean isMultipleServicePacket() {
+            return fieldNames.size() > 1;
+        }
+
+        private void release() {
+            services.forEach(ByteBuf::release);
+            services.clear();
+        }
+
+        private void encode(ByteBuf buffer) {
+            if (!isMultipleServicePacket()) {
+                writeService(services.get(0), buffer);
+                return;
+            }
+            MessageRouterRequest request = new MessageRouterRequest(MULTIPLE_SERVICE_PACKET_SERVICE_CODE,
+                MESSAGE_ROUTER_PATH, data -> {
+                // The offsets are counted from the start of the number of services.
+                data.writeShort(services.size());
+                int offset = MULTIPLE_SERVICE_PACKET_OFFSET_SIZE * (services.size() + 1);
+                for (ByteBuf service : services) {
+                    data.writeShort(offset);
+                    offset += service.readableBytes();
+                }
+                for (ByteBuf service : services) {
+                    writeService(service, data);
+                }
+            });
+            MessageRouterRequest.encode(request, buffer);
+        }
+
+        private static void writeService(ByteBuf service, ByteBuf buffer) {
+            // Don't consume the service, so encoding the packet is repeatable.
+            buffer.writeBytes(service, service.readerIndex(), service.readableBytes());
+        }
+
+        private void complete(int index, MessageRouterResponse cipResponse) {
+            String fieldName = fieldNames.get(index);
+            PlcResponseCode responseCode = toResponseCode(cipResponse.getGeneralStatus());
+            if (!pendingRequest.isRead()) {
+                pendingRequest.writeValues.put(fieldName, responseCode);
+            } else if (responseCode != PlcResponseCode.OK) {
+                pendingRequest.readValues.put(fieldName, new ImmutablePair<>(responseCode, null));
+            } else {
+                short value;
+                // TODO: This is not quite correct as we assume everything is an integer.
+                if (cipResponse.getData().readableBytes() >= 2) {
+                    value = cipResponse.getData().readShort();
+                } else {
+                    value = -1;
+                }
+                pendingRequest.readValues.put(fieldName, new ImmutablePair<>(responseCode, new DefaultLongFieldItem((long) value)));
+            }
+            if (index == fieldNames.size() - 1) {
+                pendingRequest.batchDone();
+            }
+        }
+
+        private void fail(PlcResponseCode responseCode) {
+            for (String fieldName : fieldNames) {
+                if (pendingRequest.isRead()) {
+                    pendingRequest.readValues.put(fieldName, new ImmutablePair<>(responseCode, null));
+                } else {
+                    pendingRequest.writeValues.put(fieldName, responseCode);
+                }
+            }
+            pendingRequest.batchDone();
+        }
+    }
+
 }
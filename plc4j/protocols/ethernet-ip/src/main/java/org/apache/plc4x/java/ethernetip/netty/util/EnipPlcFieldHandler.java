@@ -23,12 +23,13 @@ import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.base.connection.DefaultPlcFieldHandler;
 import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+import org.apache.plc4x.java.base.messages.items.DefaultLongFieldItem;
 import org.apache.plc4x.java.ethernetip.model.EtherNetIpField;
 
 public class EnipPlcFieldHandler extends DefaultPlcFieldHandler {
 
     @Override
-    public PlcField createField(String fieldQuery) throws PlcInvalidFieldException {
+    protected PlcField parseField(String fieldQuery) throws PlcInvalidFieldException {
         if (EtherNetIpField.matches(fieldQuery)) {
             return EtherNetIpField.of(fieldQuery);
         }
@@ -49,14 +50,12 @@ public class EnipPlcFieldHandler extends DefaultPlcFieldHandler {
 
     @Override
     public BaseDefaultFieldItem encodeShort(PlcField field, Object[] values) {
-        EtherNetIpField enipField = (EtherNetIpField) field;
-        throw new PlcRuntimeException("Invalid encoder for type " + enipField);
+        return encodeInt((EtherNetIpField) field, values);
     }
 
     @Override
     public BaseDefaultFieldItem encodeInteger(PlcField field, Object[] values) {
-        EtherNetIpField enipField = (EtherNetIpField) field;
-        throw new PlcRuntimeException("Invalid encoder for type " + enipField);
+        return encodeInt((EtherNetIpField) field, values);
     }
 
     @Override
@@ -67,8 +66,7 @@ public class EnipPlcFieldHandler extends DefaultPlcFieldHandler {
 
     @Override
     public BaseDefaultFieldItem encodeLong(PlcField field, Object[] values) {
-        EtherNetIpField enipField = (EtherNetIpField) field;
-        throw new PlcRuntimeException("Invalid encoder for type " + enipField);
+        return encodeInt((EtherNetIpField) field, values);
     }
 
     @Override
@@ -107,4 +105,26 @@ public class EnipPlcFieldHandler extends DefaultPlcFieldHandler {
         throw new PlcRuntimeException("Invalid encoder for type " + enipField);
     }
 
+    /**
+     * Attributes are read as CIP INT values, so the same type is used for writing them.
+     */
+    private BaseDefaultFieldItem encodeInt(EtherNetIpField enipField, Object[] values) {
+        Long[] longValues = new Long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (!(value instanceof Short) && !(value instanceof Integer) && !(value instanceof Long)) {
+                throw new IllegalArgumentException(
+                    "Value of type " + value.getClass().getName() +
+                        " is not assignable to " + enipField + " fields.");
+            }
+            long longValue = ((Number) value).longValue();
+            if ((longValue < Short.MIN_VALUE) || (longValue > Short.MAX_VALUE)) {
+                throw new IllegalArgumentException(
+                    "Value of " + longValue + " exceeds the allowed range of " + enipField + " fields.");
+            }
+            longValues[i] = longValue;
+        }
+        return new DefaultLongFieldItem(longValues);
+    }
+
 }
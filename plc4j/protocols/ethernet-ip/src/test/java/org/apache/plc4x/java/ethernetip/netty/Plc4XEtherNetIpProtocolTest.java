@@ -0,0 +1,141 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.ethernetip.netty;
+
+import com.digitalpetri.enip.EnipPacket;
+import com.digitalpetri.enip.EnipStatus;
+import com.digitalpetri.enip.commands.CommandCode;
+import com.digitalpetri.enip.commands.SendRRData;
+import com.digitalpetri.enip.cpf.CpfItem;
+import com.digitalpetri.enip.cpf.CpfPacket;
+import com.digitalpetri.enip.cpf.NullAddressItem;
+import com.digitalpetri.enip.cpf.UnconnectedDataItemRequest;
+import com.digitalpetri.enip.cpf.UnconnectedDataItemResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.apache.plc4x.java.api.exceptions.PlcProtocolException;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.*;
+import org.apache.plc4x.java.ethernetip.netty.util.EnipPlcFieldHandler;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+import java.util.concurrent.CompletableFuture;
+
+class Plc4XEtherNetIpProtocolTest implements WithAssertions {
+
+    private EmbeddedChannel channel;
+
+    @AfterEach
+    void tearDown() {
+        if (channel != null) {
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    void fieldsArePackedIntoOneMultipleServicePacket() throws Exception {
+        channel = new EmbeddedChannel(new Plc4XEtherNetIpProtocol());
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> container = readRequest();
+        channel.writeOutbound(container);
+
+        EnipPacket request = channel.readOutbound();
+        assertThat((Object) channel.readOutbound()).isNull();
+        assertThat(request.getCommandCode()).isEqualTo(CommandCode.SendRRData);
+        CpfItem[] items = ((SendRRData) request.getCommand()).getPacket().getItems();
+        assertThat(items).hasSize(2);
+        ByteBuf data = Unpooled.buffer().order(ByteOrder.LITTLE_ENDIAN);
+        ((UnconnectedDataItemRequest) items[1]).getEncoder().accept(data);
+
+        // Multiple Service Packet service addressed to the message router (class 2, instance 1).
+        assertThat(data.readUnsignedByte()).isEqualTo((short) 0x0A);
+        assertThat(data.readUnsignedByte()).isEqualTo((short) 2);
+        assertThat(data.readInt()).isEqualTo(0x01240220);
+        // Two services, the offsets are counted from the number of services.
+        int start = data.readerIndex();
+        assertThat(data.readUnsignedShort()).isEqualTo(2);
+        int firstOffset = data.readUnsignedShort();
+        int secondOffset = data.readUnsignedShort();
+        assertThat(firstOffset).isEqualTo(6);
+        // Both embedded services are Get_Attribute_Single requests.
+        assertThat(data.getUnsignedByte(start + firstOffset)).isEqualTo((short) 0x0E);
+        assertThat(data.getUnsignedByte(start + secondOffset)).isEqualTo((short) 0x0E);
+        assertThat(data.writerIndex() - start - secondOffset).isEqualTo(secondOffset - firstOffset);
+        data.release();
+
+        channel.writeInbound(response(request, new byte[]{
+            // Multiple Service Packet reply, general status, no additional status
+            (byte) 0x8A, 0x00, 0x00, 0x00,
+            // Two services at offset 6 and 12
+            0x02, 0x00, 0x06, 0x00, 0x0C, 0x00,
+            // Get_Attribute_Single reply with value 42
+            (byte) 0x8E, 0x00, 0x00, 0x00, 0x2A, 0x00,
+            // Get_Attribute_Single reply with status "attribute not supported"
+            (byte) 0x8E, 0x00, 0x14, 0x00}));
+
+        assertThat(container.getResponseFuture()).isCompleted();
+        PlcReadResponse response = (PlcReadResponse) container.getResponseFuture().get();
+        assertThat(response.getLong("first")).isEqualTo(42L);
+        assertThat(response.getResponseCode("second")).isEqualTo(PlcResponseCode.NOT_FOUND);
+    }
+
+    @Test
+    void failedBatchDropsTheOtherBatchesOfTheRequest() {
+        // Too small for two services, so every field is sent with its own packet.
+        channel = new EmbeddedChannel(new Plc4XEtherNetIpProtocol(20));
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> container = readRequest();
+        channel.writeOutbound(container);
+
+        EnipPacket first = channel.readOutbound();
+        EnipPacket second = channel.readOutbound();
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+
+        // A malformed answer to the first packet fails the whole request.
+        EnipPacket malformed = new EnipPacket(CommandCode.SendRRData, 0, EnipStatus.EIP_SUCCESS,
+            first.getSenderContext(), new SendRRData(new CpfPacket(new NullAddressItem())));
+        assertThatThrownBy(() -> channel.writeInbound(malformed)).isInstanceOf(PlcProtocolException.class);
+        assertThat(container.getResponseFuture()).isCompletedExceptionally();
+
+        // The answer to the second packet isn't related to any request anymore.
+        assertThatThrownBy(() -> channel.writeInbound(response(second, new byte[]{
+            (byte) 0x8E, 0x00, 0x00, 0x00, 0x2A, 0x00})))
+            .isInstanceOf(PlcProtocolException.class)
+            .hasMessageStartingWith("Unrelated payload");
+    }
+
+    private static PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> readRequest() {
+        return new PlcRequestContainer<>(
+            (InternalPlcRequest) new DefaultPlcReadRequest.Builder(null, new EnipPlcFieldHandler())
+                .addItem("first", "#1#1#1")
+                .addItem("second", "#1#2#1")
+                .build(), new CompletableFuture<>());
+    }
+
+    private static EnipPacket response(EnipPacket request, byte[] cipResponse) {
+        ByteBuf data = Unpooled.wrappedBuffer(cipResponse).order(ByteOrder.LITTLE_ENDIAN);
+        return new EnipPacket(CommandCode.SendRRData, request.getSessionHandle(), EnipStatus.EIP_SUCCESS,
+            request.getSenderContext(), new SendRRData(new CpfPacket(new NullAddressItem(),
+            new UnconnectedDataItemResponse(data))));
+    }
+}
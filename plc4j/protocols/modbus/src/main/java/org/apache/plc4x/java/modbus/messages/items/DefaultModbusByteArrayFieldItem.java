@@ -18,13 +18,11 @@ under the License.
 */
 package org.apache.plc4x.java.modbus.messages.items;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.plc4x.java.base.messages.items.DefaultByteArrayFieldItem;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Arrays;
-import java.util.stream.Stream;
 
 /**
  * default implementation for DefaultByteArrayFieldItem for Usage within Modbus module
@@ -39,12 +37,27 @@ public class DefaultModbusByteArrayFieldItem extends DefaultByteArrayFieldItem {
 
     private ByteOrder byteOrder;
 
-    private Byte[] completeByteArray;
+    private byte[] completeByteArray;
 
     public DefaultModbusByteArrayFieldItem(Byte[]... values) {
         super(values);
         this.byteOrder = DEFAULT_ENDIANNESS;
-        this.completeByteArray = Arrays.stream(getValues()).flatMap(Stream::of).toArray(Byte[]::new);
+        this.completeByteArray = flatten(values);
+    }
+
+    private static byte[] flatten(Byte[][] values) {
+        int length = 0;
+        for (Byte[] value : values) {
+            length += value.length;
+        }
+        byte[] bytes = new byte[length];
+        int i = 0;
+        for (Byte[] value : values) {
+            for (Byte aByte : value) {
+                bytes[i++] = aByte;
+            }
+        }
+        return bytes;
     }
 
     @Override
@@ -84,10 +97,7 @@ public class DefaultModbusByteArrayFieldItem extends DefaultByteArrayFieldItem {
         if (!isValidShort(index)) {
             return null;
         }
-        return ByteBuffer
-            .wrap(ArrayUtils.toPrimitive(getByteArrayFromIndex(shortIndexToByteIndex(index))))
-            .order(byteOrder)
-            .getShort();
+        return wrap(byteOrder).getShort(shortIndexToByteIndex(index));
     }
 
     /**
@@ -122,10 +132,7 @@ public class DefaultModbusByteArrayFieldItem extends DefaultByteArrayFieldItem {
         if (!isValidInteger(index)) {
             return null;
         }
-        return ByteBuffer
-            .wrap(ArrayUtils.toPrimitive(getByteArrayFromIndex(intIndexToByteIndex(index))))
-            .order(byteOrder)
-            .getInt();
+        return wrap(byteOrder).getInt(intIndexToByteIndex(index));
     }
 
     /**
@@ -160,10 +167,7 @@ public class DefaultModbusByteArrayFieldItem extends DefaultByteArrayFieldItem {
         if (!isValidLong(index)) {
             return null;
         }
-        return ByteBuffer
-            .wrap(ArrayUtils.toPrimitive(getByteArrayFromIndex(longIndexToByteIndex(index))))
-            .order(byteOrder)
-            .getLong();
+        return wrap(byteOrder).getLong(longIndexToByteIndex(index));
     }
 
     /**
@@ -178,16 +182,37 @@ public class DefaultModbusByteArrayFieldItem extends DefaultByteArrayFieldItem {
     }
 
     /**
-     * returns a subarray with the wanted index first
-     *
-     * @param index start-index of wanted value
-     * @return the sub-array
+     * decodes all registers as shorts without boxing them
      */
-    private Byte[] getByteArrayFromIndex(int index) {
-        if (index > this.completeByteArray.length) {
-            return new Byte[0];
-        }
-        return Arrays.copyOfRange(this.completeByteArray, index, this.completeByteArray.length);
+    @Override
+    public short[] getShortArray() {
+        short[] result = new short[completeByteArray.length / SHORT_BYTES];
+        wrap(byteOrder).asShortBuffer().get(result);
+        return result;
+    }
+
+    /**
+     * decodes all registers as ints (two registers each) without boxing them
+     */
+    @Override
+    public int[] getIntArray() {
+        int[] result = new int[completeByteArray.length / INTEGER_BYTES];
+        wrap(byteOrder).asIntBuffer().get(result);
+        return result;
+    }
+
+    /**
+     * decodes all registers as longs (four registers each) without boxing them
+     */
+    @Override
+    public long[] getLongArray() {
+        long[] result = new long[completeByteArray.length / LONG_BYTES];
+        wrap(byteOrder).asLongBuffer().get(result);
+        return result;
+    }
+
+    private ByteBuffer wrap(ByteOrder byteOrder) {
+        return ByteBuffer.wrap(this.completeByteArray).order(byteOrder);
     }
 
     @Override
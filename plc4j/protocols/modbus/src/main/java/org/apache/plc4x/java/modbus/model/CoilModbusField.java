@@ -31,6 +31,10 @@ public class CoilModbusField extends ModbusField {
         super(address, quantity);
     }
 
+    public static CoilModbusField of(int address, int quantity) {
+        return new CoilModbusField(address, quantity);
+    }
+
     public static CoilModbusField of(String addressString) throws PlcInvalidFieldException {
         Matcher matcher = ADDRESS_PATTERN.matcher(addressString);
         if (!matcher.matches()) {
@@ -39,6 +39,55 @@ public abstract class ModbusField implements PlcField {
         }
     }
 
+    /**
+     * Parses the common address forms "function:address" and "function:address[quantity]" of coils, discrete inputs,
+     * holding and input registers without the costs of the patterns of the individual fields.
+     *
+     * @param addressString the address.
+     * @return the field, or null if the address has any other form. In this case the patterns have to decide.
+     */
+    public static ModbusField parseSimpleAddress(String addressString) {
+        int separator = addressString.indexOf(':');
+        if (separator < 0) {
+            return null;
+        }
+        int length = addressString.length();
+        int addressEnd = separator + 1;
+        while ((addressEnd < length) && isDigit(addressString.charAt(addressEnd))) {
+            addressEnd++;
+        }
+        if (addressEnd == separator + 1) {
+            return null;
+        }
+        Integer quantity = null;
+        if (addressEnd < length) {
+            if ((length - addressEnd != 3) || (addressString.charAt(addressEnd) != '[')
+                || !isDigit(addressString.charAt(addressEnd + 1)) || (addressString.charAt(addressEnd + 2) != ']')) {
+                return null;
+            }
+            quantity = addressString.charAt(addressEnd + 1) - '0';
+        }
+        int address = Integer.parseInt(addressString.substring(separator + 1, addressEnd));
+        switch (addressString.substring(0, separator)) {
+            case "coil":
+                return new CoilModbusField(address, quantity);
+            case "register":
+                return new RegisterModbusField(address, quantity);
+            case "readdiscreteinputs":
+                return new ReadDiscreteInputsModbusField(address, quantity);
+            case "readholdingregisters":
+                return new ReadHoldingRegistersModbusField(address, quantity);
+            case "readinputregisters":
+                return new ReadInputRegistersModbusField(address, quantity);
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return (c >= '0') && (c <= '9');
+    }
+
     public int getAddress() {
         return address;
     }
@@ -52,16 +101,18 @@ public abstract class ModbusField implements PlcField {
         if (this == o) {
             return true;
         }
-        if (!(o instanceof ModbusField)) {
+        // Coils and registers with the same address are different fields
+        if ((o == null) || (getClass() != o.getClass())) {
             return false;
         }
         ModbusField that = (ModbusField) o;
-        return address == that.address;
+        return address == that.address &&
+            quantity == that.quantity;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(address);
+        return Objects.hash(getClass(), address, quantity);
     }
 
     @Override
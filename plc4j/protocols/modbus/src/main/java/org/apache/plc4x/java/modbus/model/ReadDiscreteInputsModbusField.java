@@ -31,6 +31,10 @@ public class ReadDiscreteInputsModbusField extends ModbusField {
         super(address, quantity);
     }
 
+    public static ReadDiscreteInputsModbusField of(int address, int quantity) {
+        return new ReadDiscreteInputsModbusField(address, quantity);
+    }
+
     public static ReadDiscreteInputsModbusField of(String addressString) throws PlcInvalidFieldException {
         Matcher matcher = ADDRESS_PATTERN.matcher(addressString);
         if (!matcher.matches()) {
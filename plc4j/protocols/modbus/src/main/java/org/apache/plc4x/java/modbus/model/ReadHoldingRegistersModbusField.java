@@ -31,6 +31,10 @@ public class ReadHoldingRegistersModbusField extends ModbusField {
         super(address, quantity);
     }
 
+    public static ReadHoldingRegistersModbusField of(int address, int quantity) {
+        return new ReadHoldingRegistersModbusField(address, quantity);
+    }
+
     public static ReadHoldingRegistersModbusField of(String addressString) throws PlcInvalidFieldException {
         Matcher matcher = ADDRESS_PATTERN.matcher(addressString);
         if (!matcher.matches()) {
@@ -31,6 +31,10 @@ public class ReadInputRegistersModbusField extends ModbusField {
         super(address, quantity);
     }
 
+    public static ReadInputRegistersModbusField of(int address, int quantity) {
+        return new ReadInputRegistersModbusField(address, quantity);
+    }
+
     public static ReadInputRegistersModbusField of(String addressString) throws PlcInvalidFieldException {
         Matcher matcher = ADDRESS_PATTERN.matcher(addressString);
         if (!matcher.matches()) {
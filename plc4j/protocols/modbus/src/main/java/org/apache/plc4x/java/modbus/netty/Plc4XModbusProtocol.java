@@ -25,13 +25,18 @@ import com.digitalpetri.modbus.responses.*;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToMessageCodec;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.plc4x.java.api.exceptions.PlcException;
+import org.apache.plc4x.java.api.exceptions.PlcIoException;
 import org.apache.plc4x.java.api.exceptions.PlcNotImplementedException;
 import org.apache.plc4x.java.api.exceptions.PlcProtocolException;
+import org.apache.plc4x.java.api.exceptions.PlcTimeoutException;
 import org.apache.plc4x.java.api.exceptions.PlcUnsupportedDataTypeException;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcRequest;
@@ -40,6 +45,7 @@ import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.apache.plc4x.java.base.messages.*;
 import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
 import org.apache.plc4x.java.base.messages.items.DefaultBooleanFieldItem;
+import org.apache.plc4x.java.base.messages.items.DefaultPrimitiveBooleanFieldItem;
 import org.apache.plc4x.java.modbus.messages.items.DefaultModbusByteArrayFieldItem;
 import org.apache.plc4x.java.modbus.model.*;
 import org.slf4j.Logger;
@@ -49,17 +55,242 @@ import java.math.BigInteger;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 
+/**
+ * Encodes PLC4X requests to Modbus TCP payloads and correlates the responses by their transaction id.
+ * <p>
+ * At most {@code maxInFlightRequests} transactions are outstanding at a time. As the unit id is always 0 for now, this
+ * is the window of the single addressed unit. Further requests are queued (up to {@code maxPendingRequests}, after that
+ * they are rejected with a {@link PlcIoException}) and sent as soon as a transaction is answered or timed out. If a
+ * {@link Timer} is given, every transaction is failed with a {@link PlcTimeoutException} if it isn't answered within
+ * {@code requestTimeoutMs}.
+ */
 public class Plc4XModbusProtocol extends MessageToMessageCodec<ModbusTcpPayload, PlcRequestContainer<InternalPlcRequest, InternalPlcResponse>> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Plc4XModbusProtocol.class);
 
+    public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 8;
+
+    public static final int DEFAULT_MAX_PENDING_REQUESTS = 1000;
+
+    public static final long DEFAULT_REQUEST_TIMEOUT_MS = 5000;
+
     public final AtomicInteger transactionId = new AtomicInteger();
 
     private final ConcurrentMap<Short, PlcRequestContainer<InternalPlcRequest, InternalPlcResponse>> requestsMap = new ConcurrentHashMap<>();
 
+    private final int maxInFlightRequests;
+
+    private final int maxPendingRequests;
+
+    private final long requestTimeoutMs;
+
+    private final Timer timer;
+
+    // Only accessed from the event loop.
+    private final Map<PlcRequestContainer<?, ?>, InFlightRequest> inFlightRequests = new IdentityHashMap<>();
+
+    // Only accessed from the event loop.
+    private final Queue<PendingRequest> pendingRequests = new ArrayDeque<>();
+
+    // Metrics, which might be read from any thread.
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAdder completedRequests = new LongAdder();
+    private final LongAdder timedOutRequests = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder totalRoundTripNanos = new LongAdder();
+    private final AtomicLong maxRoundTripNanos = new AtomicLong();
+
+    /**
+     * Creates a protocol with the default window and queue size, but without request timeouts.
+     */
+    public Plc4XModbusProtocol() {
+        this(DEFAULT_MAX_IN_FLIGHT_REQUESTS, DEFAULT_MAX_PENDING_REQUESTS, DEFAULT_REQUEST_TIMEOUT_MS, null);
+    }
+
+    /**
+     * @param maxInFlightRequests maximum number of outstanding transactions.
+     * @param maxPendingRequests  maximum number of requests waiting for a free transaction slot.
+     * @param requestTimeoutMs    time after which an outstanding transaction is failed.
+     * @param timer               (shared) timer used for the request timeouts, no timeouts if {@code null}.
+     */
+    public Plc4XModbusProtocol(int maxInFlightRequests, int maxPendingRequests, long requestTimeoutMs, Timer timer) {
+        if (maxInFlightRequests < 1) {
+            throw new IllegalArgumentException("maxInFlightRequests must be at least 1");
+        }
+        this.maxInFlightRequests = maxInFlightRequests;
+        this.maxPendingRequests = maxPendingRequests;
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.timer = timer;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (!(msg instanceof PlcRequestContainer)) {
+            super.write(ctx, msg, promise);
+            return;
+        }
+        PlcRequestContainer<?, ?> container = (PlcRequestContainer<?, ?>) msg;
+        if (inFlight.get() < maxInFlightRequests) {
+            send(ctx, container, promise);
+        } else if (pendingRequests.size() < maxPendingRequests) {
+            LOGGER.trace("Window of {} transactions full, queueing {}", maxInFlightRequests, container);
+            pendingRequests.add(new PendingRequest(container, promise));
+            queueDepth.incrementAndGet();
+        } else {
+            rejectedRequests.increment();
+            PlcIoException rejected = new PlcIoException("Too many pending requests (" + maxPendingRequests + ")");
+            container.getResponseFuture().completeExceptionally(rejected);
+            promise.tryFailure(rejected);
+        }
+    }
+
+    private void send(ChannelHandlerContext ctx, PlcRequestContainer<?, ?> container, ChannelPromise promise) throws Exception {
+        Timeout timeout = null;
+        if (timer != null) {
+            timeout = timer.newTimeout(
+                timeout_ -> ctx.executor().execute(() -> handleTimeout(ctx, container)),
+                requestTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        inFlightRequests.put(container, new InFlightRequest(System.nanoTime(), timeout));
+        inFlight.incrementAndGet();
+        try {
+            super.write(ctx, container, promise);
+        } catch (Exception e) {
+            // Nothing was sent, so there is nothing to wait for.
+            requestDone(ctx, container, false);
+            throw e;
+        }
+    }
+
+    private void handleTimeout(ChannelHandlerContext ctx, PlcRequestContainer<?, ?> container) {
+        if (!inFlightRequests.containsKey(container)) {
+            // Answered in the meantime.
+            return;
+        }
+        LOGGER.debug("Transaction for {} timed out after {}ms", container, requestTimeoutMs);
+        requestsMap.values().remove(container);
+        timedOutRequests.increment();
+        container.getResponseFuture().completeExceptionally(new PlcTimeoutException(TimeUnit.MILLISECONDS.toNanos(requestTimeoutMs)));
+        requestDone(ctx, container, false);
+    }
+
+    /**
+     * Frees the transaction slot of the given request and sends the next pending requests.
+     */
+    private void requestDone(ChannelHandlerContext ctx, PlcRequestContainer<?, ?> container, boolean answered) {
+        InFlightRequest inFlightRequest = inFlightRequests.remove(container);
+        if (inFlightRequest == null) {
+            return;
+        }
+        if (inFlightRequest.timeout != null) {
+            inFlightRequest.timeout.cancel();
+        }
+        if (answered) {
+            long roundTripNanos = System.nanoTime() - inFlightRequest.sentNanos;
+            completedRequests.increment();
+            totalRoundTripNanos.add(roundTripNanos);
+            maxRoundTripNanos.accumulateAndGet(roundTripNanos, Math::max);
+        }
+        inFlight.decrementAndGet();
+        boolean sent = false;
+        while ((inFlight.get() < maxInFlightRequests) && !pendingRequests.isEmpty()) {
+            PendingRequest pendingRequest = pendingRequests.poll();
+            queueDepth.decrementAndGet();
+            if (pendingRequest.container.getResponseFuture().isDone()) {
+                // Cancelled while waiting.
+                continue;
+            }
+            try {
+                send(ctx, pendingRequest.container, pendingRequest.promise);
+                sent = true;
+            } catch (Exception e) {
+                pendingRequest.container.getResponseFuture().completeExceptionally(e);
+                pendingRequest.promise.tryFailure(e);
+            }
+        }
+        if (sent) {
+            ctx.flush();
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        PlcIoException closed = new PlcIoException("Connection closed");
+        for (PendingRequest pendingRequest : pendingRequests) {
+            pendingRequest.container.getResponseFuture().completeExceptionally(closed);
+            pendingRequest.promise.tryFailure(closed);
+        }
+        pendingRequests.clear();
+        queueDepth.set(0);
+        for (Map.Entry<PlcRequestContainer<?, ?>, InFlightRequest> entry : inFlightRequests.entrySet()) {
+            if (entry.getValue().timeout != null) {
+                entry.getValue().timeout.cancel();
+            }
+            entry.getKey().getResponseFuture().completeExceptionally(closed);
+        }
+        inFlightRequests.clear();
+        inFlight.set(0);
+        requestsMap.clear();
+        super.channelInactive(ctx);
+    }
+
+    /**
+     * @return number of requests waiting for a free transaction slot.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return number of outstanding transactions.
+     */
+    public int getInFlightRequests() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return number of answered transactions.
+     */
+    public long getCompletedRequests() {
+        return completedRequests.sum();
+    }
+
+    /**
+     * @return number of transactions which weren't answered in time.
+     */
+    public long getTimedOutRequests() {
+        return timedOutRequests.sum();
+    }
+
+    /**
+     * @return number of requests rejected because the queue was full.
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    /**
+     * @return average round-trip time of the answered transactions in nanoseconds.
+     */
+    public long getAverageRoundTripNanos() {
+        long completed = completedRequests.sum();
+        return completed == 0 ? 0 : totalRoundTripNanos.sum() / completed;
+    }
+
+    /**
+     * @return maximum round-trip time of the answered transactions in nanoseconds.
+     */
+    public long getMaxRoundTripNanos() {
+        return maxRoundTripNanos.get();
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> msg, List<Object> out) throws Exception {
         LOGGER.trace("(<--OUT): {}, {}, {}", ctx, msg, out);
@@ -212,10 +443,21 @@ public class Plc4XModbusProtocol extends MessageToMessageCodec<ModbusTcpPayload,
         LOGGER.debug("{}: transactionId: {}, unitId: {}, modbusPdu:{}", msg, msg.getTransactionId(), msg.getUnitId(), msg.getModbusPdu());
         // TODO: implement me
         short transactionId = msg.getTransactionId();
-        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> plcRequestContainer = requestsMap.get(transactionId);
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> plcRequestContainer = requestsMap.remove(transactionId);
         if (plcRequestContainer == null) {
             throw new PlcProtocolException("Unrelated payload received. [transactionId: " + msg.getTransactionId() + ", unitId: " + msg.getUnitId() + ", modbusPdu: " + msg.getModbusPdu() + "]");
         }
+        try {
+            decodeResponse(plcRequestContainer, msg);
+        } catch (Exception e) {
+            plcRequestContainer.getResponseFuture().completeExceptionally(e);
+            throw e;
+        } finally {
+            requestDone(ctx, plcRequestContainer, true);
+        }
+    }
+
+    private void decodeResponse(PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> plcRequestContainer, ModbusTcpPayload msg) throws PlcException {
 
         // TODO: only single Item supported for now
         InternalPlcFieldRequest request = (InternalPlcFieldRequest) plcRequestContainer.getRequest();
@@ -482,7 +724,7 @@ public class Plc4XModbusProtocol extends MessageToMessageCodec<ModbusTcpPayload,
     ////////////////////////////////////////////////////////////////////////////////
     // Decoding helpers.
     ////////////////////////////////////////////////////////////////////////////////
-    private DefaultBooleanFieldItem produceCoilValueList(ByteBuf byteBuf, int expectedQuantity) {
+    DefaultBooleanFieldItem produceCoilValueList(ByteBuf byteBuf, int expectedQuantity) {
         if (byteBuf.readableBytes() < expectedQuantity / 8) {
             LOGGER.warn("Expected to read {} coils but only max of {} can be supplied", expectedQuantity, byteBuf.readableBytes() * 8);
         }
@@ -491,36 +733,44 @@ public class Plc4XModbusProtocol extends MessageToMessageCodec<ModbusTcpPayload,
             return new DefaultBooleanFieldItem();
         }
         byteBuf.readBytes(bytes);
-        List<Boolean> data = new LinkedList<>();
-        int bitIndex = 0;
-        int coilIndex = 0;
-        while (coilIndex < bytes.length && data.size() < expectedQuantity) {
-            if (bitIndex > 7) {
-                // Every 8 Coils we need to increase the access
-                coilIndex++;
-                bitIndex = 0;
-                if (coilIndex >= bytes.length) {
-                    break;
-                }
-            }
-            boolean coilSet = (bytes[coilIndex] & 0xff & (1L << bitIndex)) != 0;
-            data.add(coilSet);
-            bitIndex++;
-        }
-        return new DefaultBooleanFieldItem(data.toArray(new Boolean[0]));
+        // Coils are packed LSB first, which is exactly the layout of a BitSet.
+        int numberOfCoils = Math.min(expectedQuantity, bytes.length * 8);
+        return new DefaultPrimitiveBooleanFieldItem(BitSet.valueOf(bytes).get(0, numberOfCoils), numberOfCoils);
     }
 
-    private DefaultModbusByteArrayFieldItem produceRegisterValueList(ByteBuf byteBuf, int expectedQuantity) throws PlcProtocolException {
+    DefaultModbusByteArrayFieldItem produceRegisterValueList(ByteBuf byteBuf, int expectedQuantity) throws PlcProtocolException {
         int readableBytes = byteBuf.readableBytes();
         if (readableBytes % 2 != 0) {
             throw new PlcProtocolException("Readables bytes should even: " + readableBytes);
         }
-        List<Byte[]> data = new LinkedList<>();
-        while (byteBuf.readableBytes() > 0) {
-            byte[] register = new byte[2];
-            byteBuf.readBytes(register);
-            data.add(ArrayUtils.toObject(register));
+        Byte[][] data = new Byte[readableBytes / 2][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new Byte[]{byteBuf.readByte(), byteBuf.readByte()};
+        }
+        return new DefaultModbusByteArrayFieldItem(data);
+    }
+
+    private static final class InFlightRequest {
+
+        private final long sentNanos;
+
+        private final Timeout timeout;
+
+        private InFlightRequest(long sentNanos, Timeout timeout) {
+            this.sentNanos = sentNanos;
+            this.timeout = timeout;
+        }
+    }
+
+    private static final class PendingRequest {
+
+        private final PlcRequestContainer<?, ?> container;
+
+        private final ChannelPromise promise;
+
+        private PendingRequest(PlcRequestContainer<?, ?> container, ChannelPromise promise) {
+            this.container = container;
+            this.promise = promise;
         }
-        return new DefaultModbusByteArrayFieldItem(data.toArray(new Byte[0][0]));
     }
 }
@@ -34,7 +34,11 @@ import java.util.List;
 public class ModbusPlcFieldHandler extends DefaultPlcFieldHandler {
 
     @Override
-    public PlcField createField(String fieldQuery) throws PlcInvalidFieldException {
+    protected PlcField parseField(String fieldQuery) throws PlcInvalidFieldException {
+        ModbusField simpleField = ModbusField.parseSimpleAddress(fieldQuery);
+        if (simpleField != null) {
+            return simpleField;
+        }
         if (MaskWriteRegisterModbusField.ADDRESS_PATTERN.matcher(fieldQuery).matches()) {
             return MaskWriteRegisterModbusField.of(fieldQuery);
         } else if (ReadDiscreteInputsModbusField.ADDRESS_PATTERN.matcher(fieldQuery).matches()) {
@@ -0,0 +1,322 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.modbus.util;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.plc4x.java.api.exceptions.PlcProtocolException;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.base.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.base.messages.InternalPlcReadRequest;
+import org.apache.plc4x.java.base.messages.InternalPlcReadResponse;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+import org.apache.plc4x.java.base.messages.items.DefaultPrimitiveBooleanFieldItem;
+import org.apache.plc4x.java.modbus.messages.items.DefaultModbusByteArrayFieldItem;
+import org.apache.plc4x.java.modbus.model.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Plans the Modbus transactions of a read request. Fields read with the same function (coils, discrete inputs, holding
+ * registers or input registers) which are at most a given number of coils or registers apart from each other are read
+ * with one single range, as long as the range doesn't exceed the maximum quantity of the function. The values of the
+ * individual fields are cut out of the returned ranges again. If the device rejects a merged range, its fields are read
+ * one by one instead.
+ */
+public class ModbusReadPlanner {
+
+    public static final int DEFAULT_MAX_GAP = 8;
+
+    static final int MAX_COILS = 2000;
+
+    static final int MAX_REGISTERS = 125;
+
+    private ModbusReadPlanner() {
+        // Utility class
+    }
+
+    /**
+     * @param readRequest the request to plan.
+     * @param maxGap      maximum number of unused coils or registers read between two fields, a negative value
+     *                    disables merging.
+     * @return the plan for the given request.
+     */
+    public static Plan plan(InternalPlcReadRequest readRequest, int maxGap) {
+        List<Range> ranges = new ArrayList<>();
+        Map<ReadFunction, List<Pair<String, ModbusField>>> fieldsByFunction = new EnumMap<>(ReadFunction.class);
+        for (Pair<String, PlcField> namedField : readRequest.getNamedFields()) {
+            ReadFunction function = ReadFunction.of(namedField.getValue());
+            if (function == null) {
+                // Not a readable field, so it is passed on as it is and the protocol reports the problem.
+                ranges.add(new Range(null, namedField.getKey(), namedField.getValue()));
+                continue;
+            }
+            fieldsByFunction.computeIfAbsent(function, key -> new ArrayList<>())
+                .add(ImmutablePair.of(namedField.getKey(), (ModbusField) namedField.getValue()));
+        }
+        fieldsByFunction.forEach((function, fields) -> {
+            fields.sort(Comparator.comparingInt(namedField -> namedField.getValue().getAddress()));
+            Range current = null;
+            for (Pair<String, ModbusField> namedField : fields) {
+                ModbusField field = namedField.getValue();
+                if ((current != null) && current.canInclude(field, maxGap)) {
+                    current.include(namedField.getKey(), field);
+                } else {
+                    current = new Range(function, namedField.getKey(), field);
+                    ranges.add(current);
+                }
+            }
+        });
+        return new Plan(readRequest, ranges);
+    }
+
+    public static class Plan {
+
+        private final InternalPlcReadRequest readRequest;
+
+        private final List<Range> ranges;
+
+        private Plan(InternalPlcReadRequest readRequest, List<Range> ranges) {
+            this.readRequest = readRequest;
+            this.ranges = ranges;
+        }
+
+        /**
+         * @return true if at least two fields are read with the same range.
+         */
+        public boolean mergesFields() {
+            return ranges.size() < readRequest.getNumberOfFields();
+        }
+
+        public int getNumberOfRanges() {
+            return ranges.size();
+        }
+
+        /**
+         * Reads the ranges, each with a request containing one single field. If the device rejects a merged range
+         * (e.g. with ILLEGAL DATA ADDRESS for an unmapped register in a gap), its fields are read one by one.
+         *
+         * @param sender sends a request to the device.
+         * @return the response to the original request.
+         */
+        public CompletableFuture<InternalPlcReadResponse> execute(
+            Function<InternalPlcReadRequest, CompletableFuture<InternalPlcReadResponse>> sender) {
+            List<CompletableFuture<Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>>> rangeValues =
+                new ArrayList<>(ranges.size());
+            for (int i = 0; i < ranges.size(); i++) {
+                rangeValues.add(readRange(ranges.get(i), rangeName(i), sender));
+            }
+            return collect(rangeValues)
+                .thenApply(values -> new DefaultPlcReadResponse(readRequest, values));
+        }
+
+        private static CompletableFuture<Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>> readRange(
+            Range range, String rangeName,
+            Function<InternalPlcReadRequest, CompletableFuture<InternalPlcReadResponse>> sender) {
+            if (range.isSingleField()) {
+                return readField(range.names.get(0), range.fields.get(0), sender);
+            }
+            return readField(rangeName, range.toField(), sender)
+                .thenApply(values -> range.slice(values.get(rangeName)))
+                .handle((values, throwable) -> {
+                    if (throwable == null) {
+                        return CompletableFuture.completedFuture(values);
+                    }
+                    Throwable cause = (throwable instanceof CompletionException) ? throwable.getCause() : throwable;
+                    if (!(cause instanceof PlcProtocolException)) {
+                        CompletableFuture<Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>> failed =
+                            new CompletableFuture<>();
+                        failed.completeExceptionally(cause);
+                        return failed;
+                    }
+                    // The device rejected the range, but it may still accept the fields themselves.
+                    List<CompletableFuture<Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>>> fieldValues =
+                        new ArrayList<>(range.names.size());
+                    for (int i = 0; i < range.names.size(); i++) {
+                        fieldValues.add(readField(range.names.get(i), range.fields.get(i), sender));
+                    }
+                    return collect(fieldValues);
+                })
+                .thenCompose(Function.identity());
+        }
+
+        private static CompletableFuture<Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>> readField(
+            String name, PlcField field,
+            Function<InternalPlcReadRequest, CompletableFuture<InternalPlcReadResponse>> sender) {
+            LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+            fields.put(name, field);
+            return sender.apply(new RangeReadRequest(fields))
+                .thenApply(InternalPlcReadResponse::getValues);
+        }
+
+        private static CompletableFuture<Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>> collect(
+            List<CompletableFuture<Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>>>> futures) {
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignore -> {
+                    Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> values = new HashMap<>();
+                    futures.forEach(future -> values.putAll(future.join()));
+                    return values;
+                });
+        }
+
+        private static String rangeName(int index) {
+            return "range-" + index;
+        }
+    }
+
+    private enum ReadFunction {
+        COILS(MAX_COILS),
+        DISCRETE_INPUTS(MAX_COILS),
+        HOLDING_REGISTERS(MAX_REGISTERS),
+        INPUT_REGISTERS(MAX_REGISTERS);
+
+        private final int maxQuantity;
+
+        ReadFunction(int maxQuantity) {
+            this.maxQuantity = maxQuantity;
+        }
+
+        private static ReadFunction of(PlcField field) {
+            if (field instanceof CoilModbusField) {
+                return COILS;
+            } else if (field instanceof ReadDiscreteInputsModbusField) {
+                return DISCRETE_INPUTS;
+            } else if ((field instanceof RegisterModbusField) || (field instanceof ReadHoldingRegistersModbusField)) {
+                return HOLDING_REGISTERS;
+            } else if (field instanceof ReadInputRegistersModbusField) {
+                return INPUT_REGISTERS;
+            }
+            return null;
+        }
+
+        private ModbusField createField(int address, int quantity) {
+            switch (this) {
+                case COILS:
+                    return CoilModbusField.of(address, quantity);
+                case DISCRETE_INPUTS:
+                    return ReadDiscreteInputsModbusField.of(address, quantity);
+                case HOLDING_REGISTERS:
+                    return ReadHoldingRegistersModbusField.of(address, quantity);
+                default:
+                    return ReadInputRegistersModbusField.of(address, quantity);
+            }
+        }
+
+        private boolean isRegister() {
+            return (this == HOLDING_REGISTERS) || (this == INPUT_REGISTERS);
+        }
+    }
+
+    private static class Range {
+
+        private final ReadFunction function;
+
+        private final int start;
+
+        private int end;
+
+        private final List<String> names = new ArrayList<>();
+
+        private final List<PlcField> fields = new ArrayList<>();
+
+        private Range(ReadFunction function, String name, PlcField field) {
+            this.function = function;
+            if (field instanceof ModbusField) {
+                start = ((ModbusField) field).getAddress();
+                end = start + ((ModbusField) field).getQuantity();
+            } else {
+                start = 0;
+            }
+            names.add(name);
+            fields.add(field);
+        }
+
+        private boolean canInclude(ModbusField field, int maxGap) {
+            return (maxGap >= 0)
+                && (field.getAddress() - end <= maxGap)
+                && (Math.max(end, field.getAddress() + field.getQuantity()) - start <= function.maxQuantity);
+        }
+
+        private void include(String name, ModbusField field) {
+            names.add(name);
+            fields.add(field);
+            end = Math.max(end, field.getAddress() + field.getQuantity());
+        }
+
+        private boolean isSingleField() {
+            return fields.size() == 1;
+        }
+
+        private PlcField toField() {
+            if (isSingleField()) {
+                return fields.get(0);
+            }
+            return function.createField(start, end - start);
+        }
+
+        private Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> slice(
+            Pair<PlcResponseCode, BaseDefaultFieldItem> rangeValue) {
+            Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> values = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                values.put(names.get(i), slice(fields.get(i), rangeValue));
+            }
+            return values;
+        }
+
+        private Pair<PlcResponseCode, BaseDefaultFieldItem> slice(PlcField plcField,
+                                                                  Pair<PlcResponseCode, BaseDefaultFieldItem> rangeValue) {
+            if ((rangeValue == null) || (rangeValue.getValue() == null)) {
+                return new ImmutablePair<>(rangeValue != null ? rangeValue.getKey() : PlcResponseCode.INTERNAL_ERROR, null);
+            }
+            ModbusField field = (ModbusField) plcField;
+            BaseDefaultFieldItem item = rangeValue.getValue();
+            int offset = field.getAddress() - start;
+            int quantity = field.getQuantity();
+            if (offset + quantity > item.getNumberOfValues()) {
+                return new ImmutablePair<>(PlcResponseCode.INTERNAL_ERROR, null);
+            }
+            if (function.isRegister()) {
+                Byte[][] registers = ((DefaultModbusByteArrayFieldItem) item).getValues();
+                return new ImmutablePair<>(rangeValue.getKey(),
+                    new DefaultModbusByteArrayFieldItem(Arrays.copyOfRange(registers, offset, offset + quantity)));
+            }
+            boolean[] coils = new boolean[quantity];
+            for (int i = 0; i < quantity; i++) {
+                coils[i] = item.getBoolean(offset + i);
+            }
+            return new ImmutablePair<>(rangeValue.getKey(), new DefaultPrimitiveBooleanFieldItem(coils));
+        }
+    }
+
+    /**
+     * The requests of a plan are only handed to the protocol and never executed themselves, so they don't need a
+     * reader.
+     */
+    private static class RangeReadRequest extends DefaultPlcReadRequest {
+
+        private RangeReadRequest(LinkedHashMap<String, PlcField> fields) {
+            super(null, fields);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.modbus.netty;
+
+import com.digitalpetri.modbus.codec.ModbusTcpPayload;
+import com.digitalpetri.modbus.responses.ReadCoilsResponse;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.apache.plc4x.java.api.exceptions.PlcIoException;
+import org.apache.plc4x.java.api.exceptions.PlcTimeoutException;
+import org.apache.plc4x.java.base.messages.*;
+import org.apache.plc4x.java.modbus.util.ModbusPlcFieldHandler;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class Plc4XModbusProtocolWindowTest implements WithAssertions {
+
+    private final List<TimerTask> timerTasks = new ArrayList<>();
+
+    private EmbeddedChannel channel;
+
+    @AfterEach
+    void tearDown() {
+        if (channel != null) {
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    void requestsAreQueuedWhenTheWindowIsFull() {
+        Plc4XModbusProtocol SUT = new Plc4XModbusProtocol(2, 1, 1000, null);
+        channel = new EmbeddedChannel(SUT);
+
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> first = readCoil();
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> second = readCoil();
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> third = readCoil();
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> fourth = readCoil();
+        channel.writeOneOutbound(first);
+        channel.writeOneOutbound(second);
+        channel.writeOneOutbound(third);
+        channel.writeOneOutbound(fourth);
+        channel.flushOutbound();
+
+        ModbusTcpPayload firstPayload = channel.readOutbound();
+        ModbusTcpPayload secondPayload = channel.readOutbound();
+        assertThat(firstPayload).isNotNull();
+        assertThat(secondPayload).isNotNull();
+        assertThat((Object) channel.readOutbound()).isNull();
+        assertThat(SUT.getInFlightRequests()).isEqualTo(2);
+        assertThat(SUT.getQueueDepth()).isEqualTo(1);
+        // The queue only holds one request, so the fourth one is rejected right away.
+        assertThat(fourth.getResponseFuture()).isCompletedExceptionally();
+        assertThatThrownBy(() -> fourth.getResponseFuture().get()).hasCauseInstanceOf(PlcIoException.class);
+        assertThat(SUT.getRejectedRequests()).isEqualTo(1);
+
+        // Answering a transaction frees a slot for the queued request.
+        channel.writeInbound(coilResponse(firstPayload));
+        assertThat(first.getResponseFuture()).isCompleted();
+        ModbusTcpPayload thirdPayload = channel.readOutbound();
+        assertThat(thirdPayload).isNotNull();
+        assertThat(thirdPayload.getTransactionId()).isNotEqualTo(secondPayload.getTransactionId());
+        assertThat(SUT.getQueueDepth()).isEqualTo(0);
+        assertThat(SUT.getInFlightRequests()).isEqualTo(2);
+        assertThat(SUT.getCompletedRequests()).isEqualTo(1);
+
+        channel.writeInbound(coilResponse(secondPayload));
+        channel.writeInbound(coilResponse(thirdPayload));
+        assertThat(second.getResponseFuture()).isCompleted();
+        assertThat(third.getResponseFuture()).isCompleted();
+        assertThat(SUT.getInFlightRequests()).isEqualTo(0);
+        assertThat(SUT.getCompletedRequests()).isEqualTo(3);
+        assertThat(SUT.getMaxRoundTripNanos()).isGreaterThanOrEqualTo(SUT.getAverageRoundTripNanos());
+    }
+
+    @Test
+    void unansweredTransactionsTimeOut() throws Exception {
+        Plc4XModbusProtocol SUT = new Plc4XModbusProtocol(1, 10, 1000, capturingTimer());
+        channel = new EmbeddedChannel(SUT);
+
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> first = readCoil();
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> second = readCoil();
+        channel.writeOutbound(first, second);
+        ModbusTcpPayload firstPayload = channel.readOutbound();
+        assertThat(firstPayload).isNotNull();
+        assertThat((Object) channel.readOutbound()).isNull();
+        assertThat(timerTasks).hasSize(1);
+
+        timerTasks.get(0).run(mock(Timeout.class));
+        channel.runPendingTasks();
+
+        assertThatThrownBy(() -> first.getResponseFuture().get())
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(PlcTimeoutException.class);
+        assertThat(SUT.getTimedOutRequests()).isEqualTo(1);
+        // The slot of the timed out transaction is used for the next request.
+        ModbusTcpPayload secondPayload = channel.readOutbound();
+        assertThat(secondPayload).isNotNull();
+
+        // A late answer to the timed out transaction isn't related to any request anymore.
+        assertThatThrownBy(() -> channel.writeInbound(coilResponse(firstPayload)));
+        channel.writeInbound(coilResponse(secondPayload));
+        assertThat(second.getResponseFuture()).isCompleted();
+    }
+
+    @Test
+    void outstandingRequestsFailWhenTheChannelCloses() {
+        Plc4XModbusProtocol SUT = new Plc4XModbusProtocol(1, 10, 1000, capturingTimer());
+        channel = new EmbeddedChannel(SUT);
+
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> first = readCoil();
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> second = readCoil();
+        channel.writeOneOutbound(first);
+        ChannelFuture secondWrite = channel.writeOneOutbound(second);
+        channel.flushOutbound();
+        channel.close();
+
+        assertThat(secondWrite.cause()).isInstanceOf(PlcIoException.class);
+        assertThat(first.getResponseFuture()).isCompletedExceptionally();
+        assertThat(second.getResponseFuture()).isCompletedExceptionally();
+        assertThat(SUT.getInFlightRequests()).isEqualTo(0);
+        assertThat(SUT.getQueueDepth()).isEqualTo(0);
+    }
+
+    private Timer capturingTimer() {
+        Timer timer = mock(Timer.class);
+        when(timer.newTimeout(any(), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            timerTasks.add(invocation.getArgument(0));
+            return mock(Timeout.class);
+        });
+        return timer;
+    }
+
+    private static PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> readCoil() {
+        return new PlcRequestContainer<>(
+            (InternalPlcRequest) new DefaultPlcReadRequest.Builder(null, new ModbusPlcFieldHandler())
+                .addItem("coil", "coil:1")
+                .build(), new CompletableFuture<>());
+    }
+
+    private static ModbusTcpPayload coilResponse(ModbusTcpPayload request) {
+        return new ModbusTcpPayload(request.getTransactionId(), request.getUnitId(),
+            new ReadCoilsResponse(Unpooled.wrappedBuffer(new byte[]{0x01})));
+    }
+}
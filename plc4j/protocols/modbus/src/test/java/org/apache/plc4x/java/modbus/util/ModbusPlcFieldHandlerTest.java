@@ -0,0 +1,59 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.modbus.util;
+
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.modbus.model.*;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+class ModbusPlcFieldHandlerTest implements WithAssertions {
+
+    private final ModbusPlcFieldHandler SUT = new ModbusPlcFieldHandler();
+
+    @Test
+    void simpleAddressesAreParsedWithoutPatterns() {
+        assertThat(ModbusField.parseSimpleAddress("coil:1")).isEqualTo(CoilModbusField.of("coil:1"));
+        assertThat(ModbusField.parseSimpleAddress("register:10[2]")).isEqualTo(RegisterModbusField.of("register:10[2]"));
+        assertThat(ModbusField.parseSimpleAddress("readdiscreteinputs:3"))
+            .isEqualTo(ReadDiscreteInputsModbusField.of("readdiscreteinputs:3"));
+        assertThat(ModbusField.parseSimpleAddress("readholdingregisters:4[5]"))
+            .isEqualTo(ReadHoldingRegistersModbusField.of("readholdingregisters:4[5]"));
+        assertThat(ModbusField.parseSimpleAddress("readinputregisters:42"))
+            .isEqualTo(ReadInputRegistersModbusField.of("readinputregisters:42"));
+
+        // Any other forms are left to the patterns.
+        assertThat(ModbusField.parseSimpleAddress("maskwrite:1/2/3")).isNull();
+        assertThat(ModbusField.parseSimpleAddress("coil:1[10]")).isNull();
+        assertThat(ModbusField.parseSimpleAddress("holdingregisters:1")).isNull();
+    }
+
+    @Test
+    void createField() {
+        PlcField field = SUT.createField("readholdingregisters:4[5]");
+        assertThat(field).isInstanceOf(ReadHoldingRegistersModbusField.class);
+        assertThat(((ModbusField) field).getAddress()).isEqualTo(4);
+        assertThat(((ModbusField) field).getQuantity()).isEqualTo(5);
+
+        assertThat(SUT.createField("maskwrite:1/2/3")).isInstanceOf(MaskWriteRegisterModbusField.class);
+        assertThatThrownBy(() -> SUT.createField("coil:1[10]")).isInstanceOf(PlcInvalidFieldException.class);
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.modbus.util;
+
+import com.digitalpetri.modbus.ExceptionCode;
+import com.digitalpetri.modbus.FunctionCode;
+import com.digitalpetri.modbus.codec.ModbusTcpPayload;
+import com.digitalpetri.modbus.requests.ReadHoldingRegistersRequest;
+import com.digitalpetri.modbus.responses.ExceptionResponse;
+import com.digitalpetri.modbus.responses.ReadHoldingRegistersResponse;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.plc4x.java.api.exceptions.PlcProtocolException;
+import org.apache.plc4x.java.api.exceptions.PlcTimeoutException;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.*;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+import org.apache.plc4x.java.base.messages.items.DefaultPrimitiveBooleanFieldItem;
+import org.apache.plc4x.java.modbus.messages.items.DefaultModbusByteArrayFieldItem;
+import org.apache.plc4x.java.modbus.model.CoilModbusField;
+import org.apache.plc4x.java.modbus.model.ModbusField;
+import org.apache.plc4x.java.modbus.model.ReadHoldingRegistersModbusField;
+import org.apache.plc4x.java.modbus.netty.Plc4XModbusProtocol;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+class ModbusReadPlannerTest implements WithAssertions {
+
+    private final List<InternalPlcReadRequest> sentRequests = new ArrayList<>();
+
+    @Test
+    void nearbyRegistersAreReadWithOneRange() throws Exception {
+        InternalPlcReadRequest request = request()
+            .addItem("a", "register:10[2]")
+            .addItem("b", "readholdingregisters:14")
+            .addItem("c", "readholdingregisters:40")
+            .build();
+
+        ModbusReadPlanner.Plan plan = ModbusReadPlanner.plan(request, 8);
+
+        assertThat(plan.mergesFields()).isTrue();
+        // Every register contains its own address.
+        InternalPlcReadResponse response = plan.execute(answering(field -> {
+            Byte[][] registers = new Byte[field.getQuantity()][];
+            for (int i = 0; i < registers.length; i++) {
+                registers[i] = new Byte[]{0, (byte) (field.getAddress() + i)};
+            }
+            return new DefaultModbusByteArrayFieldItem(registers);
+        })).get();
+
+        assertThat(sentRequests).hasSize(2);
+        ModbusField range = (ModbusField) sentRequests.get(0).getFields().get(0);
+        assertThat(range).isInstanceOf(ReadHoldingRegistersModbusField.class);
+        assertThat(range.getAddress()).isEqualTo(10);
+        assertThat(range.getQuantity()).isEqualTo(5);
+        assertThat(sentRequests.get(1).getFields().get(0)).isSameAs(request.getField("c"));
+
+        assertThat(response.getResponseCode("a")).isEqualTo(PlcResponseCode.OK);
+        assertThat(response.getNumberOfValues("a")).isEqualTo(2);
+        assertThat(response.getShort("a", 0)).isEqualTo((short) 10);
+        assertThat(response.getShort("a", 1)).isEqualTo((short) 11);
+        assertThat(response.getShort("b")).isEqualTo((short) 14);
+        assertThat(response.getShort("c")).isEqualTo((short) 40);
+    }
+
+    @Test
+    void coilsAreSlicedOutOfTheRange() throws Exception {
+        InternalPlcReadRequest request = request()
+            .addItem("a", "coil:1")
+            .addItem("b", "coil:3[2]")
+            .build();
+
+        ModbusReadPlanner.Plan plan = ModbusReadPlanner.plan(request, 8);
+
+        assertThat(plan.getNumberOfRanges()).isEqualTo(1);
+        InternalPlcReadResponse response = plan.execute(answering(field ->
+            new DefaultPrimitiveBooleanFieldItem(true, false, false, true))).get();
+
+        ModbusField range = (ModbusField) sentRequests.get(0).getFields().get(0);
+        assertThat(range).isInstanceOf(CoilModbusField.class);
+        assertThat(range.getQuantity()).isEqualTo(4);
+        assertThat(response.getBoolean("a")).isTrue();
+        assertThat(response.getNumberOfValues("b")).isEqualTo(2);
+        assertThat(response.getBoolean("b", 0)).isFalse();
+        assertThat(response.getBoolean("b", 1)).isTrue();
+    }
+
+    @Test
+    void rangesRespectGapAndFunction() {
+        InternalPlcReadRequest request = request()
+            .addItem("a", "readholdingregisters:0")
+            .addItem("b", "readholdingregisters:3")
+            .addItem("c", "readinputregisters:1")
+            .addItem("d", "readdiscreteinputs:2")
+            .build();
+
+        assertThat(ModbusReadPlanner.plan(request, 1).getNumberOfRanges()).isEqualTo(4);
+        assertThat(ModbusReadPlanner.plan(request, 2).getNumberOfRanges()).isEqualTo(3);
+        assertThat(ModbusReadPlanner.plan(request, -1).mergesFields()).isFalse();
+    }
+
+    @Test
+    void rangesDontExceedTheProtocolMaximum() throws Exception {
+        InternalPlcReadRequest request = request()
+            .addItem("a", "readholdingregisters:0")
+            .addItem("b", "readholdingregisters:124")
+            .addItem("c", "readholdingregisters:125")
+            .build();
+
+        ModbusReadPlanner.Plan plan = ModbusReadPlanner.plan(request, 200);
+
+        assertThat(plan.getNumberOfRanges()).isEqualTo(2);
+        plan.execute(answering(field -> {
+            Byte[][] registers = new Byte[field.getQuantity()][];
+            Arrays.fill(registers, new Byte[]{0, 0});
+            return new DefaultModbusByteArrayFieldItem(registers);
+        })).get();
+        assertThat(((ModbusField) sentRequests.get(0).getFields().get(0)).getQuantity())
+            .isEqualTo(ModbusReadPlanner.MAX_REGISTERS);
+    }
+
+    @Test
+    void rejectedRangesAreReadFieldByField() throws Exception {
+        InternalPlcReadRequest request = request()
+            .addItem("a", "readholdingregisters:10")
+            .addItem("b", "readholdingregisters:14")
+            .build();
+        EmbeddedChannel channel = new EmbeddedChannel(new Plc4XModbusProtocol(10, 10, 1000, null));
+        try {
+            CompletableFuture<InternalPlcReadResponse> response = ModbusReadPlanner.plan(request, 8)
+                .execute(readRequest -> {
+                    CompletableFuture<InternalPlcReadResponse> future = new CompletableFuture<>();
+                    channel.writeAndFlush(new PlcRequestContainer<>(readRequest, future));
+                    return future;
+                });
+
+            // The device doesn't map the registers 11 to 13.
+            ModbusTcpPayload rangePayload = channel.readOutbound();
+            assertThat(((ReadHoldingRegistersRequest) rangePayload.getModbusPdu()).getQuantity()).isEqualTo(5);
+            Throwable decodeError = catchThrowable(() -> channel.writeInbound(
+                new ModbusTcpPayload(rangePayload.getTransactionId(), rangePayload.getUnitId(),
+                    new ExceptionResponse(FunctionCode.ReadHoldingRegisters, ExceptionCode.IllegalDataAddress))));
+            assertThat(decodeError).hasCauseInstanceOf(PlcProtocolException.class);
+            assertThat(response).isNotDone();
+
+            ModbusTcpPayload firstPayload = channel.readOutbound();
+            ModbusTcpPayload secondPayload = channel.readOutbound();
+            assertThat(((ReadHoldingRegistersRequest) firstPayload.getModbusPdu()).getAddress()).isEqualTo(10);
+            assertThat(((ReadHoldingRegistersRequest) secondPayload.getModbusPdu()).getAddress()).isEqualTo(14);
+            channel.writeInbound(registerResponse(firstPayload, (byte) 1));
+            channel.writeInbound(registerResponse(secondPayload, (byte) 2));
+
+            assertThat(response).isCompleted();
+            assertThat(response.get().getResponseCode("a")).isEqualTo(PlcResponseCode.OK);
+            assertThat(response.get().getShort("a")).isEqualTo((short) 1);
+            assertThat(response.get().getShort("b")).isEqualTo((short) 2);
+        } finally {
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    void otherErrorsFailTheRead() {
+        InternalPlcReadRequest request = request()
+            .addItem("a", "coil:1")
+            .addItem("b", "coil:2")
+            .build();
+
+        CompletableFuture<InternalPlcReadResponse> response = ModbusReadPlanner.plan(request, 8).execute(readRequest -> {
+            sentRequests.add(readRequest);
+            CompletableFuture<InternalPlcReadResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(new PlcTimeoutException(1000));
+            return future;
+        });
+
+        assertThatThrownBy(response::get)
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(PlcTimeoutException.class);
+        assertThat(sentRequests).hasSize(1);
+    }
+
+    private Function<InternalPlcReadRequest, CompletableFuture<InternalPlcReadResponse>> answering(
+        Function<ModbusField, BaseDefaultFieldItem> values) {
+        return readRequest -> {
+            sentRequests.add(readRequest);
+            String name = readRequest.getFieldNames().iterator().next();
+            Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> fieldValues = new HashMap<>();
+            fieldValues.put(name,
+                ImmutablePair.of(PlcResponseCode.OK, values.apply((ModbusField) readRequest.getField(name))));
+            return CompletableFuture.completedFuture(new DefaultPlcReadResponse(readRequest, fieldValues));
+        };
+    }
+
+    private static ModbusTcpPayload registerResponse(ModbusTcpPayload request, byte value) {
+        return new ModbusTcpPayload(request.getTransactionId(), request.getUnitId(),
+            new ReadHoldingRegistersResponse(Unpooled.wrappedBuffer(new byte[]{0, value})));
+    }
+
+    private static RequestBuilder request() {
+        return new RequestBuilder();
+    }
+
+    private static class RequestBuilder {
+
+        private final DefaultPlcReadRequest.Builder builder = new DefaultPlcReadRequest.Builder(null, new ModbusPlcFieldHandler());
+
+        private RequestBuilder addItem(String name, String fieldQuery) {
+            builder.addItem(name, fieldQuery);
+            return this;
+        }
+
+        private InternalPlcReadRequest build() {
+            return (InternalPlcReadRequest) builder.build();
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.s7.netty.model.types.MemoryArea;
 import org.apache.plc4x.java.s7.netty.model.types.TransportSize;
 
+import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -86,7 +87,8 @@ public class S7Field implements PlcField {
     }
 
     public static boolean matches(String fieldString) {
-        return DATA_BLOCK_ADDRESS_PATTERN.matcher(fieldString).matches() ||
+        return (AddressParts.parse(fieldString) != null) ||
+            DATA_BLOCK_ADDRESS_PATTERN.matcher(fieldString).matches() ||
             ADDRESS_PATTERN.matcher(fieldString).matches();
     }
 
@@ -121,60 +123,54 @@ public class S7Field implements PlcField {
     }
 
     public static S7Field of(String fieldString) {
-        Matcher matcher = DATA_BLOCK_ADDRESS_PATTERN.matcher(fieldString);
-        if(matcher.matches()) {
-            TransportSize dataType = TransportSize.valueOf(matcher.group(DATA_TYPE));
-            MemoryArea memoryArea = MemoryArea.DATA_BLOCKS;
-            String transferSizeCode = matcher.group(TRANSFER_SIZE_CODE);
-
-            int blockNumber = checkDatablockNumber(Integer.parseInt(matcher.group(BLOCK_NUMBER)));
-
-            int byteOffset = checkByteOffset(Integer.parseInt(matcher.group(BYTE_OFFSET)));
-
-            short bitOffset = 0;
-            if(matcher.group(BIT_OFFSET) != null) {
-                bitOffset = Short.parseShort(matcher.group(BIT_OFFSET));
-            } else if(dataType == TransportSize.BOOL) {
-                throw new PlcInvalidFieldException("Expected bit offset for BOOL parameters.");
-            }
-            int numElements = 1;
-            if(matcher.group(NUM_ELEMENTS) != null) {
-                numElements = Integer.parseInt(matcher.group(NUM_ELEMENTS));
-            }
-            numElements = calcNumberOfElementsForStringTypes(numElements,dataType);
-            if(!transferSizeCode.isEmpty() && !dataType.getSizeCode().equals(transferSizeCode)) {
-                throw new PlcInvalidFieldException("Transfer size code '" + transferSizeCode +
-                    "' doesn't match specified data type '" + dataType.name() + "'");
+        AddressParts parts = AddressParts.parse(fieldString);
+        if (parts == null) {
+            Matcher matcher = DATA_BLOCK_ADDRESS_PATTERN.matcher(fieldString);
+            if (matcher.matches()) {
+                parts = new AddressParts(null, matcher.group(TRANSFER_SIZE_CODE), matcher.group(BLOCK_NUMBER),
+                    matcher.group(BYTE_OFFSET), matcher.group(BIT_OFFSET), matcher.group(DATA_TYPE),
+                    matcher.group(NUM_ELEMENTS));
+            } else {
+                matcher = ADDRESS_PATTERN.matcher(fieldString);
+                if (matcher.matches()) {
+                    parts = new AddressParts(matcher.group(MEMORY_AREA), matcher.group(TRANSFER_SIZE_CODE), null,
+                        matcher.group(BYTE_OFFSET), matcher.group(BIT_OFFSET), matcher.group(DATA_TYPE),
+                        matcher.group(NUM_ELEMENTS));
+                } else {
+                    throw new PlcInvalidFieldException("Unable to parse address: " + fieldString);
+                }
             }
-            return new S7Field(dataType, memoryArea, blockNumber, byteOffset, bitOffset, numElements);
+        }
+
+        TransportSize dataType = TransportSize.valueOf(parts.dataType);
+        MemoryArea memoryArea;
+        int blockNumber;
+        if (parts.blockNumber != null) {
+            memoryArea = MemoryArea.DATA_BLOCKS;
+            blockNumber = checkDatablockNumber(Integer.parseInt(parts.blockNumber));
         } else {
-            matcher = ADDRESS_PATTERN.matcher(fieldString);
-            if (matcher.matches()) {
-                TransportSize dataType = TransportSize.valueOf(matcher.group(DATA_TYPE));
-                MemoryArea memoryArea = MemoryArea.valueOfShortName(matcher.group(MEMORY_AREA));
-                String transferSizeCode = matcher.group(TRANSFER_SIZE_CODE);
+            memoryArea = MemoryArea.valueOfShortName(parts.memoryArea);
+            blockNumber = 0;
+        }
 
-                int byteOffset = checkByteOffset(Integer.parseInt(matcher.group(BYTE_OFFSET)));
+        int byteOffset = checkByteOffset(Integer.parseInt(parts.byteOffset));
 
-                short bitOffset = 0;
-                if(matcher.group(BIT_OFFSET) != null) {
-                    bitOffset = Short.parseShort(matcher.group(BIT_OFFSET));
-                } else if(dataType == TransportSize.BOOL) {
-                    throw new PlcInvalidFieldException("Expected bit offset for BOOL parameters.");
-                }
-                int numElements = 1;
-                if(matcher.group(NUM_ELEMENTS) != null) {
-                    numElements = Integer.parseInt(matcher.group(NUM_ELEMENTS));
-                }
-                numElements = calcNumberOfElementsForStringTypes(numElements,dataType);
-                if(!transferSizeCode.isEmpty() && !dataType.getSizeCode().equals(transferSizeCode)) {
-                    throw new PlcInvalidFieldException("Transfer size code '" + transferSizeCode +
-                        "' doesn't match specified data type '" + dataType.name() + "'");
-                }
-                return new S7Field(dataType, memoryArea, (short) 0, byteOffset, bitOffset, numElements);
-            }
+        short bitOffset = 0;
+        if(parts.bitOffset != null) {
+            bitOffset = Short.parseShort(parts.bitOffset);
+        } else if(dataType == TransportSize.BOOL) {
+            throw new PlcInvalidFieldException("Expected bit offset for BOOL parameters.");
         }
-        throw new PlcInvalidFieldException("Unable to parse address: " + fieldString);
+        int numElements = 1;
+        if(parts.numElements != null) {
+            numElements = Integer.parseInt(parts.numElements);
+        }
+        numElements = calcNumberOfElementsForStringTypes(numElements,dataType);
+        if(!parts.transferSizeCode.isEmpty() && !dataType.getSizeCode().equals(parts.transferSizeCode)) {
+            throw new PlcInvalidFieldException("Transfer size code '" + parts.transferSizeCode +
+                "' doesn't match specified data type '" + dataType.name() + "'");
+        }
+        return new S7Field(dataType, memoryArea, blockNumber, byteOffset, bitOffset, numElements);
     }
 
     /**
@@ -222,4 +218,155 @@ public class S7Field implements PlcField {
         return 256;
     }
 
+    /**
+     * The groups of an address, either matched by one of the patterns or by the hand-written {@link #parse(String)}.
+     */
+    private static final class AddressParts {
+
+        private final String memoryArea;
+        private final String transferSizeCode;
+        private final String blockNumber;
+        private final String byteOffset;
+        private final String bitOffset;
+        private final String dataType;
+        private final String numElements;
+
+        private AddressParts(String memoryArea, String transferSizeCode, String blockNumber, String byteOffset,
+                             String bitOffset, String dataType, String numElements) {
+            this.memoryArea = memoryArea;
+            this.transferSizeCode = transferSizeCode;
+            this.blockNumber = blockNumber;
+            this.byteOffset = byteOffset;
+            this.bitOffset = bitOffset;
+            this.dataType = dataType;
+            this.numElements = numElements;
+        }
+
+        /**
+         * Splits the common address forms like "%DB1.DBW4:INT[10]" or "%I0.1:BOOL" without the costs of the
+         * patterns. Only addresses which the patterns would split up the very same way are accepted, for everything
+         * else null is returned and the patterns have to decide.
+         *
+         * @param fieldString the address.
+         * @return the groups of the address or null.
+         */
+        private static AddressParts parse(String fieldString) {
+            int length = fieldString.length();
+            if ((length < 4) || (fieldString.charAt(0) != '%')) {
+                return null;
+            }
+            int pos;
+            String memoryArea = null;
+            String blockNumber = null;
+            if (fieldString.startsWith("%DB") && isDigit(fieldString, 3)) {
+                int blockNumberEnd = skipDigits(fieldString, 3);
+                if ((blockNumberEnd - 3 > 5) || !fieldString.startsWith(".DB", blockNumberEnd)) {
+                    return null;
+                }
+                blockNumber = fieldString.substring(3, blockNumberEnd);
+                pos = blockNumberEnd + 3;
+            } else {
+                if (!Character.isLetter(fieldString.charAt(1))) {
+                    return null;
+                }
+                memoryArea = fieldString.substring(1, 2);
+                pos = 2;
+            }
+            String transferSizeCode = "";
+            if ((pos < length) && ("XBWD".indexOf(fieldString.charAt(pos)) >= 0)) {
+                transferSizeCode = fieldString.substring(pos, pos + 1);
+                pos++;
+            }
+            int byteOffsetEnd = skipDigits(fieldString, pos);
+            if ((byteOffsetEnd == pos) || (byteOffsetEnd - pos > 7)) {
+                return null;
+            }
+            String byteOffset = fieldString.substring(pos, byteOffsetEnd);
+            pos = byteOffsetEnd;
+            String bitOffset = null;
+            if ((pos + 1 < length) && (fieldString.charAt(pos) == '.')) {
+                char bit = fieldString.charAt(pos + 1);
+                if ((bit < '0') || (bit > '7')) {
+                    return null;
+                }
+                bitOffset = String.valueOf(bit);
+                pos += 2;
+            }
+            if ((pos >= length) || (fieldString.charAt(pos) != ':')) {
+                return null;
+            }
+            pos++;
+            int dataTypeEnd = pos;
+            while ((dataTypeEnd < length) && isDataTypeChar(fieldString.charAt(dataTypeEnd))) {
+                dataTypeEnd++;
+            }
+            if (dataTypeEnd == pos) {
+                return null;
+            }
+            String dataType = fieldString.substring(pos, dataTypeEnd);
+            pos = dataTypeEnd;
+            String numElements = null;
+            if (pos < length) {
+                int numElementsEnd = skipDigits(fieldString, pos + 1);
+                if ((fieldString.charAt(pos) != '[') || (numElementsEnd == pos + 1)
+                    || (numElementsEnd != length - 1) || (fieldString.charAt(numElementsEnd) != ']')) {
+                    return null;
+                }
+                numElements = fieldString.substring(pos + 1, numElementsEnd);
+            }
+            return new AddressParts(memoryArea, transferSizeCode, blockNumber, byteOffset, bitOffset, dataType,
+                numElements);
+        }
+
+        private static boolean isDigit(String string, int index) {
+            return (index < string.length()) && (string.charAt(index) >= '0') && (string.charAt(index) <= '9');
+        }
+
+        private static int skipDigits(String string, int index) {
+            int end = index;
+            while (isDigit(string, end)) {
+                end++;
+            }
+            return end;
+        }
+
+        private static boolean isDataTypeChar(char c) {
+            return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || (c == '_');
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof S7Field)) {
+            return false;
+        }
+        S7Field that = (S7Field) o;
+        return blockNumber == that.blockNumber &&
+            byteOffset == that.byteOffset &&
+            bitOffset == that.bitOffset &&
+            numElements == that.numElements &&
+            dataType == that.dataType &&
+            memoryArea == that.memoryArea;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dataType, memoryArea, blockNumber, byteOffset, bitOffset, numElements);
+    }
+
+    @Override
+    public String toString() {
+        return "S7Field{" +
+            "dataType=" + dataType +
+            ", memoryArea=" + memoryArea +
+            ", blockNumber=" + blockNumber +
+            ", byteOffset=" + byteOffset +
+            ", bitOffset=" + bitOffset +
+            ", numElements=" + numElements +
+            '}';
+    }
+
 }
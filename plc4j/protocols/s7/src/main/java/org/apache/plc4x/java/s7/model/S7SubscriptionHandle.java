@@ -0,0 +1,88 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.s7.model;
+
+import org.apache.plc4x.java.base.messages.PlcSubscriber;
+import org.apache.plc4x.java.base.model.DefaultPlcSubscriptionHandle;
+
+import java.util.Objects;
+
+/**
+ * Handle of a field which is part of a cyclic job on the PLC. All fields subscribed with one request share the job
+ * and the PLC pushes their values in the order of the request.
+ */
+public class S7SubscriptionHandle extends DefaultPlcSubscriptionHandle {
+
+    private final byte jobId;
+
+    private final String fieldName;
+
+    private final S7Field field;
+
+    public S7SubscriptionHandle(PlcSubscriber plcSubscriber, byte jobId, String fieldName, S7Field field) {
+        super(plcSubscriber);
+        this.jobId = jobId;
+        this.fieldName = fieldName;
+        this.field = field;
+    }
+
+    public byte getJobId() {
+        return jobId;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public S7Field getField() {
+        return field;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof S7SubscriptionHandle)) {
+            return false;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+        S7SubscriptionHandle that = (S7SubscriptionHandle) o;
+        return jobId == that.jobId &&
+            Objects.equals(fieldName, that.fieldName) &&
+            Objects.equals(field, that.field);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), jobId, fieldName, field);
+    }
+
+    @Override
+    public String toString() {
+        return "S7SubscriptionHandle{" +
+            "jobId=" + jobId +
+            ", fieldName='" + fieldName + '\'' +
+            ", field=" + field +
+            "} " + super.toString();
+    }
+
+}
@@ -27,30 +27,48 @@ import org.apache.plc4x.java.api.exceptions.*;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcRequest;
 import org.apache.plc4x.java.api.messages.PlcResponse;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcUnsubscriptionRequest;
 import org.apache.plc4x.java.api.messages.PlcWriteRequest;
 import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.types.PlcSubscriptionType;
 import org.apache.plc4x.java.base.PlcMessageToMessageCodec;
 import org.apache.plc4x.java.base.events.ConnectedEvent;
 import org.apache.plc4x.java.base.messages.*;
 import org.apache.plc4x.java.base.messages.items.*;
+import org.apache.plc4x.java.base.model.InternalPlcSubscriptionHandle;
+import org.apache.plc4x.java.base.model.SubscriptionPlcField;
 import org.apache.plc4x.java.s7.model.S7Field;
+import org.apache.plc4x.java.s7.model.S7SubscriptionHandle;
 import org.apache.plc4x.java.s7.netty.events.S7ConnectedEvent;
+import org.apache.plc4x.java.s7.netty.events.S7CyclicDataEvent;
 import org.apache.plc4x.java.s7.netty.model.messages.S7Message;
 import org.apache.plc4x.java.s7.netty.model.messages.S7RequestMessage;
 import org.apache.plc4x.java.s7.netty.model.messages.S7ResponseMessage;
+import org.apache.plc4x.java.s7.netty.model.params.CpuServicesPushParameter;
+import org.apache.plc4x.java.s7.netty.model.params.CpuServicesRequestParameter;
+import org.apache.plc4x.java.s7.netty.model.params.CpuServicesResponseParameter;
 import org.apache.plc4x.java.s7.netty.model.params.VarParameter;
 import org.apache.plc4x.java.s7.netty.model.params.items.S7AnyVarParameterItem;
 import org.apache.plc4x.java.s7.netty.model.params.items.VarParameterItem;
+import org.apache.plc4x.java.s7.netty.model.payloads.CyclicServicesPayload;
+import org.apache.plc4x.java.s7.netty.model.payloads.CyclicServicesSubscribeRequestPayload;
+import org.apache.plc4x.java.s7.netty.model.payloads.CyclicServicesUnsubscribeRequestPayload;
 import org.apache.plc4x.java.s7.netty.model.payloads.VarPayload;
 import org.apache.plc4x.java.s7.netty.model.payloads.items.VarPayloadItem;
 import org.apache.plc4x.java.s7.netty.model.types.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.lang.reflect.Array;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
@@ -65,15 +83,39 @@ import java.util.stream.IntStream;
  * <p>
  * When a {@link S7ResponseMessage} is received it takes the existing request container from its Map and finishes
  * the {@link PlcRequestContainer}s future with the {@link PlcResponse}.
+ * <p>
+ * Subscription requests register cyclic jobs on the PLC. The values the PLC pushes for these jobs are passed up the
+ * pipeline as {@link S7CyclicDataEvent}s.
  */
 public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequestContainer> {
 
+    private static final Logger logger = LoggerFactory.getLogger(Plc4XS7Protocol.class);
+
     private static final AtomicInteger tpduGenerator = new AtomicInteger(10);
 
     private Map<Short, PlcRequestContainer> requests;
 
+    // Handles of the fields of all active cyclic jobs, in the order the PLC pushes their values.
+    private Map<Byte, List<S7SubscriptionHandle>> jobs;
+
+    // Var parameters of prepared read requests, which are reused for every execution of the request.
+    private Map<PreparedPlcReadRequest, VarParameter> preparedReadParameters;
+
+    private final boolean lazyReadResponses;
+
     public Plc4XS7Protocol() {
+        this(false);
+    }
+
+    /**
+     * @param lazyReadResponses if true, read responses are {@link LazyPlcReadResponse}s which only decode the fields
+     *                          that are actually accessed.
+     */
+    public Plc4XS7Protocol(boolean lazyReadResponses) {
         this.requests = new HashMap<>();
+        this.jobs = new HashMap<>();
+        this.preparedReadParameters = new WeakHashMap<>();
+        this.lazyReadResponses = lazyReadResponses;
     }
 
     /**
@@ -145,13 +187,38 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
             encodeReadRequest(msg, out);
         } else if (request instanceof PlcWriteRequest) {
             encodeWriteRequest(msg, out);
+        } else if (request instanceof PlcSubscriptionRequest) {
+            encodeSubscriptionRequest(msg, out);
+        } else if (request instanceof PlcUnsubscriptionRequest) {
+            encodeUnsubscriptionRequest(msg, out);
         }
     }
 
     private void encodeReadRequest(PlcRequestContainer msg, List<Object> out) throws PlcException {
-        List<VarParameterItem> parameterItems = new LinkedList<>();
-
         PlcReadRequest readRequest = (PlcReadRequest) msg.getRequest();
+        VarParameter readVarParameter;
+        if (readRequest instanceof PreparedPlcReadRequest) {
+            readVarParameter = preparedReadParameters.get(readRequest);
+            if (readVarParameter == null) {
+                readVarParameter = createReadVarParameter(readRequest);
+                preparedReadParameters.put((PreparedPlcReadRequest) readRequest, readVarParameter);
+            }
+        } else {
+            readVarParameter = createReadVarParameter(readRequest);
+        }
+
+        // Assemble the request.
+        S7RequestMessage s7ReadRequest = new S7RequestMessage(MessageType.JOB,
+            (short) tpduGenerator.getAndIncrement(), Collections.singletonList(readVarParameter),
+            Collections.emptyList(), msg);
+
+        requests.put(s7ReadRequest.getTpduReference(), msg);
+
+        out.add(s7ReadRequest);
+    }
+
+    private VarParameter createReadVarParameter(PlcReadRequest readRequest) throws PlcException {
+        List<VarParameterItem> parameterItems = new LinkedList<>();
         for (String fieldName : readRequest.getFieldNames()) {
             PlcField field = readRequest.getField(fieldName);
             if (!(field instanceof S7Field)) {
@@ -165,16 +232,7 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
                 s7Field.getNumElements(), s7Field.getBlockNumber(), s7Field.getByteOffset(), (byte) s7Field.getBitOffset());
             parameterItems.add(varParameterItem);
         }
-        VarParameter readVarParameter = new VarParameter(ParameterType.READ_VAR, parameterItems);
-
-        // Assemble the request.
-        S7RequestMessage s7ReadRequest = new S7RequestMessage(MessageType.JOB,
-            (short) tpduGenerator.getAndIncrement(), Collections.singletonList(readVarParameter),
-            Collections.emptyList(), msg);
-
-        requests.put(s7ReadRequest.getTpduReference(), msg);
-
-        out.add(s7ReadRequest);
+        return new VarParameter(ParameterType.READ_VAR, parameterItems);
     }
 
     private void encodeWriteRequest(PlcRequestContainer msg, List<Object> out) throws PlcException {
@@ -297,6 +355,82 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
         out.add(s7WriteRequest);
     }
 
+    private void encodeSubscriptionRequest(PlcRequestContainer msg, List<Object> out) throws PlcException {
+        List<S7AnyVarParameterItem> items = new LinkedList<>();
+        Duration interval = null;
+
+        InternalPlcSubscriptionRequest subscriptionRequest = (InternalPlcSubscriptionRequest) msg.getRequest();
+        for (SubscriptionPlcField subscriptionField : subscriptionRequest.getSubscriptionFields()) {
+            // The PLC only supports pushing values with a fixed interval and all items of a job share the interval.
+            if (subscriptionField.getPlcSubscriptionType() != PlcSubscriptionType.CYCLIC) {
+                throw new PlcProtocolException("Unsupported subscription type " + subscriptionField.getPlcSubscriptionType());
+            }
+            Duration fieldInterval = subscriptionField.getDuration()
+                .orElseThrow(() -> new PlcProtocolException("Cyclic subscriptions require an interval"));
+            if (interval == null) {
+                interval = fieldInterval;
+            } else if (!interval.equals(fieldInterval)) {
+                throw new PlcProtocolException("All fields of a cyclic job must have the same interval");
+            }
+            if (!(subscriptionField.getPlcField() instanceof S7Field)) {
+                throw new PlcProtocolException("The field should have been of type S7Field");
+            }
+            S7Field s7Field = (S7Field) subscriptionField.getPlcField();
+
+            items.add(new S7AnyVarParameterItem(
+                SpecificationType.VARIABLE_SPECIFICATION, s7Field.getMemoryArea(),
+                s7Field.getDataType(),
+                s7Field.getNumElements(), s7Field.getBlockNumber(), s7Field.getByteOffset(), (byte) s7Field.getBitOffset()));
+        }
+        if (interval == null) {
+            throw new PlcProtocolException("A cyclic job requires at least one field");
+        }
+        CyclicServicesTimeBase timeBase = CyclicServicesTimeBase.of(interval);
+        CyclicServicesSubscribeRequestPayload subscribePayload =
+            new CyclicServicesSubscribeRequestPayload(timeBase, (byte) timeBase.getFactor(interval), items);
+
+        // Assemble the request.
+        S7RequestMessage s7SubscriptionRequest = new S7RequestMessage(MessageType.USER_DATA,
+            (short) tpduGenerator.getAndIncrement(), Collections.singletonList(new CpuServicesRequestParameter(
+                CpuServicesParameterFunctionGroup.CYCLIC_SERVICES,
+                CpuServicesParameterSubFunctionGroup.CYCLIC_TRANSFER, (byte) 0)),
+            Collections.singletonList(subscribePayload), msg);
+
+        requests.put(s7SubscriptionRequest.getTpduReference(), msg);
+
+        out.add(s7SubscriptionRequest);
+    }
+
+    private void encodeUnsubscriptionRequest(PlcRequestContainer msg, List<Object> out) throws PlcException {
+        Set<Byte> jobIds = new HashSet<>();
+
+        InternalPlcUnsubscriptionRequest unsubscriptionRequest = (InternalPlcUnsubscriptionRequest) msg.getRequest();
+        for (InternalPlcSubscriptionHandle handle : unsubscriptionRequest.getInternalPlcSubscriptionHandles()) {
+            if (!(handle instanceof S7SubscriptionHandle)) {
+                throw new PlcProtocolException("The handle should have been of type S7SubscriptionHandle");
+            }
+            jobIds.add(((S7SubscriptionHandle) handle).getJobId());
+        }
+        // The PLC can only remove complete jobs.
+        if (jobIds.size() != 1) {
+            throw new PlcProtocolException("All handles must belong to the same cyclic job");
+        }
+        byte jobId = jobIds.iterator().next();
+        // Values still pushed for the job are dropped from now on.
+        jobs.remove(jobId);
+
+        // Assemble the request.
+        S7RequestMessage s7UnsubscriptionRequest = new S7RequestMessage(MessageType.USER_DATA,
+            (short) tpduGenerator.getAndIncrement(), Collections.singletonList(new CpuServicesRequestParameter(
+                CpuServicesParameterFunctionGroup.CYCLIC_SERVICES,
+                CpuServicesParameterSubFunctionGroup.CYCLIC_TRANSFER_UNSUBSCRIBE, (byte) 0)),
+            Collections.singletonList(new CyclicServicesUnsubscribeRequestPayload(jobId)), msg);
+
+        requests.put(s7UnsubscriptionRequest.getTpduReference(), msg);
+
+        out.add(s7UnsubscriptionRequest);
+    }
+
     byte[] encodeWriteRequestBitField(BaseDefaultFieldItem fieldItem) {
         int numBytes = fieldItem.getNumberOfValues() >> 3 / 8;
         byte[] byteData = new byte[numBytes];
@@ -391,8 +525,13 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
     @SuppressWarnings("unchecked")
     @Override
     protected void decode(ChannelHandlerContext ctx, S7Message msg, List<Object> out) throws PlcException {
-        // We're currently just expecting responses.
+        // Apart from responses, we're only expecting the values the PLC pushes for cyclic jobs.
         if (!(msg instanceof S7ResponseMessage)) {
+            Optional<CpuServicesPushParameter> pushParameter = msg.getParameter(CpuServicesPushParameter.class);
+            if (pushParameter.isPresent() &&
+                (pushParameter.get().getFunctionGroup() == CpuServicesParameterFunctionGroup.CYCLIC_SERVICES)) {
+                decodeCyclicData(ctx, msg, pushParameter.get());
+            }
             return;
         }
         S7ResponseMessage responseMessage = (S7ResponseMessage) msg;
@@ -408,6 +547,10 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
                 response = decodeReadResponse(responseMessage, requestContainer);
             } else if (request instanceof PlcWriteRequest) {
                 response = decodeWriteResponse(responseMessage, requestContainer);
+            } else if (request instanceof PlcSubscriptionRequest) {
+                response = decodeSubscriptionResponse(responseMessage, requestContainer);
+            } else if (request instanceof PlcUnsubscriptionRequest) {
+                response = decodeUnsubscriptionResponse(responseMessage, requestContainer);
             }
 
             // Confirm the response being handled.
@@ -434,8 +577,26 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
                 "The number of requested items doesn't match the number of returned items");
         }
 
-        Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> values = new HashMap<>();
         List<VarPayloadItem> payloadItems = payload.getItems();
+        if (lazyReadResponses) {
+            // Only keep the raw data, the fields are decoded as soon as they are accessed.
+            Map<String, PlcResponseCode> responseCodes = new HashMap<>();
+            Map<String, ByteBuf> data = new HashMap<>();
+            int index = 0;
+            for (String fieldName : plcReadRequest.getFieldNames()) {
+                VarPayloadItem payloadItem = payloadItems.get(index);
+                PlcResponseCode responseCode = decodeResponseCode(payloadItem.getReturnCode());
+                responseCodes.put(fieldName, responseCode);
+                if (responseCode == PlcResponseCode.OK) {
+                    data.put(fieldName, Unpooled.wrappedBuffer(payloadItem.getData()));
+                }
+                index++;
+            }
+            return new LazyPlcReadResponse(plcReadRequest, responseCodes, data,
+                (field, fieldData) -> decodeReadResponseField((S7Field) field, fieldData));
+        }
+
+        Map<String, Pair<PlcResponseCode, BaseDefaultFieldItem>> values = new HashMap<>();
         int index = 0;
         for (String fieldName : plcReadRequest.getFieldNames()) {
             S7Field field = (S7Field) plcReadRequest.getField(fieldName);
@@ -443,90 +604,8 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
 
             PlcResponseCode responseCode = decodeResponseCode(payloadItem.getReturnCode());
             BaseDefaultFieldItem fieldItem = null;
-            ByteBuf data = Unpooled.wrappedBuffer(payloadItem.getData());
             if (responseCode == PlcResponseCode.OK) {
-                // TODO 2018-09-27 jf: array returning only implemented for BOOL, BYTE, INTEGERS, FP
-                // not for CHARS & STRINGS and not for all other bit-strings except for BYTE
-                switch (field.getDataType()) {
-                    // -----------------------------------------
-                    // Bit
-                    // -----------------------------------------
-                    case BOOL:
-                        fieldItem = decodeReadResponseBitField(field, data);
-                        break;
-                    // -----------------------------------------
-                    // Bit-strings
-                    // -----------------------------------------
-                    case BYTE:  // 1 byte
-                        fieldItem = decodeReadResponseByteBitStringField(field, data);
-                        break;
-                    case WORD:  // 2 byte (16 bit)
-                        fieldItem = decodeReadResponseShortBitStringField(field, data);
-                        break;
-                    case DWORD:  // 4 byte (32 bit)
-                        fieldItem = decodeReadResponseIntegerBitStringField(field, data);
-                        break;
-                    case LWORD:  // 8 byte (64 bit)
-                        fieldItem = decodeReadResponseLongBitStringField(field, data);
-                        break;
-                    // -----------------------------------------
-                    // Integers
-                    // -----------------------------------------
-                    // 8 bit:
-                    case SINT:
-                        fieldItem = decodeReadResponseSignedByteField(field, data);
-                        break;
-                    case USINT:
-                        fieldItem = decodeReadResponseUnsignedByteField(field, data);
-                        break;
-                    // 16 bit:
-                    case INT:
-                        fieldItem = decodeReadResponseSignedShortField(field, data);
-                        break;
-                    case UINT:
-                        fieldItem = decodeReadResponseUnsignedShortField(field, data);
-                        break;
-                    // 32 bit:
-                    case DINT:
-                        fieldItem = decodeReadResponseSignedIntegerField(field, data);
-                        break;
-                    case UDINT:
-                        fieldItem = decodeReadResponseUnsignedIntegerField(field, data);
-                        break;
-                    // 64 bit:
-                    case LINT:
-                        fieldItem = decodeReadResponseSignedLongField(field, data);
-                        break;
-                    case ULINT:
-                        fieldItem = decodeReadResponseUnsignedLongField(field, data);
-                        break;
-                    // -----------------------------------------
-                    // Floating point values
-                    // -----------------------------------------
-                    case REAL:
-                        fieldItem = decodeReadResponseFloatField(field, data);
-                        break;
-                    case LREAL:
-                        fieldItem = decodeReadResponseDoubleField(field, data);
-                        break;
-                    // -----------------------------------------
-                    // Characters & Strings
-                    // -----------------------------------------
-                    case CHAR: // 1 byte (8 bit)
-                        fieldItem = decodeReadResponseFixedLengthStringField(1, false, data);
-                        break;
-                    case WCHAR: // 2 byte
-                        fieldItem = decodeReadResponseFixedLengthStringField(1, true, data);
-                        break;
-                    case STRING:
-                        fieldItem = decodeReadResponseVarLengthStringField(false, data);
-                        break;
-                    case WSTRING:
-                        fieldItem = decodeReadResponseVarLengthStringField(true, data);
-                        break;
-                    default:
-                        throw new PlcProtocolException("Unsupported type " + field.getDataType());
-                }
+                fieldItem = decodeReadResponseField(field, Unpooled.wrappedBuffer(payloadItem.getData()));
             }
             Pair<PlcResponseCode, BaseDefaultFieldItem> result = new ImmutablePair<>(responseCode, fieldItem);
             values.put(fieldName, result);
@@ -536,9 +615,79 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
         return new DefaultPlcReadResponse(plcReadRequest, values);
     }
 
+    BaseDefaultFieldItem decodeReadResponseField(S7Field field, ByteBuf data) throws PlcProtocolException {
+        // TODO 2018-09-27 jf: array returning only implemented for BOOL, BYTE, INTEGERS, FP
+        // not for CHARS & STRINGS and not for all other bit-strings except for BYTE
+        switch (field.getDataType()) {
+            // -----------------------------------------
+            // Bit
+            // -----------------------------------------
+            case BOOL:
+                return decodeReadResponseBitField(field, data);
+            // -----------------------------------------
+            // Bit-strings
+            // -----------------------------------------
+            case BYTE:  // 1 byte
+                return decodeReadResponseByteBitStringField(field, data);
+            case WORD:  // 2 byte (16 bit)
+                return decodeReadResponseShortBitStringField(field, data);
+            case DWORD:  // 4 byte (32 bit)
+                return decodeReadResponseIntegerBitStringField(field, data);
+            case LWORD:  // 8 byte (64 bit)
+                return decodeReadResponseLongBitStringField(field, data);
+            // -----------------------------------------
+            // Integers
+            // -----------------------------------------
+            // 8 bit:
+            case SINT:
+                return decodeReadResponseSignedByteField(field, data);
+            case USINT:
+                return decodeReadResponseUnsignedByteField(field, data);
+            // 16 bit:
+            case INT:
+                return decodeReadResponseSignedShortField(field, data);
+            case UINT:
+                return decodeReadResponseUnsignedShortField(field, data);
+            // 32 bit:
+            case DINT:
+                return decodeReadResponseSignedIntegerField(field, data);
+            case UDINT:
+                return decodeReadResponseUnsignedIntegerField(field, data);
+            // 64 bit:
+            case LINT:
+                return decodeReadResponseSignedLongField(field, data);
+            case ULINT:
+                return decodeReadResponseUnsignedLongField(field, data);
+            // -----------------------------------------
+            // Floating point values
+            // -----------------------------------------
+            case REAL:
+                return decodeReadResponseFloatField(field, data);
+            case LREAL:
+                return decodeReadResponseDoubleField(field, data);
+            // -----------------------------------------
+            // Characters & Strings
+            // -----------------------------------------
+            case CHAR: // 1 byte (8 bit)
+                return decodeReadResponseFixedLengthStringField(1, false, data);
+            case WCHAR: // 2 byte
+                return decodeReadResponseFixedLengthStringField(1, true, data);
+            case STRING:
+                return decodeReadResponseVarLengthStringField(false, data);
+            case WSTRING:
+                return decodeReadResponseVarLengthStringField(true, data);
+            default:
+                throw new PlcProtocolException("Unsupported type " + field.getDataType());
+        }
+    }
+
     BaseDefaultFieldItem decodeReadResponseBitField(S7Field field, ByteBuf data) {
-        Boolean[] booleans = readAllValues(Boolean.class, field, i -> data.readByte() != 0x00);
-        return new DefaultBooleanFieldItem(booleans);
+        checkReadableBytes(field, data, 1);
+        BitSet bits = new BitSet(field.getNumElements());
+        for (int i = 0; i < field.getNumElements(); i++) {
+            bits.set(i, data.readByte() != 0x00);
+        }
+        return new DefaultPrimitiveBooleanFieldItem(bits, field.getNumElements());
     }
 
     BaseDefaultFieldItem decodeReadResponseByteBitStringField(S7Field field, ByteBuf data) {
@@ -567,14 +716,14 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
 
     BaseDefaultFieldItem decodeBitStringField(byte[] bytes) {
         BitSet bitSet = BitSet.valueOf(bytes);
-        Boolean[] booleanValues = new Boolean[8 * bytes.length];
+        BitSet booleanValues = new BitSet(8 * bytes.length);
         int k = 0;
         for(int i = bytes.length - 1; i >= 0; i--) {
             for(int j = 0; j < 8; j++) {
-                booleanValues[k++] = bitSet.get(8 * i + j);
+                booleanValues.set(k++, bitSet.get(8 * i + j));
             }
         }
-        return new DefaultBooleanFieldItem(booleanValues);
+        return new DefaultPrimitiveBooleanFieldItem(booleanValues, 8 * bytes.length);
     }
 
     BaseDefaultFieldItem decodeReadResponseSignedByteField(S7Field field, ByteBuf data) {
@@ -583,33 +732,57 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
     }
 
     BaseDefaultFieldItem decodeReadResponseUnsignedByteField(S7Field field, ByteBuf data) {
-        Short[] shorts = readAllValues(Short.class, field, i -> data.readUnsignedByte());
-        return new DefaultShortFieldItem(shorts);
+        checkReadableBytes(field, data, 1);
+        short[] shorts = new short[field.getNumElements()];
+        for (int i = 0; i < shorts.length; i++) {
+            shorts[i] = data.readUnsignedByte();
+        }
+        return new DefaultPrimitiveShortFieldItem(shorts);
     }
 
     BaseDefaultFieldItem decodeReadResponseSignedShortField(S7Field field, ByteBuf data) {
-        Short[] shorts = readAllValues(Short.class, field, i -> data.readShort());
-        return new DefaultShortFieldItem(shorts);
+        checkReadableBytes(field, data, 2);
+        short[] shorts = new short[field.getNumElements()];
+        for (int i = 0; i < shorts.length; i++) {
+            shorts[i] = data.readShort();
+        }
+        return new DefaultPrimitiveShortFieldItem(shorts);
     }
 
     BaseDefaultFieldItem decodeReadResponseUnsignedShortField(S7Field field, ByteBuf data) {
-        Integer[] ints = readAllValues(Integer.class, field, i -> data.readUnsignedShort());
-        return new DefaultIntegerFieldItem(ints);
+        checkReadableBytes(field, data, 2);
+        int[] ints = new int[field.getNumElements()];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = data.readUnsignedShort();
+        }
+        return new DefaultPrimitiveIntegerFieldItem(ints);
     }
 
     BaseDefaultFieldItem decodeReadResponseSignedIntegerField(S7Field field, ByteBuf data) {
-        Integer[] ints = readAllValues(Integer.class, field, i -> data.readInt());
-        return new DefaultIntegerFieldItem(ints);
+        checkReadableBytes(field, data, 4);
+        int[] ints = new int[field.getNumElements()];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = data.readInt();
+        }
+        return new DefaultPrimitiveIntegerFieldItem(ints);
     }
 
     BaseDefaultFieldItem decodeReadResponseUnsignedIntegerField(S7Field field, ByteBuf data) {
-        Long[] longs = readAllValues(Long.class, field, i -> data.readUnsignedInt());
-        return new DefaultLongFieldItem(longs);
+        checkReadableBytes(field, data, 4);
+        long[] longs = new long[field.getNumElements()];
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = data.readUnsignedInt();
+        }
+        return new DefaultPrimitiveLongFieldItem(longs);
     }
 
     BaseDefaultFieldItem decodeReadResponseSignedLongField(S7Field field, ByteBuf data) {
-        Long[] longs = readAllValues(Long.class, field, i -> data.readLong());
-        return new DefaultLongFieldItem(longs);
+        checkReadableBytes(field, data, 8);
+        long[] longs = new long[field.getNumElements()];
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = data.readLong();
+        }
+        return new DefaultPrimitiveLongFieldItem(longs);
     }
 
     BaseDefaultFieldItem decodeReadResponseUnsignedLongField(S7Field field, ByteBuf data) {
@@ -618,13 +791,21 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
     }
 
     BaseDefaultFieldItem decodeReadResponseFloatField(S7Field field, ByteBuf data) {
-        Float[] floats = readAllValues(Float.class, field, i -> data.readFloat());
-        return new DefaultFloatFieldItem(floats);
+        checkReadableBytes(field, data, 4);
+        float[] floats = new float[field.getNumElements()];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = data.readFloat();
+        }
+        return new DefaultPrimitiveFloatFieldItem(floats);
     }
 
     BaseDefaultFieldItem decodeReadResponseDoubleField(S7Field field, ByteBuf data) {
-        Double[] doubles = readAllValues(Double.class, field, i -> data.readDouble());
-        return new DefaultDoubleFieldItem(doubles);
+        checkReadableBytes(field, data, 8);
+        double[] doubles = new double[field.getNumElements()];
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = data.readDouble();
+        }
+        return new DefaultPrimitiveDoubleFieldItem(doubles);
     }
 
     BaseDefaultFieldItem decodeReadResponseFixedLengthStringField(int numChars, boolean isUtf16, ByteBuf data) {
@@ -640,6 +821,12 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
         return decodeReadResponseFixedLengthStringField(actualLength, isUtf16, data);
     }
 
+    private static void checkReadableBytes(S7Field field, ByteBuf data, int bytesPerElement) {
+        if (data.readableBytes() < field.getNumElements() * bytesPerElement) {
+            throw new PlcRuntimeException("Too few bytes in the buffer to read requested type");
+        }
+    }
+
     private static <T> T[] readAllValues(Class<T> clazz, S7Field field, Function<Integer, T> extract) {
         try {
             return IntStream.rangeClosed(1, field.getNumElements())
@@ -647,7 +834,7 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
                 .collect(Collectors.toList())
                 .toArray((T[])Array.newInstance(clazz, 0));
         } catch (IndexOutOfBoundsException e) {
-            throw new PlcRuntimeException("To few bytes in the buffer to read requested type", e);
+            throw new PlcRuntimeException("Too few bytes in the buffer to read requested type", e);
         }
     }
 
@@ -683,6 +870,99 @@ public class Plc4XS7Protocol extends PlcMessageToMessageCodec<S7Message, PlcRequ
         return new DefaultPlcWriteResponse(plcWriteRequest, values);
     }
 
+    @SuppressWarnings("unchecked")
+    private PlcResponse decodeSubscriptionResponse(S7ResponseMessage responseMessage, PlcRequestContainer requestContainer) throws PlcProtocolException {
+        InternalPlcSubscriptionRequest plcSubscriptionRequest = (InternalPlcSubscriptionRequest) requestContainer.getRequest();
+        if (!(plcSubscriptionRequest instanceof DefaultPlcSubscriptionRequest)) {
+            throw new PlcProtocolException("The subscriptionRequest should have been of type DefaultPlcSubscriptionRequest");
+        }
+        CpuServicesResponseParameter parameter = responseMessage.getParameter(CpuServicesResponseParameter.class)
+            .orElseThrow(() -> new PlcProtocolException("No CpuServicesResponseParameter supplied"));
+        CyclicServicesPayload payload = responseMessage.getPayload(CyclicServicesPayload.class)
+            .orElseThrow(() -> new PlcProtocolException("No CyclicServicesPayload supplied"));
+
+        // The PLC rejects the whole job, if it doesn't support cyclic services or has no resources left.
+        if ((parameter.getError() == ParameterError.NOT_IMPLEMENTED)
+            || (parameter.getError() == ParameterError.L7_CONTEXT_NOT_SUPPORTED)) {
+            requestContainer.getResponseFuture().completeExceptionally(new PlcUnsupportedOperationException(
+                "The PLC doesn't support cyclic jobs: " + parameter.getError()));
+            return null;
+        }
+        if ((parameter.getError() != ParameterError.NO_ERROR) || (payload.getReturnCode() != DataTransportErrorCode.OK)) {
+            requestContainer.getResponseFuture().completeExceptionally(new PlcProtocolException(
+                "The PLC rejected the cyclic job with " + parameter.getError() + " / " + payload.getReturnCode()));
+            return null;
+        }
+
+        // The PLC identifies the job by the sequence number of the response and of all pushes.
+        byte jobId = parameter.getSequenceNumber();
+        PlcSubscriber subscriber = ((DefaultPlcSubscriptionRequest) plcSubscriptionRequest).getSubscriber();
+        List<VarPayloadItem> payloadItems = payload.getItems();
+        List<S7SubscriptionHandle> handles = new ArrayList<>(plcSubscriptionRequest.getNumberOfFields());
+        Map<String, Pair<PlcResponseCode, PlcSubscriptionHandle>> values = new HashMap<>();
+        int index = 0;
+        for (String fieldName : plcSubscriptionRequest.getFieldNames()) {
+            S7SubscriptionHandle handle = new S7SubscriptionHandle(
+                subscriber, jobId, fieldName, (S7Field) plcSubscriptionRequest.getField(fieldName));
+            handles.add(handle);
+
+            // Only the return codes of the initial values are used, the values themselves aren't reported.
+            PlcResponseCode responseCode = (index < payloadItems.size()) ?
+                decodeResponseCode(payloadItems.get(index).getReturnCode()) : PlcResponseCode.OK;
+            values.put(fieldName, new ImmutablePair<>(responseCode, (responseCode == PlcResponseCode.OK) ? handle : null));
+            index++;
+        }
+        jobs.put(jobId, handles);
+
+        return new DefaultPlcSubscriptionResponse(plcSubscriptionRequest, values);
+    }
+
+    private PlcResponse decodeUnsubscriptionResponse(S7ResponseMessage responseMessage, PlcRequestContainer requestContainer) throws PlcProtocolException {
+        InternalPlcUnsubscriptionRequest plcUnsubscriptionRequest = (InternalPlcUnsubscriptionRequest) requestContainer.getRequest();
+        CpuServicesResponseParameter parameter = responseMessage.getParameter(CpuServicesResponseParameter.class)
+            .orElseThrow(() -> new PlcProtocolException("No CpuServicesResponseParameter supplied"));
+        if (parameter.getError() != ParameterError.NO_ERROR) {
+            requestContainer.getResponseFuture().completeExceptionally(new PlcProtocolException(
+                "The PLC failed removing the cyclic job with " + parameter.getError()));
+            return null;
+        }
+        return new DefaultPlcUnsubscriptionResponse(plcUnsubscriptionRequest);
+    }
+
+    private void decodeCyclicData(ChannelHandlerContext ctx, S7Message message, CpuServicesPushParameter parameter) throws PlcProtocolException {
+        byte jobId = parameter.getSequenceNumber();
+        List<S7SubscriptionHandle> handles = jobs.get(jobId);
+        // Pushes can still arrive shortly after a job has been removed.
+        if (handles == null) {
+            logger.debug("Dropping values pushed for unknown cyclic job {}", jobId);
+            return;
+        }
+        CyclicServicesPayload payload = message.getPayload(CyclicServicesPayload.class)
+            .orElseThrow(() -> new PlcProtocolException("No CyclicServicesPayload supplied"));
+
+        // Just as with read responses, the items can only be interpreted by aligning them with the fields of the job.
+        List<VarPayloadItem> payloadItems = payload.getItems();
+        if (handles.size() != payloadItems.size()) {
+            throw new PlcProtocolException(
+                "The number of fields of the cyclic job doesn't match the number of pushed items");
+        }
+
+        Map<S7SubscriptionHandle, Pair<PlcResponseCode, BaseDefaultFieldItem>> values = new HashMap<>();
+        for (int i = 0; i < handles.size(); i++) {
+            S7SubscriptionHandle handle = handles.get(i);
+            VarPayloadItem payloadItem = payloadItems.get(i);
+
+            PlcResponseCode responseCode = decodeResponseCode(payloadItem.getReturnCode());
+            BaseDefaultFieldItem fieldItem = null;
+            if (responseCode == PlcResponseCode.OK) {
+                fieldItem = decodeReadResponseField(handle.getField(), Unpooled.wrappedBuffer(payloadItem.getData()));
+            }
+            values.put(handle, new ImmutablePair<>(responseCode, fieldItem));
+        }
+
+        ctx.channel().pipeline().fireUserEventTriggered(new S7CyclicDataEvent(Instant.now(), jobId, values));
+    }
+
     private PlcResponseCode decodeResponseCode(DataTransportErrorCode dataTransportErrorCode) {
         if (dataTransportErrorCode == null) {
             return PlcResponseCode.INTERNAL_ERROR;
@@ -29,6 +29,7 @@ import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.plc4x.java.api.exceptions.PlcProtocolException;
 import org.apache.plc4x.java.api.exceptions.PlcProtocolPayloadTooBigException;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.apache.plc4x.java.base.messages.PreparedPlcReadRequest;
 import org.apache.plc4x.java.isotp.protocol.IsoTPProtocol;
 import org.apache.plc4x.java.isotp.protocol.events.IsoTPConnectedEvent;
 import org.apache.plc4x.java.isotp.protocol.model.IsoTPMessage;
@@ -42,6 +43,9 @@ import org.apache.plc4x.java.s7.netty.model.params.*;
 import org.apache.plc4x.java.s7.netty.model.params.items.S7AnyVarParameterItem;
 import org.apache.plc4x.java.s7.netty.model.params.items.VarParameterItem;
 import org.apache.plc4x.java.s7.netty.model.payloads.CpuServicesPayload;
+import org.apache.plc4x.java.s7.netty.model.payloads.CyclicServicesPayload;
+import org.apache.plc4x.java.s7.netty.model.payloads.CyclicServicesSubscribeRequestPayload;
+import org.apache.plc4x.java.s7.netty.model.payloads.CyclicServicesUnsubscribeRequestPayload;
 import org.apache.plc4x.java.s7.netty.model.payloads.S7Payload;
 import org.apache.plc4x.java.s7.netty.model.payloads.VarPayload;
 import org.apache.plc4x.java.s7.netty.model.payloads.items.VarPayloadItem;
@@ -71,6 +75,12 @@ public class S7Protocol extends ChannelDuplexHandler {
 
     private static final byte S7_PROTOCOL_MAGIC_NUMBER = 0x32;
 
+    // Function of a cyclic services unsubscribe request, which removes the given job.
+    private static final byte CYCLIC_SERVICES_REMOVE_JOB = 0x05;
+
+    // Position of the PDU reference in the header of an encoded message.
+    private static final int PDU_REFERENCE_OFFSET = 4;
+
     private static final Logger logger = LoggerFactory.getLogger(S7Protocol.class);
 
     private final MessageToMessageDecoder<Object> decoder = new MessageToMessageDecoder<Object>() {
@@ -100,6 +110,9 @@ public class S7Protocol extends ChannelDuplexHandler {
     private PendingWriteQueue queue;
     private Map<Short, DataTpdu> sentButUnacknowledgedTpdus;
 
+    // Encoded messages of prepared read requests by their var parameter, only the PDU reference has to be patched.
+    private Map<VarParameter, byte[]> preparedReadMessages;
+
     public S7Protocol(short requestedMaxAmqCaller, short requestedMaxAmqCallee, short requestedPduSize,
                       S7ControllerType controllerType, S7MessageProcessor messageProcessor) {
         this.maxAmqCaller = requestedMaxAmqCaller;
@@ -108,6 +121,7 @@ public class S7Protocol extends ChannelDuplexHandler {
         this.controllerType = controllerType;
         this.messageProcessor = messageProcessor;
         sentButUnacknowledgedTpdus = new HashMap<>();
+        preparedReadMessages = new WeakHashMap<>();
     }
 
     @Override
@@ -183,7 +197,12 @@ public class S7Protocol extends ChannelDuplexHandler {
                 PromiseCombiner promiseCombiner = new PromiseCombiner();
                 for (S7Message message : messages) {
                     ByteBuf buf = Unpooled.buffer();
-                    writeS7Message(promise.channel(), promiseCombiner, message, buf);
+                    VarParameter preparedReadParameter = getPreparedReadParameter(message);
+                    if (preparedReadParameter != null) {
+                        writePreparedS7Message(promise.channel(), promiseCombiner, message, preparedReadParameter, buf);
+                    } else {
+                        writeS7Message(promise.channel(), promiseCombiner, message, buf);
+                    }
                 }
                 promiseCombiner.finish(promise);
 
@@ -202,12 +221,63 @@ public class S7Protocol extends ChannelDuplexHandler {
         }
     }
 
+    private void queueFollowUpMessages(ChannelHandlerContext ctx, Collection<S7RequestMessage> messages)
+            throws PlcProtocolException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        // Nobody is waiting for these, the request they belong to is only completed by their responses.
+        PromiseCombiner promiseCombiner = new PromiseCombiner();
+        for (S7RequestMessage message : messages) {
+            writeS7Message(ctx.channel(), promiseCombiner, message, Unpooled.buffer());
+        }
+        promiseCombiner.finish(ctx.newPromise());
+    }
+
     private void writeS7Message(Channel channel, PromiseCombiner promiseCombiner,
                                 S7Message message, ByteBuf buf) throws PlcProtocolException {
         encodeHeader(message, buf);
         encodeParameters(message, buf);
         encodePayloads(message, buf);
+        queueS7Message(channel, promiseCombiner, message, buf);
+    }
+
+    private void writePreparedS7Message(Channel channel, PromiseCombiner promiseCombiner, S7Message message,
+                                        VarParameter preparedReadParameter, ByteBuf buf) throws PlcProtocolException {
+        byte[] encodedMessage = preparedReadMessages.get(preparedReadParameter);
+        if (encodedMessage == null) {
+            encodeHeader(message, buf);
+            encodeParameters(message, buf);
+            encodedMessage = ByteBufUtil.getBytes(buf);
+            preparedReadMessages.put(preparedReadParameter, encodedMessage);
+        } else {
+            buf.writeBytes(encodedMessage);
+            buf.setShort(PDU_REFERENCE_OFFSET, message.getTpduReference());
+        }
+        queueS7Message(channel, promiseCombiner, message, buf);
+    }
+
+    /**
+     * Read requests of prepared read requests consist of nothing but a var parameter, which is reused for every
+     * execution of the request, so their encoding can be cached.
+     *
+     * @param message message to be sent.
+     * @return the var parameter of the message, if it's part of a prepared read request, null otherwise.
+     */
+    private VarParameter getPreparedReadParameter(S7Message message) {
+        if (!(message instanceof S7RequestMessage) || (message.getParameters().size() != 1)
+            || ((message.getPayloads() != null) && !message.getPayloads().isEmpty())) {
+            return null;
+        }
+        S7Parameter parameter = message.getParameters().get(0);
+        if ((parameter.getType() != ParameterType.READ_VAR) || (PreparedPlcReadRequest.of(message) == null)) {
+            return null;
+        }
+        return (VarParameter) parameter;
+    }
 
+    private void queueS7Message(Channel channel, PromiseCombiner promiseCombiner,
+                                S7Message message, ByteBuf buf) throws PlcProtocolException {
         // Check if the message doesn't exceed the negotiated maximum size.
         if (buf.writerIndex() > pduSize) {
             throw new PlcProtocolPayloadTooBigException("s7", pduSize, buf.writerIndex(), message);
@@ -230,7 +300,13 @@ public class S7Protocol extends ChannelDuplexHandler {
                         encodeWriteVarPayload((VarPayload) payload, buf, !payloadIterator.hasNext());
                         break;
                     case CPU_SERVICES:
-                        encodeCpuServicesPayload((CpuServicesPayload) payload, buf);
+                        if (payload instanceof CyclicServicesSubscribeRequestPayload) {
+                            encodeCyclicServicesSubscribeRequestPayload((CyclicServicesSubscribeRequestPayload) payload, buf);
+                        } else if (payload instanceof CyclicServicesUnsubscribeRequestPayload) {
+                            encodeCyclicServicesUnsubscribeRequestPayload((CyclicServicesUnsubscribeRequestPayload) payload, buf);
+                        } else {
+                            encodeCpuServicesPayload((CpuServicesPayload) payload, buf);
+                        }
                         break;
                     default:
                         throw new PlcProtocolException("Writing payloads of type " +
@@ -299,6 +375,27 @@ public class S7Protocol extends ChannelDuplexHandler {
         }
     }
 
+    private void encodeCyclicServicesSubscribeRequestPayload(CyclicServicesSubscribeRequestPayload payload, ByteBuf buf) {
+        buf.writeByte(DataTransportErrorCode.OK.getCode());
+        buf.writeByte(DataTransportSize.OCTET_STRING.getCode());
+        // Item count, time base, time factor and the variable specifications.
+        buf.writeShort(4 + payload.getItems().size() * 12);
+        buf.writeShort(payload.getItems().size());
+        buf.writeByte(payload.getTimeBase().getCode());
+        buf.writeByte(payload.getTimeFactor());
+        for (S7AnyVarParameterItem item : payload.getItems()) {
+            encodeS7AnyParameterItem(buf, item);
+        }
+    }
+
+    private void encodeCyclicServicesUnsubscribeRequestPayload(CyclicServicesUnsubscribeRequestPayload payload, ByteBuf buf) {
+        buf.writeByte(DataTransportErrorCode.OK.getCode());
+        buf.writeByte(DataTransportSize.OCTET_STRING.getCode());
+        buf.writeShort(2);
+        buf.writeByte(CYCLIC_SERVICES_REMOVE_JOB);
+        buf.writeByte(payload.getJobId());
+    }
+
     private void encodeParameters(S7Message in, ByteBuf buf) throws PlcProtocolException {
         for (S7Parameter s7Parameter : in.getParameters()) {
             buf.writeByte(s7Parameter.getType().getCode());
@@ -463,7 +560,14 @@ public class S7Protocol extends ChannelDuplexHandler {
 
         logger.debug("S7 Message with id {} received", tpduReference);
 
-        if (isResponse) {
+        // USER_DATA messages don't have an error class and code in their header, but the ones answering one of our
+        // requests are responses nevertheless. Pushed USER_DATA messages never answer a request.
+        boolean isUserDataResponse = (messageType == MessageType.USER_DATA)
+            && sentButUnacknowledgedTpdus.containsKey(tpduReference)
+            && s7Parameters.stream().anyMatch(parameter ->
+                (parameter instanceof CpuServicesResponseParameter) && !(parameter instanceof CpuServicesPushParameter));
+
+        if (isResponse || isUserDataResponse) {
             S7ResponseMessage responseMessage = new S7ResponseMessage(
                 messageType, tpduReference, s7Parameters, s7Payloads, errorClass, errorCode);
 
@@ -481,6 +585,9 @@ public class S7Protocol extends ChannelDuplexHandler {
                 if(messageProcessor != null) {
                     try {
                         responseMessage = messageProcessor.processResponse(requestMessage, responseMessage);
+                        if (responseMessage == null) {
+                            queueFollowUpMessages(ctx, messageProcessor.getFollowUpRequests(requestMessage));
+                        }
                     } catch(Exception e) {
                         logger.error("Error processing message", e);
                         ctx.fireExceptionCaught(e);
@@ -527,6 +634,8 @@ public class S7Protocol extends ChannelDuplexHandler {
         maxAmqCaller = setupCommunicationParameter.getMaxAmqCaller();
         maxAmqCallee = setupCommunicationParameter.getMaxAmqCallee();
         pduSize = setupCommunicationParameter.getPduLength();
+        // Prepared read requests are planned again for the new PDU size, so their encoded messages are outdated.
+        preparedReadMessages.clear();
 
         logger.info("S7Connection established pdu-size {}, max-amq-caller {}, " +
                 "max-amq-callee {}", pduSize, maxAmqCaller, maxAmqCallee);
@@ -552,7 +661,7 @@ public class S7Protocol extends ChannelDuplexHandler {
             }
 
             // Send an event that connection setup is complete.
-            ctx.channel().pipeline().fireUserEventTriggered(new S7ConnectedEvent());
+            ctx.channel().pipeline().fireUserEventTriggered(new S7ConnectedEvent(pduSize));
         }
     }
 
@@ -575,7 +684,7 @@ public class S7Protocol extends ChannelDuplexHandler {
         }
 
         // Send an event that connection setup is complete.
-        ctx.channel().pipeline().fireUserEventTriggered(new S7ConnectedEvent());
+        ctx.channel().pipeline().fireUserEventTriggered(new S7ConnectedEvent(pduSize));
     }
 
     private List<S7Payload> decodePayloads(ByteBuf userData, boolean isResponse, short userDataLength, List<S7Parameter> s7Parameters) {
@@ -586,8 +695,12 @@ public class S7Protocol extends ChannelDuplexHandler {
                 VarPayload varPayload = decodeVarPayload(userData, isResponse, userDataLength, readWriteVarParameter);
                 s7Payloads.add(varPayload);
             } else if(s7Parameter instanceof CpuServicesParameter) {
-                CpuServicesPayload cpuServicesPayload = decodeCpuServicesPayload(userData);
-                s7Payloads.add(cpuServicesPayload);
+                if(((CpuServicesParameter) s7Parameter).getFunctionGroup() == CpuServicesParameterFunctionGroup.CYCLIC_SERVICES) {
+                    s7Payloads.add(decodeCyclicServicesPayload(userData));
+                } else {
+                    CpuServicesPayload cpuServicesPayload = decodeCpuServicesPayload(userData);
+                    s7Payloads.add(cpuServicesPayload);
+                }
             }
         }
         return s7Payloads;
@@ -671,6 +784,37 @@ public class S7Protocol extends ChannelDuplexHandler {
         return null;
     }
 
+    private CyclicServicesPayload decodeCyclicServicesPayload(ByteBuf userData) {
+        DataTransportErrorCode returnCode = DataTransportErrorCode.valueOf(userData.readByte());
+        // The transport size is always OCTET_STRING.
+        userData.readByte();
+        short length = userData.readShort();
+        List<VarPayloadItem> payloadItems = new LinkedList<>();
+        // Failed requests and unsubscribe responses don't contain any items.
+        if(length < 2) {
+            userData.skipBytes(length);
+            return new CyclicServicesPayload(returnCode, payloadItems);
+        }
+        int end = userData.readerIndex() + length;
+        int numItems = userData.readUnsignedShort();
+        // The items are encoded the same way as the items of a READ_VAR response.
+        for (int i = 0; (i < numItems) && (userData.readerIndex() < end); i++) {
+            DataTransportErrorCode dataTransportErrorCode = DataTransportErrorCode.valueOf(userData.readByte());
+            DataTransportSize dataTransportSize = DataTransportSize.valueOf(userData.readByte());
+            short itemLength = dataTransportSize.isSizeInBits() ?
+                (short) Math.ceil(userData.readShort() / 8.0) : userData.readShort();
+            byte[] data = new byte[itemLength];
+            userData.readBytes(data);
+            payloadItems.add(new VarPayloadItem(dataTransportErrorCode, dataTransportSize, data));
+
+            // Odd-byte payloads require a fill byte, but only if it's not the last item.
+            if((itemLength % 2 == 1) && (userData.readerIndex() < end)) {
+                userData.readByte();
+            }
+        }
+        return new CyclicServicesPayload(returnCode, payloadItems);
+    }
+
     private S7Parameter decodeParameter(ByteBuf in, boolean isResponse) {
         ParameterType parameterType = ParameterType.valueOf(in.readByte());
         if (parameterType == null) {
@@ -723,21 +867,26 @@ public class S7Protocol extends ChannelDuplexHandler {
         // Skipping this as it sort of contains redundant information.
         in.readByte();
         byte typeAndFunctionGroup = in.readByte();
-        // If bit 7 is set, it's a request (if bit 8 is set it's a response).
-        boolean requestParameter = (typeAndFunctionGroup & 0x64) != 0;
+        // The upper 4 bits contain the type (0x0 push, 0x4 request, 0x8 response).
+        boolean pushParameter = (typeAndFunctionGroup & 0xF0) == 0x00;
         // The last 4 bits contain the function group value.
         typeAndFunctionGroup = (byte) (typeAndFunctionGroup & 0xF);
         CpuServicesParameterFunctionGroup functionGroup =
             CpuServicesParameterFunctionGroup.valueOf(typeAndFunctionGroup);
         CpuServicesParameterSubFunctionGroup subFunctionGroup =
-            CpuServicesParameterSubFunctionGroup.valueOf(in.readByte());
+            CpuServicesParameterSubFunctionGroup.valueOf(functionGroup, in.readByte());
         byte sequenceNumber = in.readByte();
-        if(!requestParameter) {
+        // Only responses and pushes have the longer form containing the error code.
+        if(parameterLength == 4) {
             return new CpuServicesRequestParameter(functionGroup, subFunctionGroup, sequenceNumber);
         } else {
             byte dataUnitReferenceNumber = in.readByte();
             boolean lastDataUnit = in.readByte() == 0x00;
             ParameterError error = ParameterError.valueOf(in.readShort());
+            if(pushParameter) {
+                return new CpuServicesPushParameter(functionGroup, subFunctionGroup, sequenceNumber,
+                    dataUnitReferenceNumber, lastDataUnit, error);
+            }
             return new CpuServicesResponseParameter(functionGroup, subFunctionGroup, sequenceNumber,
                 dataUnitReferenceNumber, lastDataUnit, error);
         }
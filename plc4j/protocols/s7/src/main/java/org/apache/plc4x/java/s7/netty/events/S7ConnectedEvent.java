@@ -18,5 +18,22 @@ under the License.
 */
 package org.apache.plc4x.java.s7.netty.events;
 
+/**
+ * Fired when the connection setup is complete.
+ */
 public class S7ConnectedEvent {
+
+    private final short pduSize;
+
+    public S7ConnectedEvent(short pduSize) {
+        this.pduSize = pduSize;
+    }
+
+    /**
+     * @return the pdu size negotiated with the PLC.
+     */
+    public short getPduSize() {
+        return pduSize;
+    }
+
 }
@@ -0,0 +1,59 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.s7.netty.events;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
+import org.apache.plc4x.java.s7.model.S7SubscriptionHandle;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Fired when the PLC pushed the values of a cyclic job.
+ */
+public class S7CyclicDataEvent {
+
+    private final Instant timestamp;
+
+    private final byte jobId;
+
+    private final Map<S7SubscriptionHandle, Pair<PlcResponseCode, BaseDefaultFieldItem>> values;
+
+    public S7CyclicDataEvent(Instant timestamp, byte jobId,
+                             Map<S7SubscriptionHandle, Pair<PlcResponseCode, BaseDefaultFieldItem>> values) {
+        this.timestamp = timestamp;
+        this.jobId = jobId;
+        this.values = values;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public byte getJobId() {
+        return jobId;
+    }
+
+    public Map<S7SubscriptionHandle, Pair<PlcResponseCode, BaseDefaultFieldItem>> getValues() {
+        return values;
+    }
+
+}
@@ -0,0 +1,35 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.s7.netty.model.params;
+
+import org.apache.plc4x.java.s7.netty.model.types.CpuServicesParameterFunctionGroup;
+import org.apache.plc4x.java.s7.netty.model.types.CpuServicesParameterSubFunctionGroup;
+import org.apache.plc4x.java.s7.netty.model.types.ParameterError;
+
+/**
+ * Parameter of a message the PLC sends on its own, like the data of a cyclic transfer job. The sequence number
+ * identifies the job.
+ */
+public class CpuServicesPushParameter extends CpuServicesResponseParameter {
+
+    public CpuServicesPushParameter(CpuServicesParameterFunctionGroup functionGroup, CpuServicesParameterSubFunctionGroup subFunctionGroup, byte sequenceNumber, byte dataUnitReferenceNumber, boolean lastDataUnit, ParameterError error) {
+        super(functionGroup, subFunctionGroup, sequenceNumber, dataUnitReferenceNumber, lastDataUnit, error);
+    }
+
+}
@@ -26,6 +26,7 @@ import java.util.Map;
 
 public enum CpuServicesParameterFunctionGroup {
 
+    CYCLIC_SERVICES((byte) 0x02),
     CPU_FUNCTIONS((byte) 0x04);
 
     private static final Logger logger = LoggerFactory.getLogger(CpuServicesParameterFunctionGroup.class);
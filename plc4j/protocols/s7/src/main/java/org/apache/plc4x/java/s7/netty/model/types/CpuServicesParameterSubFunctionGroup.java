@@ -21,38 +21,58 @@ package org.apache.plc4x.java.s7.netty.model.types;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * The codes of the sub functions are only unique within one {@link CpuServicesParameterFunctionGroup}.
+ */
 public enum CpuServicesParameterSubFunctionGroup {
 
-    READ_SSL((byte) 0x01);
+    CYCLIC_TRANSFER(CpuServicesParameterFunctionGroup.CYCLIC_SERVICES, (byte) 0x01),
+    CYCLIC_TRANSFER_UNSUBSCRIBE(CpuServicesParameterFunctionGroup.CYCLIC_SERVICES, (byte) 0x04),
+    READ_SSL(CpuServicesParameterFunctionGroup.CPU_FUNCTIONS, (byte) 0x01);
 
     private static final Logger logger = LoggerFactory.getLogger(CpuServicesParameterSubFunctionGroup.class);
 
-    private static final Map<Byte, CpuServicesParameterSubFunctionGroup> map;
+    private static final Map<CpuServicesParameterFunctionGroup, Map<Byte, CpuServicesParameterSubFunctionGroup>> map;
+
     static {
-        map = new HashMap<>();
+        map = new EnumMap<>(CpuServicesParameterFunctionGroup.class);
         for (CpuServicesParameterSubFunctionGroup cpuServicesParameterSubFunctionGroup : CpuServicesParameterSubFunctionGroup.values()) {
-            map.put(cpuServicesParameterSubFunctionGroup.code, cpuServicesParameterSubFunctionGroup);
+            map.computeIfAbsent(cpuServicesParameterSubFunctionGroup.functionGroup, functionGroup -> new HashMap<>())
+                .put(cpuServicesParameterSubFunctionGroup.code, cpuServicesParameterSubFunctionGroup);
         }
     }
 
+    private final CpuServicesParameterFunctionGroup functionGroup;
     private final byte code;
 
-    CpuServicesParameterSubFunctionGroup(byte code) {
+    CpuServicesParameterSubFunctionGroup(CpuServicesParameterFunctionGroup functionGroup, byte code) {
+        this.functionGroup = functionGroup;
         this.code = code;
     }
 
+    public CpuServicesParameterFunctionGroup getFunctionGroup() {
+        return functionGroup;
+    }
+
     public byte getCode() {
         return code;
     }
 
     public static CpuServicesParameterSubFunctionGroup valueOf(byte code) {
-        if(!map.containsKey(code)) {
-            logger.error("CpuServicesParameterSubFunctionGroup for code {} not found", code);
+        return valueOf(CpuServicesParameterFunctionGroup.CPU_FUNCTIONS, code);
+    }
+
+    public static CpuServicesParameterSubFunctionGroup valueOf(CpuServicesParameterFunctionGroup functionGroup, byte code) {
+        Map<Byte, CpuServicesParameterSubFunctionGroup> subFunctionGroups = map.get(functionGroup);
+        if((subFunctionGroups == null) || !subFunctionGroups.containsKey(code)) {
+            logger.error("CpuServicesParameterSubFunctionGroup for function group {} and code {} not found", functionGroup, code);
+            return null;
         }
-        return map.get(code);
+        return subFunctionGroups.get(code);
     }
 
 }
@@ -0,0 +1,95 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.s7.netty.model.types;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The interval of a cyclic transfer job is the product of a time base and a factor of at most 255.
+ */
+public enum CyclicServicesTimeBase {
+
+    MILLISECONDS_100((byte) 0x00, 100),
+    SECONDS_1((byte) 0x01, 1_000),
+    SECONDS_10((byte) 0x02, 10_000);
+
+    public static final int MAX_FACTOR = 0xFF;
+
+    private static final Logger logger = LoggerFactory.getLogger(CyclicServicesTimeBase.class);
+
+    private static final Map<Byte, CyclicServicesTimeBase> map;
+
+    static {
+        map = new HashMap<>();
+        for (CyclicServicesTimeBase cyclicServicesTimeBase : CyclicServicesTimeBase.values()) {
+            map.put(cyclicServicesTimeBase.code, cyclicServicesTimeBase);
+        }
+    }
+
+    private final byte code;
+    private final long millis;
+
+    CyclicServicesTimeBase(byte code, long millis) {
+        this.code = code;
+        this.millis = millis;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * @param interval the requested interval.
+     * @return the factor for this time base which comes closest to the given interval, limited to 1 - {@link #MAX_FACTOR}.
+     */
+    public int getFactor(Duration interval) {
+        long factor = Math.round(interval.toMillis() / (double) millis);
+        return (int) Math.max(1, Math.min(MAX_FACTOR, factor));
+    }
+
+    /**
+     * @param interval the requested interval.
+     * @return the finest time base which is able to express the given interval.
+     */
+    public static CyclicServicesTimeBase of(Duration interval) {
+        for (CyclicServicesTimeBase timeBase : values()) {
+            if (interval.toMillis() <= timeBase.millis * MAX_FACTOR) {
+                return timeBase;
+            }
+        }
+        return SECONDS_10;
+    }
+
+    public static CyclicServicesTimeBase valueOf(byte code) {
+        if (!map.containsKey(code)) {
+            logger.error("CyclicServicesTimeBase for code {} not found", code);
+        }
+        return map.get(code);
+    }
+
+}
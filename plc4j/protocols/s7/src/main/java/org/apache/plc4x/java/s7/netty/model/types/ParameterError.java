@@ -33,6 +33,7 @@ public enum ParameterError {
     VERSION_MISMATCH((short) 0x01C0),
     NOT_IMPLEMENTED((short) 0x01F0),
     L7_INVALID_CPU_STATE((short) 0x8001),
+    L7_CONTEXT_NOT_SUPPORTED((short) 0x8104),
     L7_PDU_SIZE_ERROR((short) 0x8500),
     L7_INVALID_SZL_ID((short) 0xD401),
     L7_INVALID_INDEX((short) 0xD402),
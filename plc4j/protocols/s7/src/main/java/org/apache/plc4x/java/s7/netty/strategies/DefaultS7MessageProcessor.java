@@ -23,6 +23,7 @@ import org.apache.plc4x.java.api.exceptions.PlcException;
 import org.apache.plc4x.java.api.exceptions.PlcProtocolException;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.base.messages.PlcProtocolMessage;
+import org.apache.plc4x.java.base.messages.PreparedPlcReadRequest;
 import org.apache.plc4x.java.s7.netty.model.messages.S7RequestMessage;
 import org.apache.plc4x.java.s7.netty.model.messages.S7ResponseMessage;
 import org.apache.plc4x.java.s7.netty.model.params.S7Parameter;
@@ -33,6 +34,7 @@ import org.apache.plc4x.java.s7.netty.model.payloads.S7Payload;
 import org.apache.plc4x.java.s7.netty.model.payloads.VarPayload;
 import org.apache.plc4x.java.s7.netty.model.payloads.items.VarPayloadItem;
 import org.apache.plc4x.java.s7.netty.model.types.DataTransportErrorCode;
+import org.apache.plc4x.java.s7.netty.model.types.DataTransportSize;
 import org.apache.plc4x.java.s7.netty.model.types.MessageType;
 import org.apache.plc4x.java.s7.netty.model.types.ParameterType;
 import org.apache.plc4x.java.s7.netty.model.types.TransportSize;
@@ -52,17 +54,46 @@ import java.util.concurrent.atomic.AtomicInteger;
  *   could exceed the PDU size: The requests has to be split up into multiple requests
  *   where each requests response doesn't exceed the PDU size.
  *
- * The following optimizations should be implemented:
- * - If blocks are read which are in near proximity to each other it could be better
- *   to replace multiple requests by one that includes multiple blocks.
- * - Rearranging the order of request items could reduce the number of needed PDUs.
+ * The following optimizations are implemented for read requests:
+ * - If blocks are read which are in near proximity to each other (same memory area and
+ *   data block and at most a configurable number of bytes apart), they are replaced by
+ *   one item reading the entire range. The data is sliced up again when processing the
+ *   response.
+ *   If such a range can't be read, its items are read again one by one, so an invalid
+ *   address only fails the item it belongs to.
+ * - Items are not simply added to the messages in request order, but each item is added
+ *   to the first message that still has enough room for it.
+ *
+ * The plan of a {@link PreparedPlcReadRequest} is only created once per negotiated PDU size
+ * and reused for every further execution of the request, only the TPDU references of the
+ * sub-messages are new.
  */
 public class DefaultS7MessageProcessor implements S7MessageProcessor {
 
+    /**
+     * Default number of unrequested bytes allowed between two read items, which are still merged into one item.
+     */
+    public static final int DEFAULT_READ_COALESCING_GAP = 8;
+
     private AtomicInteger tpduRefGen;
 
+    private final int readCoalescingGap;
+
+    private final Map<PreparedPlcReadRequest, PreparedReadPlan> preparedReadPlans;
+
     public DefaultS7MessageProcessor() {
+        this(DEFAULT_READ_COALESCING_GAP);
+    }
+
+    /**
+     * @param readCoalescingGap maximum number of bytes between two read items of the same memory area and data
+     *                          block, which will still be read as one item. A negative value disables merging
+     *                          of read items.
+     */
+    public DefaultS7MessageProcessor(int readCoalescingGap) {
         this.tpduRefGen = new AtomicInteger(1);
+        this.readCoalescingGap = readCoalescingGap;
+        this.preparedReadPlans = new WeakHashMap<>();
     }
 
     @Override
@@ -89,7 +120,13 @@ public class DefaultS7MessageProcessor implements S7MessageProcessor {
 
             // If this is a read operation, try to get as many items in as possible.
             if(varParameter.getType() == ParameterType.READ_VAR) {
-                return processReadVarParameter(request, varParameter, pduSize).getRequestMessages();
+                PreparedPlcReadRequest preparedRequest = PreparedPlcReadRequest.of(request);
+                if (preparedRequest == null) {
+                    return processReadVarParameter(request, varParameter, pduSize, readCoalescingGap)
+                        .getRequestMessages();
+                }
+                return processPreparedReadVarParameter(preparedRequest, request, varParameter, pduSize)
+                    .getRequestMessages();
             }
 
             // If this is a write operation, split up every array item into single value items
@@ -102,7 +139,30 @@ public class DefaultS7MessageProcessor implements S7MessageProcessor {
         return Collections.singletonList(request);
     }
 
-    private S7CompositeRequestMessage processReadVarParameter(S7RequestMessage request, VarParameter varParameter, int pduSize) {
+    private S7CompositeRequestMessage processPreparedReadVarParameter(PreparedPlcReadRequest preparedRequest,
+                                                                     S7RequestMessage request,
+                                                                     VarParameter varParameter, int pduSize) {
+        PreparedReadPlan preparedReadPlan = preparedReadPlans.get(preparedRequest);
+        if ((preparedReadPlan == null) || !preparedReadPlan.isValidFor(varParameter, pduSize)) {
+            S7CompositeRequestMessage compositeRequestMessage =
+                processReadVarParameter(request, varParameter, pduSize, readCoalescingGap);
+            preparedReadPlans.put(preparedRequest, new PreparedReadPlan(varParameter, pduSize, compositeRequestMessage));
+            return compositeRequestMessage;
+        }
+
+        // Reuse the parameters of the planned sub-messages, they are never modified once the plan is complete.
+        S7CompositeRequestMessage compositeRequestMessage = new S7CompositeRequestMessage(request);
+        for (VarParameter subVarParameter : preparedReadPlan.subVarParameters) {
+            compositeRequestMessage.addRequestMessage(new S7RequestMessage(
+                request.getMessageType(), (short) tpduRefGen.getAndIncrement(),
+                Collections.singletonList(subVarParameter), Collections.emptyList(), compositeRequestMessage));
+        }
+        compositeRequestMessage.setReadPlan(preparedReadPlan.readPlan);
+        return compositeRequestMessage;
+    }
+
+    private S7CompositeRequestMessage processReadVarParameter(S7RequestMessage request, VarParameter varParameter,
+                                                              int pduSize, int coalescingGap) {
         // Create a new composite request message.
         S7CompositeRequestMessage compositeRequestMessage = new S7CompositeRequestMessage(request);
 
@@ -119,12 +179,20 @@ public class DefaultS7MessageProcessor implements S7MessageProcessor {
 
         // This calculates the size of the header for the request and response.
         int initialRequestSize = S7RequestSizeCalculator.getRequestMessageSize(subMessage);
-        int curRequestSize = initialRequestSize;
         int initialResponseSize = S7ResponseSizeEstimator.getEstimatedResponseMessageSize(subMessage);
-        int curResponseSize = initialResponseSize;
-
-        VarParameter preProcessedVarParameter = new VarParameter(varParameter.getType(), new LinkedList<>());
-        for (VarParameterItem varParameterItem : varParameter.getItems()) {
+        // The max response size is the size of the empty response, plus the type and num-items (each one byte) of one VarParameter, plus the size of the header one VarPayloadItem
+        int maxResponseSize = pduSize - (initialResponseSize + 2 + 4);
+
+        // Replace items reading memory in near proximity to each other by items reading the entire range.
+        List<VarParameterItem> plannedItems = new ArrayList<>();
+        List<ReadItemMapping> itemMappings =
+            coalesceReadItems(varParameter.getItems(), maxResponseSize, coalescingGap, plannedItems);
+
+        // Split up every item which would not fit into a separate message into chunks that do.
+        List<VarParameterItem> chunks = new ArrayList<>();
+        List<Integer> chunkOwners = new ArrayList<>();
+        for (int plannedItemIndex = 0; plannedItemIndex < plannedItems.size(); plannedItemIndex++) {
+            VarParameterItem varParameterItem = plannedItems.get(plannedItemIndex);
             // Use the S7RequestSizeCalculator to calculate the actual and estimated item sizes.
             int itemRequestSize = S7RequestSizeCalculator.getRequestItemTotalSize(
                 varParameterItem, null);
@@ -133,9 +201,6 @@ public class DefaultS7MessageProcessor implements S7MessageProcessor {
 
             // If the item would not fit into a separate message, we have to split it.
             if((initialRequestSize + itemRequestSize > pduSize) || (initialResponseSize + itemResponseSize > pduSize)) {
-                // The max response size is the size of the empty response, plus the type and num-items (each one byte) of one VarParameter, plus the size of the header one VarPayloadItem
-                int maxResponseSize = pduSize - (initialResponseSize + 2 + 4);
-
                 S7AnyVarParameterItem s7AnyVarParameterItem = ((S7AnyVarParameterItem) varParameterItem);
                 int maxNumElements = (int) Math.floor(
                     (double) maxResponseSize / (double) s7AnyVarParameterItem.getDataType().getSizeInBytes());
@@ -149,7 +214,8 @@ public class DefaultS7MessageProcessor implements S7MessageProcessor {
                         s7AnyVarParameterItem.getSpecificationType(), s7AnyVarParameterItem.getMemoryArea(),
                         s7AnyVarParameterItem.getDataType(), numCurElements, s7AnyVarParameterItem.getDataBlockNumber(),
                         curByteOffset, (byte) 0);
-                    preProcessedVarParameter.getItems().add(subVarParameterItem);
+                    chunks.add(subVarParameterItem);
+                    chunkOwners.add(plannedItemIndex);
 
                     remainingNumElements -= maxNumElements;
                     curByteOffset += sizeMaxNumElementInBytes;
@@ -157,22 +223,37 @@ public class DefaultS7MessageProcessor implements S7MessageProcessor {
             }
             // In all other cases, just forward the item.
             else {
-                preProcessedVarParameter.getItems().add(varParameterItem);
+                chunks.add(varParameterItem);
+                chunkOwners.add(plannedItemIndex);
             }
         }
 
-        // For each var item of the original request, try adding them to the current sub-message
-        // as long as it or the resulting response does not exceed the max PDU size.
-        for (VarParameterItem varParameterItem : preProcessedVarParameter.getItems()) {
+        // Add each item to the first sub-message which still has enough room for it (request and response).
+        // Only if none of the existing sub-messages is able to take it, create a new one.
+        List<Integer> requestSizes = new ArrayList<>();
+        List<Integer> responseSizes = new ArrayList<>();
+        List<List<Integer>> messageChunks = new ArrayList<>();
+        requestSizes.add(initialRequestSize);
+        responseSizes.add(initialResponseSize);
+        messageChunks.add(new ArrayList<>());
+        for (int chunkIndex = 0; chunkIndex < chunks.size(); chunkIndex++) {
+            VarParameterItem varParameterItem = chunks.get(chunkIndex);
             // Use the S7RequestSizeCalculator to calculate the actual and estimated item sizes.
             int itemRequestSize = S7RequestSizeCalculator.getRequestItemTotalSize(
                 varParameterItem, null);
             int itemResponseSize = S7ResponseSizeEstimator.getEstimatedResponseReadItemTotalSize(
                 varParameterItem, null);
 
-            // If adding this item, would exceed either the request or response size,
-            // create a new sub-message and add this item to that.
-            if ((curRequestSize + itemRequestSize > pduSize) || (curResponseSize + itemResponseSize > pduSize)) {
+            int messageIndex = 0;
+            while ((messageIndex < messageChunks.size()) &&
+                ((requestSizes.get(messageIndex) + itemRequestSize > pduSize) ||
+                    (responseSizes.get(messageIndex) + itemResponseSize > pduSize))) {
+                messageIndex++;
+            }
+
+            // If adding this item to any of the existing messages would exceed either the request or
+            // response size, create a new sub-message and add this item to that.
+            if (messageIndex == messageChunks.size()) {
                 // Create a new var parameter without any items (yet).
                 subVarParameter = new VarParameter(varParameter.getType(), new LinkedList<>());
 
@@ -182,23 +263,128 @@ public class DefaultS7MessageProcessor implements S7MessageProcessor {
                     Collections.singletonList(subVarParameter),
                     Collections.emptyList(), compositeRequestMessage);
 
-                // Reset the message size
-                curRequestSize = S7RequestSizeCalculator.getRequestMessageSize(subMessage) + itemRequestSize;
-                curResponseSize = S7ResponseSizeEstimator.getEstimatedResponseMessageSize(subMessage) + itemResponseSize;
-
                 // Add this new sub-message to the composite.
                 compositeRequestMessage.addRequestMessage(subMessage);
-            } else {
-                // Increment the current sizes.
-                curRequestSize += itemRequestSize;
-                curResponseSize += itemResponseSize;
+                requestSizes.add((int) S7RequestSizeCalculator.getRequestMessageSize(subMessage));
+                responseSizes.add((int) S7ResponseSizeEstimator.getEstimatedResponseMessageSize(subMessage));
+                messageChunks.add(new ArrayList<>());
             }
 
-            subVarParameter.getItems().add(varParameterItem);
+            // Increment the current sizes.
+            requestSizes.set(messageIndex, requestSizes.get(messageIndex) + itemRequestSize);
+            responseSizes.set(messageIndex, responseSizes.get(messageIndex) + itemResponseSize);
+            messageChunks.get(messageIndex).add(chunkIndex);
+
+            compositeRequestMessage.getRequestMessages().get(messageIndex).getParameter(VarParameter.class)
+                .orElseThrow(() -> new PlcRuntimeException("Sub-message without VarParameter"))
+                .getItems().add(varParameterItem);
         }
+
+        compositeRequestMessage.setReadPlan(
+            new ReadPlan(itemMappings, plannedItems.size(), chunkOwners, messageChunks, pduSize));
         return compositeRequestMessage;
     }
 
+    /**
+     * Groups all items that address the same memory area (and data block) and are at most
+     * {@code coalescingGap} bytes apart from each other into one item reading the entire range of bytes,
+     * as long as the resulting range would still fit into a single response.
+     *
+     * @param items           items of the original read request.
+     * @param maxResponseSize max number of bytes the data of a single item can have in a response.
+     * @param coalescingGap   max number of unrequested bytes between two merged items, negative to disable merging.
+     * @param plannedItems    list the items actually being read are added to.
+     * @return for every item of the original request, which of the planned items it will be read by.
+     */
+    private List<ReadItemMapping> coalesceReadItems(List<VarParameterItem> items, int maxResponseSize,
+                                                    int coalescingGap, List<VarParameterItem> plannedItems) {
+        List<ReadItemMapping> itemMappings = new ArrayList<>(items.size());
+        Map<String, List<Integer>> candidatesByArea = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            VarParameterItem item = items.get(i);
+            itemMappings.add(null);
+            if (isCoalescable(item, maxResponseSize, coalescingGap)) {
+                S7AnyVarParameterItem s7AnyVarParameterItem = (S7AnyVarParameterItem) item;
+                String areaKey = s7AnyVarParameterItem.getMemoryArea() + "/" + s7AnyVarParameterItem.getDataBlockNumber();
+                candidatesByArea.computeIfAbsent(areaKey, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // Find ranges of items which can be read together, referenced by the index of their first item.
+        Map<Integer, List<Integer>> rangesByFirstItem = new HashMap<>();
+        for (List<Integer> candidates : candidatesByArea.values()) {
+            candidates.sort(Comparator.comparingInt(index -> ((S7AnyVarParameterItem) items.get(index)).getByteOffset()));
+            List<Integer> currentRange = new ArrayList<>();
+            int rangeStart = 0;
+            int rangeEnd = 0;
+            for (Integer candidate : candidates) {
+                S7AnyVarParameterItem item = (S7AnyVarParameterItem) items.get(candidate);
+                int itemStart = item.getByteOffset();
+                int itemEnd = itemStart + getSizeInBytes(item);
+                if (!currentRange.isEmpty() && (itemStart <= rangeEnd + coalescingGap) &&
+                    (Math.max(rangeEnd, itemEnd) - rangeStart <= maxResponseSize)) {
+                    rangeEnd = Math.max(rangeEnd, itemEnd);
+                } else {
+                    if (!currentRange.isEmpty()) {
+                        rangesByFirstItem.put(Collections.min(currentRange), currentRange);
+                    }
+                    currentRange = new ArrayList<>();
+                    rangeStart = itemStart;
+                    rangeEnd = itemEnd;
+                }
+                currentRange.add(candidate);
+            }
+            if (!currentRange.isEmpty()) {
+                rangesByFirstItem.put(Collections.min(currentRange), currentRange);
+            }
+        }
+
+        // Build the list of items actually being read while keeping the order of the original request.
+        for (int i = 0; i < items.size(); i++) {
+            if (itemMappings.get(i) != null) {
+                continue;
+            }
+            List<Integer> range = rangesByFirstItem.get(i);
+            int plannedItemIndex = plannedItems.size();
+            // Items not being merged with others are forwarded as they are.
+            if ((range == null) || (range.size() == 1)) {
+                plannedItems.add(items.get(i));
+                itemMappings.set(i, new ReadItemMapping(plannedItemIndex, ReadItemMapping.NOT_MERGED));
+                continue;
+            }
+            int rangeStart = Integer.MAX_VALUE;
+            int rangeEnd = 0;
+            for (Integer index : range) {
+                S7AnyVarParameterItem item = (S7AnyVarParameterItem) items.get(index);
+                rangeStart = Math.min(rangeStart, item.getByteOffset());
+                rangeEnd = Math.max(rangeEnd, item.getByteOffset() + getSizeInBytes(item));
+            }
+            S7AnyVarParameterItem firstItem = (S7AnyVarParameterItem) items.get(i);
+            plannedItems.add(new S7AnyVarParameterItem(firstItem.getSpecificationType(), firstItem.getMemoryArea(),
+                TransportSize.BYTE, rangeEnd - rangeStart, firstItem.getDataBlockNumber(), rangeStart, (byte) 0));
+            for (Integer index : range) {
+                S7AnyVarParameterItem item = (S7AnyVarParameterItem) items.get(index);
+                itemMappings.set(index, new ReadItemMapping(plannedItemIndex, item.getByteOffset() - rangeStart));
+            }
+        }
+        return itemMappings;
+    }
+
+    private boolean isCoalescable(VarParameterItem item, int maxResponseSize, int coalescingGap) {
+        if ((coalescingGap < 0) || !(item instanceof S7AnyVarParameterItem)) {
+            return false;
+        }
+        S7AnyVarParameterItem s7AnyVarParameterItem = (S7AnyVarParameterItem) item;
+        // Bit values can't be sliced out of a byte range, the same applies to types without a fixed byte layout.
+        return (s7AnyVarParameterItem.getDataType() != TransportSize.BOOL) &&
+            (s7AnyVarParameterItem.getDataType().getDataTransportSize() == DataTransportSize.BYTE_WORD_DWORD) &&
+            (getSizeInBytes(s7AnyVarParameterItem) <= maxResponseSize);
+    }
+
+    private static int getSizeInBytes(S7AnyVarParameterItem item) {
+        return item.getNumElements() * item.getDataType().getSizeInBytes();
+    }
+
     private S7CompositeRequestMessage processWriteVarParameter(S7RequestMessage request, VarParameter varParameter)
             throws PlcProtocolException {
         // Create a new composite request message.
@@ -338,11 +524,14 @@ public class DefaultS7MessageProcessor implements S7MessageProcessor {
             S7CompositeRequestMessage parent = (S7CompositeRequestMessage) request.getParent();
 
             // Add the response to the container so we can add it's information to the composite response.
-            parent.addResponseMessage(response);
+            parent.addResponseMessage(request, response);
 
             // If all parts of this split-up message are now acknowledged, create a unified
             // response object and pass that up to the higher layers.
             if (parent.isAcknowledged()) {
+                if (parent.getReadPlan() != null) {
+                    return processReadResponse(parent);
+                }
                 return getMergedResponseMessage(parent.originalRequest, parent.getResponseMessages());
             } else {
                 return null;
@@ -354,6 +543,14 @@ public class DefaultS7MessageProcessor implements S7MessageProcessor {
         }
     }
 
+    @Override
+    public Collection<S7RequestMessage> getFollowUpRequests(S7RequestMessage request) {
+        if (request.getParent() instanceof S7CompositeRequestMessage) {
+            return ((S7CompositeRequestMessage) request.getParent()).takeFollowUpRequests();
+        }
+        return Collections.emptyList();
+    }
+
     private S7ResponseMessage getMergedResponseMessage(S7RequestMessage requestMessage,
                                                        Collection<? extends S7ResponseMessage> responses) {
         MessageType messageType = null;
@@ -439,16 +636,275 @@ public class DefaultS7MessageProcessor implements S7MessageProcessor {
         return new S7ResponseMessage(messageType, tpduReference, s7Parameters, s7Payloads, (byte) 0xFF, (byte) 0xFF);
     }
 
+    /**
+     * Completes a read request once all of its sub-messages are acknowledged. If a range of merged items couldn't be
+     * read, the items of that range are read again one by one, as a single invalid address would otherwise fail all
+     * of its neighbours: The response to the original request is only created, when these follow-up requests are
+     * acknowledged too.
+     *
+     * @param compositeRequestMessage the acknowledged composite message.
+     * @return the response message for the original request or null, if items have to be read again.
+     */
+    private S7ResponseMessage processReadResponse(S7CompositeRequestMessage compositeRequestMessage) {
+        // These are the responses of the items being read again, so the original request can be completed now.
+        S7CompositeRequestMessage retriedCompositeRequestMessage = compositeRequestMessage.getRetriedComposite();
+        if (retriedCompositeRequestMessage != null) {
+            List<VarPayloadItem> payloadItems = getMergedReadPayloadItems(retriedCompositeRequestMessage);
+            List<VarPayloadItem> retriedPayloadItems = getMergedReadPayloadItems(compositeRequestMessage);
+            List<Integer> retriedItemIndexes = compositeRequestMessage.getRetriedItemIndexes();
+            for (int i = 0; i < retriedItemIndexes.size(); i++) {
+                payloadItems.set(retriedItemIndexes.get(i), retriedPayloadItems.get(i));
+            }
+            return getMergedReadResponseMessage(retriedCompositeRequestMessage, payloadItems, compositeRequestMessage);
+        }
+
+        List<VarPayloadItem> payloadItems = getMergedReadPayloadItems(compositeRequestMessage);
+        ReadPlan readPlan = compositeRequestMessage.getReadPlan();
+        VarParameter varParameter = getVarParameter(compositeRequestMessage.originalRequest);
+        List<Integer> failedItemIndexes = new ArrayList<>();
+        List<VarParameterItem> failedItems = new ArrayList<>();
+        for (int i = 0; i < payloadItems.size(); i++) {
+            if ((readPlan.itemMappings.get(i).byteOffset != ReadItemMapping.NOT_MERGED) &&
+                (payloadItems.get(i).getReturnCode() != DataTransportErrorCode.OK)) {
+                failedItemIndexes.add(i);
+                failedItems.add(varParameter.getItems().get(i));
+            }
+        }
+        if (failedItemIndexes.isEmpty()) {
+            return getMergedReadResponseMessage(compositeRequestMessage, payloadItems, null);
+        }
+
+        // Read the items of the failed ranges again, this time without merging them.
+        S7RequestMessage originalRequest = compositeRequestMessage.originalRequest;
+        S7RequestMessage retryRequest = new S7RequestMessage(originalRequest.getMessageType(),
+            originalRequest.getTpduReference(),
+            Collections.singletonList(new VarParameter(varParameter.getType(), failedItems)),
+            Collections.emptyList(), null);
+        S7CompositeRequestMessage retryCompositeRequestMessage = processReadVarParameter(
+            retryRequest, getVarParameter(retryRequest), readPlan.pduSize, -1);
+        retryCompositeRequestMessage.setRetriedComposite(compositeRequestMessage, failedItemIndexes);
+        compositeRequestMessage.setFollowUpRequests(retryCompositeRequestMessage.getRequestMessages());
+        return null;
+    }
+
+    /**
+     * Merges the responses of all sub-messages of a read request: Items which had to be split up into chunks are
+     * joined together and items which were read as part of a bigger range of bytes are sliced out of the range.
+     *
+     * @param compositeRequestMessage the acknowledged composite message.
+     * @return exactly one payload item for every item of the original request.
+     */
+    private List<VarPayloadItem> getMergedReadPayloadItems(S7CompositeRequestMessage compositeRequestMessage) {
+        ReadPlan readPlan = compositeRequestMessage.getReadPlan();
+
+        // Assign the payload items of the responses to the chunks they were requested for.
+        VarPayloadItem[] chunkPayloadItems = new VarPayloadItem[readPlan.chunkOwners.size()];
+        List<S7RequestMessage> requestMessages = compositeRequestMessage.getRequestMessages();
+        for (int i = 0; i < requestMessages.size(); i++) {
+            S7ResponseMessage response = compositeRequestMessage.getResponseMessage(requestMessages.get(i));
+            List<VarPayloadItem> payloadItems = response.getPayload(VarPayload.class)
+                .map(VarPayload::getItems).orElse(Collections.emptyList());
+            List<Integer> chunkIndexes = readPlan.messageChunks.get(i);
+            for (int j = 0; (j < chunkIndexes.size()) && (j < payloadItems.size()); j++) {
+                chunkPayloadItems[chunkIndexes.get(j)] = payloadItems.get(j);
+            }
+        }
+
+        // Join the chunks of items that had to be split up (The chunks of one item are always consecutive).
+        VarPayloadItem[] plannedPayloadItems = new VarPayloadItem[readPlan.numPlannedItems];
+        int chunkIndex = 0;
+        while (chunkIndex < chunkPayloadItems.length) {
+            int owner = readPlan.chunkOwners.get(chunkIndex);
+            int lastChunkIndex = chunkIndex;
+            while ((lastChunkIndex + 1 < chunkPayloadItems.length) && (readPlan.chunkOwners.get(lastChunkIndex + 1) == owner)) {
+                lastChunkIndex++;
+            }
+            plannedPayloadItems[owner] = joinChunks(chunkPayloadItems, chunkIndex, lastChunkIndex);
+            chunkIndex = lastChunkIndex + 1;
+        }
+
+        // Slice out the data of every item of the original request.
+        VarParameter varParameter = getVarParameter(compositeRequestMessage.originalRequest);
+        List<VarPayloadItem> mergedPayloadItems = new ArrayList<>(varParameter.getItems().size());
+        for (int i = 0; i < varParameter.getItems().size(); i++) {
+            ReadItemMapping itemMapping = readPlan.itemMappings.get(i);
+            VarPayloadItem plannedPayloadItem = plannedPayloadItems[itemMapping.plannedItemIndex];
+            if ((itemMapping.byteOffset == ReadItemMapping.NOT_MERGED) ||
+                (plannedPayloadItem.getReturnCode() != DataTransportErrorCode.OK)) {
+                mergedPayloadItems.add(plannedPayloadItem);
+                continue;
+            }
+            S7AnyVarParameterItem requestItem = (S7AnyVarParameterItem) varParameter.getItems().get(i);
+            int length = getSizeInBytes(requestItem);
+            byte[] rangeData = plannedPayloadItem.getData();
+            if (itemMapping.byteOffset + length > rangeData.length) {
+                mergedPayloadItems.add(new VarPayloadItem(DataTransportErrorCode.INVALID_ADDRESS,
+                    plannedPayloadItem.getDataTransportSize(), new byte[0]));
+                continue;
+            }
+            byte[] data = Arrays.copyOfRange(rangeData, itemMapping.byteOffset, itemMapping.byteOffset + length);
+            mergedPayloadItems.add(new VarPayloadItem(DataTransportErrorCode.OK,
+                plannedPayloadItem.getDataTransportSize(), data));
+        }
+        return mergedPayloadItems;
+    }
+
+    /**
+     * @param compositeRequestMessage      the acknowledged composite message of the original request.
+     * @param payloadItems                 one payload item for every item of the original request.
+     * @param retryCompositeRequestMessage the acknowledged composite message re-reading failed items or null.
+     * @return the response message for the original request.
+     */
+    private S7ResponseMessage getMergedReadResponseMessage(S7CompositeRequestMessage compositeRequestMessage,
+                                                           List<VarPayloadItem> payloadItems,
+                                                           S7CompositeRequestMessage retryCompositeRequestMessage) {
+        S7RequestMessage requestMessage = compositeRequestMessage.originalRequest;
+        VarParameter varParameter = getVarParameter(requestMessage);
+
+        // Report the first error of the header of any of the responses, if there was one.
+        List<S7ResponseMessage> responses = new ArrayList<>(compositeRequestMessage.getResponseMessages());
+        if (retryCompositeRequestMessage != null) {
+            responses.addAll(retryCompositeRequestMessage.getResponseMessages());
+        }
+        MessageType messageType = null;
+        byte errorClass = 0;
+        byte errorCode = 0;
+        for (S7ResponseMessage response : responses) {
+            messageType = response.getMessageType();
+            if ((errorClass == 0) && (response.getErrorClass() != 0)) {
+                errorClass = response.getErrorClass();
+                errorCode = response.getErrorCode();
+            }
+        }
+
+        List<S7Parameter> s7Parameters = Collections.singletonList(
+            new VarParameter(varParameter.getType(), varParameter.getItems()));
+        List<S7Payload> s7Payloads = Collections.singletonList(
+            new VarPayload(varParameter.getType(), payloadItems));
+        return new S7ResponseMessage(messageType, requestMessage.getTpduReference(), s7Parameters, s7Payloads,
+            errorClass, errorCode);
+    }
+
+    private static VarParameter getVarParameter(S7RequestMessage requestMessage) {
+        return requestMessage.getParameter(VarParameter.class)
+            .orElseThrow(() -> new PlcRuntimeException("Every Read message should have a VarParameter instance"));
+    }
+
+    private VarPayloadItem joinChunks(VarPayloadItem[] chunkPayloadItems, int firstChunkIndex, int lastChunkIndex) {
+        if (firstChunkIndex == lastChunkIndex) {
+            VarPayloadItem chunkPayloadItem = chunkPayloadItems[firstChunkIndex];
+            // If the PLC didn't return anything for this item, we can't provide any data.
+            return (chunkPayloadItem != null) ? chunkPayloadItem :
+                new VarPayloadItem(DataTransportErrorCode.RESERVED, null, new byte[0]);
+        }
+        int totalSizeInBytes = 0;
+        for (int i = firstChunkIndex; i <= lastChunkIndex; i++) {
+            VarPayloadItem chunkPayloadItem = chunkPayloadItems[i];
+            if (chunkPayloadItem == null) {
+                return new VarPayloadItem(DataTransportErrorCode.RESERVED, null, new byte[0]);
+            }
+            if (chunkPayloadItem.getReturnCode() != DataTransportErrorCode.OK) {
+                return chunkPayloadItem;
+            }
+            totalSizeInBytes += chunkPayloadItem.getData().length;
+        }
+        byte[] data = new byte[totalSizeInBytes];
+        int dataOffset = 0;
+        for (int i = firstChunkIndex; i <= lastChunkIndex; i++) {
+            byte[] chunkData = chunkPayloadItems[i].getData();
+            System.arraycopy(chunkData, 0, data, dataOffset, chunkData.length);
+            dataOffset += chunkData.length;
+        }
+        return new VarPayloadItem(DataTransportErrorCode.OK,
+            chunkPayloadItems[firstChunkIndex].getDataTransportSize(), data);
+    }
+
+    /**
+     * Describes which item actually being sent to the PLC an item of the original read request is read by.
+     */
+    static class ReadItemMapping {
+
+        static final int NOT_MERGED = -1;
+
+        private final int plannedItemIndex;
+        // Offset of the items data in the data of the planned item, or NOT_MERGED if the item is read as it is.
+        private final int byteOffset;
+
+        ReadItemMapping(int plannedItemIndex, int byteOffset) {
+            this.plannedItemIndex = plannedItemIndex;
+            this.byteOffset = byteOffset;
+        }
+    }
+
+    /**
+     * Keeps track of how the items of a read request have been distributed among the sub-messages.
+     */
+    static class ReadPlan {
+
+        // For every item of the original request, the planned item it's read by.
+        private final List<ReadItemMapping> itemMappings;
+        private final int numPlannedItems;
+        // For every chunk, the index of the planned item it belongs to.
+        private final List<Integer> chunkOwners;
+        // For every sub-message, the indexes of the chunks it contains in the order they were added.
+        private final List<List<Integer>> messageChunks;
+        // PDU size the plan was created for.
+        private final int pduSize;
+
+        ReadPlan(List<ReadItemMapping> itemMappings, int numPlannedItems, List<Integer> chunkOwners,
+                 List<List<Integer>> messageChunks, int pduSize) {
+            this.itemMappings = itemMappings;
+            this.numPlannedItems = numPlannedItems;
+            this.chunkOwners = chunkOwners;
+            this.messageChunks = messageChunks;
+            this.pduSize = pduSize;
+        }
+    }
+
+    /**
+     * The plan of a prepared read request, valid as long as the request is encoded to the same var parameter and the
+     * PDU size isn't renegotiated.
+     */
+    private static class PreparedReadPlan {
+
+        private final VarParameter varParameter;
+        private final int pduSize;
+        private final List<VarParameter> subVarParameters;
+        private final ReadPlan readPlan;
+
+        private PreparedReadPlan(VarParameter varParameter, int pduSize, S7CompositeRequestMessage compositeRequestMessage) {
+            this.varParameter = varParameter;
+            this.pduSize = pduSize;
+            this.subVarParameters = new ArrayList<>(compositeRequestMessage.getRequestMessages().size());
+            for (S7RequestMessage subMessage : compositeRequestMessage.getRequestMessages()) {
+                subVarParameters.add(subMessage.getParameter(VarParameter.class)
+                    .orElseThrow(() -> new PlcRuntimeException("Sub-message without VarParameter")));
+            }
+            this.readPlan = compositeRequestMessage.getReadPlan();
+        }
+
+        private boolean isValidFor(VarParameter varParameter, int pduSize) {
+            return (this.varParameter == varParameter) && (this.pduSize == pduSize);
+        }
+    }
+
     static class S7CompositeRequestMessage implements PlcProtocolMessage {
 
         private S7RequestMessage originalRequest;
         private List<S7RequestMessage> requestMessages;
         private List<S7ResponseMessage> responseMessages;
+        private Map<S7RequestMessage, S7ResponseMessage> responseMessagesByRequest;
+        private ReadPlan readPlan;
+        // Only set for composites re-reading the items of another composite, which failed as part of a merged range.
+        private S7CompositeRequestMessage retriedComposite;
+        private List<Integer> retriedItemIndexes;
+        private Collection<S7RequestMessage> followUpRequests;
 
         S7CompositeRequestMessage(S7RequestMessage originalRequest) {
             this.originalRequest = originalRequest;
-            this.requestMessages = new LinkedList<>();
+            this.requestMessages = new ArrayList<>();
             this.responseMessages = new LinkedList<>();
+            this.responseMessagesByRequest = new IdentityHashMap<>();
         }
 
         @Override
@@ -478,13 +934,53 @@ public class DefaultS7MessageProcessor implements S7MessageProcessor {
             return requestMessages;
         }
 
-        private void addResponseMessage(S7ResponseMessage responseMessage) {
+        private void addResponseMessage(S7RequestMessage requestMessage, S7ResponseMessage responseMessage) {
             responseMessages.add(responseMessage);
+            responseMessagesByRequest.put(requestMessage, responseMessage);
         }
 
         public List<S7ResponseMessage> getResponseMessages() {
             return responseMessages;
         }
+
+        S7ResponseMessage getResponseMessage(S7RequestMessage requestMessage) {
+            return responseMessagesByRequest.get(requestMessage);
+        }
+
+        ReadPlan getReadPlan() {
+            return readPlan;
+        }
+
+        void setReadPlan(ReadPlan readPlan) {
+            this.readPlan = readPlan;
+        }
+
+        S7CompositeRequestMessage getRetriedComposite() {
+            return retriedComposite;
+        }
+
+        List<Integer> getRetriedItemIndexes() {
+            return retriedItemIndexes;
+        }
+
+        private void setRetriedComposite(S7CompositeRequestMessage retriedComposite, List<Integer> retriedItemIndexes) {
+            this.retriedComposite = retriedComposite;
+            this.retriedItemIndexes = retriedItemIndexes;
+        }
+
+        private void setFollowUpRequests(Collection<S7RequestMessage> followUpRequests) {
+            this.followUpRequests = followUpRequests;
+        }
+
+        /**
+         * @return the requests, which have to be sent before this composite can be completed. They are only returned
+         * once, every further call returns an empty collection.
+         */
+        private Collection<S7RequestMessage> takeFollowUpRequests() {
+            Collection<S7RequestMessage> requests = (followUpRequests != null) ? followUpRequests : Collections.emptyList();
+            followUpRequests = null;
+            return requests;
+        }
     }
 
 }
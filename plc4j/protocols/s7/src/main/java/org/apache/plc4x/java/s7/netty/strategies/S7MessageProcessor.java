@@ -23,6 +23,7 @@ import org.apache.plc4x.java.s7.netty.model.messages.S7RequestMessage;
 import org.apache.plc4x.java.s7.netty.model.messages.S7ResponseMessage;
 
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * Some times the messages being sent have to be manipulated before
@@ -35,4 +36,15 @@ public interface S7MessageProcessor {
 
     S7ResponseMessage processResponse(S7RequestMessage request, S7ResponseMessage response) throws PlcException;
 
+    /**
+     * If {@link #processResponse(S7RequestMessage, S7ResponseMessage)} wasn't able to complete a request yet,
+     * because further messages have to be exchanged with the PLC first, these are returned by this method.
+     *
+     * @param request request whose response was just processed.
+     * @return the requests that have to be sent additionally (only returned once).
+     */
+    default Collection<S7RequestMessage> getFollowUpRequests(S7RequestMessage request) {
+        return Collections.emptyList();
+    }
+
 }
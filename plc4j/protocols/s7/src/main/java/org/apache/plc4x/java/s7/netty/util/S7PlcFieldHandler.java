@@ -35,7 +35,7 @@ import java.util.List;
 public class S7PlcFieldHandler extends DefaultPlcFieldHandler {
 
     @Override
-    public PlcField createField(String fieldQuery) {
+    protected PlcField parseField(String fieldQuery) {
         if (S7Field.matches(fieldQuery)) {
             return S7Field.of(fieldQuery);
         }
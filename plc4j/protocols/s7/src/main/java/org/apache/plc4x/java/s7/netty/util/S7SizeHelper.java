@@ -24,6 +24,9 @@ import org.apache.plc4x.java.s7.netty.model.params.VarParameter;
 import org.apache.plc4x.java.s7.netty.model.params.items.S7AnyVarParameterItem;
 import org.apache.plc4x.java.s7.netty.model.params.items.VarParameterItem;
 import org.apache.plc4x.java.s7.netty.model.payloads.CpuServicesPayload;
+import org.apache.plc4x.java.s7.netty.model.payloads.CyclicServicesPayload;
+import org.apache.plc4x.java.s7.netty.model.payloads.CyclicServicesSubscribeRequestPayload;
+import org.apache.plc4x.java.s7.netty.model.payloads.CyclicServicesUnsubscribeRequestPayload;
 import org.apache.plc4x.java.s7.netty.model.payloads.S7Payload;
 import org.apache.plc4x.java.s7.netty.model.payloads.VarPayload;
 import org.apache.plc4x.java.s7.netty.model.payloads.items.VarPayloadItem;
@@ -75,6 +78,18 @@ public class S7SizeHelper {
                     }
                     return length;
                 }
+            } else if(payload instanceof CyclicServicesSubscribeRequestPayload) {
+                // Header, item count, time base, time factor and one variable specification per item.
+                l += 8 + ((CyclicServicesSubscribeRequestPayload) payload).getItems().size() * 12;
+            } else if(payload instanceof CyclicServicesUnsubscribeRequestPayload) {
+                // Header, function and job id.
+                l += 6;
+            } else if(payload instanceof CyclicServicesPayload) {
+                // Header, item count and the items.
+                l += 6;
+                for (VarPayloadItem payloadItem : ((CyclicServicesPayload) payload).getItems()) {
+                    l += getPayloadLength(payloadItem);
+                }
             }
         }
         return l;
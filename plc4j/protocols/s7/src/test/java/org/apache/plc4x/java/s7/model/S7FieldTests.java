@@ -43,7 +43,10 @@ class S7FieldTests {
             Arguments.of("%I0.1:BOOL",          TransportSize.BOOL,  MemoryArea.INPUTS,      0,  0,  1),
             Arguments.of("%ID64:REAL",          TransportSize.REAL,  MemoryArea.INPUTS,      0,  64, 0),
             Arguments.of("%Q0.4:BOOL",          TransportSize.BOOL,  MemoryArea.OUTPUTS,     0,  0,  4),
-            Arguments.of("%DB1.DBX38.1:BOOL",   TransportSize.BOOL,  MemoryArea.DATA_BLOCKS, 1,  38, 1)/*,
+            Arguments.of("%DB1.DBX38.1:BOOL",   TransportSize.BOOL,  MemoryArea.DATA_BLOCKS, 1,  38, 1),
+            Arguments.of("%DB444.DBW4:INT[10]", TransportSize.INT,   MemoryArea.DATA_BLOCKS, 444, 4, 0),
+            // Not a common form, so it's not split up by the hand-written parser but by the patterns.
+            Arguments.of("%DB3_DBX4.1:BOOL",    TransportSize.BOOL,  MemoryArea.DATA_BLOCKS, 3,  4,  1)/*,
             // Not quite sure about how Data Block addresses look like, in my TIA portal they all have the prefix "DB".
             Arguments.of("%DB3.DX4.1:BOOL",     S7DataType.BOOL,  MemoryArea.DATA_BLOCKS, 3,  4,  1),
             Arguments.of("%DB3.DB4:INT",        S7DataType.INT,   MemoryArea.DATA_BLOCKS, 3,  4,  0),
@@ -56,7 +59,9 @@ class S7FieldTests {
         return Stream.of(
             Arguments.of("%I0:BOOL"),
             Arguments.of("%IW64:REAL"),
-            Arguments.of("%DB1.DBX38:BOOL")
+            Arguments.of("%DB1.DBX38:BOOL"),
+            Arguments.of("%DB1.DBW4:INT[]"),
+            Arguments.of("%DB1.DBW4:INT[2")
         );
     }
 
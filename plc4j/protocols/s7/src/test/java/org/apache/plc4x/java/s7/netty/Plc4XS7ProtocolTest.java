@@ -25,14 +25,21 @@ import io.netty.channel.ChannelPromise;
 import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.EncoderException;
 import org.apache.plc4x.java.api.exceptions.PlcProtocolException;
+import org.apache.plc4x.java.api.exceptions.PlcUnsupportedOperationException;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
 import org.apache.plc4x.java.api.messages.PlcWriteRequest;
 import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.base.messages.*;
 import org.apache.plc4x.java.s7.netty.model.messages.S7Message;
 import org.apache.plc4x.java.s7.netty.model.messages.S7RequestMessage;
+import org.apache.plc4x.java.s7.netty.model.messages.S7ResponseMessage;
+import org.apache.plc4x.java.s7.netty.model.params.CpuServicesRequestParameter;
+import org.apache.plc4x.java.s7.netty.model.params.CpuServicesResponseParameter;
 import org.apache.plc4x.java.s7.netty.model.params.VarParameter;
 import org.apache.plc4x.java.s7.netty.model.params.items.S7AnyVarParameterItem;
+import org.apache.plc4x.java.s7.netty.model.payloads.CyclicServicesPayload;
+import org.apache.plc4x.java.s7.netty.model.payloads.CyclicServicesSubscribeRequestPayload;
 import org.apache.plc4x.java.s7.netty.model.payloads.VarPayload;
 import org.apache.plc4x.java.s7.netty.model.payloads.items.VarPayloadItem;
 import org.apache.plc4x.java.s7.netty.model.types.*;
@@ -40,9 +47,11 @@ import org.apache.plc4x.java.s7.netty.util.S7PlcFieldHandler;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -62,6 +71,8 @@ public class Plc4XS7ProtocolTest {
         new DefaultPlcReadRequest.Builder(mock(PlcReader.class), new S7PlcFieldHandler());
     private PlcWriteRequest.Builder writeRequestBuilder =
         new DefaultPlcWriteRequest.Builder(mock(PlcWriter.class), new S7PlcFieldHandler());
+    private PlcSubscriptionRequest.Builder subscriptionRequestBuilder =
+        new DefaultPlcSubscriptionRequest.Builder(mock(PlcSubscriber.class), new S7PlcFieldHandler());
     private CompletableFuture<S7Message> writeFuture;
 
     @Before
@@ -181,4 +192,78 @@ public class Plc4XS7ProtocolTest {
         assertThat(varPayloadItem.getData()[0], equalTo((byte) 0x42));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCyclicSubscriptionRequest() throws InterruptedException, ExecutionException, TimeoutException {
+        CompletableFuture<InternalPlcSubscriptionResponse> future = new CompletableFuture<>();
+        PlcRequestContainer container = new PlcRequestContainer(
+            (DefaultPlcSubscriptionRequest) subscriptionRequestBuilder
+                .addCyclicField("foo", "%Q0:BYTE", Duration.ofSeconds(2)).build(), future);
+        ChannelFuture channelFuture = SUT.writeOneOutbound(container);
+        assertThat("The promise should have been set to 'success'", channelFuture.isSuccess(), equalTo(true));
+
+        S7Message writtenMessage = writeFuture.get(100, TimeUnit.MILLISECONDS);
+        assertThat(writtenMessage.getMessageType(), equalTo(MessageType.USER_DATA));
+        assertThat(writtenMessage.getParameters().get(0), instanceOf(CpuServicesRequestParameter.class));
+        CpuServicesRequestParameter parameter = (CpuServicesRequestParameter) writtenMessage.getParameters().get(0);
+        assertThat(parameter.getFunctionGroup(), equalTo(CpuServicesParameterFunctionGroup.CYCLIC_SERVICES));
+        assertThat(parameter.getSubFunctionGroup(), equalTo(CpuServicesParameterSubFunctionGroup.CYCLIC_TRANSFER));
+        assertThat(writtenMessage.getPayloads().get(0), instanceOf(CyclicServicesSubscribeRequestPayload.class));
+        CyclicServicesSubscribeRequestPayload payload =
+            (CyclicServicesSubscribeRequestPayload) writtenMessage.getPayloads().get(0);
+        assertThat(payload.getTimeBase(), equalTo(CyclicServicesTimeBase.MILLISECONDS_100));
+        assertThat(payload.getTimeFactor(), equalTo((byte) 20));
+        assertThat(payload.getItems(), hasSize(1));
+
+        // If the PLC doesn't support cyclic jobs, the subscription fails as a whole.
+        SUT.writeInbound(createCyclicSubscriptionResponse(writtenMessage, ParameterError.NOT_IMPLEMENTED));
+        assertThat(future.isCompletedExceptionally(), equalTo(true));
+        assertThat(getCause(future), instanceOf(PlcUnsupportedOperationException.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRejectedCyclicSubscriptionRequest() throws InterruptedException, ExecutionException, TimeoutException {
+        CompletableFuture<InternalPlcSubscriptionResponse> future = new CompletableFuture<>();
+        PlcRequestContainer container = new PlcRequestContainer(
+            (DefaultPlcSubscriptionRequest) subscriptionRequestBuilder
+                .addCyclicField("foo", "%Q0:BYTE", Duration.ofSeconds(2)).build(), future);
+        SUT.writeOneOutbound(container);
+        S7Message writtenMessage = writeFuture.get(100, TimeUnit.MILLISECONDS);
+
+        // A PLC without resources left rejects this job, but cyclic jobs are supported nevertheless.
+        SUT.writeInbound(createCyclicSubscriptionResponse(writtenMessage, ParameterError.PLC_RESSOURCE_ERROR));
+        assertThat(future.isCompletedExceptionally(), equalTo(true));
+        assertThat(getCause(future), instanceOf(PlcProtocolException.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testChangeOfStateSubscriptionRequest() {
+        CompletableFuture<InternalPlcSubscriptionResponse> future = new CompletableFuture<>();
+        PlcRequestContainer container = new PlcRequestContainer(
+            (DefaultPlcSubscriptionRequest) subscriptionRequestBuilder.addChangeOfStateField("foo", "%Q0:BYTE").build(), future);
+        ChannelFuture channelFuture = SUT.writeOneOutbound(container);
+        assertThat("The promise should have been set to 'success'", channelFuture.isSuccess(), equalTo(false));
+        assertThat(channelFuture.cause(), instanceOf(EncoderException.class));
+        assertThat(channelFuture.cause().getCause(), instanceOf(PlcProtocolException.class));
+    }
+
+    private static S7ResponseMessage createCyclicSubscriptionResponse(S7Message request, ParameterError error) {
+        return new S7ResponseMessage(MessageType.USER_DATA, request.getTpduReference(),
+            Collections.singletonList(new CpuServicesResponseParameter(CpuServicesParameterFunctionGroup.CYCLIC_SERVICES,
+                CpuServicesParameterSubFunctionGroup.CYCLIC_TRANSFER, (byte) 0, (byte) 0, true, error)),
+            Collections.singletonList(new CyclicServicesPayload(DataTransportErrorCode.NOT_FOUND, Collections.emptyList())),
+            (byte) 0, (byte) 0);
+    }
+
+    private static Throwable getCause(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause();
+        }
+    }
+
 }
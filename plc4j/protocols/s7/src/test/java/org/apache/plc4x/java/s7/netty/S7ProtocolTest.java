@@ -21,6 +21,10 @@ package org.apache.plc4x.java.s7.netty;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.apache.plc4x.java.api.exceptions.PlcProtocolException;
+import org.apache.plc4x.java.base.messages.InternalPlcRequest;
+import org.apache.plc4x.java.base.messages.InternalPlcResponse;
+import org.apache.plc4x.java.base.messages.PlcRequestContainer;
+import org.apache.plc4x.java.base.messages.PreparedPlcReadRequest;
 import org.apache.plc4x.java.isotp.protocol.model.tpdus.DataTpdu;
 import org.apache.plc4x.java.s7.netty.model.messages.S7RequestMessage;
 import org.apache.plc4x.java.s7.netty.model.messages.SetupCommunicationRequestMessage;
@@ -40,6 +44,8 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.core.IsEqual.equalTo;
@@ -176,6 +182,39 @@ public class S7ProtocolTest {
             Arrays.equals(actUserData, refUserData), equalTo(true));
     }
 
+    /**
+     * The encoded message of a prepared read request is reused, only the pdu reference is patched.
+     */
+    @Test
+    public void testPreparedReadVar() {
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> container = new PlcRequestContainer<>(
+            new PreparedPlcReadRequest(null, new LinkedHashMap<>()), new CompletableFuture<>());
+        VarParameter varParameter = new VarParameter(ParameterType.READ_VAR, Collections.singletonList(
+            new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                TransportSize.INT, (short) 1, (short) 1, (short) 2, (byte) 0)));
+
+        byte[] first = writePreparedRead((short) 1, varParameter, container);
+        byte[] second = writePreparedRead((short) 0x0102, varParameter, container);
+
+        assertThat(first.length, equalTo(second.length));
+        assertThat(second[4], equalTo((byte) 0x01));
+        assertThat(second[5], equalTo((byte) 0x02));
+        second[5] = 0x01;
+        second[4] = 0x00;
+        assertThat("Apart from the pdu reference both messages should be equal",
+            Arrays.equals(first, second), equalTo(true));
+    }
+
+    private byte[] writePreparedRead(short tpduReference, VarParameter varParameter, PlcRequestContainer container) {
+        SUT.writeOneOutbound(new S7RequestMessage(MessageType.JOB, tpduReference,
+            Collections.singletonList(varParameter), Collections.emptyList(), container));
+        DataTpdu dataTpdu = SUT.readOutbound();
+        assertThat("The protocol layer should have output something", dataTpdu, notNullValue());
+        byte[] userData = new byte[dataTpdu.getUserData().readableBytes()];
+        dataTpdu.getUserData().readBytes(userData);
+        return userData;
+    }
+
     @Test
     public void testReadVar() {
         SUT.writeOneOutbound(
@@ -19,6 +19,10 @@ under the License.
 package org.apache.plc4x.java.s7.netty.strategies;
 
 import org.apache.plc4x.java.api.exceptions.PlcException;
+import org.apache.plc4x.java.base.messages.InternalPlcRequest;
+import org.apache.plc4x.java.base.messages.InternalPlcResponse;
+import org.apache.plc4x.java.base.messages.PlcRequestContainer;
+import org.apache.plc4x.java.base.messages.PreparedPlcReadRequest;
 import org.apache.plc4x.java.s7.netty.model.messages.S7RequestMessage;
 import org.apache.plc4x.java.s7.netty.model.messages.S7ResponseMessage;
 import org.apache.plc4x.java.s7.netty.model.params.S7Parameter;
@@ -34,9 +38,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.notNullValue;
@@ -288,6 +296,110 @@ public class DefaultS7MessageProcessorTest {
         assertThat(totalNumItems, equalTo(400));
     }
 
+    /**
+     * In this request, the items address memory of the same data block which is close enough to each other
+     * to be read as one single range of bytes. Items of other data blocks are left unchanged.
+     *
+     * @throws PlcException something went wrong.
+     */
+    @Test
+    public void readMessageCoalescedItems() throws PlcException {
+        S7RequestMessage request = createReadMessage(
+            Arrays.asList(
+                new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                    TransportSize.INT, (short) 1, (short) 1, (short) 0, (byte) 0),
+                new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                    TransportSize.BYTE, (short) 1, (short) 2, (short) 0, (byte) 0),
+                new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                    TransportSize.REAL, (short) 2, (short) 1, (short) 6, (byte) 0)));
+        Collection<S7RequestMessage> processedRequests = SUT.processRequest(request, 250);
+
+        assertThat(processedRequests, hasSize(1));
+        VarParameter varParameter = processedRequests.iterator().next().getParameter(VarParameter.class).get();
+        assertThat(varParameter.getItems(), hasSize(2));
+
+        // The two items of DB1 are read by one item covering the bytes 0 to 13.
+        S7AnyVarParameterItem mergedItem = (S7AnyVarParameterItem) varParameter.getItems().get(0);
+        assertThat(mergedItem.getDataType(), is(TransportSize.BYTE));
+        assertThat(mergedItem.getDataBlockNumber(), is(1));
+        assertThat(mergedItem.getByteOffset(), is(0));
+        assertThat(mergedItem.getNumElements(), is(14));
+
+        S7AnyVarParameterItem otherItem = (S7AnyVarParameterItem) varParameter.getItems().get(1);
+        assertThat(otherItem.getDataBlockNumber(), is(2));
+    }
+
+    /**
+     * Same as above, but with merging of items disabled, so we expect the items to be left unchanged.
+     *
+     * @throws PlcException something went wrong.
+     */
+    @Test
+    public void readMessageCoalescingDisabled() throws PlcException {
+        SUT = new DefaultS7MessageProcessor(-1);
+        S7RequestMessage request = createReadMessage(
+            Arrays.asList(
+                new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                    TransportSize.INT, (short) 1, (short) 1, (short) 0, (byte) 0),
+                new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                    TransportSize.REAL, (short) 2, (short) 1, (short) 6, (byte) 0)));
+        Collection<S7RequestMessage> processedRequests = SUT.processRequest(request, 250);
+
+        assertThat(processedRequests, hasSize(1));
+        VarParameter varParameter = processedRequests.iterator().next().getParameter(VarParameter.class).get();
+        assertThat(varParameter.getItems(), hasSize(2));
+    }
+
+    /**
+     * Items which are too far apart from each other must not be merged.
+     *
+     * @throws PlcException something went wrong.
+     */
+    @Test
+    public void readMessageItemsTooFarApart() throws PlcException {
+        S7RequestMessage request = createReadMessage(
+            Arrays.asList(
+                new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                    TransportSize.INT, (short) 1, (short) 1, (short) 0, (byte) 0),
+                new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                    TransportSize.INT, (short) 1, (short) 1,
+                    (short) (2 + DefaultS7MessageProcessor.DEFAULT_READ_COALESCING_GAP + 1), (byte) 0)));
+        Collection<S7RequestMessage> processedRequests = SUT.processRequest(request, 250);
+
+        assertThat(processedRequests, hasSize(1));
+        VarParameter varParameter = processedRequests.iterator().next().getParameter(VarParameter.class).get();
+        assertThat(varParameter.getItems(), hasSize(2));
+        assertThat(((S7AnyVarParameterItem) varParameter.getItems().get(0)).getDataType(), is(TransportSize.INT));
+    }
+
+    /**
+     * The plan of a prepared read request is reused as long as the PDU size doesn't change, only the sub-messages
+     * themselves are new.
+     *
+     * @throws PlcException something went wrong.
+     */
+    @Test
+    public void readMessagePrepared() throws PlcException {
+        PlcRequestContainer<InternalPlcRequest, InternalPlcResponse> container = new PlcRequestContainer<>(
+            new PreparedPlcReadRequest(null, new LinkedHashMap<>()), new CompletableFuture<>());
+        VarParameter preparedParameter = new VarParameter(ParameterType.READ_VAR, Collections.singletonList(
+            new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                TransportSize.REAL, (short) 400, (short) 1, (short) 0, (byte) 0)));
+
+        List<S7RequestMessage> first = new ArrayList<>(SUT.processRequest(createPreparedReadMessage(preparedParameter, container), 256));
+        List<S7RequestMessage> second = new ArrayList<>(SUT.processRequest(createPreparedReadMessage(preparedParameter, container), 256));
+
+        assertThat(second, hasSize(7));
+        for (int i = 0; i < second.size(); i++) {
+            assertThat(second.get(i).getParameters().get(0) == first.get(i).getParameters().get(0), is(true));
+            assertThat(second.get(i).getTpduReference(), not(equalTo(first.get(i).getTpduReference())));
+        }
+
+        // After renegotiating the PDU size, the request is planned again.
+        List<S7RequestMessage> renegotiated = new ArrayList<>(SUT.processRequest(createPreparedReadMessage(preparedParameter, container), 480));
+        assertThat(renegotiated, hasSize(4));
+    }
+
     /**
      * In this request, we only send one single element to one single field. Nothing should be changed.
      *
@@ -760,6 +872,96 @@ public class DefaultS7MessageProcessorTest {
         assertThat(varPayload.getItems(), hasSize(1));
     }
 
+    /**
+     * Processes a read request in which some items are merged and others have to be split up over multiple
+     * messages and checks that the processed response contains the correct data for every original item.
+     *
+     * @throws PlcException something went wrong.
+     */
+    @Test
+    public void processCoalescedReadResponse() throws PlcException {
+        List<VarParameterItem> requestItems = Arrays.asList(
+            new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                TransportSize.REAL, (short) 100, (short) 2, (short) 0, (byte) 0),
+            new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                TransportSize.INT, (short) 1, (short) 1, (short) 4, (byte) 0),
+            new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                TransportSize.BYTE, (short) 3, (short) 1, (short) 0, (byte) 0));
+        S7RequestMessage request = createReadMessage(requestItems);
+        List<S7RequestMessage> requestMessages = new ArrayList<>(SUT.processRequest(request, 256));
+        assertThat(requestMessages.size(), greaterThan(1));
+        List<S7ResponseMessage> responseMessages = createResponseMessages(requestMessages);
+
+        // Respond in reverse order to make sure the order of arrival doesn't matter.
+        S7ResponseMessage processedResponse = null;
+        for (int i = requestMessages.size() - 1; i >= 0; i--) {
+            requestMessages.get(i).setAcknowledged(true);
+            processedResponse = SUT.processResponse(requestMessages.get(i), responseMessages.get(i));
+        }
+
+        assertThat(processedResponse, notNullValue());
+        VarPayload varPayload = processedResponse.getPayload(VarPayload.class).get();
+        assertThat(varPayload.getItems(), hasSize(3));
+        assertThat(varPayload.getItems().get(0).getData().length, is(400));
+        assertThat(varPayload.getItems().get(1).getData().length, is(2));
+        assertThat(varPayload.getItems().get(2).getData().length, is(3));
+
+        // Both items of DB1 are read from the same range, so their data has to match the overlapping bytes.
+        byte[] bytesOfDb1 = varPayload.getItems().get(2).getData();
+        byte[] intOfDb1 = varPayload.getItems().get(1).getData();
+        assertThat(intOfDb1[0], is((byte) (bytesOfDb1[0] + 4)));
+        assertThat(intOfDb1[1], is((byte) (bytesOfDb1[0] + 5)));
+        for (VarPayloadItem payloadItem : varPayload.getItems()) {
+            assertThat(payloadItem.getReturnCode(), is(DataTransportErrorCode.OK));
+        }
+    }
+
+    /**
+     * Two items of the same data block are read as one range of bytes, which the PLC refuses to read, as one of
+     * the items has an invalid address. The items are then read again one by one and only the invalid item fails.
+     *
+     * @throws PlcException something went wrong.
+     */
+    @Test
+    public void processFailedCoalescedReadResponse() throws PlcException {
+        List<VarParameterItem> requestItems = Arrays.asList(
+            new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                TransportSize.INT, (short) 1, (short) 1, (short) 0, (byte) 0),
+            new S7AnyVarParameterItem(SpecificationType.VARIABLE_SPECIFICATION, MemoryArea.DATA_BLOCKS,
+                TransportSize.INT, (short) 1, (short) 1, (short) 4, (byte) 0));
+        S7RequestMessage request = createReadMessage(requestItems);
+        List<S7RequestMessage> requestMessages = new ArrayList<>(SUT.processRequest(request, 256));
+        assertThat(requestMessages, hasSize(1));
+        assertThat(requestMessages.get(0).getParameter(VarParameter.class).get().getItems(), hasSize(1));
+
+        // The PLC refuses to read the merged range.
+        S7RequestMessage requestMessage = requestMessages.get(0);
+        requestMessage.setAcknowledged(true);
+        S7ResponseMessage processedResponse = SUT.processResponse(requestMessage,
+            createReadResponseMessage(requestMessage, DataTransportErrorCode.INVALID_ADDRESS));
+        assertThat(processedResponse, nullValue());
+
+        // The items are read again, this time individually.
+        List<S7RequestMessage> followUpRequests = new ArrayList<>(SUT.getFollowUpRequests(requestMessage));
+        assertThat(SUT.getFollowUpRequests(requestMessage), empty());
+        assertThat(followUpRequests, hasSize(1));
+        S7RequestMessage followUpRequest = followUpRequests.get(0);
+        assertThat(followUpRequest.getParameter(VarParameter.class).get().getItems(), equalTo(requestItems));
+
+        followUpRequest.setAcknowledged(true);
+        processedResponse = SUT.processResponse(followUpRequest, createReadResponseMessage(
+            followUpRequest, DataTransportErrorCode.OK, DataTransportErrorCode.INVALID_ADDRESS));
+
+        assertThat(processedResponse, notNullValue());
+        assertThat(processedResponse.getTpduReference(), equalTo(request.getTpduReference()));
+        assertThat(processedResponse.getParameter(VarParameter.class).get().getItems(), equalTo(requestItems));
+        List<VarPayloadItem> payloadItems = processedResponse.getPayload(VarPayload.class).get().getItems();
+        assertThat(payloadItems, hasSize(2));
+        assertThat(payloadItems.get(0).getReturnCode(), is(DataTransportErrorCode.OK));
+        assertThat(payloadItems.get(0).getData().length, is(2));
+        assertThat(payloadItems.get(1).getReturnCode(), is(DataTransportErrorCode.INVALID_ADDRESS));
+    }
+
     /**
      * This test handles the special case in which a response is part of a single request message.
      * This means that it is immediately finished and is hereby immediately processed.
@@ -851,6 +1053,11 @@ public class DefaultS7MessageProcessorTest {
             Collections.emptyList(), null);
     }
 
+    private S7RequestMessage createPreparedReadMessage(VarParameter varParameter, PlcRequestContainer container) {
+        return new S7RequestMessage(MessageType.JOB, (short) 42,
+            Collections.singletonList(varParameter), Collections.emptyList(), container);
+    }
+
     private S7RequestMessage createWriteMessage(List<VarParameterItem> parameterItems,
                                                 List<VarPayloadItem> payloadItems) {
         return new S7RequestMessage(MessageType.JOB, (short) 42,
@@ -899,6 +1106,20 @@ public class DefaultS7MessageProcessorTest {
         return null;
     }
 
+    private S7ResponseMessage createReadResponseMessage(S7RequestMessage request,
+                                                        DataTransportErrorCode... returnCodes) {
+        List<VarParameterItem> items = request.getParameter(VarParameter.class).get().getItems();
+        List<VarPayloadItem> varPayloadItems = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            S7AnyVarParameterItem item = (S7AnyVarParameterItem) items.get(i);
+            byte[] data = (returnCodes[i] == DataTransportErrorCode.OK) ?
+                new byte[item.getDataType().getSizeInBytes() * item.getNumElements()] : new byte[0];
+            varPayloadItems.add(new VarPayloadItem(returnCodes[i], item.getDataType().getDataTransportSize(), data));
+        }
+        return new S7ResponseMessage(request.getMessageType(), request.getTpduReference(), request.getParameters(),
+            Collections.singletonList(new VarPayload(ParameterType.READ_VAR, varPayloadItems)), (byte) 0, (byte) 0);
+    }
+
     private List<S7ResponseMessage> createResponseMessages(Collection<S7RequestMessage> requests) {
         List<S7ResponseMessage> responses = new ArrayList<>(requests.size());
         byte counter = 0;
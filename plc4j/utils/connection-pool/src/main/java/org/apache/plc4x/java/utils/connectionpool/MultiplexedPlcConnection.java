@@ -0,0 +1,513 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.messages.*;
+import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lease of a {@link SharedPlcConnection} handed out by the {@link PooledPlcDriverManager} in
+ * {@link PooledPlcDriverManager.Mode#MULTIPLEXED} mode. Any number of leases can use the same physical connection
+ * concurrently. Read and write requests built with this lease are tracked while they are in flight, subscriptions
+ * made through this lease are tracked until they are unsubscribed.
+ */
+final class MultiplexedPlcConnection implements PlcConnection {
+
+    private final SharedPlcConnection sharedPlcConnection;
+
+    private final PlcConnection plcConnection;
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    MultiplexedPlcConnection(SharedPlcConnection sharedPlcConnection, PlcConnection plcConnection) {
+        this.sharedPlcConnection = sharedPlcConnection;
+        this.plcConnection = plcConnection;
+    }
+
+    @Override
+    public void connect() throws PlcConnectionException {
+        checkValid();
+        // The shared connection is handed out connected, so we only have to reconnect if it got lost.
+        synchronized (sharedPlcConnection) {
+            if (plcConnection.isConnected()) {
+                return;
+            }
+            try {
+                plcConnection.connect();
+            } catch (PlcConnectionException e) {
+                sharedPlcConnection.invalidate(plcConnection);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        checkValid();
+        return plcConnection.isConnected();
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Proxy not valid anymore");
+        }
+        sharedPlcConnection.release();
+    }
+
+    /**
+     * Like {@link #close()}, but the physical connection is dropped, so the next lease opens a new one.
+     */
+    void closeBroken() {
+        if (!closed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Proxy not valid anymore");
+        }
+        sharedPlcConnection.invalidate(plcConnection);
+        sharedPlcConnection.release();
+    }
+
+    @Override
+    public PlcField prepareField(String fieldQuery) throws PlcInvalidFieldException {
+        checkValid();
+        return plcConnection.prepareField(fieldQuery);
+    }
+
+    @Override
+    public PlcConnectionMetadata getMetadata() {
+        checkValid();
+        return plcConnection.getMetadata();
+    }
+
+    @Override
+    public CompletableFuture<Void> ping() {
+        checkValid();
+        return plcConnection.ping();
+    }
+
+    @Override
+    public PlcReadRequest.Builder readRequestBuilder() {
+        checkValid();
+        return new TrackedReadRequestBuilder(plcConnection.readRequestBuilder());
+    }
+
+    @Override
+    public PlcReadRequest prepareRead(PlcReadRequest readRequest) {
+        checkValid();
+        // The physical connection only knows the requests built by its own builder.
+        PlcReadRequest delegate = (readRequest instanceof TrackedReadRequest) ?
+            ((TrackedReadRequest) readRequest).delegate : readRequest;
+        return new TrackedReadRequest(plcConnection.prepareRead(delegate));
+    }
+
+    @Override
+    public PlcWriteRequest.Builder writeRequestBuilder() {
+        checkValid();
+        return new TrackedWriteRequestBuilder(plcConnection.writeRequestBuilder());
+    }
+
+    @Override
+    public PlcSubscriptionRequest.Builder subscriptionRequestBuilder() {
+        checkValid();
+        return new TrackedSubscriptionRequestBuilder(plcConnection.subscriptionRequestBuilder());
+    }
+
+    @Override
+    public PlcUnsubscriptionRequest.Builder unsubscriptionRequestBuilder() {
+        checkValid();
+        return new TrackedUnsubscriptionRequestBuilder(plcConnection.unsubscriptionRequestBuilder());
+    }
+
+    private void checkValid() {
+        if (closed.get()) {
+            throw new IllegalStateException("Proxy not valid anymore");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MultiplexedPlcConnection{" +
+            "poolKey=" + sharedPlcConnection.getPoolKey() +
+            ", plcConnection=" + plcConnection +
+            '}';
+    }
+
+    private final class TrackedReadRequestBuilder implements PlcReadRequest.Builder {
+
+        private final PlcReadRequest.Builder delegate;
+
+        private TrackedReadRequestBuilder(PlcReadRequest.Builder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public PlcReadRequest build() {
+            return new TrackedReadRequest(delegate.build());
+        }
+
+        @Override
+        public PlcReadRequest.Builder addItem(String name, String fieldQuery) {
+            delegate.addItem(name, fieldQuery);
+            return this;
+        }
+    }
+
+    private final class TrackedReadRequest implements PlcReadRequest {
+
+        private final PlcReadRequest delegate;
+
+        private TrackedReadRequest(PlcReadRequest delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableFuture<? extends PlcReadResponse> execute() {
+            return sharedPlcConnection.track(delegate::execute);
+        }
+
+        @Override
+        public int getNumberOfFields() {
+            return delegate.getNumberOfFields();
+        }
+
+        @Override
+        public LinkedHashSet<String> getFieldNames() {
+            return delegate.getFieldNames();
+        }
+
+        @Override
+        public PlcField getField(String name) {
+            return delegate.getField(name);
+        }
+
+        @Override
+        public List<PlcField> getFields() {
+            return delegate.getFields();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    private final class TrackedWriteRequestBuilder implements PlcWriteRequest.Builder {
+
+        private final PlcWriteRequest.Builder delegate;
+
+        private TrackedWriteRequestBuilder(PlcWriteRequest.Builder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public PlcWriteRequest build() {
+            return new TrackedWriteRequest(delegate.build());
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, Boolean... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, Byte... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, Short... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, Integer... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, BigInteger... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, Long... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, Float... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, Double... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, BigDecimal... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, String... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, LocalTime... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, LocalDate... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, LocalDateTime... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, byte[]... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @Override
+        public PlcWriteRequest.Builder addItem(String name, String fieldQuery, Byte[]... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+
+        @SafeVarargs
+        @Override
+        public final <T> PlcWriteRequest.Builder addItem(String name, String fieldQuery, T... values) {
+            delegate.addItem(name, fieldQuery, values);
+            return this;
+        }
+    }
+
+    private final class TrackedWriteRequest implements PlcWriteRequest {
+
+        private final PlcWriteRequest delegate;
+
+        private TrackedWriteRequest(PlcWriteRequest delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableFuture<? extends PlcWriteResponse> execute() {
+            return sharedPlcConnection.track(delegate::execute);
+        }
+
+        @Override
+        public int getNumberOfValues(String name) {
+            return delegate.getNumberOfValues(name);
+        }
+
+        @Override
+        public int getNumberOfFields() {
+            return delegate.getNumberOfFields();
+        }
+
+        @Override
+        public LinkedHashSet<String> getFieldNames() {
+            return delegate.getFieldNames();
+        }
+
+        @Override
+        public PlcField getField(String name) {
+            return delegate.getField(name);
+        }
+
+        @Override
+        public List<PlcField> getFields() {
+            return delegate.getFields();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    private final class TrackedSubscriptionRequestBuilder implements PlcSubscriptionRequest.Builder {
+
+        private final PlcSubscriptionRequest.Builder delegate;
+
+        private TrackedSubscriptionRequestBuilder(PlcSubscriptionRequest.Builder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public PlcSubscriptionRequest build() {
+            return new TrackedSubscriptionRequest(delegate.build());
+        }
+
+        @Override
+        public PlcSubscriptionRequest.Builder addCyclicField(String name, String fieldQuery, Duration pollingInterval) {
+            delegate.addCyclicField(name, fieldQuery, pollingInterval);
+            return this;
+        }
+
+        @Override
+        public PlcSubscriptionRequest.Builder addChangeOfStateField(String name, String fieldQuery) {
+            delegate.addChangeOfStateField(name, fieldQuery);
+            return this;
+        }
+
+        @Override
+        public PlcSubscriptionRequest.Builder addEventField(String name, String fieldQuery) {
+            delegate.addEventField(name, fieldQuery);
+            return this;
+        }
+    }
+
+    private final class TrackedSubscriptionRequest implements PlcSubscriptionRequest {
+
+        private final PlcSubscriptionRequest delegate;
+
+        private TrackedSubscriptionRequest(PlcSubscriptionRequest delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableFuture<? extends PlcSubscriptionResponse> execute() {
+            return sharedPlcConnection.trackSubscription(delegate::execute);
+        }
+
+        @Override
+        public int getNumberOfFields() {
+            return delegate.getNumberOfFields();
+        }
+
+        @Override
+        public LinkedHashSet<String> getFieldNames() {
+            return delegate.getFieldNames();
+        }
+
+        @Override
+        public PlcField getField(String name) {
+            return delegate.getField(name);
+        }
+
+        @Override
+        public List<PlcField> getFields() {
+            return delegate.getFields();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    private final class TrackedUnsubscriptionRequestBuilder implements PlcUnsubscriptionRequest.Builder {
+
+        private final PlcUnsubscriptionRequest.Builder delegate;
+
+        private final List<PlcSubscriptionHandle> handles = new ArrayList<>();
+
+        private TrackedUnsubscriptionRequestBuilder(PlcUnsubscriptionRequest.Builder delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public PlcUnsubscriptionRequest build() {
+            return new TrackedUnsubscriptionRequest(delegate.build(), new ArrayList<>(handles));
+        }
+
+        @Override
+        public PlcUnsubscriptionRequest.Builder addHandles(PlcSubscriptionHandle plcSubscriptionHandle) {
+            delegate.addHandles(plcSubscriptionHandle);
+            handles.add(plcSubscriptionHandle);
+            return this;
+        }
+
+        @Override
+        public PlcUnsubscriptionRequest.Builder addHandles(PlcSubscriptionHandle plcSubscriptionHandle1, PlcSubscriptionHandle... plcSubscriptionHandles) {
+            delegate.addHandles(plcSubscriptionHandle1, plcSubscriptionHandles);
+            handles.add(plcSubscriptionHandle1);
+            handles.addAll(Arrays.asList(plcSubscriptionHandles));
+            return this;
+        }
+
+        @Override
+        public PlcUnsubscriptionRequest.Builder addHandles(Collection<PlcSubscriptionHandle> plcSubscriptionHandle) {
+            delegate.addHandles(plcSubscriptionHandle);
+            handles.addAll(plcSubscriptionHandle);
+            return this;
+        }
+    }
+
+    private final class TrackedUnsubscriptionRequest implements PlcUnsubscriptionRequest {
+
+        private final PlcUnsubscriptionRequest delegate;
+
+        private final Collection<PlcSubscriptionHandle> handles;
+
+        private TrackedUnsubscriptionRequest(PlcUnsubscriptionRequest delegate, Collection<PlcSubscriptionHandle> handles) {
+            this.delegate = delegate;
+            this.handles = handles;
+        }
+
+        @Override
+        public CompletableFuture<PlcUnsubscriptionResponse> execute() {
+            return sharedPlcConnection.trackUnsubscription(delegate::execute, handles);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.apache.commons.pool2.KeyedObjectPool;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcUnsubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcWriteRequest;
+import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection handed out by the {@link PooledPlcDriverManager} in {@link PooledPlcDriverManager.Mode#EXCLUSIVE} mode.
+ * It delegates to a connection borrowed from the pool and returns it on {@link #close()}, after which this instance
+ * can't be used anymore. A {@link PlcConnectionException} thrown by the borrowed connection invalidates it in the pool.
+ */
+final class PooledPlcConnection implements PlcConnection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledPlcConnection.class);
+
+    private final KeyedObjectPool<PoolKey, PlcConnection> keyedObjectPool;
+
+    private final PoolKey poolKey;
+
+    private final PlcConnection plcConnection;
+
+    private final AtomicBoolean invalidated = new AtomicBoolean(false);
+
+    PooledPlcConnection(KeyedObjectPool<PoolKey, PlcConnection> keyedObjectPool, PoolKey poolKey, PlcConnection plcConnection) {
+        this.keyedObjectPool = keyedObjectPool;
+        this.poolKey = poolKey;
+        this.plcConnection = plcConnection;
+    }
+
+    @Override
+    public void connect() throws PlcConnectionException {
+        checkValid();
+        try {
+            plcConnection.connect();
+        } catch (PlcConnectionException e) {
+            if (invalidated.compareAndSet(false, true)) {
+                invalidate();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        checkValid();
+        return plcConnection.isConnected();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (!invalidated.compareAndSet(false, true)) {
+            throw new IllegalStateException("Proxy not valid anymore");
+        }
+        LOGGER.debug("close called on {}", plcConnection);
+        keyedObjectPool.returnObject(poolKey, plcConnection);
+    }
+
+    /**
+     * Like {@link #close()}, but the borrowed connection is invalidated in the pool instead of being returned.
+     */
+    void closeBroken() {
+        if (!invalidated.compareAndSet(false, true)) {
+            throw new IllegalStateException("Proxy not valid anymore");
+        }
+        LOGGER.debug("closing broken {}", plcConnection);
+        invalidate();
+    }
+
+    @Override
+    public PlcField prepareField(String fieldQuery) throws PlcInvalidFieldException {
+        checkValid();
+        return plcConnection.prepareField(fieldQuery);
+    }
+
+    @Override
+    public PlcConnectionMetadata getMetadata() {
+        checkValid();
+        return plcConnection.getMetadata();
+    }
+
+    @Override
+    public CompletableFuture<Void> ping() {
+        checkValid();
+        return plcConnection.ping();
+    }
+
+    @Override
+    public PlcReadRequest.Builder readRequestBuilder() {
+        checkValid();
+        return plcConnection.readRequestBuilder();
+    }
+
+    @Override
+    public PlcReadRequest prepareRead(PlcReadRequest readRequest) {
+        checkValid();
+        return plcConnection.prepareRead(readRequest);
+    }
+
+    @Override
+    public PlcWriteRequest.Builder writeRequestBuilder() {
+        checkValid();
+        return plcConnection.writeRequestBuilder();
+    }
+
+    @Override
+    public PlcSubscriptionRequest.Builder subscriptionRequestBuilder() {
+        checkValid();
+        return plcConnection.subscriptionRequestBuilder();
+    }
+
+    @Override
+    public PlcUnsubscriptionRequest.Builder unsubscriptionRequestBuilder() {
+        checkValid();
+        return plcConnection.unsubscriptionRequestBuilder();
+    }
+
+    private void checkValid() {
+        if (invalidated.get()) {
+            throw new IllegalStateException("Proxy not valid anymore");
+        }
+    }
+
+    private void invalidate() {
+        try {
+            keyedObjectPool.invalidateObject(poolKey, plcConnection);
+        } catch (Exception e) {
+            LOGGER.warn("Error invalidating {}", plcConnection, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PooledPlcConnection{" +
+            "poolKey=" + poolKey +
+            ", plcConnection=" + plcConnection +
+            '}';
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.plc4x.java.utils.connectionpool;
 
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.commons.pool2.KeyedObjectPool;
+import org.apache.commons.pool2.impl.BaseObjectPoolConfig;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
 import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.PlcConnection;
@@ -28,18 +29,50 @@ import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 public class PooledPlcDriverManager extends PlcDriverManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PooledPlcDriverManager.class);
 
+    /**
+     * Defines how connections are handed out by the {@link PooledPlcDriverManager}.
+     */
+    public enum Mode {
+        /**
+         * Every caller borrows a connection exclusively from the pool until it is closed. Concurrent callers of the
+         * same PLC either have to wait or get additional physical connections.
+         */
+        EXCLUSIVE,
+        /**
+         * All callers of the same PLC share one physical connection, which is reference counted. It is kept open
+         * while no caller uses it and only closed, once all callers closed their connection, all of their requests
+         * are answered and all of their subscriptions are unsubscribed for the idle timeout.
+         */
+        MULTIPLEXED
+    }
+
+    /**
+     * Time an unused shared connection of the {@link Mode#MULTIPLEXED} mode is kept open, the same as the minimum
+     * idle time before the pool of the {@link Mode#EXCLUSIVE} mode evicts a connection.
+     */
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMillis(BaseObjectPoolConfig.DEFAULT_MIN_EVICTABLE_IDLE_TIME_MILLIS);
+
     private KeyedObjectPool<PoolKey, PlcConnection> keyedObjectPool;
 
+    private final Mode mode;
+
+    private final ConcurrentMap<PoolKey, SharedPlcConnection> sharedConnections = new ConcurrentHashMap<>();
+
+    private final Duration idleTimeout;
+
+    private ScheduledThreadPoolExecutor idleEvictor;
+
     // Marker class do detected a non null value
     static final NoPlcAuthentication noPlcAuthentication = new NoPlcAuthentication();
 
@@ -58,9 +91,27 @@ public class PooledPlcDriverManager extends PlcDriverManager {
     }
 
     public PooledPlcDriverManager(ClassLoader classLoader, PoolKeyFactory poolKeyFactory) {
+        this(classLoader, poolKeyFactory, Mode.EXCLUSIVE);
+    }
+
+    public PooledPlcDriverManager(Mode mode) {
+        this(Thread.currentThread().getContextClassLoader(), new PoolKeyFactory(), mode);
+    }
+
+    public PooledPlcDriverManager(ClassLoader classLoader, PoolKeyFactory poolKeyFactory, Mode mode) {
+        this(classLoader, poolKeyFactory, mode, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * @param idleTimeout time an unused shared connection is kept open in {@link Mode#MULTIPLEXED} mode. If zero, it
+     *                    is closed as soon as it is unused.
+     */
+    public PooledPlcDriverManager(ClassLoader classLoader, PoolKeyFactory poolKeyFactory, Mode mode, Duration idleTimeout) {
         super(classLoader);
         setFromPoolCreator(GenericKeyedObjectPool::new);
         this.poolKeyFactory = poolKeyFactory;
+        this.mode = mode;
+        this.idleTimeout = idleTimeout;
     }
 
     public PooledPlcDriverManager(PoolCreator poolCreator) {
@@ -70,31 +121,39 @@ public class PooledPlcDriverManager extends PlcDriverManager {
     public PooledPlcDriverManager(PoolCreator poolCreator, PoolKeyFactory poolKeyFactory) {
         setFromPoolCreator(poolCreator);
         this.poolKeyFactory = poolKeyFactory;
+        this.mode = Mode.EXCLUSIVE;
+        this.idleTimeout = DEFAULT_IDLE_TIMEOUT;
     }
 
     public PooledPlcDriverManager(ClassLoader classLoader, PoolCreator poolCreator) {
         super(classLoader);
         setFromPoolCreator(poolCreator);
         poolKeyFactory = new PoolKeyFactory();
+        this.mode = Mode.EXCLUSIVE;
+        this.idleTimeout = DEFAULT_IDLE_TIMEOUT;
     }
 
     private void setFromPoolCreator(PoolCreator poolCreator) {
         this.keyedObjectPool = poolCreator.createPool(new PooledPlcConnectionFactory() {
             @Override
             public PlcConnection create(PoolKey key) throws Exception {
-                PlcAuthentication plcAuthentication = key.plcAuthentication;
-                String url = key.url;
-                if (plcAuthentication == noPlcAuthentication) {
-                    LOGGER.debug("getting actual connection for {}", url);
-                    return PooledPlcDriverManager.super.getConnection(url);
-                } else {
-                    LOGGER.debug("getting actual connection for {} and plcAuthentication {}", url, plcAuthentication);
-                    return PooledPlcDriverManager.super.getConnection(url, plcAuthentication);
-                }
+                return createConnection(key);
             }
         });
     }
 
+    private PlcConnection createConnection(PoolKey key) throws PlcConnectionException {
+        PlcAuthentication plcAuthentication = key.plcAuthentication;
+        String url = key.url;
+        if (plcAuthentication == noPlcAuthentication) {
+            LOGGER.debug("getting actual connection for {}", url);
+            return PooledPlcDriverManager.super.getConnection(url);
+        } else {
+            LOGGER.debug("getting actual connection for {} and plcAuthentication {}", url, plcAuthentication);
+            return PooledPlcDriverManager.super.getConnection(url, plcAuthentication);
+        }
+    }
+
     @Override
     public PlcConnection getConnection(String url) throws PlcConnectionException {
         return getConnection(url, noPlcAuthentication);
@@ -110,35 +169,53 @@ public class PooledPlcDriverManager extends PlcDriverManager {
                 LOGGER.debug("Try to borrow an object for url {}", url);
             }
         }
+        if (mode == Mode.MULTIPLEXED) {
+            return sharedConnections.computeIfAbsent(poolKey, key ->
+                new SharedPlcConnection(key, this::createConnection, getIdleEvictor(), idleTimeout.toMillis())).lease();
+        }
         PlcConnection plcConnection;
         try {
             plcConnection = keyedObjectPool.borrowObject(poolKey);
         } catch (Exception e) {
             throw new PlcConnectionException(e);
         }
-        // Used to invalidate a proxy
-        AtomicBoolean proxyInvalidated = new AtomicBoolean(false);
-        return (PlcConnection) Proxy.newProxyInstance(classLoader, new Class[]{PlcConnection.class}, (proxy, method, args) -> {
-            if (proxyInvalidated.get()) {
-                throw new IllegalStateException("Proxy not valid anymore");
-            }
-            if ("close".equals(method.getName())) {
-                LOGGER.debug("close called on {}", plcConnection);
-                proxyInvalidated.set(true);
-                keyedObjectPool.returnObject(poolKey, plcConnection);
-                return null;
-            } else {
-                try {
-                    return method.invoke(plcConnection, args);
-                } catch (InvocationTargetException e) {
-                    if (e.getCause().getClass() == PlcConnectionException.class) {
-                        keyedObjectPool.invalidateObject(poolKey, plcConnection);
-                        proxyInvalidated.set(true);
-                    }
-                    throw e;
-                }
-            }
-        });
+        return new PooledPlcConnection(keyedObjectPool, poolKey, plcConnection);
+    }
+
+    /**
+     * Closes a connection handed out by this manager after it failed. The physical connection isn't returned to the
+     * pool (or kept open for the next lease) but discarded, so the next caller gets a new one.
+     *
+     * @param connection a connection returned by {@link #getConnection(String)}.
+     * @throws Exception if the connection wasn't handed out by this manager and closing it fails.
+     */
+    public void closeBroken(PlcConnection connection) throws Exception {
+        if (connection instanceof PooledPlcConnection) {
+            ((PooledPlcConnection) connection).closeBroken();
+        } else if (connection instanceof MultiplexedPlcConnection) {
+            ((MultiplexedPlcConnection) connection).closeBroken();
+        } else {
+            connection.close();
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the single daemon thread closing the idle shared connections of this manager.
+     */
+    private synchronized ScheduledThreadPoolExecutor getIdleEvictor() {
+        if (idleEvictor == null) {
+            idleEvictor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "plc4x-connection-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            idleEvictor.setRemoveOnCancelPolicy(true);
+        }
+        return idleEvictor;
     }
 
     @FunctionalInterface
@@ -165,6 +242,13 @@ public class PooledPlcDriverManager extends PlcDriverManager {
                 statistics.put(entry.getKey() + ".numActive", entry.getValue());
             }
         }
+        for (SharedPlcConnection sharedConnection : sharedConnections.values()) {
+            if (sharedConnection.isOpen()) {
+                statistics.put(sharedConnection.getPoolKey() + ".references", sharedConnection.getReferences());
+                statistics.put(sharedConnection.getPoolKey() + ".inFlight", sharedConnection.getInFlight());
+                statistics.put(sharedConnection.getPoolKey() + ".subscriptions", sharedConnection.getSubscriptions());
+            }
+        }
 
         return statistics;
     }
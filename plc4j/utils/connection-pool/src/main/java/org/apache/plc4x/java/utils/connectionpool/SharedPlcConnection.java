@@ -0,0 +1,259 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionResponse;
+import org.apache.plc4x.java.api.messages.PlcUnsubscriptionResponse;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * One physical connection per {@link PoolKey} which is shared by all callers of the {@link PooledPlcDriverManager} in
+ * {@link PooledPlcDriverManager.Mode#MULTIPLEXED} mode.
+ * <p>
+ * Instead of borrowing and returning the connection, every caller gets a {@link MultiplexedPlcConnection} lease which
+ * increments the reference count. Requests executed through the leases, which aren't answered yet, and subscription
+ * handles, which aren't unsubscribed yet, count as references too. The physical connection is kept open while it is
+ * unused, so the next lease doesn't have to reconnect, and is only closed after it has been unused for the idle
+ * timeout. If the physical connection turns out to be broken, it is dropped and the next lease opens a new one.
+ */
+final class SharedPlcConnection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedPlcConnection.class);
+
+    @FunctionalInterface
+    interface ConnectionFactory {
+        PlcConnection create(PoolKey poolKey) throws PlcConnectionException;
+    }
+
+    private final PoolKey poolKey;
+
+    private final ConnectionFactory connectionFactory;
+
+    private final ScheduledExecutorService idleEvictor;
+
+    private final long idleTimeoutMillis;
+
+    private PlcConnection plcConnection;
+
+    private int references;
+
+    private int inFlight;
+
+    private final Set<PlcSubscriptionHandle> subscriptionHandles = new HashSet<>();
+
+    private ScheduledFuture<?> pendingEviction;
+
+    // Identifies the current eviction, so an eviction which was already running when it got cancelled does nothing.
+    private long evictionGeneration;
+
+    /**
+     * @param idleEvictor       executor closing the physical connection once it is unused for the idle timeout.
+     * @param idleTimeoutMillis time an unused physical connection is kept open, it is closed immediately if zero or
+     *                          negative.
+     */
+    SharedPlcConnection(PoolKey poolKey, ConnectionFactory connectionFactory, ScheduledExecutorService idleEvictor,
+                        long idleTimeoutMillis) {
+        this.poolKey = poolKey;
+        this.connectionFactory = connectionFactory;
+        this.idleEvictor = idleEvictor;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * @return a new lease for the shared connection, opening the physical connection if needed.
+     * @throws PlcConnectionException if no physical connection could be opened.
+     */
+    synchronized MultiplexedPlcConnection lease() throws PlcConnectionException {
+        cancelEviction();
+        if ((plcConnection != null) && !plcConnection.isConnected()) {
+            LOGGER.debug("Dropping disconnected shared connection {}", plcConnection);
+            drop();
+        }
+        if (plcConnection == null) {
+            LOGGER.debug("Opening shared connection for {}", poolKey);
+            plcConnection = connectionFactory.create(poolKey);
+        }
+        references++;
+        return new MultiplexedPlcConnection(this, plcConnection);
+    }
+
+    /**
+     * Called when a lease is closed.
+     */
+    synchronized void release() {
+        references--;
+        closeIfUnused();
+    }
+
+    /**
+     * Drops the given physical connection (if it is still the current one) after it failed, so the next lease opens a
+     * new one. Existing leases keep their (broken) connection.
+     */
+    synchronized void invalidate(PlcConnection brokenConnection) {
+        if (plcConnection == brokenConnection) {
+            LOGGER.debug("Invalidating shared connection {}", brokenConnection);
+            cancelEviction();
+            drop();
+        }
+    }
+
+    /**
+     * Executes a request through the shared connection and keeps track of it until it is answered, so the physical
+     * connection isn't closed while requests are still in flight.
+     */
+    <F extends CompletableFuture<?>> F track(Supplier<F> execution) {
+        synchronized (this) {
+            inFlight++;
+        }
+        F future;
+        try {
+            future = execution.get();
+        } catch (RuntimeException e) {
+            requestDone();
+            throw e;
+        }
+        future.whenComplete((result, throwable) -> requestDone());
+        return future;
+    }
+
+    /**
+     * Executes a subscription request like {@link #track(Supplier)} and counts the returned subscription handles as
+     * references, until they are unsubscribed.
+     */
+    CompletableFuture<PlcSubscriptionResponse> trackSubscription(
+        Supplier<CompletableFuture<? extends PlcSubscriptionResponse>> execution) {
+        return track(() -> execution.get().<PlcSubscriptionResponse>thenApply(response -> {
+            subscribed(response.getSubscriptionHandles());
+            return response;
+        }));
+    }
+
+    /**
+     * Executes an unsubscription request like {@link #track(Supplier)} and drops the given handles from the
+     * references, as soon as they are unsubscribed.
+     */
+    CompletableFuture<PlcUnsubscriptionResponse> trackUnsubscription(
+        Supplier<CompletableFuture<PlcUnsubscriptionResponse>> execution, Collection<PlcSubscriptionHandle> handles) {
+        return track(() -> execution.get().thenApply(response -> {
+            unsubscribed(handles);
+            return response;
+        }));
+    }
+
+    private synchronized void subscribed(Collection<PlcSubscriptionHandle> handles) {
+        subscriptionHandles.addAll(handles);
+    }
+
+    private synchronized void unsubscribed(Collection<PlcSubscriptionHandle> handles) {
+        subscriptionHandles.removeAll(handles);
+        closeIfUnused();
+    }
+
+    private synchronized void requestDone() {
+        inFlight--;
+        closeIfUnused();
+    }
+
+    private boolean isUnused() {
+        return (references <= 0) && (inFlight <= 0) && subscriptionHandles.isEmpty();
+    }
+
+    private void closeIfUnused() {
+        if (!isUnused() || (plcConnection == null) || (pendingEviction != null)) {
+            return;
+        }
+        if (idleTimeoutMillis <= 0) {
+            LOGGER.debug("Closing unused shared connection {}", plcConnection);
+            drop();
+            return;
+        }
+        long generation = ++evictionGeneration;
+        pendingEviction = idleEvictor.schedule(() -> evictIfIdle(generation), idleTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void evictIfIdle(long generation) {
+        if (generation != evictionGeneration) {
+            return;
+        }
+        pendingEviction = null;
+        if (isUnused() && (plcConnection != null)) {
+            LOGGER.debug("Closing idle shared connection {}", plcConnection);
+            drop();
+        }
+    }
+
+    private void cancelEviction() {
+        evictionGeneration++;
+        if (pendingEviction != null) {
+            pendingEviction.cancel(false);
+            pendingEviction = null;
+        }
+    }
+
+    /**
+     * Closes the physical connection, subscriptions made through it are gone with it.
+     */
+    private void drop() {
+        closeQuietly(plcConnection);
+        plcConnection = null;
+        subscriptionHandles.clear();
+    }
+
+    synchronized int getReferences() {
+        return references;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getSubscriptions() {
+        return subscriptionHandles.size();
+    }
+
+    synchronized boolean isOpen() {
+        return plcConnection != null;
+    }
+
+    PoolKey getPoolKey() {
+        return poolKey;
+    }
+
+    private static void closeQuietly(PlcConnection plcConnection) {
+        try {
+            plcConnection.close();
+        } catch (Exception e) {
+            LOGGER.warn("Error closing {}", plcConnection, e);
+        }
+    }
+
+}
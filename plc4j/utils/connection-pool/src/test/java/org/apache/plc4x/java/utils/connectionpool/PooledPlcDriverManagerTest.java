@@ -26,10 +26,14 @@ import org.apache.plc4x.java.api.authentication.PlcUsernamePasswordAuthenticatio
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.api.exceptions.PlcUnsupportedOperationException;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionResponse;
 import org.apache.plc4x.java.api.messages.PlcUnsubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcUnsubscriptionResponse;
 import org.apache.plc4x.java.api.messages.PlcWriteRequest;
 import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
 import org.apache.plc4x.java.spi.PlcDriver;
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.AfterEach;
@@ -42,6 +46,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -255,9 +261,7 @@ class PooledPlcDriverManagerTest implements WithAssertions {
             connection.connect();
             fail("This should throw an exception");
         } catch (Exception e) {
-            // TODO: currently UndeclaredThrowableException is the top one which should be InvocationTargetException
-            //assertThat(e).isInstanceOf(InvocationTargetException.class);
-            assertThat(e).hasRootCauseInstanceOf(PlcConnectionException.class);
+            assertThat(e).isInstanceOf(PlcConnectionException.class);
         }
         // Faulty connection should have been discarded
         assertThat(SUT.getStatistics()).containsOnly(
@@ -267,6 +271,224 @@ class PooledPlcDriverManagerTest implements WithAssertions {
         );
     }
 
+    @Test
+    void brokenConnectionIsNotReturnedToThePool() throws Exception {
+        when(plcDriver.connect(anyString())).then(invocationOnMock -> new DummyPlcConnection(invocationOnMock.getArgument(0)));
+
+        PlcConnection connection = SUT.getConnection("dummydummy:breakIt");
+        DummyPlcConnection brokenConnection = (DummyPlcConnection) connection.getMetadata();
+        SUT.closeBroken(connection);
+
+        assertThat(brokenConnection.isConnected()).isFalse();
+        assertThatThrownBy(connection::close).isInstanceOf(IllegalStateException.class).hasMessage("Proxy not valid anymore");
+        assertThat(SUT.getStatistics()).contains(
+            entry("numActive", 0),
+            entry("numIdle", 0)
+        );
+        assertThat(SUT.getConnection("dummydummy:breakIt").getMetadata()).isNotSameAs(brokenConnection);
+    }
+
+    @Test
+    void multiplexedConnectionIsShared() throws Exception {
+        PooledPlcDriverManager multiplexedSUT = createMultiplexedSUT();
+        when(plcDriver.connect(anyString())).then(invocationOnMock -> new DummyPlcConnection(invocationOnMock.getArgument(0)));
+
+        LinkedList<Callable<PlcConnection>> callables = new LinkedList<>();
+        IntStream.range(0, 64).forEach(i -> callables.add(() -> multiplexedSUT.getConnection("dummydummy:single/socket1/socket2?fancyOption=true")));
+        List<Future<PlcConnection>> futures = executorService.invokeAll(callables);
+        List<PlcConnection> connections = new LinkedList<>();
+        for (Future<PlcConnection> future : futures) {
+            connections.add(future.get());
+        }
+
+        // All callers share one physical connection
+        verify(plcDriver, times(1)).connect(anyString());
+        assertThat(multiplexedSUT.getStatistics()).contains(
+            entry("PoolKey{url='dummydummy:single/socket1/socket2?fancyOption=true'}.references", 64)
+        );
+
+        for (PlcConnection connection : connections) {
+            connection.close();
+        }
+        assertThat(multiplexedSUT.getStatistics()).contains(
+            entry("PoolKey{url='dummydummy:single/socket1/socket2?fancyOption=true'}.references", 0)
+        );
+        assertThatThrownBy(connections.get(0)::isConnected).isInstanceOf(IllegalStateException.class).hasMessage("Proxy not valid anymore");
+
+        // After the last caller closed its connection it is kept open for the next one
+        multiplexedSUT.getConnection("dummydummy:single/socket1/socket2?fancyOption=true").close();
+        verify(plcDriver, times(1)).connect(anyString());
+    }
+
+    @Test
+    void multiplexedConnectionIsClosedAfterIdleTimeout() throws Exception {
+        PooledPlcDriverManager multiplexedSUT = createMultiplexedSUT(Duration.ofMillis(100));
+        DummyPlcConnection dummyPlcConnection = new DummyPlcConnection("dummydummy:single");
+        when(plcDriver.connect(anyString())).thenReturn(dummyPlcConnection);
+
+        multiplexedSUT.getConnection("dummydummy:single").close();
+        assertThat(dummyPlcConnection.isConnected()).isTrue();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (dummyPlcConnection.isConnected() && (System.currentTimeMillis() < deadline)) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(dummyPlcConnection.isConnected()).isFalse();
+        assertThat(multiplexedSUT.getStatistics()).doesNotContainKey("PoolKey{url='dummydummy:single'}.references");
+    }
+
+    @Test
+    void multiplexedConnectionStaysOpenWhileSubscribed() throws Exception {
+        PooledPlcDriverManager multiplexedSUT = createMultiplexedSUT(Duration.ZERO);
+        PlcSubscriptionHandle subscriptionHandle = mock(PlcSubscriptionHandle.class);
+        PlcSubscriptionResponse subscriptionResponse = mock(PlcSubscriptionResponse.class);
+        when(subscriptionResponse.getSubscriptionHandles()).thenReturn(Collections.singletonList(subscriptionHandle));
+        PlcSubscriptionRequest subscriptionRequest = mock(PlcSubscriptionRequest.class);
+        doReturn(CompletableFuture.completedFuture(subscriptionResponse)).when(subscriptionRequest).execute();
+        PlcSubscriptionRequest.Builder subscriptionRequestBuilder = mock(PlcSubscriptionRequest.Builder.class);
+        when(subscriptionRequestBuilder.build()).thenReturn(subscriptionRequest);
+        PlcUnsubscriptionRequest unsubscriptionRequest = mock(PlcUnsubscriptionRequest.class);
+        when(unsubscriptionRequest.execute()).thenReturn(CompletableFuture.completedFuture(mock(PlcUnsubscriptionResponse.class)));
+        PlcUnsubscriptionRequest.Builder unsubscriptionRequestBuilder = mock(PlcUnsubscriptionRequest.Builder.class);
+        when(unsubscriptionRequestBuilder.build()).thenReturn(unsubscriptionRequest);
+        DummyPlcConnection dummyPlcConnection = spy(new DummyPlcConnection("dummydummy:single"));
+        doReturn(subscriptionRequestBuilder).when(dummyPlcConnection).subscriptionRequestBuilder();
+        doReturn(unsubscriptionRequestBuilder).when(dummyPlcConnection).unsubscriptionRequestBuilder();
+        when(plcDriver.connect(anyString())).thenReturn(dummyPlcConnection);
+
+        PlcConnection connection = multiplexedSUT.getConnection("dummydummy:single");
+        PlcSubscriptionResponse response = connection.subscriptionRequestBuilder().addChangeOfStateField("field", "address").build().execute().get();
+        connection.close();
+
+        // The subscription still needs the connection
+        assertThat(multiplexedSUT.getStatistics()).contains(
+            entry("PoolKey{url='dummydummy:single'}.references", 0),
+            entry("PoolKey{url='dummydummy:single'}.subscriptions", 1)
+        );
+        assertThat(dummyPlcConnection.isConnected()).isTrue();
+
+        connection = multiplexedSUT.getConnection("dummydummy:single");
+        connection.unsubscriptionRequestBuilder().addHandles(response.getSubscriptionHandles()).build().execute().get();
+        connection.close();
+        assertThat(dummyPlcConnection.isConnected()).isFalse();
+    }
+
+    @Test
+    void multiplexedConnectionStaysOpenWhileRequestsAreInFlight() throws Exception {
+        PooledPlcDriverManager multiplexedSUT = createMultiplexedSUT(Duration.ZERO);
+        CompletableFuture<PlcReadResponse> responseFuture = new CompletableFuture<>();
+        PlcReadRequest readRequest = mock(PlcReadRequest.class);
+        doReturn(responseFuture).when(readRequest).execute();
+        PlcReadRequest.Builder readRequestBuilder = mock(PlcReadRequest.Builder.class);
+        when(readRequestBuilder.build()).thenReturn(readRequest);
+        DummyPlcConnection dummyPlcConnection = spy(new DummyPlcConnection("dummydummy:single"));
+        doReturn(readRequestBuilder).when(dummyPlcConnection).readRequestBuilder();
+        when(plcDriver.connect(anyString())).thenReturn(dummyPlcConnection);
+
+        PlcConnection connection = multiplexedSUT.getConnection("dummydummy:single");
+        CompletableFuture<? extends PlcReadResponse> execution = connection.readRequestBuilder().addItem("field", "address").build().execute();
+        connection.close();
+
+        assertThat(multiplexedSUT.getStatistics()).contains(
+            entry("PoolKey{url='dummydummy:single'}.references", 0),
+            entry("PoolKey{url='dummydummy:single'}.inFlight", 1)
+        );
+        assertThat(dummyPlcConnection.isConnected()).isTrue();
+
+        responseFuture.complete(mock(PlcReadResponse.class));
+        assertThat(execution).isCompleted();
+        assertThat(dummyPlcConnection.isConnected()).isFalse();
+    }
+
+    @Test
+    void preparedReadRequestIsCreatedByTheBorrowedConnection() throws Exception {
+        PlcReadRequest readRequest = mock(PlcReadRequest.class);
+        PlcReadRequest preparedReadRequest = mock(PlcReadRequest.class);
+        DummyPlcConnection dummyPlcConnection = spy(new DummyPlcConnection("dummydummy:single"));
+        doReturn(preparedReadRequest).when(dummyPlcConnection).prepareRead(readRequest);
+        when(plcDriver.connect(anyString())).thenReturn(dummyPlcConnection);
+
+        PlcConnection connection = SUT.getConnection("dummydummy:single");
+
+        assertThat(connection.prepareRead(readRequest)).isSameAs(preparedReadRequest);
+    }
+
+    @Test
+    void multiplexedPreparedReadRequestIsCreatedByTheSharedConnectionAndTracked() throws Exception {
+        PooledPlcDriverManager multiplexedSUT = createMultiplexedSUT(Duration.ZERO);
+        CompletableFuture<PlcReadResponse> responseFuture = new CompletableFuture<>();
+        PlcReadRequest readRequest = mock(PlcReadRequest.class);
+        PlcReadRequest preparedReadRequest = mock(PlcReadRequest.class);
+        doReturn(responseFuture).when(preparedReadRequest).execute();
+        PlcReadRequest.Builder readRequestBuilder = mock(PlcReadRequest.Builder.class);
+        when(readRequestBuilder.build()).thenReturn(readRequest);
+        DummyPlcConnection dummyPlcConnection = spy(new DummyPlcConnection("dummydummy:single"));
+        doReturn(readRequestBuilder).when(dummyPlcConnection).readRequestBuilder();
+        doReturn(preparedReadRequest).when(dummyPlcConnection).prepareRead(readRequest);
+        when(plcDriver.connect(anyString())).thenReturn(dummyPlcConnection);
+
+        PlcConnection connection = multiplexedSUT.getConnection("dummydummy:single");
+        // The request built by the lease is unwrapped before it's passed to the shared connection.
+        PlcReadRequest prepared = connection.prepareRead(connection.readRequestBuilder().addItem("field", "address").build());
+        verify(dummyPlcConnection).prepareRead(readRequest);
+
+        CompletableFuture<? extends PlcReadResponse> execution = prepared.execute();
+        connection.close();
+        assertThat(multiplexedSUT.getStatistics()).contains(
+            entry("PoolKey{url='dummydummy:single'}.inFlight", 1)
+        );
+        assertThat(dummyPlcConnection.isConnected()).isTrue();
+
+        responseFuture.complete(mock(PlcReadResponse.class));
+        assertThat(execution).isCompleted();
+        assertThat(dummyPlcConnection.isConnected()).isFalse();
+    }
+
+    @Test
+    void multiplexedBrokenConnectionIsReplaced() throws Exception {
+        PooledPlcDriverManager multiplexedSUT = createMultiplexedSUT();
+        when(plcDriver.connect(anyString())).then(invocationOnMock -> new DummyPlcConnection(invocationOnMock.getArgument(0)));
+
+        PlcConnection first = multiplexedSUT.getConnection("dummydummy:breakIt");
+        PlcConnection second = multiplexedSUT.getConnection("dummydummy:breakIt");
+        // Simulate a lost connection
+        ((DummyPlcConnection) first.getMetadata()).connected = false;
+        assertThat(second.isConnected()).isFalse();
+
+        PlcConnection third = multiplexedSUT.getConnection("dummydummy:breakIt");
+        assertThat(third.isConnected()).isTrue();
+        verify(plcDriver, times(2)).connect(anyString());
+    }
+
+    @Test
+    void multiplexedBrokenConnectionIsClosed() throws Exception {
+        PooledPlcDriverManager multiplexedSUT = createMultiplexedSUT();
+        when(plcDriver.connect(anyString())).then(invocationOnMock -> new DummyPlcConnection(invocationOnMock.getArgument(0)));
+
+        PlcConnection connection = multiplexedSUT.getConnection("dummydummy:breakIt");
+        DummyPlcConnection brokenConnection = (DummyPlcConnection) connection.getMetadata();
+        multiplexedSUT.closeBroken(connection);
+
+        // The physical connection isn't kept open for the idle timeout
+        assertThat(brokenConnection.isConnected()).isFalse();
+        assertThat(multiplexedSUT.getStatistics()).doesNotContainKey("PoolKey{url='dummydummy:breakIt'}.references");
+        assertThat(multiplexedSUT.getConnection("dummydummy:breakIt").isConnected()).isTrue();
+        verify(plcDriver, times(2)).connect(anyString());
+    }
+
+    private PooledPlcDriverManager createMultiplexedSUT() throws Exception {
+        return createMultiplexedSUT(PooledPlcDriverManager.DEFAULT_IDLE_TIMEOUT);
+    }
+
+    private PooledPlcDriverManager createMultiplexedSUT(Duration idleTimeout) throws Exception {
+        PooledPlcDriverManager multiplexedSUT = new PooledPlcDriverManager(PooledPlcDriverManager.class.getClassLoader(),
+            new PoolKeyFactory(), PooledPlcDriverManager.Mode.MULTIPLEXED, idleTimeout);
+        @SuppressWarnings("unchecked")
+        Map<String, PlcDriver> driverMap = (Map) FieldUtils.getField(PooledPlcDriverManager.class, "driverMap", true).get(multiplexedSUT);
+        driverMap.put("dummydummy", plcDriver);
+        return multiplexedSUT;
+    }
+
     @Test
     public void testOtherConstructors() {
         assertThat(new PooledPlcDriverManager()).isNotNull();
@@ -274,6 +496,7 @@ class PooledPlcDriverManagerTest implements WithAssertions {
         assertThat(new PooledPlcDriverManager(PooledPlcDriverManager.class.getClassLoader())).isNotNull();
         assertThat(new PooledPlcDriverManager(
             PooledPlcDriverManager.class.getClassLoader(), new PoolKeyFactory())).isNotNull();
+        assertThat(new PooledPlcDriverManager(PooledPlcDriverManager.Mode.MULTIPLEXED).getMode()).isEqualTo(PooledPlcDriverManager.Mode.MULTIPLEXED);
     }
 
     class DummyPlcConnection implements PlcConnection, PlcConnectionMetadata {
@@ -26,6 +26,7 @@ import org.apache.plc4x.interop.Response;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TFramedTransport;
 import org.apache.thrift.transport.TSocket;
 import org.apache.thrift.transport.TTransport;
 
@@ -34,7 +35,7 @@ import java.util.Collections;
 public class Client {
 
     public static void main(String[] args) throws TException {
-        try (TTransport transport = new TSocket("localhost", 9090)) {
+        try (TTransport transport = new TFramedTransport(new TSocket("localhost", Server.DEFAULT_PORT))) {
 
             transport.open();
 
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.interop.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Bounded queue for the events of one subscription, which are fetched in batches by long polls. If no event is queued,
+ * a poll waits until the next event arrives or its time is up. Only one poll can wait at a time, a new poll completes
+ * the waiting one with an empty batch.
+ *
+ * @param <E> type of the events.
+ */
+class EventQueue<E> {
+
+    enum OverflowPolicy {
+        DROP_OLDEST,
+        DROP_NEWEST,
+        COALESCE
+    }
+
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final BinaryOperator<E> coalescer;
+    private final ScheduledExecutorService timeoutExecutor;
+
+    private final ArrayDeque<E> events = new ArrayDeque<>();
+    private long droppedEvents;
+    private Poll pendingPoll;
+    private boolean closed;
+
+    /**
+     * @param capacity        maximum number of queued events.
+     * @param overflowPolicy  what to do with a new event if the queue is full.
+     * @param coalescer       merges a new event into an older one, only used with {@link OverflowPolicy#COALESCE}.
+     * @param timeoutExecutor used to complete waiting polls, when their time is up.
+     */
+    EventQueue(int capacity, OverflowPolicy overflowPolicy, BinaryOperator<E> coalescer,
+               ScheduledExecutorService timeoutExecutor) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.coalescer = coalescer;
+        this.timeoutExecutor = timeoutExecutor;
+    }
+
+    void offer(E event) {
+        Poll completedPoll;
+        Batch<E> batch;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (events.size() < capacity) {
+                events.addLast(event);
+            } else {
+                droppedEvents++;
+                switch (overflowPolicy) {
+                    case DROP_OLDEST:
+                        events.pollFirst();
+                        events.addLast(event);
+                        break;
+                    case DROP_NEWEST:
+                        break;
+                    default:
+                        events.addLast(coalescer.apply(events.pollLast(), event));
+                }
+            }
+            if (pendingPoll == null) {
+                return;
+            }
+            completedPoll = pendingPoll;
+            pendingPoll = null;
+            batch = drain(completedPoll.maxEvents);
+        }
+        completedPoll.complete(batch);
+    }
+
+    /**
+     * @param maxEvents     maximum number of events in the batch, 0 for all queued events.
+     * @param maxWaitMillis maximum time to wait for an event, if none is queued.
+     * @param callback      called with the batch, either right away or when it is complete.
+     */
+    void poll(int maxEvents, long maxWaitMillis, Consumer<Batch<E>> callback) {
+        Poll poll = new Poll(maxEvents, callback);
+        Poll replacedPoll;
+        Batch<E> batch = null;
+        synchronized (this) {
+            replacedPoll = pendingPoll;
+            pendingPoll = null;
+            if (!events.isEmpty() || closed || (maxWaitMillis <= 0)) {
+                batch = drain(maxEvents);
+            } else {
+                pendingPoll = poll;
+                poll.timeout = timeoutExecutor.schedule(() -> expire(poll), maxWaitMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (replacedPoll != null) {
+            replacedPoll.complete(emptyBatch());
+        }
+        if (batch != null) {
+            poll.complete(batch);
+        }
+    }
+
+    /**
+     * Drops all queued events and completes a waiting poll. Further events are ignored.
+     */
+    void close() {
+        Poll completedPoll;
+        synchronized (this) {
+            closed = true;
+            events.clear();
+            completedPoll = pendingPoll;
+            pendingPoll = null;
+        }
+        if (completedPoll != null) {
+            completedPoll.complete(emptyBatch());
+        }
+    }
+
+    synchronized int size() {
+        return events.size();
+    }
+
+    private void expire(Poll poll) {
+        Batch<E> batch;
+        synchronized (this) {
+            if (pendingPoll != poll) {
+                return;
+            }
+            pendingPoll = null;
+            batch = drain(poll.maxEvents);
+        }
+        poll.complete(batch);
+    }
+
+    private Batch<E> drain(int maxEvents) {
+        int size = (maxEvents <= 0) ? events.size() : Math.min(maxEvents, events.size());
+        List<E> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(events.pollFirst());
+        }
+        Batch<E> result = new Batch<>(batch, droppedEvents);
+        droppedEvents = 0;
+        return result;
+    }
+
+    private Batch<E> emptyBatch() {
+        return new Batch<>(Collections.emptyList(), 0);
+    }
+
+    static class Batch<E> {
+
+        private final List<E> events;
+        private final long droppedEvents;
+
+        private Batch(List<E> events, long droppedEvents) {
+            this.events = events;
+            this.droppedEvents = droppedEvents;
+        }
+
+        List<E> getEvents() {
+            return events;
+        }
+
+        /**
+         * @return the number of events dropped or coalesced since the previous batch.
+         */
+        long getDroppedEvents() {
+            return droppedEvents;
+        }
+    }
+
+    private class Poll {
+
+        private final int maxEvents;
+        private final Consumer<Batch<E>> callback;
+        private ScheduledFuture<?> timeout;
+
+        private Poll(int maxEvents, Consumer<Batch<E>> callback) {
+            this.maxEvents = maxEvents;
+            this.callback = callback;
+        }
+
+        private void complete(Batch<E> batch) {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            callback.accept(batch);
+        }
+    }
+
+}
@@ -25,115 +25,386 @@ import org.apache.plc4x.interop.*;
 import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.PlcConnection;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
-import org.apache.plc4x.java.api.messages.PlcReadRequest;
-import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.*;
+import org.apache.plc4x.java.api.model.PlcConsumerRegistration;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
-import org.apache.thrift.TException;
+import org.apache.plc4x.java.base.messages.PlcSubscriber;
+import org.apache.thrift.async.AsyncMethodCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 
-public class Handler implements InteropServer.Iface {
+/**
+ * Handles the calls of the interop clients without blocking the server threads while a PLC is busy: the callback of
+ * a call is completed from the future of the PLC request, which fails if the PLC doesn't answer within the timeout.
+ * <p>
+ * The events of a subscription are queued in a bounded {@link EventQueue} and fetched by the client in batches with
+ * long polls, so a client doesn't need one call per value change.
+ */
+public class Handler implements InteropServer.AsyncIface {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Handler.class);
 
+    public static final long DEFAULT_TIMEOUT_MILLIS = 1_000L;
+
+    static final int DEFAULT_QUEUE_SIZE = 1_000;
+    static final int MAX_QUEUE_SIZE = 100_000;
+    static final long MAX_WAIT_MILLIS = 60_000L;
+
     private final AtomicLong connectionCounter = new AtomicLong(0);
+    private final AtomicLong subscriptionCounter = new AtomicLong(0);
 
     private final PlcDriverManager driverManager;
+    private final long timeoutMillis;
+    private final ScheduledThreadPoolExecutor timeoutExecutor;
+    private final ExecutorService connectionExecutor;
     private final Map<Long, String> connectionStrings;
     private final Map<Long, PlcConnection> connections;
+    private final Map<Long, Subscription> subscriptions;
 
     public Handler(PlcDriverManager driverManager) {
+        this(driverManager, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public Handler(PlcDriverManager driverManager, long timeoutMillis) {
         this.driverManager = driverManager;
+        this.timeoutMillis = timeoutMillis;
+        this.timeoutExecutor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "interop-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most requests complete in time, so their timeouts shouldn't pile up in the queue.
+        this.timeoutExecutor.setRemoveOnCancelPolicy(true);
+        this.connectionExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "interop-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
         this.connections = new ConcurrentHashMap<>();
         this.connectionStrings = new ConcurrentHashMap<>();
+        this.subscriptions = new ConcurrentHashMap<>();
     }
 
-
-    @Override public ConnectionHandle connect(String connectionString) throws TException {
+    @Override public void connect(String connectionString, AsyncMethodCallback<ConnectionHandle> resultHandler) {
         LOGGER.debug("Receiving new connect request to '{}'", connectionString);
-        try {
-            long id = connectionCounter.getAndIncrement();
+        // Connecting blocks until the PLC answered, so it mustn't happen on a thread of the server.
+        connectionExecutor.execute(() -> {
+            try {
+                long id = connectionCounter.getAndIncrement();
 
-            final PlcConnection connection = driverManager.getConnection(connectionString);
-            connection.connect();
+                final PlcConnection connection = driverManager.getConnection(connectionString);
+                connection.connect();
 
-            LOGGER.debug("Established connection to '{}' with handle {}", connectionString, id);
+                LOGGER.debug("Established connection to '{}' with handle {}", connectionString, id);
 
-            this.connections.put(id, connection);
-            this.connectionStrings.put(id, connectionString);
-            return new ConnectionHandle(id);
-        } catch (PlcConnectionException e) {
-            LOGGER.warn("Unable to start a connection to url '" + connectionString + "'", e);
-            throw new PlcException(connectionString, e.getMessage());
-        }
+                this.connections.put(id, connection);
+                this.connectionStrings.put(id, connectionString);
+                resultHandler.onComplete(new ConnectionHandle(id));
+            } catch (PlcConnectionException e) {
+                LOGGER.warn("Unable to start a connection to url '" + connectionString + "'", e);
+                resultHandler.onError(new PlcException(connectionString, e.getMessage()));
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to start a connection to url '" + connectionString + "'", e);
+                resultHandler.onError(e);
+            }
+        });
     }
 
-    @Override public void close(ConnectionHandle handle) throws TException {
+    @Override public void close(ConnectionHandle handle, AsyncMethodCallback<Void> resultHandler) {
         LOGGER.debug("Receiving new close request for handle {}", handle.getConnectionId());
-        if (!connections.containsKey(handle)) {
+        subscriptions.values().removeIf(subscription -> {
+            if (subscription.connectionId != handle.getConnectionId()) {
+                return false;
+            }
+            subscription.cancel();
+            return true;
+        });
+        final PlcConnection connection = connections.remove(handle.getConnectionId());
+        connectionStrings.remove(handle.getConnectionId());
+        if (connection == null) {
             LOGGER.warn("Handle for close request {} does not exist. Perhaps already closed?", handle.getConnectionId());
+            resultHandler.onComplete(null);
             return;
         }
+        // Like connecting, closing blocks until the connection is closed.
+        connectionExecutor.execute(() -> {
+            try {
+                connection.close();
+            } catch (Exception e) {
+                LOGGER.warn("Unable to close the conn / remove the handle", e);
+            }
+            resultHandler.onComplete(null);
+        });
+    }
+
+    @Override public void execute(ConnectionHandle handle, Request request, AsyncMethodCallback<Response> resultHandler) {
+        execute(handle, request).whenComplete((response, throwable) -> {
+            if (throwable != null) {
+                resultHandler.onError(toPlcException(handle, request, throwable));
+            } else {
+                resultHandler.onComplete(response);
+            }
+        });
+    }
+
+    @Override public void executeMany(List<BatchRequest> requests, AsyncMethodCallback<List<BatchResponse>> resultHandler) {
+        LOGGER.debug("Executing {} requests", requests.size());
+        final List<CompletableFuture<BatchResponse>> futures = new ArrayList<>(requests.size());
+        for (BatchRequest batchRequest : requests) {
+            futures.add(execute(batchRequest.getHandle(), batchRequest.getRequest()).handle((response, throwable) -> {
+                final BatchResponse batchResponse = new BatchResponse();
+                if (throwable != null) {
+                    batchResponse.setException(toPlcException(batchRequest.getHandle(), batchRequest.getRequest(), throwable));
+                } else {
+                    batchResponse.setResponse(response);
+                }
+                return batchResponse;
+            }));
+        }
+        // The futures never complete exceptionally, as failures are mapped to the batch responses.
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenRun(() -> {
+            final List<BatchResponse> responses = new ArrayList<>(futures.size());
+            for (CompletableFuture<BatchResponse> future : futures) {
+                responses.add(future.join());
+            }
+            resultHandler.onComplete(responses);
+        });
+    }
+
+    private CompletableFuture<Response> execute(ConnectionHandle handle, Request request) {
+        LOGGER.debug("Executing {}", request);
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        if ((handle == null) || (request == null) || (request.getFields() == null)) {
+            result.completeExceptionally(new IllegalArgumentException("No fields given in the request!"));
+            return result;
+        }
+        final PlcConnection connection = connections.get(handle.getConnectionId());
+        if (connection == null) {
+            result.completeExceptionally(
+                new IllegalArgumentException("Connection handle " + handle.getConnectionId() + " does not exist"));
+            return result;
+        }
         try {
-            connections.get(handle).close();
-            connections.remove(handle);
+            final PlcReadRequest.Builder builder = connection.readRequestBuilder();
+            for (Map.Entry<String, String> entry : request.getFields().entrySet()) {
+                builder.addItem(entry.getKey(), entry.getValue());
+            }
+            return withTimeout(builder.build().execute().thenApply(response -> toResponse(request, response)));
         } catch (Exception e) {
-            LOGGER.warn("Unable to close the conn / remove the handle", e);
+            result.completeExceptionally(e);
+            return result;
         }
+    }
 
+    @Override public void subscribe(ConnectionHandle handle, SubscriptionRequest request,
+                                    AsyncMethodCallback<SubscriptionHandle> resultHandler) {
+        subscribe(handle, request).whenComplete((subscriptionHandle, throwable) -> {
+            if (throwable != null) {
+                resultHandler.onError(toPlcException(handle, request, throwable));
+            } else {
+                resultHandler.onComplete(subscriptionHandle);
+            }
+        });
     }
 
+    @Override public void nextEvents(SubscriptionHandle handle, int maxEvents, int maxWaitMs,
+                                     AsyncMethodCallback<SubscriptionEvents> resultHandler) {
+        final Subscription subscription = subscriptions.get(handle.getSubscriptionId());
+        if (subscription == null) {
+            resultHandler.onError(new PlcException(null,
+                "Subscription handle " + handle.getSubscriptionId() + " does not exist"));
+            return;
+        }
+        subscription.queue.poll(maxEvents, Math.min(maxWaitMs, MAX_WAIT_MILLIS), batch ->
+            resultHandler.onComplete(new SubscriptionEvents(batch.getEvents(), batch.getDroppedEvents())));
+    }
 
-    @Override public Response execute(ConnectionHandle handle, Request request) throws TException {
-        LOGGER.debug("Executing " + request);
-        if (request.getFields() == null) {
-            throw new PlcException(
-                connectionStrings.get(handle.getConnectionId()),
-                "No fields given in the request!");
+    @Override public void unsubscribe(SubscriptionHandle handle, AsyncMethodCallback<Void> resultHandler) {
+        LOGGER.debug("Receiving new unsubscribe request for handle {}", handle.getSubscriptionId());
+        final Subscription subscription = subscriptions.remove(handle.getSubscriptionId());
+        if (subscription == null) {
+            LOGGER.warn("Handle for unsubscribe request {} does not exist. Perhaps already unsubscribed?",
+                handle.getSubscriptionId());
+        } else {
+            subscription.cancel();
         }
+        resultHandler.onComplete(null);
+    }
+
+    private CompletableFuture<SubscriptionHandle> subscribe(ConnectionHandle handle, SubscriptionRequest request) {
+        LOGGER.debug("Subscribing {}", request);
+        final CompletableFuture<SubscriptionHandle> result = new CompletableFuture<>();
+        if ((handle == null) || (request == null) || (request.getFields() == null) || request.getFields().isEmpty()) {
+            result.completeExceptionally(new IllegalArgumentException("No fields given in the request!"));
+            return result;
+        }
+        final PlcConnection connection = connections.get(handle.getConnectionId());
+        if (connection == null) {
+            result.completeExceptionally(
+                new IllegalArgumentException("Connection handle " + handle.getConnectionId() + " does not exist"));
+            return result;
+        }
+        if (!(connection instanceof PlcSubscriber) || !connection.getMetadata().canSubscribe()) {
+            result.completeExceptionally(new IllegalArgumentException("The connection does not support subscriptions"));
+            return result;
+        }
+        final PlcSubscriber subscriber = (PlcSubscriber) connection;
         try {
-            final PlcReadRequest.Builder builder = connections.get(handle.getConnectionId()).readRequestBuilder();
-            for (Map.Entry<String, String> entry : request.getFields().entrySet()) {
-                builder.addItem(entry.getKey(), entry.getValue());
+            final PlcSubscriptionRequest.Builder builder = connection.subscriptionRequestBuilder();
+            for (Map.Entry<String, SubscriptionField> entry : request.getFields().entrySet()) {
+                addField(builder, entry.getKey(), entry.getValue());
             }
-            final PlcReadResponse response = builder.build().execute().get(1_000L, TimeUnit.MILLISECONDS);
-
-            final HashMap<String, FieldResponse> resultMap = new HashMap<>();
-            for (String key : request.getFields().keySet()) {
-                final PlcResponseCode responseCode = response.getResponseCode(key);
-
-                final FieldResponse fieldResponse = new FieldResponse(convertResponseCode(responseCode));
-
-                if (PlcResponseCode.OK.equals(responseCode)) {
-                    if (response.isValidBoolean(key)) {
-                        fieldResponse.setBoolValue(response.getBoolean(key));
-                    }
-                    if (response.isValidLong(key)) {
-                        fieldResponse.setLongValue(response.getLong(key));
-                    }
-                    if (response.isValidDouble(key)) {
-                        fieldResponse.setDoubleValue(response.getDouble(key));
-                    }
-                    if (response.isValidString(key)) {
-                        fieldResponse.setStringValue(response.getString(key));
-                    }
+            final EventQueue<SubscriptionEvent> queue = new EventQueue<>(getQueueSize(request),
+                getOverflowPolicy(request), Handler::coalesce, timeoutExecutor);
+            final CompletableFuture<Long> subscribed = subscriber.subscribe(builder.build()).thenApply(response -> {
+                final Collection<PlcSubscriptionHandle> handles = response.getSubscriptionHandles();
+                final PlcConsumerRegistration registration = subscriber.register(
+                    event -> queue.offer(toSubscriptionEvent(event)), handles);
+                final long id = subscriptionCounter.getAndIncrement();
+                subscriptions.put(id, new Subscription(handle.getConnectionId(), connection, handles, registration, queue));
+                return id;
+            });
+            final CompletableFuture<SubscriptionHandle> timed = withTimeout(subscribed).thenApply(SubscriptionHandle::new);
+            // If the subscription only succeeds after the client got the timeout, nobody knows its handle.
+            timed.whenComplete((subscriptionHandle, throwable) -> {
+                if (throwable != null) {
+                    subscribed.thenAccept(id -> {
+                        final Subscription orphan = subscriptions.remove(id);
+                        if (orphan != null) {
+                            orphan.cancel();
+                        }
+                    });
                 }
+            });
+            return timed;
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+    }
 
-                resultMap.put(key, fieldResponse);
+    private static void addField(PlcSubscriptionRequest.Builder builder, String name, SubscriptionField field) {
+        if (field.getSubscriptionType() == null) {
+            throw new IllegalArgumentException("No subscription type given for field " + name);
+        }
+        switch (field.getSubscriptionType()) {
+            case CYCLIC:
+                if (!field.isSetCycleTimeMs() || (field.getCycleTimeMs() <= 0)) {
+                    throw new IllegalArgumentException("No cycle time given for cyclic field " + name);
+                }
+                builder.addCyclicField(name, field.getFieldQuery(), Duration.ofMillis(field.getCycleTimeMs()));
+                break;
+            case CHANGE_OF_STATE:
+                builder.addChangeOfStateField(name, field.getFieldQuery());
+                break;
+            case EVENT:
+                builder.addEventField(name, field.getFieldQuery());
+                break;
+            default:
+                throw new NotImplementedException("This subscription type is not implemented!");
+        }
+    }
+
+    private static int getQueueSize(SubscriptionRequest request) {
+        if (!request.isSetQueueSize()) {
+            return DEFAULT_QUEUE_SIZE;
+        }
+        return Math.max(1, Math.min(request.getQueueSize(), MAX_QUEUE_SIZE));
+    }
+
+    private static EventQueue.OverflowPolicy getOverflowPolicy(SubscriptionRequest request) {
+        if (!request.isSetOverflowPolicy()) {
+            return EventQueue.OverflowPolicy.COALESCE;
+        }
+        switch (request.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                return EventQueue.OverflowPolicy.DROP_OLDEST;
+            case DROP_NEWEST:
+                return EventQueue.OverflowPolicy.DROP_NEWEST;
+            case COALESCE:
+                return EventQueue.OverflowPolicy.COALESCE;
+            default:
+                throw new NotImplementedException("This overflow policy is not implemented!");
+        }
+    }
+
+    private SubscriptionEvent toSubscriptionEvent(PlcSubscriptionEvent event) {
+        final long timestamp = event.getTimestamp() != null ? event.getTimestamp().toEpochMilli() : System.currentTimeMillis();
+        return new SubscriptionEvent(timestamp, toFieldResponses(event.getFieldNames(), event));
+    }
+
+    /**
+     * Keeps the latest value of every field of both events.
+     */
+    private static SubscriptionEvent coalesce(SubscriptionEvent older, SubscriptionEvent newer) {
+        final Map<String, FieldResponse> fields = new HashMap<>(older.getFields());
+        fields.putAll(newer.getFields());
+        return new SubscriptionEvent(newer.getTimestamp(), fields);
+    }
+
+    private <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future) {
+        if (future.isDone()) {
+            return future;
+        }
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final ScheduledFuture<?> timeout = timeoutExecutor.schedule(() -> result.completeExceptionally(
+            new TimeoutException("Request timed out after " + timeoutMillis + " ms")),
+            timeoutMillis, TimeUnit.MILLISECONDS);
+        future.whenComplete((value, throwable) -> {
+            timeout.cancel(false);
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else {
+                result.complete(value);
             }
-            return new Response(resultMap);
-        } catch (Exception e) {
-            LOGGER.warn("Exception during execution of request '" + request + "' for handle " + handle.getConnectionId(), e);
-            throw new PlcException(
-                connectionStrings.get(handle.getConnectionId()),
-                ExceptionUtils.getStackTrace(e));
+        });
+        return result;
+    }
+
+    private Response toResponse(Request request, PlcReadResponse response) {
+        return new Response(toFieldResponses(request.getFields().keySet(), response));
+    }
+
+    private Map<String, FieldResponse> toFieldResponses(Collection<String> keys, PlcReadResponse response) {
+        final HashMap<String, FieldResponse> resultMap = new HashMap<>();
+        for (String key : keys) {
+            final PlcResponseCode responseCode = response.getResponseCode(key);
+
+            final FieldResponse fieldResponse = new FieldResponse(convertResponseCode(responseCode));
+
+            if (PlcResponseCode.OK.equals(responseCode)) {
+                if (response.isValidBoolean(key)) {
+                    fieldResponse.setBoolValue(response.getBoolean(key));
+                }
+                if (response.isValidLong(key)) {
+                    fieldResponse.setLongValue(response.getLong(key));
+                }
+                if (response.isValidDouble(key)) {
+                    fieldResponse.setDoubleValue(response.getDouble(key));
+                }
+                if (response.isValidString(key)) {
+                    fieldResponse.setStringValue(response.getString(key));
+                }
+            }
+
+            resultMap.put(key, fieldResponse);
         }
+        return resultMap;
+    }
+
+    private PlcException toPlcException(ConnectionHandle handle, Object request, Throwable throwable) {
+        final Throwable cause = (throwable instanceof CompletionException) && (throwable.getCause() != null)
+            ? throwable.getCause() : throwable;
+        final String connectionString = handle != null ? connectionStrings.get(handle.getConnectionId()) : null;
+        LOGGER.warn("Exception during execution of request '" + request + "' for handle "
+            + (handle != null ? handle.getConnectionId() : null), cause);
+        return new PlcException(connectionString, ExceptionUtils.getStackTrace(cause));
     }
 
     private RESPONSE_CODE convertResponseCode(PlcResponseCode responseCode) {
@@ -157,4 +428,37 @@ public class Handler implements InteropServer.Iface {
         }
     }
 
+    private static class Subscription {
+
+        private final long connectionId;
+        private final PlcConnection connection;
+        private final Collection<PlcSubscriptionHandle> handles;
+        private final PlcConsumerRegistration registration;
+        private final EventQueue<SubscriptionEvent> queue;
+
+        private Subscription(long connectionId, PlcConnection connection, Collection<PlcSubscriptionHandle> handles,
+                             PlcConsumerRegistration registration, EventQueue<SubscriptionEvent> queue) {
+            this.connectionId = connectionId;
+            this.connection = connection;
+            this.handles = handles;
+            this.registration = registration;
+            this.queue = queue;
+        }
+
+        private void cancel() {
+            queue.close();
+            try {
+                registration.unregister();
+                connection.unsubscriptionRequestBuilder().addHandles(handles).build().execute()
+                    .whenComplete((response, throwable) -> {
+                        if (throwable != null) {
+                            LOGGER.warn("Unable to unsubscribe", throwable);
+                        }
+                    });
+            } catch (Exception e) {
+                LOGGER.warn("Unable to unsubscribe", e);
+            }
+        }
+    }
+
 }
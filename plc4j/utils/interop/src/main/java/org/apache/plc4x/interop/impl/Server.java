@@ -32,15 +32,64 @@ import org.apache.plc4x.java.base.messages.items.DefaultLongFieldItem;
 import org.apache.plc4x.java.mock.MockDevice;
 import org.apache.plc4x.java.mock.PlcMockConnection;
 import org.apache.thrift.server.TServer;
-import org.apache.thrift.server.TSimpleServer;
-import org.apache.thrift.transport.TServerSocket;
-import org.apache.thrift.transport.TServerTransport;
+import org.apache.thrift.server.TThreadedSelectorServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
+import org.apache.thrift.transport.TTransportException;
 
 import java.util.Collection;
 import java.util.function.Consumer;
 
+/**
+ * Thrift server for the interop clients. Selector threads do all the network IO and hand the complete frames to a
+ * small pool of worker threads, which only dispatch the calls to the {@link Handler}. As the handler completes the
+ * calls asynchronously, a slow PLC doesn't block any of the other clients.
+ * <p>
+ * The selector threads need to know where a call ends, so clients have to use a framed transport
+ * ({@code TFramedTransport} in every language). Clients still using the buffered transport of the former
+ * {@code TSimpleServer} can't talk to this server: their calls are rejected as invalid frames and the connection is
+ * closed.
+ */
 public class Server {
 
+    public static final int DEFAULT_PORT = 9090;
+
+    private static final int SELECTOR_THREADS = 2;
+    private static final int WORKER_THREADS = 4;
+
+    private final TNonblockingServerSocket serverTransport;
+    private final TServer server;
+
+    public Server(Handler handler, int port) throws TTransportException {
+        serverTransport = new TNonblockingServerSocket(port);
+        server = new TThreadedSelectorServer(new TThreadedSelectorServer.Args(serverTransport)
+            .processor(new InteropServer.AsyncProcessor<>(handler))
+            .selectorThreads(SELECTOR_THREADS)
+            .workerThreads(WORKER_THREADS));
+    }
+
+    /**
+     * @return the port the server listens on, useful if it was started on port 0.
+     */
+    public int getPort() {
+        return serverTransport.getPort();
+    }
+
+    /**
+     * Serves the clients until {@link #stop()} is called.
+     */
+    public void serve() {
+        server.serve();
+    }
+
+    public boolean isServing() {
+        return server.isServing();
+    }
+
+    public void stop() {
+        server.stop();
+        serverTransport.close();
+    }
+
     public static void main(String[] args) throws PlcConnectionException {
         final PlcDriverManager driverManager = new PlcDriverManager();
 
@@ -50,20 +99,18 @@ public class Server {
         mockConnection.setDevice(new MyMockDevice());
 
         final Handler handler = new Handler(driverManager);
-        final InteropServer.Processor<Handler> processor = new InteropServer.Processor<>(handler);
 
         try {
-            TServerTransport serverTransport = new TServerSocket(9090);
-            TServer server = new TSimpleServer(new TServer.Args(serverTransport).processor(processor));
+            Server server = new Server(handler, DEFAULT_PORT);
 
-            System.out.println("Starting the simple server...");
+            System.out.println("Starting the threaded selector server...");
             server.serve();
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
-    private static class MyMockDevice implements MockDevice {
+    static class MyMockDevice implements MockDevice {
         @Override public Pair<PlcResponseCode, BaseDefaultFieldItem> read(String fieldQuery) {
             return Pair.of(PlcResponseCode.OK, new DefaultLongFieldItem(100L));
         }
@@ -0,0 +1,153 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.interop.impl;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+class EventQueueTest implements WithAssertions {
+
+    private final ScheduledExecutorService timeoutExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void tearDown() {
+        timeoutExecutor.shutdownNow();
+    }
+
+    @Test
+    void queuedEventsAreReturnedInBatches() throws Exception {
+        EventQueue<Integer> SUT = queue(10, EventQueue.OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 5; i++) {
+            SUT.offer(i);
+        }
+
+        EventQueue.Batch<Integer> first = poll(SUT, 3, 1_000L);
+        EventQueue.Batch<Integer> second = poll(SUT, 0, 1_000L);
+
+        assertThat(first.getEvents()).containsExactly(0, 1, 2);
+        assertThat(second.getEvents()).containsExactly(3, 4);
+        assertThat(SUT.size()).isEqualTo(0);
+    }
+
+    @Test
+    void dropOldestKeepsTheNewestEvents() throws Exception {
+        EventQueue<Integer> SUT = queue(3, EventQueue.OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 5; i++) {
+            SUT.offer(i);
+        }
+
+        EventQueue.Batch<Integer> batch = poll(SUT, 0, 0L);
+
+        assertThat(batch.getEvents()).containsExactly(2, 3, 4);
+        assertThat(batch.getDroppedEvents()).isEqualTo(2);
+        // The counter is reset with every batch.
+        assertThat(poll(SUT, 0, 0L).getDroppedEvents()).isEqualTo(0);
+    }
+
+    @Test
+    void dropNewestKeepsTheOldestEvents() throws Exception {
+        EventQueue<Integer> SUT = queue(3, EventQueue.OverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 5; i++) {
+            SUT.offer(i);
+        }
+
+        EventQueue.Batch<Integer> batch = poll(SUT, 0, 0L);
+
+        assertThat(batch.getEvents()).containsExactly(0, 1, 2);
+        assertThat(batch.getDroppedEvents()).isEqualTo(2);
+    }
+
+    @Test
+    void coalesceMergesIntoTheNewestEvent() throws Exception {
+        EventQueue<Integer> SUT = queue(3, EventQueue.OverflowPolicy.COALESCE);
+        for (int i = 0; i < 5; i++) {
+            SUT.offer(i);
+        }
+
+        EventQueue.Batch<Integer> batch = poll(SUT, 0, 0L);
+
+        // The coalescer of this test sums up the events.
+        assertThat(batch.getEvents()).containsExactly(0, 1, 2 + 3 + 4);
+        assertThat(batch.getDroppedEvents()).isEqualTo(2);
+    }
+
+    @Test
+    void pollWaitsForTheNextEvent() throws Exception {
+        EventQueue<Integer> SUT = queue(10, EventQueue.OverflowPolicy.DROP_OLDEST);
+        CompletableFuture<EventQueue.Batch<Integer>> future = new CompletableFuture<>();
+
+        SUT.poll(0, 10_000L, future::complete);
+        assertThat(future).isNotDone();
+        SUT.offer(42);
+
+        assertThat(future.get(1, TimeUnit.SECONDS).getEvents()).containsExactly(42);
+    }
+
+    @Test
+    void pollReturnsAnEmptyBatchWhenTheTimeIsUp() throws Exception {
+        EventQueue<Integer> SUT = queue(10, EventQueue.OverflowPolicy.DROP_OLDEST);
+
+        EventQueue.Batch<Integer> batch = poll(SUT, 0, 50L);
+
+        assertThat(batch.getEvents()).isEmpty();
+    }
+
+    @Test
+    void aNewPollCompletesTheWaitingOne() throws Exception {
+        EventQueue<Integer> SUT = queue(10, EventQueue.OverflowPolicy.DROP_OLDEST);
+        CompletableFuture<EventQueue.Batch<Integer>> first = new CompletableFuture<>();
+        CompletableFuture<EventQueue.Batch<Integer>> second = new CompletableFuture<>();
+
+        SUT.poll(0, 10_000L, first::complete);
+        SUT.poll(0, 10_000L, second::complete);
+        SUT.offer(1);
+
+        assertThat(first.get(1, TimeUnit.SECONDS).getEvents()).isEmpty();
+        assertThat(second.get(1, TimeUnit.SECONDS).getEvents()).containsExactly(1);
+    }
+
+    @Test
+    void closeCompletesTheWaitingPollAndIgnoresFurtherEvents() throws Exception {
+        EventQueue<Integer> SUT = queue(10, EventQueue.OverflowPolicy.DROP_OLDEST);
+        CompletableFuture<EventQueue.Batch<Integer>> future = new CompletableFuture<>();
+        SUT.poll(0, 10_000L, future::complete);
+
+        SUT.close();
+        SUT.offer(1);
+
+        assertThat(future.get(1, TimeUnit.SECONDS).getEvents()).isEmpty();
+        assertThat(SUT.size()).isEqualTo(0);
+    }
+
+    private EventQueue<Integer> queue(int capacity, EventQueue.OverflowPolicy overflowPolicy) {
+        return new EventQueue<>(capacity, overflowPolicy, Integer::sum, timeoutExecutor);
+    }
+
+    private static EventQueue.Batch<Integer> poll(EventQueue<Integer> queue, int maxEvents, long maxWaitMillis)
+        throws Exception {
+        CompletableFuture<EventQueue.Batch<Integer>> future = new CompletableFuture<>();
+        queue.poll(maxEvents, maxWaitMillis, future::complete);
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.interop.impl;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.plc4x.interop.*;
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionEvent;
+import org.apache.plc4x.java.api.model.PlcConsumerRegistration;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.DefaultPlcSubscriptionEvent;
+import org.apache.plc4x.java.base.messages.items.DefaultLongFieldItem;
+import org.apache.plc4x.java.base.model.InternalPlcSubscriptionHandle;
+import org.apache.plc4x.java.mock.MockDevice;
+import org.apache.plc4x.java.mock.PlcMockConnection;
+import org.apache.thrift.async.AsyncMethodCallback;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HandlerTest implements WithAssertions {
+
+    // The mock driver shares its connections by name, so every test gets its own one.
+    private static final AtomicInteger DEVICE_COUNTER = new AtomicInteger();
+
+    @Mock
+    private MockDevice device;
+
+    @Mock
+    private InternalPlcSubscriptionHandle plcSubscriptionHandle;
+
+    @Mock
+    private PlcConsumerRegistration registration;
+
+    private Handler SUT;
+
+    private ConnectionHandle connectionHandle;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        PlcDriverManager driverManager = new PlcDriverManager();
+        String connectionString = "mock:handler-test-" + DEVICE_COUNTER.incrementAndGet();
+        ((PlcMockConnection) driverManager.getConnection(connectionString)).setDevice(device);
+        SUT = new Handler(driverManager);
+        connectionHandle = call(callback -> SUT.connect(connectionString, callback));
+    }
+
+    @Test
+    void subscriptionEventsAreFetchedInBatches() throws Exception {
+        SubscriptionHandle subscriptionHandle = subscribe(new SubscriptionRequest(
+            Collections.singletonMap("value", new SubscriptionField("query", SUBSCRIPTION_TYPE.CHANGE_OF_STATE))));
+        Consumer<PlcSubscriptionEvent> registeredConsumer = registeredConsumer();
+
+        for (long value = 1; value <= 3; value++) {
+            registeredConsumer.accept(event(value));
+        }
+
+        SubscriptionEvents first = call(callback -> SUT.nextEvents(subscriptionHandle, 2, 0, callback));
+        SubscriptionEvents second = call(callback -> SUT.nextEvents(subscriptionHandle, 0, 0, callback));
+
+        assertThat(first.getEvents()).extracting(event -> event.getFields().get("value").getLongValue())
+            .containsExactly(1L, 2L);
+        assertThat(second.getEvents()).extracting(event -> event.getFields().get("value").getLongValue())
+            .containsExactly(3L);
+        assertThat(second.getEvents().get(0).getFields().get("value").getResponseCode()).isEqualTo(RESPONSE_CODE.OK);
+        assertThat(second.getDroppedEvents()).isEqualTo(0);
+    }
+
+    @Test
+    void nextEventsWaitsForTheNextEvent() throws Exception {
+        SubscriptionHandle subscriptionHandle = subscribe(new SubscriptionRequest(
+            Collections.singletonMap("value", new SubscriptionField("query", SUBSCRIPTION_TYPE.CHANGE_OF_STATE))));
+        Consumer<PlcSubscriptionEvent> registeredConsumer = registeredConsumer();
+        CompletableFuture<SubscriptionEvents> events = new CompletableFuture<>();
+
+        SUT.nextEvents(subscriptionHandle, 0, 10_000, callback(events));
+        assertThat(events).isNotDone();
+        registeredConsumer.accept(event(42L));
+
+        assertThat(events.get(5, TimeUnit.SECONDS).getEvents())
+            .extracting(event -> event.getFields().get("value").getLongValue())
+            .containsExactly(42L);
+    }
+
+    @Test
+    void fullQueueCoalescesEventsByDefault() throws Exception {
+        SubscriptionRequest request = new SubscriptionRequest(
+            Collections.singletonMap("value", new SubscriptionField("query", SUBSCRIPTION_TYPE.CHANGE_OF_STATE)));
+        request.setQueueSize(2);
+        SubscriptionHandle subscriptionHandle = subscribe(request);
+        Consumer<PlcSubscriptionEvent> registeredConsumer = registeredConsumer();
+
+        for (long value = 1; value <= 5; value++) {
+            registeredConsumer.accept(event(value));
+        }
+
+        SubscriptionEvents events = call(callback -> SUT.nextEvents(subscriptionHandle, 0, 0, callback));
+        assertThat(events.getEvents()).extracting(event -> event.getFields().get("value").getLongValue())
+            .containsExactly(1L, 5L);
+        assertThat(events.getDroppedEvents()).isEqualTo(3);
+    }
+
+    @Test
+    void unsubscribeCancelsTheSubscription() throws Exception {
+        SubscriptionHandle subscriptionHandle = subscribe(new SubscriptionRequest(
+            Collections.singletonMap("value", new SubscriptionField("query", SUBSCRIPTION_TYPE.CHANGE_OF_STATE))));
+
+        call((AsyncMethodCallback<Void> callback) -> SUT.unsubscribe(subscriptionHandle, callback));
+
+        verify(registration).unregister();
+        verify(device, timeout(5_000)).unsubscribe();
+        assertThatThrownBy(() -> HandlerTest.<SubscriptionEvents>call(callback -> SUT.nextEvents(subscriptionHandle, 0, 0, callback)))
+            .hasCauseInstanceOf(PlcException.class);
+    }
+
+    @Test
+    void closingTheConnectionCancelsItsSubscriptions() throws Exception {
+        SubscriptionHandle subscriptionHandle = subscribe(new SubscriptionRequest(
+            Collections.singletonMap("value", new SubscriptionField("query", SUBSCRIPTION_TYPE.CHANGE_OF_STATE))));
+
+        call((AsyncMethodCallback<Void> callback) -> SUT.close(connectionHandle, callback));
+
+        verify(registration).unregister();
+        assertThatThrownBy(() -> HandlerTest.<SubscriptionEvents>call(callback -> SUT.nextEvents(subscriptionHandle, 0, 0, callback)))
+            .hasCauseInstanceOf(PlcException.class);
+    }
+
+    @Test
+    void cyclicFieldWithoutCycleTimeIsRejected() {
+        SubscriptionRequest request = new SubscriptionRequest(
+            Collections.singletonMap("value", new SubscriptionField("query", SUBSCRIPTION_TYPE.CYCLIC)));
+
+        assertThatThrownBy(() -> HandlerTest.<SubscriptionHandle>call(callback -> SUT.subscribe(connectionHandle, request, callback)))
+            .hasCauseInstanceOf(PlcException.class);
+        verifyZeroInteractions(device);
+    }
+
+    private SubscriptionHandle subscribe(SubscriptionRequest request) throws Exception {
+        when(device.subscribe("query")).thenReturn(Pair.of(PlcResponseCode.OK, plcSubscriptionHandle));
+        when(device.register(any(), any())).thenReturn(registration);
+        return call(callback -> SUT.subscribe(connectionHandle, request, callback));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<PlcSubscriptionEvent> registeredConsumer() {
+        ArgumentCaptor<Consumer<PlcSubscriptionEvent>> consumer =
+            ArgumentCaptor.forClass(Consumer.class);
+        verify(device).register(consumer.capture(), any());
+        return consumer.getValue();
+    }
+
+    private static DefaultPlcSubscriptionEvent event(long value) {
+        return new DefaultPlcSubscriptionEvent(Instant.now(),
+            Collections.singletonMap("value", Pair.of(PlcResponseCode.OK, new DefaultLongFieldItem(value))));
+    }
+
+    private static <T> T call(Consumer<AsyncMethodCallback<T>> call) throws Exception {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        call.accept(callback(result));
+        return result.get(5, TimeUnit.SECONDS);
+    }
+
+    private static <T> AsyncMethodCallback<T> callback(CompletableFuture<T> future) {
+        return new AsyncMethodCallback<T>() {
+            @Override
+            public void onComplete(T response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onError(Exception exception) {
+                future.completeExceptionally(exception);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.interop.impl;
+
+import org.apache.plc4x.interop.*;
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the interop server with many concurrent local Thrift clients, each with its own
+ * connection, reading from the simulated driver.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(32)
+@Fork(1)
+public class InteropServerBenchmark {
+
+    private static final String CONNECTION_STRING = "test:benchmark";
+
+    private static final int BATCH_SIZE = 10;
+
+    @State(Scope.Benchmark)
+    public static class ServerState {
+
+        Server server;
+
+        // The first thread done with the benchmark tears down the server, while the others may still close their
+        // clients, so it has to wait for them.
+        private int openClients;
+
+        @Setup(Level.Trial)
+        public void doSetup() throws Exception {
+            server = new Server(new Handler(new PlcDriverManager()), 0);
+            Thread serverThread = new Thread(server::serve, "interop-server");
+            serverThread.setDaemon(true);
+            serverThread.start();
+            while (!server.isServing()) {
+                Thread.sleep(10);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public synchronized void doTearDown() throws InterruptedException {
+            while (openClients > 0) {
+                wait();
+            }
+            server.stop();
+        }
+
+        synchronized void clientOpened() {
+            openClients++;
+        }
+
+        synchronized void clientClosed() {
+            openClients--;
+            notifyAll();
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class ClientState {
+
+        ServerState serverState;
+        TTransport transport;
+        InteropServer.Client client;
+        ConnectionHandle handle;
+        Request request;
+        List<BatchRequest> batchRequests;
+
+        @Setup(Level.Trial)
+        public void doSetup(ServerState serverState) throws Exception {
+            this.serverState = serverState;
+            serverState.clientOpened();
+            transport = new TFramedTransport(new TSocket("localhost", serverState.server.getPort()));
+            transport.open();
+            client = new InteropServer.Client(new TBinaryProtocol(transport));
+            handle = client.connect(CONNECTION_STRING);
+            request = new Request(Collections.singletonMap("value", "RANDOM/foo:INTEGER"));
+            batchRequests = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batchRequests.add(new BatchRequest(handle, request));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() throws Exception {
+            try {
+                client.close(handle);
+                transport.close();
+            } finally {
+                serverState.clientClosed();
+            }
+        }
+
+    }
+
+    @Benchmark
+    public Response execute(ClientState state) throws Exception {
+        return state.client.execute(state.handle, state.request);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<BatchResponse> executeMany(ClientState state) throws Exception {
+        return state.client.executeMany(state.batchRequests);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+            .include(InteropServerBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.opm;
+
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The connections of a {@link PlcEntityManager}, one per PLC address. They are shared by all entities of the manager
+ * and reused for all their requests, instead of opening a new connection for every request. A connection which got
+ * lost is replaced by a new one with the next request.
+ * <p>
+ * This class is only public as the entity proxies need to access it.
+ */
+public final class ConnectionCache implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionCache.class);
+
+    private final PlcDriverManager driverManager;
+
+    private final Map<String, CachedConnection> connections = new HashMap<>();
+
+    private boolean closed;
+
+    ConnectionCache(PlcDriverManager driverManager) {
+        this.driverManager = driverManager;
+    }
+
+    /**
+     * @param address connection string of the PLC.
+     * @return an open connection to the PLC, which must not be closed by the caller.
+     * @throws PlcConnectionException if no connection can be established.
+     */
+    PlcConnection getConnection(String address) throws PlcConnectionException {
+        // Only callers for the same PLC wait for each other while a connection is established.
+        return getCachedConnection(address).get(address);
+    }
+
+    /**
+     * Like {@link #getConnection(String)}, but a connection which has to be established first is established with
+     * the given executor, so connections to several PLCs can be established in parallel.
+     *
+     * @param address  connection string of the PLC.
+     * @param executor executor to establish the connection with.
+     * @return a future of an open connection to the PLC, which must not be closed by the caller.
+     */
+    CompletableFuture<PlcConnection> getConnectionAsync(String address, Executor executor) {
+        CompletableFuture<PlcConnection> future = new CompletableFuture<>();
+        try {
+            CachedConnection cachedConnection = getCachedConnection(address);
+            PlcConnection connection = cachedConnection.getIfConnected();
+            if (connection != null) {
+                future.complete(connection);
+                return future;
+            }
+            executor.execute(() -> {
+                try {
+                    future.complete(cachedConnection.get(address));
+                } catch (PlcConnectionException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (PlcConnectionException e) {
+            future.completeExceptionally(e);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new PlcConnectionException("The entity manager has been closed", e));
+        }
+        return future;
+    }
+
+    private CachedConnection getCachedConnection(String address) throws PlcConnectionException {
+        synchronized (connections) {
+            if (closed) {
+                throw new PlcConnectionException("The entity manager has been closed");
+            }
+            return connections.computeIfAbsent(address, key -> new CachedConnection());
+        }
+    }
+
+    /**
+     * Closes all connections. No new connections are opened afterwards.
+     */
+    @Override
+    public void close() {
+        List<CachedConnection> toClose;
+        synchronized (connections) {
+            closed = true;
+            toClose = new ArrayList<>(connections.values());
+            connections.clear();
+        }
+        toClose.forEach(CachedConnection::close);
+    }
+
+    private final class CachedConnection {
+
+        private volatile PlcConnection connection;
+
+        private synchronized PlcConnection get(String address) throws PlcConnectionException {
+            if ((connection == null) || !connection.isConnected()) {
+                close();
+                connection = driverManager.getConnection(address);
+            }
+            return connection;
+        }
+
+        private PlcConnection getIfConnected() {
+            PlcConnection current = connection;
+            return ((current != null) && current.isConnected()) ? current : null;
+        }
+
+        private synchronized void close() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.close();
+            } catch (Exception e) {
+                LOGGER.warn("Unable to close connection", e);
+            }
+            connection = null;
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.opm;
+
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reflection data of an entity class. It is collected once per class and then shared by all instances, so the
+ * interceptor doesn't have to look up fields and annotations on every call.
+ */
+final class EntityMetadata {
+
+    private static final ConcurrentMap<Class<?>, EntityMetadata> CACHE = new ConcurrentHashMap<>();
+
+    private final List<FieldMetadata> plcFields;
+
+    private final Map<String, FieldMetadata> fieldsByName;
+
+    private final ConcurrentMap<Method, FieldMetadata> fieldsByAccessor = new ConcurrentHashMap<>();
+
+    private EntityMetadata(Class<?> entityClass) {
+        List<FieldMetadata> fields = new ArrayList<>();
+        Map<String, FieldMetadata> byName = new HashMap<>();
+        for (Field field : entityClass.getDeclaredFields()) {
+            FieldMetadata fieldMetadata = new FieldMetadata(field);
+            byName.put(field.getName(), fieldMetadata);
+            if (fieldMetadata.isPlcField()) {
+                fields.add(fieldMetadata);
+            }
+        }
+        this.plcFields = Collections.unmodifiableList(fields);
+        this.fieldsByName = byName;
+    }
+
+    static EntityMetadata of(Class<?> entityClass) {
+        return CACHE.computeIfAbsent(entityClass, EntityMetadata::new);
+    }
+
+    /**
+     * @return all fields annotated with {@link PlcField}, in declaration order.
+     */
+    List<FieldMetadata> getPlcFields() {
+        return plcFields;
+    }
+
+    /**
+     * Finds the field accessed by a getter or setter, i.e. {@code getFoo()}, {@code isFoo()} or {@code setFoo(...)}
+     * access the field {@code foo}.
+     *
+     * @param accessor     the getter or setter.
+     * @param prefixLength the length of the prefix of the method name.
+     * @return the accessed field.
+     * @throws OPMException if the class has no such field.
+     */
+    FieldMetadata getAccessedField(Method accessor, int prefixLength) throws OPMException {
+        FieldMetadata fieldMetadata = fieldsByAccessor.get(accessor);
+        if (fieldMetadata != null) {
+            return fieldMetadata;
+        }
+        String s = accessor.getName().substring(prefixLength);
+        // First char to lower
+        String variable = s.substring(0, 1).toLowerCase().concat(s.substring(1));
+        fieldMetadata = fieldsByName.get(variable);
+        if (fieldMetadata == null) {
+            throw new OPMException("Unable to identify field with name '" + variable + "' for call to '" + accessor.getName() + "'",
+                new NoSuchFieldException(variable));
+        }
+        fieldsByAccessor.put(accessor, fieldMetadata);
+        return fieldMetadata;
+    }
+
+    static final class FieldMetadata {
+
+        private final Field field;
+
+        private final String fqn;
+
+        private final PlcField annotation;
+
+        private FieldMetadata(Field field) {
+            field.setAccessible(true);
+            this.field = field;
+            this.fqn = field.getDeclaringClass().getName() + "." + field.getName();
+            this.annotation = field.getAnnotation(PlcField.class);
+        }
+
+        boolean isPlcField() {
+            return annotation != null;
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        Class<?> getType() {
+            return field.getType();
+        }
+
+        /**
+         * @return the fully qualified name of the field, which is used as name in the requests.
+         */
+        String getFqn() {
+            return fqn;
+        }
+
+        /**
+         * @return the cache duration of the field, a negative value if it is fetched on every access.
+         */
+        long getCacheDurationMillis() {
+            return annotation.cacheDurationMillis();
+        }
+
+        /**
+         * @param registry registry to resolve aliases with.
+         * @return the PLC address of the field.
+         */
+        String getAddress(AliasRegistry registry) {
+            return OpmUtils.getOrResolveAddress(registry, annotation.value());
+        }
+
+        Object get(Object entity) {
+            try {
+                return field.get(entity);
+            } catch (IllegalAccessException e) {
+                throw new PlcRuntimeException(e);
+            }
+        }
+
+        void set(Object entity, Object value) {
+            try {
+                field.set(entity, value);
+            } catch (IllegalAccessException e) {
+                throw new PlcRuntimeException(e);
+            }
+        }
+    }
+
+}
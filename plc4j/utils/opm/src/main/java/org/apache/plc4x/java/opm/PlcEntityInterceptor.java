@@ -23,7 +23,6 @@ import net.bytebuddy.implementation.bind.annotation.*;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.SystemConfiguration;
 import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.PlcConnection;
@@ -31,6 +30,7 @@ import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.messages.*;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.opm.EntityMetadata.FieldMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,17 +43,19 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * Interceptor for dynamic functionality of @{@link PlcEntity}.
- * Basically, its {@link #interceptGetter(Object, Method, Callable, String, PlcDriverManager, AliasRegistry, Map, Map)} method is called for each
- * invocation of a method on a connected @{@link PlcEntity} and does then the dynamic part.
+ * Basically, its {@link #interceptGetter(Object, Method, Callable, String, PlcDriverManager, ConnectionCache, AliasRegistry, Map, Map)}
+ * method is called for each invocation of a method on a connected @{@link PlcEntity} and does then the dynamic part.
  * <p>
  * For those not too familiar with the JVM's dispatch on can roughly imagine the intercept method being a "regular"
  * method on the "proxied" entity and all parameters of the intercept method could then be access to local fields.
@@ -66,7 +68,7 @@ public class PlcEntityInterceptor {
     private static final Logger LOGGER = LoggerFactory.getLogger(PlcEntityInterceptor.class);
 
     private static final Configuration CONF = new SystemConfiguration();
-    private static final long READ_TIMEOUT = CONF.getLong("org.apache.plc4x.java.opm.entity_manager.read_timeout", 1_000);
+    static final long READ_TIMEOUT = CONF.getLong("org.apache.plc4x.java.opm.entity_manager.read_timeout", 1_000);
 
     private PlcEntityInterceptor() {
         throw new UnsupportedOperationException("This class is not to be instantiated");
@@ -75,9 +77,9 @@ public class PlcEntityInterceptor {
     /**
      * Basic Intersector for all methods on the proxy object.
      * It checks if the invoked method is a getter and if so, only retrieves the requested field, forwarding to
-     * the {@link #fetchAndSetValueForGetter(Object, Method, PlcDriverManager, String, AliasRegistry, Map)} method.
+     * the {@link #fetchAndSetValueForGetter(Object, Method, int, ConnectionCache, String, AliasRegistry, Map)} method.
      * <p>
-     * If the field is no getter, then all fields are refreshed by calling {@link #refetchAllFields(Object, PlcDriverManager, String, AliasRegistry, Map)}
+     * If the field is no getter, then all fields are refreshed by calling {@link #refetchAllFields(Object, ConnectionCache, String, AliasRegistry, Map)}
      * and then, the method is invoked.
      *
      * @param proxy         Object to intercept
@@ -85,6 +87,7 @@ public class PlcEntityInterceptor {
      * @param callable      Callable to call the method after fetching the values
      * @param address       Address of the plc (injected from private field)
      * @param driverManager DriverManager instance to use (injected from private field)
+     * @param connections   Connections of the entity manager (injected from private field)
      * @return possible result of the original methods invocation
      * @throws OPMException Problems with plc / proxying
      */
@@ -93,6 +96,7 @@ public class PlcEntityInterceptor {
     public static Object interceptGetter(@This Object proxy, @Origin Method method, @SuperCall Callable<?> callable,
                                          @FieldValue(PlcEntityManager.PLC_ADDRESS_FIELD_NAME) String address,
                                          @FieldValue(PlcEntityManager.DRIVER_MANAGER_FIELD_NAME) PlcDriverManager driverManager,
+                                         @FieldValue(PlcEntityManager.CONNECTION_CACHE) ConnectionCache connections,
                                          @FieldValue(PlcEntityManager.ALIAS_REGISTRY) AliasRegistry registry,
                                          @FieldValue(PlcEntityManager.LAST_FETCHED) Map<String, Instant> lastFetched,
                                          @FieldValue(PlcEntityManager.LAST_WRITTEN) Map<String, Instant> lastWritten) throws OPMException {
@@ -116,7 +120,7 @@ public class PlcEntityInterceptor {
             LOGGER.trace("Invoked method {} is getter, trying to find annotated field and return requested value",
                 method.getName());
 
-            fetchAndSetValueForGetter(proxy, method, driverManager, address, registry, lastFetched);
+            fetchAndSetValueForGetter(proxy, method, 3, connections, address, registry, lastFetched);
             try {
                 return callable.call();
             } catch (Exception e) {
@@ -131,7 +135,7 @@ public class PlcEntityInterceptor {
             // Fetch single value
             LOGGER.trace("Invoked method {} is boolean flag method, trying to find annotated field and return requested value",
                 method.getName());
-            fetchAndSetValueForIsGetter(proxy, method, driverManager, address, registry, lastFetched);
+            fetchAndSetValueForGetter(proxy, method, 2, connections, address, registry, lastFetched);
             try {
                 return callable.call();
             } catch (Exception e) {
@@ -142,10 +146,10 @@ public class PlcEntityInterceptor {
         // Fetch all values, than invoke method
         try {
             LOGGER.trace("Invoked method is no getter, refetch all fields and invoke method {} then", method.getName());
-            refetchAllFields(proxy, driverManager, address, registry, lastFetched);
+            refetchAllFields(proxy, connections, address, registry, lastFetched);
             Object call = callable.call();
             // We write back
-            writeAllFields(proxy, driverManager, address, registry, lastWritten);
+            writeAllFields(proxy, connections, address, registry, lastWritten);
             return call;
         } catch (Exception e) {
             throw new OPMException("Unable to forward invocation " + method.getName() + " on connected PlcEntity", e);
@@ -157,6 +161,7 @@ public class PlcEntityInterceptor {
     public static Object interceptSetter(@This Object proxy, @Origin Method method, @SuperCall Callable<?> callable,
                                          @FieldValue(PlcEntityManager.PLC_ADDRESS_FIELD_NAME) String address,
                                          @FieldValue(PlcEntityManager.DRIVER_MANAGER_FIELD_NAME) PlcDriverManager driverManager,
+                                         @FieldValue(PlcEntityManager.CONNECTION_CACHE) ConnectionCache connections,
                                          @FieldValue(PlcEntityManager.ALIAS_REGISTRY) AliasRegistry registry,
                                          @FieldValue(PlcEntityManager.LAST_FETCHED) Map<String, Instant> lastFetched,
                                          @Argument(0) Object argument) throws OPMException {
@@ -180,13 +185,13 @@ public class PlcEntityInterceptor {
             LOGGER.trace("Invoked method {} is setter, trying to find annotated field and return requested value",
                 method.getName());
 
-            return setValueForSetter(proxy, method, callable, driverManager, address, registry, lastFetched, argument);
+            return setValueForSetter(proxy, method, callable, connections, address, registry, lastFetched, argument);
         }
 
         // Fetch all values, than invoke method
         try {
             LOGGER.trace("Invoked method is no getter, refetch all fields and invoke method {} then", method.getName());
-            refetchAllFields(proxy, driverManager, address, registry, lastFetched);
+            refetchAllFields(proxy, connections, address, registry, lastFetched);
             return callable.call();
         } catch (Exception e) {
             throw new OPMException("Unable to forward invocation " + method.getName() + " on connected PlcEntity", e);
@@ -196,14 +201,13 @@ public class PlcEntityInterceptor {
     /**
      * Renews all values of all Fields that are annotated with {@link PlcEntity}.
      *
-     * @param proxy         Object to refresh the fields on.
-     * @param driverManager Driver Manager to use
-     * @param registry      AliasRegistry to use
+     * @param proxy       Object to refresh the fields on.
+     * @param connections Connections to use
+     * @param registry    AliasRegistry to use
      * @param lastFetched
      * @throws OPMException on various errors.
      */
-    @SuppressWarnings("squid:S1141") // Nested try blocks readability is okay, move to other method makes it imho worse
-    static void refetchAllFields(Object proxy, PlcDriverManager driverManager, String address, AliasRegistry registry, Map<String, Instant> lastFetched) throws OPMException {
+    static void refetchAllFields(Object proxy, ConnectionCache connections, String address, AliasRegistry registry, Map<String, Instant> lastFetched) throws OPMException {
         // Don't log o here as this would cause a second request against a plc so don't touch it, or if you log be aware of that
         Class<?> entityClass = proxy.getClass().getSuperclass();
         LOGGER.trace("Refetching all fields on proxy object of class {}", entityClass);
@@ -211,46 +215,30 @@ public class PlcEntityInterceptor {
         if (plcEntity == null) {
             throw new OPMException("Non PlcEntity supplied");
         }
+        EntityMetadata metadata = EntityMetadata.of(entityClass);
 
         // Check if all fields are valid
-        for (Field field : entityClass.getDeclaredFields()) {
-            if (field.isAnnotationPresent(PlcField.class)) {
-                OpmUtils.getOrResolveAddress(registry, field.getAnnotation(PlcField.class).value());
-            }
+        for (FieldMetadata field : metadata.getPlcFields()) {
+            field.getAddress(registry);
         }
-        try (PlcConnection connection = driverManager.getConnection(address)) {
-            // Catch the exception, if no reader present (see below)
-            // Build the query
-            PlcReadRequest.Builder requestBuilder = connection.readRequestBuilder();
-
-            Arrays.stream(entityClass.getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(PlcField.class))
-                .filter(field -> needsToBeSynced(lastFetched, field))
-                .forEach(field ->
-                    requestBuilder.addItem(
-                        getFqn(field),
-                        OpmUtils.getOrResolveAddress(registry, field.getAnnotation(PlcField.class).value())
-                    )
-                );
-
-            PlcReadRequest request = requestBuilder.build();
-
-            LOGGER.trace("Request for refetch of {} was build and is {}", entityClass, request);
-
-            PlcReadResponse response = getPlcReadResponse(request);
+        List<FieldMetadata> fields = metadata.getPlcFields().stream()
+            .filter(field -> needsToBeSynced(lastFetched, field))
+            .collect(Collectors.toList());
+        if (fields.isEmpty()) {
+            LOGGER.trace("All fields of {} are cached", entityClass);
+            return;
+        }
+        try {
+            PlcReadResponse response = fetch(connections, address, registry, fields);
 
             // Fill all requested fields
-            for (String fieldName : response.getFieldNames()) {
+            Instant now = Instant.now();
+            for (FieldMetadata field : fields) {
                 // Fill into Cache
-                lastFetched.put(fieldName, Instant.now());
-
-                LOGGER.trace("Value for field {}  is {}", fieldName, response.getObject(fieldName));
-                String clazzFieldName = StringUtils.substringAfterLast(fieldName, ".");
-                try {
-                    setField(entityClass, proxy, response, clazzFieldName, fieldName);
-                } catch (NoSuchFieldException | IllegalAccessException e) {
-                    throw new PlcRuntimeException(e);
-                }
+                lastFetched.put(field.getFqn(), now);
+
+                LOGGER.trace("Value for field {}  is {}", field.getFqn(), response.getObject(field.getFqn()));
+                setField(field, proxy, response);
             }
         } catch (PlcConnectionException e) {
             throw new OPMException("Problem during processing", e);
@@ -259,7 +247,7 @@ public class PlcEntityInterceptor {
         }
     }
 
-    static void writeAllFields(Object proxy, PlcDriverManager driverManager, String address, AliasRegistry registry, Map<String, Instant> lastWritten) throws OPMException {
+    static void writeAllFields(Object proxy, ConnectionCache connections, String address, AliasRegistry registry, Map<String, Instant> lastWritten) throws OPMException {
         // Don't log o here as this would cause a second request against a plc so don't touch it, or if you log be aware of that
         Class<?> entityClass = proxy.getClass().getSuperclass();
         LOGGER.trace("Writing all fields on proxy object of class {}", entityClass);
@@ -267,28 +255,27 @@ public class PlcEntityInterceptor {
         if (plcEntity == null) {
             throw new OPMException("Non PlcEntity supplied");
         }
+        EntityMetadata metadata = EntityMetadata.of(entityClass);
 
         // Check if all fields are valid
-        for (Field field : entityClass.getDeclaredFields()) {
-            if (field.isAnnotationPresent(PlcField.class)) {
-                OpmUtils.getOrResolveAddress(registry, field.getAnnotation(PlcField.class).value());
-            }
+        for (FieldMetadata field : metadata.getPlcFields()) {
+            field.getAddress(registry);
+        }
+        List<FieldMetadata> fields = metadata.getPlcFields().stream()
+            .filter(field -> needsToBeSynced(lastWritten, field))
+            .collect(Collectors.toList());
+        if (fields.isEmpty()) {
+            LOGGER.trace("All fields of {} have been written recently", entityClass);
+            return;
         }
-        try (PlcConnection connection = driverManager.getConnection(address)) {
+        try {
+            PlcConnection connection = connections.getConnection(address);
             // Catch the exception, if no reader present (see below)
             // Build the query
             PlcWriteRequest.Builder requestBuilder = connection.writeRequestBuilder();
-
-            Arrays.stream(entityClass.getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(PlcField.class))
-                .filter(field -> needsToBeSynced(lastWritten, field))
-                .forEach(field ->
-                    requestBuilder.addItem(
-                        getFqn(field),
-                        OpmUtils.getOrResolveAddress(registry, field.getAnnotation(PlcField.class).value()),
-                        getFromField(field, proxy)
-                    )
-                );
+            for (FieldMetadata field : fields) {
+                requestBuilder.addItem(field.getFqn(), field.getAddress(registry), field.get(proxy));
+            }
 
             PlcWriteRequest request = requestBuilder.build();
 
@@ -297,9 +284,10 @@ public class PlcEntityInterceptor {
             PlcWriteResponse response = getPlcWriteResponse(request);
 
             // Fill all requested fields
+            Instant now = Instant.now();
             for (String fieldName : response.getFieldNames()) {
                 // Fill into Cache
-                lastWritten.put(fieldName, Instant.now());
+                lastWritten.put(fieldName, now);
             }
         } catch (PlcConnectionException e) {
             throw new OPMException("Problem during processing", e);
@@ -308,80 +296,85 @@ public class PlcEntityInterceptor {
         }
     }
 
-    private static Object getFromField(Field field, Object object) {
-        try {
-            field.setAccessible(true);
-            return field.get(object);
-        } catch (IllegalAccessException e) {
-            throw new PlcRuntimeException(e);
+    /**
+     * Reads the given fields with one single request.
+     */
+    private static PlcReadResponse fetch(ConnectionCache connections, String address, AliasRegistry registry,
+                                         List<FieldMetadata> fields) throws PlcConnectionException, OPMException {
+        PlcConnection connection = connections.getConnection(address);
+        // Catch the exception, if no reader present (see below)
+        // Build the query
+        PlcReadRequest.Builder requestBuilder = connection.readRequestBuilder();
+        for (FieldMetadata field : fields) {
+            requestBuilder.addItem(field.getFqn(), field.getAddress(registry));
         }
-    }
+        PlcReadRequest request = requestBuilder.build();
 
-    private static String getFqn(Field field) {
-        return field.getDeclaringClass().getName() + "." + field.getName();
+        LOGGER.trace("Request for fetch of {} fields was build and is {}", fields.size(), request);
+
+        return getPlcReadResponse(request);
     }
 
     /**
      * Checks if a field needs to be refetched/rewritten, i.e., the cached values are too old.
      */
-    private static boolean needsToBeSynced(Map<String, Instant> lastSynced, Field field) {
+    private static boolean needsToBeSynced(Map<String, Instant> lastSynced, FieldMetadata field) {
         Validate.notNull(field);
-        long cacheDurationMillis = field.getAnnotation(PlcField.class).cacheDurationMillis();
+        long cacheDurationMillis = field.getCacheDurationMillis();
         if (cacheDurationMillis < 0) {
             return true;
         }
-        String fqn = getFqn(field);
-        if (lastSynced.containsKey(fqn)) {
-            Instant last = lastSynced.get(fqn);
+        Instant last = lastSynced.get(field.getFqn());
+        if (last != null) {
             return Instant.now().minus(cacheDurationMillis, ChronoUnit.MILLIS).isAfter(last);
         }
         return true;
     }
 
-    private static void fetchAndSetValueForIsGetter(Object proxy, Method m, PlcDriverManager driverManager, String address, AliasRegistry registry, Map<String, Instant> lastFetched) throws OPMException {
-        fetchAndSetValueForGetter(proxy, m, 2, driverManager, address, registry, lastFetched);
-    }
-
-    private static void fetchAndSetValueForGetter(Object proxy, Method m, PlcDriverManager driverManager, String address, AliasRegistry registry, Map<String, Instant> lastFetched) throws OPMException {
-        fetchAndSetValueForGetter(proxy, m, 3, driverManager, address, registry, lastFetched);
-    }
-
-    private static void fetchAndSetValueForGetter(Object proxy, Method m, int prefixLength, PlcDriverManager driverManager,
+    /**
+     * Fetches the field of a getter, if its cached value is too old. All other fields of the entity which have a
+     * cache duration and need to be refetched as well are read with the same request, so subsequent getters are
+     * served from the cache. Fields without cache duration are always fetched by their own getter.
+     */
+    private static void fetchAndSetValueForGetter(Object proxy, Method m, int prefixLength, ConnectionCache connections,
                                                   String address, AliasRegistry registry, Map<String, Instant> lastFetched) throws OPMException {
-        String s = m.getName().substring(prefixLength);
-        // First char to lower
-        String variable = s.substring(0, 1).toLowerCase().concat(s.substring(1));
-        LOGGER.trace("Looking for field with name {} after invokation of getter {}", variable, m.getName());
-        PlcField annotation;
-        Field field;
-        try {
-            field = m.getDeclaringClass().getDeclaredField(variable);
-            annotation = field.getDeclaredAnnotation(PlcField.class);
-        } catch (NoSuchFieldException e) {
-            throw new OPMException("Unable to identify field with name '" + variable + "' for call to '" + m.getName() + "'", e);
+        LOGGER.trace("Looking for field after invokation of getter {}", m.getName());
+        EntityMetadata metadata = EntityMetadata.of(m.getDeclaringClass());
+        FieldMetadata field = metadata.getAccessedField(m, prefixLength);
+        if (!field.isPlcField()) {
+            return;
         }
 
-        // Use Fully qualified Name as field index
-        String fqn = getFqn(field);
-
         // Check if cache is still active
         if (!needsToBeSynced(lastFetched, field)) {
             return;
         }
-        try (PlcConnection connection = driverManager.getConnection(address)) {
-            // Catch the exception, if no reader present (see below)
-
-            PlcReadRequest request = connection.readRequestBuilder()
-                .addItem(fqn, OpmUtils.getOrResolveAddress(registry, annotation.value()))
-                .build();
-
-            PlcReadResponse response = getPlcReadResponse(request);
-
-            // Fill into Cache
-            lastFetched.put(field.getName(), Instant.now());
-
-            Object value = getTyped(m.getReturnType(), response, fqn);
-            setForField(field, proxy, value);
+        List<FieldMetadata> fields = new ArrayList<>();
+        fields.add(field);
+        for (FieldMetadata other : metadata.getPlcFields()) {
+            if ((other != field) && (other.getCacheDurationMillis() >= 0) && needsToBeSynced(lastFetched, other)) {
+                fields.add(other);
+            }
+        }
+        try {
+            PlcReadResponse response = fetch(connections, address, registry, fields);
+
+            Instant now = Instant.now();
+            for (FieldMetadata fetched : fields) {
+                if (fetched == field) {
+                    field.set(proxy, getTyped(m.getReturnType(), response, field.getFqn()));
+                    // Fill into Cache
+                    lastFetched.put(field.getFqn(), now);
+                } else if (response.getResponseCode(fetched.getFqn()) == PlcResponseCode.OK) {
+                    // Problems with the other fields are reported by their own getters.
+                    try {
+                        fetched.set(proxy, getTyped(fetched.getType(), response, fetched.getFqn()));
+                        lastFetched.put(fetched.getFqn(), now);
+                    } catch (ClassCastException | PlcRuntimeException e) {
+                        LOGGER.debug("Unable to prefetch field {}", fetched.getFqn(), e);
+                    }
+                }
+            }
         } catch (ClassCastException e) {
             throw new OPMException("Unable to return response as suitable type", e);
         } catch (Exception e) {
@@ -389,44 +382,26 @@ public class PlcEntityInterceptor {
         }
     }
 
-    private static void setForField(Field field, Object proxy, Object value) {
-        try {
-            field.setAccessible(true);
-            field.set(proxy, value);
-        } catch (IllegalAccessException e) {
-            throw new PlcRuntimeException(e);
-        }
-    }
-
-    private static Object setValueForSetter(Object proxy, Method m, Callable<?> callable, PlcDriverManager driverManager,
+    private static Object setValueForSetter(Object proxy, Method m, Callable<?> callable, ConnectionCache connections,
                                             String address, AliasRegistry registry, Map<String, Instant> lastFetched, Object object) throws OPMException {
-        String s = m.getName().substring(3);
-        // First char to lower
-        String variable = s.substring(0, 1).toLowerCase().concat(s.substring(1));
-        LOGGER.trace("Looking for field with name {} after invokation of getter {}", variable, m.getName());
-        PlcField annotation;
-        Field field;
-        try {
-            field = m.getDeclaringClass().getDeclaredField(variable);
-            annotation = field.getDeclaredAnnotation(PlcField.class);
-        } catch (NoSuchFieldException e) {
-            throw new OPMException("Unable to identify field with name '" + variable + "' for call to '" + m.getName() + "'", e);
-        }
+        LOGGER.trace("Looking for field after invokation of setter {}", m.getName());
+        FieldMetadata field = EntityMetadata.of(m.getDeclaringClass()).getAccessedField(m, 3);
 
         // Use Fully qualified Name as field index
-        String fqn = getFqn(field);
+        String fqn = field.getFqn();
 
-        try (PlcConnection connection = driverManager.getConnection(address)) {
+        try {
+            PlcConnection connection = connections.getConnection(address);
             // Catch the exception, if no reader present (see below)
 
             PlcWriteRequest request = connection.writeRequestBuilder()
-                .addItem(fqn, OpmUtils.getOrResolveAddress(registry, annotation.value()), object)
+                .addItem(fqn, field.getAddress(registry), object)
                 .build();
 
             PlcWriteResponse response = getPlcWriteResponse(request);
 
             // Fill into Cache
-            lastFetched.put(field.getName(), Instant.now());
+            lastFetched.put(fqn, Instant.now());
 
             LOGGER.debug("getTyped clazz: {}, response: {}, fieldName: {}", m.getParameters()[0].getType(), response, fqn);
             if (response.getResponseCode(fqn) != PlcResponseCode.OK) {
@@ -456,7 +431,8 @@ public class PlcEntityInterceptor {
      * @throws IllegalAccessException If a field in the entity cannot be accessed
      */
     static void setField(Class<?> clazz, Object o, PlcReadResponse response, String targetFieldName, String sourceFieldName) throws NoSuchFieldException, IllegalAccessException {
-        LOGGER.debug("setField on clazz: {}, Object: {}, response: {}, targetFieldName: {}, sourceFieldName:{} ", clazz, o, response, targetFieldName, sourceFieldName);
+        // Don't log o here as this would cause a second request against a plc
+        LOGGER.debug("setField on clazz: {}, response: {}, targetFieldName: {}, sourceFieldName:{} ", clazz, response, targetFieldName, sourceFieldName);
         Field field = clazz.getDeclaredField(targetFieldName);
         field.setAccessible(true);
         try {
@@ -467,6 +443,15 @@ public class PlcEntityInterceptor {
         }
     }
 
+    static void setField(FieldMetadata field, Object o, PlcReadResponse response) {
+        try {
+            field.set(o, getTyped(field.getType(), response, field.getFqn()));
+        } catch (ClassCastException e) {
+            throw new PlcRuntimeException(String.format("Unable to assign return value %s to field %s with type %s",
+                response.getObject(field.getFqn()), field.getField().getName(), field.getType()), e);
+        }
+    }
+
     @SuppressWarnings({"squid:S3776", "squid:MethodCyclomaticComplexity"})
     // Cognitive Complexity not too high, as highly structured
     static Object getTyped(Class<?> clazz, PlcReadResponse response, String sourceFieldName) {
@@ -26,6 +26,8 @@ import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.opm.EntityMetadata.FieldMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,9 +35,8 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.Callable;
+import java.util.*;
+import java.util.concurrent.*;
 
 import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
 import static net.bytebuddy.matcher.ElementMatchers.not;
@@ -73,21 +74,35 @@ import static net.bytebuddy.matcher.ElementMatchers.not;
  * regular Pojo it was before.
  * <p>
  * All invocations on the getters are forwarded to the
- * {@link PlcEntityInterceptor#interceptGetter(Object, Method, Callable, String, PlcDriverManager, AliasRegistry, Map, Map)}
+ * {@link PlcEntityInterceptor#interceptGetter(Object, Method, Callable, String, PlcDriverManager, ConnectionCache, AliasRegistry, Map, Map)}
  * method.
+ * <p>
+ * Many entities can be read at once with {@link #readAll(Class, Collection)}, which reads from all PLCs in parallel and
+ * reads all entities on the same PLC with one request.
+ * <p>
+ * All entities of one entity manager share one connection per PLC, which is kept open until the entity manager is
+ * closed.
  */
-public class PlcEntityManager {
+public class PlcEntityManager implements AutoCloseable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PlcEntityManager.class);
 
     public static final String PLC_ADDRESS_FIELD_NAME = "_plcAddress";
     static final String DRIVER_MANAGER_FIELD_NAME = "_driverManager";
+    static final String CONNECTION_CACHE = "_connectionCache";
     static final String ALIAS_REGISTRY = "_aliasRegistry";
     public static final String LAST_FETCHED = "_lastFetched";
     public static final String LAST_WRITTEN = "_lastWritten";
 
+    // The generated proxy classes are the same for all entity managers.
+    private static final ConcurrentMap<Class<?>, Class<?>> PROXY_CLASSES = new ConcurrentHashMap<>();
+
     private final PlcDriverManager driverManager;
+    private final ConnectionCache connectionCache;
     private final SimpleAliasRegistry registry;
+    // Establishes the connections for the asynchronous reads.
+    private final ExecutorService connectExecutor;
+    private final ScheduledThreadPoolExecutor timeoutExecutor;
 
     public PlcEntityManager() {
         this(new PlcDriverManager());
@@ -99,7 +114,19 @@ public class PlcEntityManager {
 
     public PlcEntityManager(PlcDriverManager driverManager, SimpleAliasRegistry registry) {
         this.driverManager = driverManager;
+        this.connectionCache = new ConnectionCache(driverManager);
         this.registry = registry;
+        this.connectExecutor = Executors.newCachedThreadPool(runnable -> createDaemonThread(runnable, "plc-entity-manager-connect"));
+        this.timeoutExecutor = new ScheduledThreadPoolExecutor(1, runnable -> createDaemonThread(runnable, "plc-entity-manager-timeout"));
+        this.timeoutExecutor.setRemoveOnCancelPolicy(true);
+        this.timeoutExecutor.setKeepAliveTime(1, TimeUnit.MINUTES);
+        this.timeoutExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private static Thread createDaemonThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
     }
 
     public <T> T read(Class<T> clazz, String address) throws OPMException {
@@ -108,6 +135,110 @@ public class PlcEntityManager {
         return connect;
     }
 
+    /**
+     * Asynchronous variant of {@link #read(Class, String)}.
+     *
+     * @param clazz   clazz to be read.
+     * @param address connection string of the PLC.
+     * @param <T>     type of param {@code clazz}.
+     * @return a future of the "detached" entity, which fails with an {@link OPMException} if the entity can't be read.
+     */
+    public <T> CompletableFuture<T> readAsync(Class<T> clazz, String address) {
+        return readAll(clazz, Collections.singletonList(address)).get(0);
+    }
+
+    /**
+     * Reads one "detached" entity for each given connection string. The PLCs are read in parallel and all entities on
+     * the same PLC are read with one single request, so entities which can't be read only fail their own futures.
+     *
+     * @param clazz     clazz to be read.
+     * @param addresses connection strings of the PLCs.
+     * @param <T>       type of param {@code clazz}.
+     * @return one future per address, in the order of the addresses. Each future fails with an {@link OPMException}
+     * if its entity can't be read.
+     */
+    public <T> List<CompletableFuture<T>> readAll(Class<T> clazz, Collection<String> addresses) {
+        OpmUtils.getPlcEntityAndCheckPreconditions(clazz);
+        EntityMetadata metadata = EntityMetadata.of(clazz);
+        Map<String, CompletableFuture<PlcReadResponse>> responses = new HashMap<>();
+        List<CompletableFuture<T>> entities = new ArrayList<>(addresses.size());
+        for (String address : addresses) {
+            CompletableFuture<PlcReadResponse> response = responses.computeIfAbsent(address,
+                key -> fetchAsync(metadata, key));
+            CompletableFuture<T> entity = new CompletableFuture<>();
+            response.whenComplete((plcReadResponse, throwable) -> {
+                if (throwable != null) {
+                    entity.completeExceptionally(throwable);
+                    return;
+                }
+                try {
+                    entity.complete(createDetached(clazz, metadata, address, plcReadResponse));
+                } catch (OPMException e) {
+                    entity.completeExceptionally(e);
+                } catch (RuntimeException e) {
+                    entity.completeExceptionally(new OPMException("Unexpected error during processing", e));
+                }
+            });
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    /**
+     * Reads all fields of an entity with one request, which fails after the read timeout.
+     */
+    private CompletableFuture<PlcReadResponse> fetchAsync(EntityMetadata metadata, String address) {
+        CompletableFuture<PlcReadResponse> future = new CompletableFuture<>();
+        connectionCache.getConnectionAsync(address, connectExecutor).whenComplete((connection, throwable) -> {
+            if (throwable != null) {
+                future.completeExceptionally(new OPMException("Problem during processing", throwable));
+                return;
+            }
+            try {
+                if (metadata.getPlcFields().isEmpty()) {
+                    future.complete(null);
+                    return;
+                }
+                PlcReadRequest.Builder requestBuilder = connection.readRequestBuilder();
+                for (FieldMetadata field : metadata.getPlcFields()) {
+                    requestBuilder.addItem(field.getFqn(), field.getAddress(registry));
+                }
+                PlcReadRequest request = requestBuilder.build();
+                LOGGER.trace("Request for bulk read on {} was build and is {}", address, request);
+                ScheduledFuture<?> timeout = timeoutExecutor.schedule(() -> future.completeExceptionally(
+                    new OPMException("Timeout during fetching values", new TimeoutException())),
+                    PlcEntityInterceptor.READ_TIMEOUT, TimeUnit.MILLISECONDS);
+                request.execute().whenComplete((response, executionThrowable) -> {
+                    timeout.cancel(false);
+                    if (executionThrowable != null) {
+                        future.completeExceptionally(new OPMException("Exception during execution", executionThrowable));
+                    } else {
+                        future.complete(response);
+                    }
+                });
+            } catch (IllegalArgumentException e) {
+                // Invalid or unknown aliases are reported as they are, as done by read(Class, String)
+                future.completeExceptionally(e);
+            } catch (Exception e) {
+                future.completeExceptionally(new OPMException("Problem during processing", e));
+            }
+        });
+        return future;
+    }
+
+    private <T> T createDetached(Class<T> clazz, EntityMetadata metadata, String address, PlcReadResponse response) throws OPMException {
+        Map<String, Instant> lastFetched = new HashMap<>();
+        T instance = createProxy(clazz, address, null, lastFetched, new HashMap<>());
+        if (response != null) {
+            Instant now = Instant.now();
+            for (FieldMetadata field : metadata.getPlcFields()) {
+                PlcEntityInterceptor.setField(field, instance, response);
+                lastFetched.put(field.getFqn(), now);
+            }
+        }
+        return instance;
+    }
+
     public <T> T write(Class<T> clazz, String address, T object) throws OPMException {
         T merge = merge(clazz, address, object);
         disconnect(merge);
@@ -141,48 +272,67 @@ public class PlcEntityManager {
 
     private <T> T connect(Class<T> clazz, String address, T existingInstance) throws OPMException {
         OpmUtils.getPlcEntityAndCheckPreconditions(clazz);
+        Map<String, Instant> lastFetched = new HashMap<>();
+        Map<String, Instant> lastWritten = new HashMap<>();
+        T instance = createProxy(clazz, address, driverManager, lastFetched, lastWritten);
+
+        // Initially fetch all values
+        if (existingInstance == null) {
+            PlcEntityInterceptor.refetchAllFields(instance, connectionCache, address, registry, lastFetched);
+        } else {
+            FieldUtils.getAllFieldsList(clazz).stream()
+                .peek(field -> field.setAccessible(true))
+                .forEach(field -> setValueToField(field, instance, getValueFromField(field, existingInstance)));
+
+            PlcEntityInterceptor.writeAllFields(instance, connectionCache, address, registry, lastWritten);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Creates a proxy without fetching any values, it is "detached" if no driver manager is given.
+     */
+    private <T> T createProxy(Class<T> clazz, String address, PlcDriverManager driverManager,
+                              Map<String, Instant> lastFetched, Map<String, Instant> lastWritten) throws OPMException {
         try {
-            // Use Byte Buddy to generate a subclassed proxy that delegates all PlcField Methods
-            // to the intercept method
-            T instance = new ByteBuddy()
-                .subclass(clazz)
-                .defineField(PLC_ADDRESS_FIELD_NAME, String.class, Visibility.PRIVATE)
-                .defineField(DRIVER_MANAGER_FIELD_NAME, PlcDriverManager.class, Visibility.PRIVATE)
-                .defineField(ALIAS_REGISTRY, AliasRegistry.class, Visibility.PRIVATE)
-                .defineField(LAST_FETCHED, Map.class, Visibility.PRIVATE)
-                .defineField(LAST_WRITTEN, Map.class, Visibility.PRIVATE)
-                .method(not(isDeclaredBy(Object.class))).intercept(MethodDelegation.to(PlcEntityInterceptor.class))
-                .make()
-                .load(Thread.currentThread().getContextClassLoader())
-                .getLoaded()
+            T instance = getProxyClass(clazz)
                 .getConstructor()
                 .newInstance();
             // Set connection value into the private field
             FieldUtils.writeDeclaredField(instance, PLC_ADDRESS_FIELD_NAME, address, true);
             FieldUtils.writeDeclaredField(instance, DRIVER_MANAGER_FIELD_NAME, driverManager, true);
+            FieldUtils.writeDeclaredField(instance, CONNECTION_CACHE, connectionCache, true);
             FieldUtils.writeDeclaredField(instance, ALIAS_REGISTRY, registry, true);
-            Map<String, Instant> lastFetched = new HashMap<>();
             FieldUtils.writeDeclaredField(instance, LAST_FETCHED, lastFetched, true);
-            Map<String, Instant> lastWritten = new HashMap<>();
             FieldUtils.writeDeclaredField(instance, LAST_WRITTEN, lastWritten, true);
-
-            // Initially fetch all values
-            if (existingInstance == null) {
-                PlcEntityInterceptor.refetchAllFields(instance, driverManager, address, registry, lastFetched);
-            } else {
-                FieldUtils.getAllFieldsList(clazz).stream()
-                    .peek(field -> field.setAccessible(true))
-                    .forEach(field -> setValueToField(field, instance, getValueFromField(field, existingInstance)));
-
-                PlcEntityInterceptor.writeAllFields(instance, driverManager, address, registry, lastWritten);
-            }
-
             return instance;
         } catch (NoSuchMethodException | InvocationTargetException | InstantiationException | IllegalAccessException | IllegalAccessError e) {
             throw new OPMException("Unable to instantiate Proxy", e);
         }
     }
 
+    /**
+     * Returns the proxy class of an entity class, which is only generated once per entity class.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Class<? extends T> getProxyClass(Class<T> clazz) {
+        // Use Byte Buddy to generate a subclassed proxy that delegates all PlcField Methods
+        // to the intercept method
+        return (Class<? extends T>) PROXY_CLASSES.computeIfAbsent(clazz, key -> new ByteBuddy()
+            .subclass(key)
+            .defineField(PLC_ADDRESS_FIELD_NAME, String.class, Visibility.PRIVATE)
+            .defineField(DRIVER_MANAGER_FIELD_NAME, PlcDriverManager.class, Visibility.PRIVATE)
+            .defineField(CONNECTION_CACHE, ConnectionCache.class, Visibility.PRIVATE)
+            .defineField(ALIAS_REGISTRY, AliasRegistry.class, Visibility.PRIVATE)
+            .defineField(LAST_FETCHED, Map.class, Visibility.PRIVATE)
+            .defineField(LAST_WRITTEN, Map.class, Visibility.PRIVATE)
+            .method(not(isDeclaredBy(Object.class))).intercept(MethodDelegation.to(PlcEntityInterceptor.class))
+            .make()
+            .load(Thread.currentThread().getContextClassLoader())
+            .getLoaded());
+    }
+
     private Object getValueFromField(Field field, Object object) {
         try {
             return field.get(object);
@@ -222,4 +372,15 @@ public class PlcEntityManager {
         }
     }
 
+    /**
+     * Closes all connections of this entity manager. Entities which are still connected fail on their next access
+     * to the PLC afterwards, as do outstanding asynchronous reads.
+     */
+    @Override
+    public void close() {
+        connectionCache.close();
+        connectExecutor.shutdown();
+        timeoutExecutor.shutdown();
+    }
+
 }
@@ -98,6 +98,58 @@ public class ConnectedEntityTest {
         verify(mockDevice, timeout(1_000).times(1)).read(any());
     }
 
+    @Test
+    void cache_staleFields_refetchedTogether() throws OPMException, InterruptedException {
+        // Trigger a fetch of both fields
+        TwoFieldCachingEntity entity = entityManager.connect(TwoFieldCachingEntity.class, "mock:cached");
+        Thread.sleep(600);
+        // Refetches both fields with one request
+        assertEquals("hallo", entity.getFirst());
+        // Served from the cache
+        assertEquals("hallo", entity.getSecond());
+
+        verify(mockDevice, timeout(1_000).times(4)).read(any());
+    }
+
+    @Test
+    void connection_reusedForAllRequests() throws Exception {
+        PlcDriverManager spiedDriverManager = spy(driverManager);
+        try (PlcEntityManager spiedEntityManager = new PlcEntityManager(spiedDriverManager)) {
+            // Trigger a fetch
+            CachingEntity entity = spiedEntityManager.connect(CachingEntity.class, "mock:cached");
+            Thread.sleep(600);
+            // Trigger second fetch
+            assertEquals("hallo", entity.getField());
+            // Another entity on the same PLC
+            spiedEntityManager.connect(CachingEntity.class, "mock:cached");
+        }
+
+        verify(mockDevice, timeout(1_000).times(3)).read(any());
+        verify(spiedDriverManager, times(1)).getConnection("mock:cached");
+    }
+
+    @PlcEntity
+    public static class TwoFieldCachingEntity {
+
+        @PlcField(value = "address", cacheDurationMillis = 500)
+        private String first;
+
+        @PlcField(value = "address2", cacheDurationMillis = 500)
+        private String second;
+
+        public TwoFieldCachingEntity() {
+            // For OPM
+        }
+
+        public String getFirst() {
+            return first;
+        }
+
+        public String getSecond() {
+            return second;
+        }
+    }
+
     @PlcEntity
     public static class CachingEntity {
 
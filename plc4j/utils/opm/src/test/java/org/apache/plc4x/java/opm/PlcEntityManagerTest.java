@@ -24,6 +24,7 @@ import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.items.BaseDefaultFieldItem;
 import org.apache.plc4x.java.base.messages.items.DefaultStringFieldItem;
 import org.apache.plc4x.java.mock.MockDevice;
 import org.apache.plc4x.java.mock.PlcMockConnection;
@@ -36,6 +37,13 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -207,6 +215,82 @@ public class PlcEntityManagerTest implements WithAssertions {
         }
     }
 
+    @Nested
+    class ReadAll {
+
+        @Test
+        void entitiesOnTheSamePlc_readWithOneRequest() throws Exception {
+            // Mock
+            PlcDriverManager driverManager = new PlcDriverManager();
+            MockDevice deviceA = mockDevice(driverManager, "mock:bulk-a", Pair.of(PlcResponseCode.OK, new DefaultStringFieldItem("a")));
+            MockDevice deviceB = mockDevice(driverManager, "mock:bulk-b", Pair.of(PlcResponseCode.OK, new DefaultStringFieldItem("b")));
+
+            try (PlcEntityManager entityManager = new PlcEntityManager(driverManager)) {
+                List<CompletableFuture<BadEntity>> futures = entityManager.readAll(BadEntity.class,
+                    Arrays.asList("mock:bulk-a", "mock:bulk-b", "mock:bulk-a"));
+
+                assertThat(futures).hasSize(3);
+                BadEntity first = futures.get(0).get(1, TimeUnit.SECONDS);
+                BadEntity second = futures.get(1).get(1, TimeUnit.SECONDS);
+                BadEntity third = futures.get(2).get(1, TimeUnit.SECONDS);
+                assertThat(first.getField1()).isEqualTo("a");
+                assertThat(second.getField1()).isEqualTo("b");
+                assertThat(third.getField1()).isEqualTo("a");
+                assertThat(third).isNotSameAs(first);
+            }
+
+            // The entities are detached, so the getters didn't trigger further reads
+            verify(deviceA, times(1)).read(eq("field1"));
+            verify(deviceB, times(1)).read(eq("field1"));
+        }
+
+        @Test
+        void failingPlc_onlyFailsItsEntities() throws Exception {
+            // Mock
+            PlcDriverManager driverManager = new PlcDriverManager();
+            mockDevice(driverManager, "mock:bulk-ok", Pair.of(PlcResponseCode.OK, new DefaultStringFieldItem("ok")));
+            mockDevice(driverManager, "mock:bulk-broken", Pair.of(PlcResponseCode.NOT_FOUND, null));
+
+            try (PlcEntityManager entityManager = new PlcEntityManager(driverManager)) {
+                List<CompletableFuture<BadEntity>> futures = entityManager.readAll(BadEntity.class,
+                    Arrays.asList("mock:bulk-ok", "mock:bulk-broken"));
+
+                assertThat(futures.get(0).get(1, TimeUnit.SECONDS).getField1()).isEqualTo("ok");
+                assertThatThrownBy(() -> futures.get(1).get(1, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(OPMException.class)
+                    .hasStackTraceContaining("response code was 'NOT_FOUND'");
+            }
+        }
+
+        @Test
+        void readAsync_unknownAlias_fails() {
+            try (PlcEntityManager entityManager = new PlcEntityManager()) {
+                CompletableFuture<AliasEntity> future = entityManager.readAsync(AliasEntity.class, "mock:test");
+
+                assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalArgumentException.class);
+            }
+        }
+
+        @Test
+        void readAll_noEntity_throws() {
+            try (PlcEntityManager entityManager = new PlcEntityManager()) {
+                assertThatThrownBy(() -> entityManager.readAll(String.class, Collections.singletonList("mock:test")))
+                    .isInstanceOf(IllegalArgumentException.class);
+            }
+        }
+
+        private MockDevice mockDevice(PlcDriverManager driverManager, String address,
+                                      Pair<PlcResponseCode, BaseDefaultFieldItem> value) throws PlcConnectionException {
+            PlcMockConnection connection = (PlcMockConnection) driverManager.getConnection(address);
+            MockDevice mockDevice = Mockito.mock(MockDevice.class);
+            when(mockDevice.read(any())).thenReturn(value);
+            connection.setDevice(mockDevice);
+            return mockDevice;
+        }
+    }
+
     @Nested
     class Lifecycle {
         /**
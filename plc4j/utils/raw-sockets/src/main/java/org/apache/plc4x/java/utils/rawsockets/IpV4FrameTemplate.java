@@ -0,0 +1,124 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.utils.rawsockets;
+
+import io.netty.buffer.ByteBuf;
+import org.pcap4j.util.MacAddress;
+
+import java.net.Inet4Address;
+import java.util.Arrays;
+
+/**
+ * The Ethernet and IPv4 headers of all packets sent by one {@link RawIpSocket} only differ in the total length, the
+ * identification and the header checksum. So the headers are serialized once and only these three fields are patched
+ * for every frame. The checksum is computed incrementally from the sum of all other header words.
+ */
+final class IpV4FrameTemplate {
+
+    static final int ETHERNET_HEADER_LENGTH = 14;
+    static final int IPV4_HEADER_LENGTH = 20;
+    static final int HEADER_LENGTH = ETHERNET_HEADER_LENGTH + IPV4_HEADER_LENGTH;
+    // Frames shorter than this (without the frame check sequence) have to be padded.
+    static final int MIN_FRAME_LENGTH = 60;
+    static final int MAX_PAYLOAD_LENGTH = 0xFFFF - IPV4_HEADER_LENGTH;
+
+    private static final int ETHER_TYPE_IPV4 = 0x0800;
+    private static final int TTL = 100;
+
+    private static final int TOTAL_LENGTH_OFFSET = ETHERNET_HEADER_LENGTH + 2;
+    private static final int IDENTIFICATION_OFFSET = ETHERNET_HEADER_LENGTH + 4;
+    private static final int CHECKSUM_OFFSET = ETHERNET_HEADER_LENGTH + 10;
+
+    private final byte[] header = new byte[HEADER_LENGTH];
+
+    // Sum of all 16 bit words of the IPv4 header, which don't change from frame to frame.
+    private final int constantHeaderSum;
+
+    private int identification;
+
+    IpV4FrameTemplate(MacAddress localMacAddress, MacAddress remoteMacAddress,
+                      Inet4Address localIpAddress, Inet4Address remoteIpAddress, int protocolNumber) {
+        System.arraycopy(remoteMacAddress.getAddress(), 0, header, 0, MacAddress.SIZE_IN_BYTES);
+        System.arraycopy(localMacAddress.getAddress(), 0, header, MacAddress.SIZE_IN_BYTES, MacAddress.SIZE_IN_BYTES);
+        header[12] = (byte) (ETHER_TYPE_IPV4 >> 8);
+        header[13] = (byte) ETHER_TYPE_IPV4;
+
+        int ip = ETHERNET_HEADER_LENGTH;
+        // Version 4, header length 5 words.
+        header[ip] = 0x45;
+        // Type of service, total length, identification, flags, fragment offset: 0 or patched per frame.
+        header[ip + 8] = (byte) TTL;
+        header[ip + 9] = (byte) protocolNumber;
+        // Header checksum: patched per frame.
+        System.arraycopy(localIpAddress.getAddress(), 0, header, ip + 12, 4);
+        System.arraycopy(remoteIpAddress.getAddress(), 0, header, ip + 16, 4);
+
+        int sum = 0;
+        for (int i = ip; i < HEADER_LENGTH; i += 2) {
+            sum += ((header[i] & 0xFF) << 8) | (header[i + 1] & 0xFF);
+        }
+        constantHeaderSum = sum;
+    }
+
+    /**
+     * @param payloadLength length of the IP payload.
+     * @return the number of bytes needed for a frame with the given payload, including padding.
+     */
+    static int getFrameLength(int payloadLength) {
+        return Math.max(HEADER_LENGTH + payloadLength, MIN_FRAME_LENGTH);
+    }
+
+    /**
+     * Writes a complete frame containing the readable bytes of the payload to the start of the given buffer. The
+     * reader index of the payload isn't changed.
+     *
+     * @param payload the IP payload.
+     * @param frame   the buffer to write to, at least {@link #getFrameLength(int)} bytes long.
+     * @return the length of the frame.
+     */
+    int writeFrame(ByteBuf payload, byte[] frame) {
+        int payloadLength = payload.readableBytes();
+        if (payloadLength > MAX_PAYLOAD_LENGTH) {
+            throw new IllegalArgumentException("Payload of " + payloadLength + " bytes exceeds the maximum of " + MAX_PAYLOAD_LENGTH);
+        }
+        int totalLength = IPV4_HEADER_LENGTH + payloadLength;
+        int currentIdentification = identification;
+        identification = (identification + 1) & 0xFFFF;
+
+        System.arraycopy(header, 0, frame, 0, HEADER_LENGTH);
+        putShort(frame, TOTAL_LENGTH_OFFSET, totalLength);
+        putShort(frame, IDENTIFICATION_OFFSET, currentIdentification);
+        int sum = constantHeaderSum + totalLength + currentIdentification;
+        while ((sum >> 16) != 0) {
+            sum = (sum & 0xFFFF) + (sum >> 16);
+        }
+        putShort(frame, CHECKSUM_OFFSET, ~sum & 0xFFFF);
+
+        payload.getBytes(payload.readerIndex(), frame, HEADER_LENGTH, payloadLength);
+        int frameLength = getFrameLength(payloadLength);
+        Arrays.fill(frame, HEADER_LENGTH + payloadLength, frameLength, (byte) 0);
+        return frameLength;
+    }
+
+    private static void putShort(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >> 8);
+        buffer[offset + 1] = (byte) value;
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package org.apache.plc4x.java.utils.rawsockets;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.apache.commons.lang3.SystemUtils;
 import org.pcap4j.core.*;
 import org.pcap4j.packet.*;
@@ -32,7 +34,6 @@ import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
@@ -43,6 +44,7 @@ public class RawIpSocket {
 
     private static final int SNAPLEN = 65536;
     private static final int READ_TIMEOUT = 10;
+    private static final int DEFAULT_MTU = 1500;
 
     private static final String GATEWAY_ONLY_NETMASK = "255.255.255.255";
 
@@ -58,13 +60,30 @@ public class RawIpSocket {
     private MacAddress localMacAddress;
     private ExecutorService pool = Executors.newSingleThreadExecutor();
     private PcapHandle receiveHandle;
+    private PcapHandle sendHandle;
 
-    private final List<RawSocketListener> listeners = new LinkedList<>();
+    // Template of the headers and the buffer the frames are assembled in, both guarded by this.
+    private IpV4FrameTemplate frameTemplate;
+    private FrameSender frameSender;
+    private byte[] frame = new byte[IpV4FrameTemplate.HEADER_LENGTH + DEFAULT_MTU];
+
+    // Iterated by the receive loop while listeners are added and removed.
+    private final List<RawSocketListener> listeners = new CopyOnWriteArrayList<>();
 
     public RawIpSocket(int protocolNumber) {
         this.protocolNumber = protocolNumber;
     }
 
+    /**
+     * Creates a socket which doesn't send its frames to a network interface, but hands them to the given sender,
+     * for example to write them to a pcap savefile.
+     */
+    RawIpSocket(int protocolNumber, IpV4FrameTemplate frameTemplate, FrameSender frameSender) {
+        this.protocolNumber = protocolNumber;
+        this.frameTemplate = frameTemplate;
+        this.frameSender = frameSender;
+    }
+
     public void connect(String remoteAddress) throws RawSocketException {
         try {
             pool = Executors.newScheduledThreadPool(2);
@@ -114,6 +133,15 @@ public class RawIpSocket {
 
             firstHopMacAddress = MacAddress.getByAddress(firstHop.remoteMacAddress.getAddress());
 
+            // Keep one handle for sending all packets, opening a new one per packet is way too expensive.
+            PcapHandle newSendHandle = nif.openLive(SNAPLEN, PcapNetworkInterface.PromiscuousMode.PROMISCUOUS, READ_TIMEOUT);
+            synchronized (this) {
+                sendHandle = newSendHandle;
+                frameTemplate = new IpV4FrameTemplate(localMacAddress, firstHopMacAddress,
+                    (Inet4Address) localIpAddress, (Inet4Address) remoteIpAddress, protocolNumber);
+                frameSender = newSendHandle::sendPacket;
+            }
+
             // Setup receiving of packets and redirecting them to the corresponding listeners.
             // Filter packets to contain only the ip protocol number of the current protocol.
             receiveHandle = nif.openLive(SNAPLEN, PcapNetworkInterface.PromiscuousMode.PROMISCUOUS, READ_TIMEOUT);
@@ -145,45 +173,56 @@ public class RawIpSocket {
         }
     }
 
+    /**
+     * Stops receiving and sending packets and removes all listeners, so a following {@link #connect(String)} starts
+     * without any.
+     */
     public void disconnect() throws RawSocketException {
-        // TODO: Terminate all the listeners and the thread pool.
+        listeners.clear();
+        synchronized (this) {
+            frameSender = null;
+            if ((sendHandle != null) && sendHandle.isOpen()) {
+                sendHandle.close();
+            }
+            sendHandle = null;
+        }
+        if ((receiveHandle != null) && receiveHandle.isOpen()) {
+            try {
+                receiveHandle.breakLoop();
+            } catch (NotOpenException e) {
+                logger.debug("Receive handle already closed", e);
+            }
+            receiveHandle.close();
+        }
+        pool.shutdownNow();
     }
 
     public void write(byte[] rawData) throws RawSocketException {
-        try (PcapHandle sendHandle =
-                 nif.openLive(SNAPLEN, PcapNetworkInterface.PromiscuousMode.PROMISCUOUS, READ_TIMEOUT)) {
-            UnknownPacket.Builder packetBuilder = new UnknownPacket.Builder();
-            packetBuilder.rawData(rawData);
-
-            IpV4Packet.Builder ipV4Builder = new IpV4Packet.Builder();
-            ipV4Builder
-                .version(IpVersion.IPV4)
-                .tos(IpV4Rfc791Tos.newInstance((byte) 0))
-                .ttl((byte) 100)
-                .protocol(new IpNumber((byte) protocolNumber, "plc4x"))
-                .srcAddr((Inet4Address) localIpAddress)
-                .dstAddr((Inet4Address) remoteIpAddress)
-                .payloadBuilder(packetBuilder)
-                .correctChecksumAtBuild(true)
-                .correctLengthAtBuild(true);
-            ipV4Builder.identification((short) 1);
-
-            EthernetPacket.Builder etherBuilder = new EthernetPacket.Builder();
-            etherBuilder.dstAddr(firstHopMacAddress)
-                .srcAddr(localMacAddress)
-                .type(EtherType.IPV4)
-                .paddingAtBuild(true);
-            etherBuilder.payloadBuilder(
-                new AbstractPacket.AbstractBuilder() {
-                    @Override
-                    public Packet build() {
-                        return ipV4Builder.build();
-                    }
-                }
-            );
+        write(Unpooled.wrappedBuffer(rawData));
+    }
 
-            Packet p = etherBuilder.build();
-            sendHandle.sendPacket(p);
+    /**
+     * Sends the readable bytes of the given buffer as payload of one IP packet. The reader index of the buffer isn't
+     * changed.
+     *
+     * @param payload the IP payload.
+     * @throws RawSocketException if the socket isn't connected or the packet couldn't be sent.
+     */
+    public synchronized void write(ByteBuf payload) throws RawSocketException {
+        if (frameSender == null) {
+            throw new RawSocketException("Socket not connected.");
+        }
+        int payloadLength = payload.readableBytes();
+        if (payloadLength > IpV4FrameTemplate.MAX_PAYLOAD_LENGTH) {
+            throw new RawSocketException("Payload of " + payloadLength + " bytes too large.");
+        }
+        int frameLength = IpV4FrameTemplate.getFrameLength(payloadLength);
+        if (frame.length < frameLength) {
+            frame = new byte[frameLength];
+        }
+        frameLength = frameTemplate.writeFrame(payload, frame);
+        try {
+            frameSender.send(frame, frameLength);
         } catch (PcapNativeException | NotOpenException e) {
             throw new RawSocketException("Error sending packet.", e);
         }
@@ -604,6 +643,14 @@ ff02::%en8/32                           link#20                         UmCI
         return null;
     }
 
+    /**
+     * Sends a complete ethernet frame.
+     */
+    @FunctionalInterface
+    interface FrameSender {
+        void send(byte[] frame, int length) throws PcapNativeException, NotOpenException;
+    }
+
     private static class FirstHop {
         private final PcapNetworkInterface networkInterface;
         private final InetAddress localInetAddress;
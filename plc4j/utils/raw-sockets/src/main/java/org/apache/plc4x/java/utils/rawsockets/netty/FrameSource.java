@@ -0,0 +1,46 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.utils.rawsockets.netty;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.plc4x.java.utils.rawsockets.RawSocketException;
+
+/**
+ * Where a {@link RawSocketChannel} gets its frames from and sends its frames to. A source receives on its own thread
+ * and hands every frame to {@link RawSocketChannel#frameReceived(byte[])}, which blocks as long as the channel doesn't
+ * read, so the source stops receiving as soon as the channel's receive queue is full.
+ */
+interface FrameSource {
+
+    /**
+     * Starts receiving frames for the given channel.
+     */
+    void open(RawSocketChannel channel) throws RawSocketException;
+
+    /**
+     * Sends the readable bytes of the given buffer, without changing its reader index.
+     */
+    void send(ByteBuf frame) throws RawSocketException;
+
+    /**
+     * Stops receiving and releases all resources of the source.
+     */
+    void close();
+
+}
@@ -0,0 +1,112 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.utils.rawsockets.netty;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.plc4x.java.utils.rawsockets.RawSocketException;
+import org.pcap4j.core.BpfProgram;
+import org.pcap4j.core.NotOpenException;
+import org.pcap4j.core.PcapHandle;
+import org.pcap4j.core.PcapNativeException;
+import org.pcap4j.core.Pcaps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Replays the frames of a pcap savefile as fast as the channel reads them. Frames written to the channel are dropped.
+ * After the last frame the channel is closed.
+ */
+class PcapFileFrameSource implements FrameSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(PcapFileFrameSource.class);
+
+    private final String pcapFile;
+
+    private final String filter;
+
+    private PcapHandle handle;
+
+    private Thread replayThread;
+
+    PcapFileFrameSource(String pcapFile, String filter) {
+        this.pcapFile = pcapFile;
+        this.filter = filter;
+    }
+
+    @Override
+    public void open(RawSocketChannel channel) throws RawSocketException {
+        try {
+            handle = Pcaps.openOffline(pcapFile);
+            if (filter != null) {
+                handle.setFilter(filter, BpfProgram.BpfCompileMode.OPTIMIZE);
+            }
+        } catch (PcapNativeException | NotOpenException e) {
+            if (handle != null) {
+                handle.close();
+            }
+            throw new RawSocketException("Error opening " + pcapFile, e);
+        }
+        replayThread = new Thread(() -> replay(channel), "pcap-replay-" + pcapFile);
+        replayThread.setDaemon(true);
+        replayThread.start();
+    }
+
+    private void replay(RawSocketChannel channel) {
+        try {
+            while (true) {
+                byte[] frame;
+                try {
+                    frame = handle.getNextRawPacketEx();
+                } catch (TimeoutException e) {
+                    continue;
+                } catch (EOFException e) {
+                    break;
+                }
+                channel.frameReceived(frame);
+            }
+            channel.endOfFrames();
+        } catch (InterruptedException e) {
+            // The channel was closed.
+            Thread.currentThread().interrupt();
+        } catch (PcapNativeException | NotOpenException e) {
+            if (handle.isOpen()) {
+                channel.frameSourceFailed(new RawSocketException("Error reading " + pcapFile, e));
+            }
+        }
+    }
+
+    @Override
+    public void send(ByteBuf frame) {
+        logger.trace("Dropping frame of {} bytes written during the replay of {}", frame.readableBytes(), pcapFile);
+    }
+
+    @Override
+    public void close() {
+        if (replayThread != null) {
+            replayThread.interrupt();
+        }
+        if (handle != null) {
+            handle.close();
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.utils.rawsockets.netty;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.plc4x.java.utils.rawsockets.RawIpSocket;
+import org.apache.plc4x.java.utils.rawsockets.RawSocketException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Receives and sends IP packets of one protocol on a live network interface using a {@link RawIpSocket}.
+ */
+class RawIpSocketFrameSource implements FrameSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(RawIpSocketFrameSource.class);
+
+    private final String hostName;
+
+    private final RawIpSocket rawIpSocket;
+
+    RawIpSocketFrameSource(String hostName, int protocolId) {
+        this.hostName = hostName;
+        this.rawIpSocket = new RawIpSocket(protocolId);
+    }
+
+    @Override
+    public void open(RawSocketChannel channel) throws RawSocketException {
+        rawIpSocket.addListener(rawData -> {
+            try {
+                channel.frameReceived(rawData);
+            } catch (InterruptedException e) {
+                // The socket is being disconnected.
+                Thread.currentThread().interrupt();
+            }
+        });
+        rawIpSocket.connect(hostName);
+    }
+
+    @Override
+    public void send(ByteBuf frame) throws RawSocketException {
+        rawIpSocket.write(frame);
+    }
+
+    @Override
+    public void close() {
+        try {
+            rawIpSocket.disconnect();
+        } catch (RawSocketException e) {
+            logger.warn("Error disconnecting from {}", hostName, e);
+        }
+    }
+
+}
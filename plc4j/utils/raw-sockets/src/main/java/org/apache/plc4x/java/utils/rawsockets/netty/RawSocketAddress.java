@@ -23,7 +23,7 @@ import java.net.SocketAddress;
 public class RawSocketAddress extends SocketAddress {
     private static final long serialVersionUID = 1L;
     
-    private String hostName;
+    private final String hostName;
 
     public RawSocketAddress(String hostName) {
         this.hostName = hostName;
@@ -33,4 +33,9 @@ public class RawSocketAddress extends SocketAddress {
         return hostName;
     }
 
+    @Override
+    public String toString() {
+        return hostName;
+    }
+
 }
@@ -18,24 +18,82 @@ under the License.
 */
 package org.apache.plc4x.java.utils.rawsockets.netty;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.*;
+import io.netty.util.internal.StringUtil;
+import org.apache.plc4x.java.utils.rawsockets.RawSocketException;
 
 import java.net.SocketAddress;
+import java.nio.channels.AlreadyConnectedException;
+import java.nio.channels.UnsupportedAddressTypeException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Channel sending and receiving raw frames with pcap. Connecting it to a {@link RawSocketAddress} exchanges IP
+ * packets of the configured {@link RawSocketChannelOption#PROTOCOL_ID} with the given host, connecting it to a
+ * {@link RawSocketReplayAddress} replays a pcap savefile.
+ * <p>
+ * Frames are received on a thread of the pcap source and queued. The event loop passes them to the pipeline as
+ * buffers of the channel's allocator, at most {@link RawSocketChannelOption#DISPATCH_COUNT} frames per read cycle
+ * followed by one {@code channelReadComplete}. As long as auto-read is off and nobody calls {@link #read()}, the
+ * queue isn't drained and receiving stops as soon as it is full.
+ * <p>
+ * Connecting blocks while the address of the next hop is resolved, so the channel has to be registered with a
+ * {@link DefaultEventLoopGroup} and not with one of the selector based groups.
+ */
 public class RawSocketChannel extends AbstractChannel {
 
     private static final ChannelMetadata METADATA = new ChannelMetadata(false, 16);
 
+    // Marks the end of a replayed savefile in the receive queue.
+    private static final byte[] END_OF_FRAMES = new byte[0];
+
+    private final RawSocketChannelConfig config;
+
+    private final AtomicBoolean readScheduled = new AtomicBoolean();
+
+    private final Runnable readTask = this::readFrames;
+
+    private volatile boolean open = true;
+
+    private volatile boolean active;
+
+    private volatile BlockingQueue<byte[]> receiveQueue;
+
+    private FrameSource frameSource;
+
+    private SocketAddress remoteAddress;
+
+    // Only accessed from the event loop.
+    private boolean readPending;
+
     protected class RawByteUnsafe extends AbstractChannel.AbstractUnsafe {
         @Override
         public void connect(SocketAddress remoteAddress, SocketAddress localAddress, ChannelPromise promise) {
-            //getPipeline()
-            promise.setSuccess();
+            if (!promise.setUncancellable() || !ensureOpen(promise)) {
+                return;
+            }
+            if (active) {
+                promise.setFailure(new AlreadyConnectedException());
+                return;
+            }
+            try {
+                doConnect(remoteAddress);
+                active = true;
+                promise.trySuccess();
+                pipeline().fireChannelActive();
+            } catch (Throwable t) {
+                promise.tryFailure(t);
+                close(voidPromise());
+            }
         }
     }
 
     public RawSocketChannel() {
         super(null);
+        config = new RawSocketChannelConfig(this);
     }
 
     @Override
@@ -45,7 +103,7 @@ public class RawSocketChannel extends AbstractChannel {
 
     @Override
     protected boolean isCompatible(EventLoop loop) {
-        return true;
+        return loop instanceof DefaultEventLoop;
     }
 
     @Override
@@ -55,47 +113,159 @@ public class RawSocketChannel extends AbstractChannel {
 
     @Override
     protected SocketAddress remoteAddress0() {
-        return null;
+        return remoteAddress;
+    }
+
+    @Override
+    protected void doBind(SocketAddress localAddress) {
+        // The local interface is chosen by the route to the remote address.
+    }
+
+    private void doConnect(SocketAddress remoteAddress) throws Exception {
+        FrameSource source = createFrameSource(remoteAddress);
+        receiveQueue = new ArrayBlockingQueue<>(config.getReceiveQueueSize());
+        frameSource = source;
+        this.remoteAddress = remoteAddress;
+        source.open(this);
+    }
+
+    FrameSource createFrameSource(SocketAddress remoteAddress) {
+        if (remoteAddress instanceof RawSocketAddress) {
+            return new RawIpSocketFrameSource(((RawSocketAddress) remoteAddress).getHostName(), config.getProtocolId());
+        }
+        if (remoteAddress instanceof RawSocketReplayAddress) {
+            RawSocketReplayAddress replayAddress = (RawSocketReplayAddress) remoteAddress;
+            return new PcapFileFrameSource(replayAddress.getPcapFile(), replayAddress.getFilter());
+        }
+        throw new UnsupportedAddressTypeException();
     }
 
     @Override
-    protected void doBind(SocketAddress localAddress) throws Exception {
-        System.out.println(localAddress);
+    protected void doDisconnect() {
+        doClose();
     }
 
     @Override
-    protected void doDisconnect() throws Exception {
-        System.out.println("disconnect");
+    protected void doClose() {
+        open = false;
+        active = false;
+        if (frameSource != null) {
+            frameSource.close();
+            frameSource = null;
+        }
+        if (receiveQueue != null) {
+            receiveQueue.clear();
+        }
     }
 
     @Override
-    protected void doClose() throws Exception {
-        System.out.println("close");
+    protected void doBeginRead() {
+        readPending = true;
+        BlockingQueue<byte[]> queue = receiveQueue;
+        if ((queue != null) && !queue.isEmpty()) {
+            scheduleRead();
+        }
+    }
+
+    /**
+     * Called by the frame source for every received frame. Blocks while the receive queue is full.
+     */
+    void frameReceived(byte[] frame) throws InterruptedException {
+        receiveQueue.put(frame);
+        if (isActive()) {
+            scheduleRead();
+        }
+    }
+
+    /**
+     * Called by the frame source after the last frame, the channel is closed as soon as all frames are read.
+     */
+    void endOfFrames() throws InterruptedException {
+        frameReceived(END_OF_FRAMES);
+    }
+
+    /**
+     * Called by the frame source if receiving failed.
+     */
+    void frameSourceFailed(Throwable cause) {
+        eventLoop().execute(() -> {
+            pipeline().fireExceptionCaught(cause);
+            unsafe().close(unsafe().voidPromise());
+        });
+    }
+
+    private void scheduleRead() {
+        if (readScheduled.compareAndSet(false, true)) {
+            eventLoop().execute(readTask);
+        }
+    }
+
+    private void readFrames() {
+        readScheduled.set(false);
+        BlockingQueue<byte[]> queue = receiveQueue;
+        if (!readPending || !isActive() || (queue == null) || queue.isEmpty()) {
+            return;
+        }
+        // The pipeline asks for the next read cycle in channelReadComplete if auto-read is on.
+        readPending = false;
+        ChannelPipeline pipeline = pipeline();
+        int dispatchCount = config.getDispatchCount();
+        int frames = 0;
+        boolean endOfFrames = false;
+        byte[] frame;
+        while ((frames < dispatchCount) && ((frame = queue.poll()) != null)) {
+            if (frame == END_OF_FRAMES) {
+                endOfFrames = true;
+                break;
+            }
+            ByteBuf buffer = alloc().buffer(frame.length);
+            buffer.writeBytes(frame);
+            frames++;
+            pipeline.fireChannelRead(buffer);
+        }
+        pipeline.fireChannelReadComplete();
+        if (endOfFrames) {
+            unsafe().close(unsafe().voidPromise());
+        }
     }
 
     @Override
-    protected void doBeginRead() throws Exception {
-        System.out.println("beginRead");
+    protected void doWrite(ChannelOutboundBuffer in) {
+        while (true) {
+            Object msg = in.current();
+            if (msg == null) {
+                break;
+            }
+            try {
+                frameSource.send((ByteBuf) msg);
+                in.remove();
+            } catch (RawSocketException e) {
+                in.remove(e);
+            }
+        }
     }
 
     @Override
-    protected void doWrite(ChannelOutboundBuffer in) throws Exception {
-        System.out.println(in);
+    protected Object filterOutboundMessage(Object msg) {
+        if (msg instanceof ByteBuf) {
+            return msg;
+        }
+        throw new UnsupportedOperationException("unsupported message type: " + StringUtil.simpleClassName(msg));
     }
 
     @Override
-    public ChannelConfig config() {
-        return new RawSocketChannelConfig(this);
+    public RawSocketChannelConfig config() {
+        return config;
     }
 
     @Override
     public boolean isOpen() {
-        return true;
+        return open;
     }
 
     @Override
     public boolean isActive() {
-        return true;
+        return open && active;
     }
 
     @Override
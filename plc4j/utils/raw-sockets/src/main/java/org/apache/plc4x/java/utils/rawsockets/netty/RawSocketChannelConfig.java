@@ -24,13 +24,90 @@ import java.util.Map;
 
 public class RawSocketChannelConfig extends DefaultChannelConfig implements ChannelConfig {
 
+    public static final int DEFAULT_DISPATCH_COUNT = 16;
+
+    public static final int DEFAULT_RECEIVE_QUEUE_SIZE = 1024;
+
+    private volatile int protocolId;
+
+    private volatile int dispatchCount = DEFAULT_DISPATCH_COUNT;
+
+    private volatile int receiveQueueSize = DEFAULT_RECEIVE_QUEUE_SIZE;
+
     public RawSocketChannelConfig(Channel channel) {
         super(channel);
     }
 
     @Override
     public Map<ChannelOption<?>, Object> getOptions() {
-        return getOptions(super.getOptions(), RawSocketChannelOption.SOME_OPTION);
+        return getOptions(super.getOptions(), RawSocketChannelOption.PROTOCOL_ID,
+            RawSocketChannelOption.DISPATCH_COUNT, RawSocketChannelOption.RECEIVE_QUEUE_SIZE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOption(ChannelOption<T> option) {
+        if (option == RawSocketChannelOption.PROTOCOL_ID) {
+            return (T) Integer.valueOf(getProtocolId());
+        }
+        if (option == RawSocketChannelOption.DISPATCH_COUNT) {
+            return (T) Integer.valueOf(getDispatchCount());
+        }
+        if (option == RawSocketChannelOption.RECEIVE_QUEUE_SIZE) {
+            return (T) Integer.valueOf(getReceiveQueueSize());
+        }
+        return super.getOption(option);
+    }
+
+    @Override
+    public <T> boolean setOption(ChannelOption<T> option, T value) {
+        validate(option, value);
+        if (option == RawSocketChannelOption.PROTOCOL_ID) {
+            setProtocolId((Integer) value);
+        } else if (option == RawSocketChannelOption.DISPATCH_COUNT) {
+            setDispatchCount((Integer) value);
+        } else if (option == RawSocketChannelOption.RECEIVE_QUEUE_SIZE) {
+            setReceiveQueueSize((Integer) value);
+        } else {
+            return super.setOption(option, value);
+        }
+        return true;
+    }
+
+    public int getProtocolId() {
+        return protocolId;
+    }
+
+    public RawSocketChannelConfig setProtocolId(int protocolId) {
+        this.protocolId = protocolId;
+        return this;
+    }
+
+    public int getDispatchCount() {
+        return dispatchCount;
+    }
+
+    public RawSocketChannelConfig setDispatchCount(int dispatchCount) {
+        if (dispatchCount <= 0) {
+            throw new IllegalArgumentException("dispatchCount: " + dispatchCount + " (expected: > 0)");
+        }
+        this.dispatchCount = dispatchCount;
+        return this;
+    }
+
+    public int getReceiveQueueSize() {
+        return receiveQueueSize;
+    }
+
+    /**
+     * Only has an effect before the channel is connected.
+     */
+    public RawSocketChannelConfig setReceiveQueueSize(int receiveQueueSize) {
+        if (receiveQueueSize <= 0) {
+            throw new IllegalArgumentException("receiveQueueSize: " + receiveQueueSize + " (expected: > 0)");
+        }
+        this.receiveQueueSize = receiveQueueSize;
+        return this;
     }
 
 }
@@ -22,7 +22,20 @@ import io.netty.channel.ChannelOption;
 
 public class RawSocketChannelOption<T> extends ChannelOption<T> {
 
-    public static final ChannelOption<Boolean> SOME_OPTION = valueOf(RawSocketChannelOption.class, "SOME_OPTION");
+    /**
+     * IP protocol number of the packets sent and received by the channel.
+     */
+    public static final ChannelOption<Integer> PROTOCOL_ID = valueOf(RawSocketChannelOption.class, "PROTOCOL_ID");
+
+    /**
+     * Maximum number of frames passed to the pipeline in one read cycle, like the count of pcap_dispatch.
+     */
+    public static final ChannelOption<Integer> DISPATCH_COUNT = valueOf(RawSocketChannelOption.class, "DISPATCH_COUNT");
+
+    /**
+     * Number of received frames buffered while the channel doesn't read. When it is full, receiving pauses.
+     */
+    public static final ChannelOption<Integer> RECEIVE_QUEUE_SIZE = valueOf(RawSocketChannelOption.class, "RECEIVE_QUEUE_SIZE");
 
     protected RawSocketChannelOption() {
         super(null);
@@ -0,0 +1,60 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.utils.rawsockets.netty;
+
+import java.net.SocketAddress;
+
+/**
+ * Connecting a {@link RawSocketChannel} to this address replays the frames of a pcap savefile instead of receiving
+ * from a network interface, for example to drive load tests of the protocol stack with recorded traffic.
+ */
+public class RawSocketReplayAddress extends SocketAddress {
+    private static final long serialVersionUID = 1L;
+
+    private final String pcapFile;
+
+    private final String filter;
+
+    public RawSocketReplayAddress(String pcapFile) {
+        this(pcapFile, null);
+    }
+
+    /**
+     * @param pcapFile path of the savefile.
+     * @param filter   BPF filter selecting the frames to replay (for example only those sent by the PLC), may be null.
+     */
+    public RawSocketReplayAddress(String pcapFile, String filter) {
+        this.pcapFile = pcapFile;
+        this.filter = filter;
+    }
+
+    String getPcapFile() {
+        return pcapFile;
+    }
+
+    String getFilter() {
+        return filter;
+    }
+
+    @Override
+    public String toString() {
+        return pcapFile;
+    }
+
+}
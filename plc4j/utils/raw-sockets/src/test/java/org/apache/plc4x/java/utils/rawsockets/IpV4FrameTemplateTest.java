@@ -0,0 +1,130 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.utils.rawsockets;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.plc4x.test.RequirePcap;
+import org.junit.jupiter.api.Test;
+import org.pcap4j.core.PcapDumper;
+import org.pcap4j.core.PcapHandle;
+import org.pcap4j.core.Pcaps;
+import org.pcap4j.packet.EthernetPacket;
+import org.pcap4j.packet.IpV4Packet;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.namednumber.DataLinkType;
+import org.pcap4j.util.MacAddress;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class IpV4FrameTemplateTest {
+
+    private static final int PROTOCOL_NUMBER = 0x8F;
+
+    private static final MacAddress LOCAL_MAC = MacAddress.getByName("00:1c:42:2e:f3:40");
+    private static final MacAddress REMOTE_MAC = MacAddress.getByName("00:1c:06:0a:0b:0c");
+
+    @Test
+    void framesAreCompleteIpV4Packets() throws Exception {
+        IpV4FrameTemplate template = template();
+        byte[] frame = new byte[IpV4FrameTemplate.getFrameLength(100)];
+
+        for (int i = 0; i < 3; i++) {
+            byte[] payload = new byte[100];
+            Arrays.fill(payload, (byte) i);
+            int length = template.writeFrame(Unpooled.wrappedBuffer(payload), frame);
+
+            IpV4Packet ipV4Packet = parse(frame, length);
+            assertThat(ipV4Packet.getHeader().getIdentification(), equalTo((short) i));
+            assertThat(ipV4Packet.getHeader().getTotalLengthAsInt(), equalTo(120));
+            assertThat(ipV4Packet.getHeader().hasValidChecksum(false), is(true));
+            assertThat(ipV4Packet.getHeader().getProtocol().value(), equalTo((byte) PROTOCOL_NUMBER));
+            assertThat(ipV4Packet.getPayload().getRawData(), equalTo(payload));
+        }
+    }
+
+    @Test
+    void shortFramesArePadded() throws Exception {
+        IpV4FrameTemplate template = template();
+        byte[] frame = new byte[IpV4FrameTemplate.MIN_FRAME_LENGTH];
+        Arrays.fill(frame, (byte) 0xFF);
+        ByteBuf payload = Unpooled.wrappedBuffer(new byte[]{1, 2, 3, 4});
+
+        int length = template.writeFrame(payload, frame);
+
+        assertThat(length, equalTo(IpV4FrameTemplate.MIN_FRAME_LENGTH));
+        assertThat(payload.readableBytes(), equalTo(4));
+        for (int i = IpV4FrameTemplate.HEADER_LENGTH + 4; i < length; i++) {
+            assertThat(frame[i], equalTo((byte) 0));
+        }
+        IpV4Packet ipV4Packet = parse(frame, length);
+        assertThat(ipV4Packet.getHeader().getTotalLengthAsInt(), equalTo(24));
+        assertThat(ipV4Packet.getHeader().hasValidChecksum(false), is(true));
+    }
+
+    @Test
+    @RequirePcap
+    void framesCanBeWrittenToASavefile() throws Exception {
+        Path savefilePath = Files.createTempFile("frames", ".pcap");
+        String savefile = savefilePath.toString();
+        try (PcapHandle deadHandle = Pcaps.openDead(DataLinkType.EN10MB, 65536);
+             PcapDumper dumper = deadHandle.dumpOpen(savefile)) {
+            RawIpSocket rawIpSocket = new RawIpSocket(PROTOCOL_NUMBER, template(),
+                (frame, length) -> dumper.dumpRaw(Arrays.copyOf(frame, length)));
+            for (int i = 0; i < 1000; i++) {
+                rawIpSocket.write(new byte[]{(byte) i, (byte) (i >> 8)});
+            }
+        }
+
+        try (PcapHandle offlineHandle = Pcaps.openOffline(savefile)) {
+            int frames = 0;
+            Packet packet;
+            while ((packet = offlineHandle.getNextPacket()) != null) {
+                IpV4Packet ipV4Packet = packet.get(IpV4Packet.class);
+                assertThat(ipV4Packet.getHeader().getIdentification(), equalTo((short) frames));
+                assertThat(ipV4Packet.getHeader().hasValidChecksum(false), is(true));
+                frames++;
+            }
+            assertThat(frames, equalTo(1000));
+        } finally {
+            Files.delete(savefilePath);
+        }
+    }
+
+    private static IpV4FrameTemplate template() throws Exception {
+        return new IpV4FrameTemplate(LOCAL_MAC, REMOTE_MAC,
+            (Inet4Address) InetAddress.getByName("10.10.64.20"), (Inet4Address) InetAddress.getByName("10.10.64.30"),
+            PROTOCOL_NUMBER);
+    }
+
+    private static IpV4Packet parse(byte[] frame, int length) throws Exception {
+        EthernetPacket ethernetPacket = EthernetPacket.newPacket(frame, 0, length);
+        assertThat(ethernetPacket.getHeader().getSrcAddr(), equalTo(LOCAL_MAC));
+        assertThat(ethernetPacket.getHeader().getDstAddr(), equalTo(REMOTE_MAC));
+        return ethernetPacket.get(IpV4Packet.class);
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.utils.rawsockets.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RawSocketChannelTest {
+
+    private final EventLoopGroup group = new DefaultEventLoopGroup(1);
+
+    private final TestFrameSource frameSource = new TestFrameSource();
+
+    private final BlockingQueue<List<Byte>> readCycles = new LinkedBlockingQueue<>();
+
+    @AfterEach
+    void tearDown() {
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void framesAreDispatchedInBatchesWhenRead() throws Exception {
+        Channel channel = connect(new Bootstrap().option(ChannelOption.AUTO_READ, false));
+        for (int i = 0; i < 10; i++) {
+            frameSource.channel.frameReceived(new byte[]{(byte) i});
+        }
+        assertThat(readCycles.poll(100, TimeUnit.MILLISECONDS), nullValue());
+
+        channel.read();
+        assertThat(readCycles.poll(1, TimeUnit.SECONDS), contains((byte) 0, (byte) 1, (byte) 2, (byte) 3));
+        assertThat(readCycles.poll(100, TimeUnit.MILLISECONDS), nullValue());
+        channel.read();
+        assertThat(readCycles.poll(1, TimeUnit.SECONDS), contains((byte) 4, (byte) 5, (byte) 6, (byte) 7));
+        channel.read();
+        assertThat(readCycles.poll(1, TimeUnit.SECONDS), contains((byte) 8, (byte) 9));
+        channel.close().sync();
+    }
+
+    @Test
+    void receivingPausesWhileTheChannelDoesNotRead() throws Exception {
+        Channel channel = connect(new Bootstrap()
+            .option(ChannelOption.AUTO_READ, false)
+            .option(RawSocketChannelOption.RECEIVE_QUEUE_SIZE, 2));
+        ExecutorService receiver = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> receiving = receiver.submit(() -> {
+                for (int i = 0; i < 3; i++) {
+                    frameSource.channel.frameReceived(new byte[]{(byte) i});
+                }
+                return null;
+            });
+            assertThrows(TimeoutException.class, () -> receiving.get(100, TimeUnit.MILLISECONDS));
+
+            channel.config().setAutoRead(true);
+            receiving.get(1, TimeUnit.SECONDS);
+            List<Byte> received = new ArrayList<>();
+            while (received.size() < 3) {
+                received.addAll(readCycles.poll(1, TimeUnit.SECONDS));
+            }
+            assertThat(received, contains((byte) 0, (byte) 1, (byte) 2));
+        } finally {
+            receiver.shutdownNow();
+            channel.close().sync();
+        }
+    }
+
+    @Test
+    void channelClosesAfterTheLastFrame() throws Exception {
+        Channel channel = connect(new Bootstrap());
+        frameSource.channel.frameReceived(new byte[]{1, 2});
+        frameSource.channel.endOfFrames();
+
+        assertThat(channel.closeFuture().await(1, TimeUnit.SECONDS), is(true));
+        assertThat(readCycles.poll(), contains((byte) 1, (byte) 2));
+        assertThat(frameSource.closed, is(true));
+    }
+
+    @Test
+    void writtenBuffersAreSent() throws Exception {
+        Channel channel = connect(new Bootstrap());
+
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[]{1, 2, 3})).sync();
+        ChannelFuture unsupportedWrite = channel.writeAndFlush("frame").await();
+
+        assertThat(frameSource.sent, contains(new byte[]{1, 2, 3}));
+        assertThat(unsupportedWrite.cause(), instanceOf(UnsupportedOperationException.class));
+        channel.close().sync();
+    }
+
+    private Channel connect(Bootstrap bootstrap) throws InterruptedException {
+        return bootstrap.group(group)
+            .channelFactory((ChannelFactory<RawSocketChannel>) () -> new RawSocketChannel() {
+                @Override
+                FrameSource createFrameSource(SocketAddress remoteAddress) {
+                    return frameSource;
+                }
+            })
+            .option(RawSocketChannelOption.DISPATCH_COUNT, 4)
+            .handler(new ChannelInboundHandlerAdapter() {
+                private final List<Byte> frames = new ArrayList<>();
+
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    ByteBuf buffer = (ByteBuf) msg;
+                    assertThat(buffer.alloc(), sameInstance(ctx.alloc()));
+                    while (buffer.isReadable()) {
+                        frames.add(buffer.readByte());
+                    }
+                    buffer.release();
+                }
+
+                @Override
+                public void channelReadComplete(ChannelHandlerContext ctx) {
+                    readCycles.add(new ArrayList<>(frames));
+                    frames.clear();
+                    ctx.fireChannelReadComplete();
+                }
+            })
+            .connect(new RawSocketAddress("10.10.64.20")).sync().channel();
+    }
+
+    private static class TestFrameSource implements FrameSource {
+
+        private final List<byte[]> sent = new CopyOnWriteArrayList<>();
+
+        private volatile RawSocketChannel channel;
+
+        private volatile boolean closed;
+
+        @Override
+        public void open(RawSocketChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void send(ByteBuf frame) {
+            byte[] bytes = new byte[frame.readableBytes()];
+            frame.getBytes(frame.readerIndex(), bytes);
+            sent.add(bytes);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
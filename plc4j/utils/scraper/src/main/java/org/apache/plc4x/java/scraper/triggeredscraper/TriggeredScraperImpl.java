@@ -181,6 +181,12 @@ public class TriggeredScraperImpl implements Scraper {
             LOGGER.debug("Stopping task {}...", entry.getKey());
             entry.getValue().cancel(true);
         }
+        // Close the connections held by the tasks
+        for (ScraperTask task : futures.keySet()) {
+            if (task instanceof TriggeredScraperTask) {
+                ((TriggeredScraperTask) task).close();
+            }
+        }
         // Clear the map
         futures.clear();
     }
@@ -32,6 +32,7 @@ import org.apache.plc4x.java.scraper.ResultHandler;
 import org.apache.plc4x.java.scraper.ScraperTask;
 import org.apache.plc4x.java.scraper.exception.ScraperException;
 import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.TriggerHandler;
+import org.apache.plc4x.java.utils.connectionpool.PooledPlcDriverManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,17 +41,23 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * performs the triggered task from a job for one device based on the TriggerHandler as defined in Configuration
+ * The connection to the device is kept open between the runs and is only re-established (with an increasing backoff)
+ * after it failed. If a trigger variable is used, it is read together with the fields of the job in one request.
  * ToDo Implement the monitoring as well: PLC4X-90
  */
-public class TriggeredScraperTask implements ScraperTask {
+public class TriggeredScraperTask implements ScraperTask, AutoCloseable {
     private static final Logger LOGGER = LoggerFactory.getLogger(TriggeredScraperTask.class);
 
+    private static final long MIN_RECONNECT_BACKOFF_MS = 500;
+    private static final long MAX_RECONNECT_BACKOFF_MS = 30_000;
+
     private final PlcDriverManager driverManager;
     private final String jobName;
     private final String connectionAlias;
@@ -66,6 +73,11 @@ public class TriggeredScraperTask implements ScraperTask {
     private final DescriptiveStatistics latencyStatistics = new DescriptiveStatistics(1000);
     private final DescriptiveStatistics failedStatistics = new DescriptiveStatistics(1000);
 
+    private PlcConnection connection;
+    private long reconnectBackoffMs = MIN_RECONNECT_BACKOFF_MS;
+    private long nextConnectAttempt = 0L;
+    private boolean closed = false;
+
     public TriggeredScraperTask(PlcDriverManager driverManager,
                                 String jobName,
                                 String connectionAlias,
@@ -89,66 +101,152 @@ public class TriggeredScraperTask implements ScraperTask {
     @Override
     //ToDo code-refactoring and improved testing --> PLC4X-90
     public void run() {
-        if(this.triggerHandler.checkTrigger()) {
-            // Does a single fetch only when trigger is valid
+        PlcConnection plcConnection = getConnection();
+        if (plcConnection == null) {
+            // Not connected, waiting for the next reconnect attempt
+            return;
+        }
+        // The trigger variable is read with the fields, unless one of the fields uses the same name
+        boolean triggerVariableRequired = triggerHandler.isTriggerVariableRequired();
+        boolean foldTrigger = triggerVariableRequired && !fields.containsKey(TriggerHandler.TRIGGER);
+        if (!triggerVariableRequired && !triggerHandler.checkTrigger()) {
+            return;
+        }
+        StopWatch stopWatch = new StopWatch();
+        PlcReadResponse response;
+        try {
+            if (triggerVariableRequired && !foldTrigger) {
+                PlcReadRequest.Builder triggerBuilder = plcConnection.readRequestBuilder();
+                triggerHandler.addTriggerItem(triggerBuilder);
+                if (!triggerHandler.checkTrigger(execute(triggerBuilder))) {
+                    return;
+                }
+            }
             LOGGER.trace("Start new scrape of task of job {} for connection {}", jobName, connectionAlias);
-            requestCounter.incrementAndGet();
-            StopWatch stopWatch = new StopWatch();
             stopWatch.start();
-            PlcConnection connection = null;
-            try {
-                CompletableFuture<PlcConnection> future = CompletableFuture.supplyAsync(() -> {
-                    try {
-                        return driverManager.getConnection(connectionString);
-                    } catch (PlcConnectionException e) {
-                        LOGGER.warn("Unable to instantiate connection to " + connectionString, e);
-                        throw new PlcRuntimeException(e);
-                    }
-                }, executorService);
-                connection = future.get(10 * requestTimeoutMs, TimeUnit.MILLISECONDS);
-                LOGGER.trace("Connection to {} established: {}", connectionString, connection);
-                PlcReadResponse response;
+            PlcReadRequest.Builder builder = plcConnection.readRequestBuilder();
+            fields.forEach((alias, qry) -> {
+                LOGGER.trace("Requesting: {} -> {}", alias, qry);
+                builder.addItem(alias, qry);
+            });
+            if (foldTrigger) {
+                triggerHandler.addTriggerItem(builder);
+            }
+            response = execute(builder);
+            if (foldTrigger && !triggerHandler.checkTrigger(response)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            LOGGER.debug("Exception during scrape", e);
+            requestCounter.incrementAndGet();
+            failedStatistics.addValue(1.0);
+            dropBrokenConnection(plcConnection);
+            handleException(e);
+            return;
+        }
+        requestCounter.incrementAndGet();
+        // Add statistics
+        stopWatch.stop();
+        latencyStatistics.addValue(stopWatch.getNanoTime());
+        failedStatistics.addValue(0.0);
+        successCounter.incrementAndGet();
+        // Validate response
+        validateResponse(response);
+        // Handle response (Async)
+        CompletableFuture.runAsync(() -> resultHandler.handle(jobName, connectionAlias, transformResponseToMap(response)), executorService);
+    }
+
+    private PlcReadResponse execute(PlcReadRequest.Builder builder) throws InterruptedException, ExecutionException, TimeoutException {
+        return builder
+            .build()
+            .execute()
+            .get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the connection of this task, connecting if there is none and no reconnect backoff is pending,
+     * null if there is no connection
+     */
+    private synchronized PlcConnection getConnection() {
+        if (connection != null && !connection.isConnected()) {
+            LOGGER.debug("Connection to {} was lost", connectionString);
+            dropBrokenConnection(connection);
+        }
+        if (connection != null || closed) {
+            return connection;
+        }
+        if (System.currentTimeMillis() < nextConnectAttempt) {
+            return null;
+        }
+        try {
+            CompletableFuture<PlcConnection> future = CompletableFuture.supplyAsync(() -> {
                 try {
-                    PlcReadRequest.Builder builder = connection.readRequestBuilder();
-                    fields.forEach((alias, qry) -> {
-                        LOGGER.trace("Requesting: {} -> {}", alias, qry);
-                        builder.addItem(alias, qry);
-                    });
-                    response = builder
-                        .build()
-                        .execute()
-                        .get(requestTimeoutMs, TimeUnit.MILLISECONDS);
-                } catch (ExecutionException e) {
-                    // Handle execution exception
-                    handleException(e);
-                    return;
-                }
-                // Add statistics
-                stopWatch.stop();
-                latencyStatistics.addValue(stopWatch.getNanoTime());
-                failedStatistics.addValue(0.0);
-                successCounter.incrementAndGet();
-                // Validate response
-                validateResponse(response);
-                // Handle response (Async)
-                CompletableFuture.runAsync(() -> resultHandler.handle(jobName, connectionAlias, transformResponseToMap(response)), executorService);
-            } catch (Exception e) {
-                LOGGER.debug("Exception during scrape", e);
-                handleException(e);
-            } finally {
-                if (connection != null) {
-                    try {
-                        connection.close();
-                    } catch (Exception e) {
-                        LOGGER.warn("Error on closing connection",e);
-                    }
+                    return driverManager.getConnection(connectionString);
+                } catch (PlcConnectionException e) {
+                    LOGGER.warn("Unable to instantiate connection to " + connectionString, e);
+                    throw new PlcRuntimeException(e);
                 }
+            }, executorService);
+            connection = future.get(10 * requestTimeoutMs, TimeUnit.MILLISECONDS);
+            LOGGER.trace("Connection to {} established: {}", connectionString, connection);
+            reconnectBackoffMs = MIN_RECONNECT_BACKOFF_MS;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.debug("Unable to connect to {}, next attempt in {} ms", connectionString, reconnectBackoffMs, e);
+            nextConnectAttempt = System.currentTimeMillis() + reconnectBackoffMs;
+            reconnectBackoffMs = Math.min(2 * reconnectBackoffMs, MAX_RECONNECT_BACKOFF_MS);
+            handleException(e);
+        }
+        return connection;
+    }
+
+    private synchronized void closeConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (Exception e) {
+            LOGGER.warn("Error on closing connection",e);
+        }
+        connection = null;
+    }
+
+    /**
+     * closes the given connection after it failed, unless it was already replaced. A pooled connection is discarded
+     * instead of being handed out again.
+     */
+    private synchronized void dropBrokenConnection(PlcConnection brokenConnection) {
+        if (connection != brokenConnection) {
+            return;
+        }
+        connection = null;
+        try {
+            if (driverManager instanceof PooledPlcDriverManager) {
+                ((PooledPlcDriverManager) driverManager).closeBroken(brokenConnection);
+            } else {
+                brokenConnection.close();
             }
+        } catch (Exception e) {
+            LOGGER.warn("Error on closing connection",e);
         }
     }
 
+    /**
+     * closes the connection of this task, the task doesn't connect again afterwards
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        closeConnection();
+    }
+
     private void validateResponse(PlcReadResponse response) {
-        Map<String, PlcResponseCode> failedFields = response.getFieldNames().stream()
+        Map<String, PlcResponseCode> failedFields = fields.keySet().stream()
             .filter(name -> !PlcResponseCode.OK.equals(response.getResponseCode(name)))
             .collect(Collectors.toMap(
                 Function.identity(),
@@ -160,7 +258,7 @@ public class TriggeredScraperTask implements ScraperTask {
     }
 
     private Map<String, Object> transformResponseToMap(PlcReadResponse response) {
-        return response.getFieldNames().stream()
+        return fields.keySet().stream()
             .collect(Collectors.toMap(
                 name -> name,
                 response::getObject
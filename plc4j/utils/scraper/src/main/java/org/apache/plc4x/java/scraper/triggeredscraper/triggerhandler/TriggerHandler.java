@@ -18,26 +18,21 @@
  */
 package org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler;
 
-import org.apache.plc4x.java.api.PlcConnection;
-import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
-import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.apache.plc4x.java.scraper.exception.ScraperException;
 import org.apache.plc4x.java.scraper.triggeredscraper.TriggeredScrapeJobImpl;
 import org.apache.plc4x.java.scraper.triggeredscraper.TriggeredScraperTask;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
 /**
  * holds the handler for the regarding trigger-scraper on rising-trigger edge
  */
 public class TriggerHandler {
-    private static final Logger LOGGER = LoggerFactory.getLogger(TriggerHandler.class);
-    private static final String TRIGGER = "trigger";
+    /**
+     * name of the trigger variable within a read request
+     */
+    public static final String TRIGGER = "trigger";
 
     private final TriggerConfiguration triggerConfiguration;
     private final TriggeredScraperTask parentScraperTask;
@@ -52,7 +47,22 @@ public class TriggerHandler {
     }
 
     /**
-     * checks rising edge of trigger event
+     * @return true if the trigger variable has to be read from the PLC to check the trigger
+     */
+    public boolean isTriggerVariableRequired(){
+        return this.triggerConfiguration.getTriggerType() == TriggerConfiguration.TriggerType.S7_TRIGGER_VAR;
+    }
+
+    /**
+     * adds the trigger variable to the given read request, using {@link #TRIGGER} as name
+     * @param builder builder of the read request
+     */
+    public void addTriggerItem(PlcReadRequest.Builder builder){
+        builder.addItem(TRIGGER, triggerConfiguration.getTriggerVariable());
+    }
+
+    /**
+     * checks rising edge of trigger event for triggers not depending on a trigger variable
      * @return true on detection of rising edge, false otherwise
      */
     public boolean checkTrigger(){
@@ -60,72 +70,39 @@ public class TriggerHandler {
             case SCHEDULED:
                 //used base scheduling -> trigger is always true
                 return true;
-            case S7_TRIGGER_VAR:
-                return checkS7TriggerVariable();
             default:
-                //should not happen
+                //trigger variables are checked with checkTrigger(PlcReadResponse)
                 return false;
         }
     }
 
     /**
-     * acquires the given S7Field from S7 and evaluates if trigger is released
+     * evaluates if the trigger is released based on the trigger variable contained in the given response
+     * @param response response of a read request the trigger variable was added to with {@link #addTriggerItem(PlcReadRequest.Builder)}
      * @return true if rising-edge of trigger is detected, false otherwise
      */
-    private boolean checkS7TriggerVariable(){
-
-        CompletableFuture<PlcConnection> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                return parentScraperTask.getDriverManager().getConnection(parentScraperTask.getConnectionString());
-            } catch (PlcConnectionException e) {
-                LOGGER.warn("Unable to instantiate connection to " + parentScraperTask.getConnectionString(), e);
-                throw new PlcRuntimeException(e);
-            }
-        }, parentScraperTask.getExecutorService());
-        PlcConnection connection = null;
+    public boolean checkTrigger(PlcReadResponse response){
+        if(response.getResponseCode(TRIGGER) != PlcResponseCode.OK){
+            return false;
+        }
+        boolean trigger;
         try {
-            connection = future.get(parentScraperTask.getRequestTimeoutMs(), TimeUnit.MILLISECONDS);
-            LOGGER.trace("Connection to {} established: {}", parentScraperTask.getConnectionString(), connection);
-            PlcReadRequest.Builder builder = connection.readRequestBuilder();
-            builder.addItem(TRIGGER, triggerConfiguration.getTriggerVariable());
-            PlcReadResponse response = builder
-                .build()
-                .execute()
-                .get(parentScraperTask.getRequestTimeoutMs(), TimeUnit.MILLISECONDS);
-
             //check if trigger condition from TriggerConfiguration is fulfilled
-            boolean trigger = triggerConfiguration.evaluateTrigger(response.getObject(TRIGGER));
-
-            //only trigger scraping of data on rising edge of trigger
-            if(trigger && !this.lastTriggerState){
-                this.lastTriggerState = true;
-                return true;
-            }
-            else{
-                this.lastTriggerState = trigger;
-                return false;
-            }
-
-        } catch (Exception e) {
-            // Handle execution exception
+            trigger = triggerConfiguration.evaluateTrigger(response.getObject(TRIGGER));
+        } catch (ScraperException e) {
             parentScraperTask.handleException(e);
             return false;
         }
-        finally {
-            if (connection != null) {
-                try {
-                    connection.close();
-                } catch (Exception e) {
-                    LOGGER.warn("Error on closing connection",e);
-                    // intentionally do nothing
-                }
-            }
+
+        //only trigger scraping of data on rising edge of trigger
+        if(trigger && !this.lastTriggerState){
+            this.lastTriggerState = true;
+            return true;
+        }
+        else{
+            this.lastTriggerState = trigger;
+            return false;
         }
     }
 
-
-
-
-
-
 }
@@ -0,0 +1,125 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.scraper.triggeredscraper;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.base.messages.items.DefaultBooleanFieldItem;
+import org.apache.plc4x.java.base.messages.items.DefaultStringFieldItem;
+import org.apache.plc4x.java.mock.MockDevice;
+import org.apache.plc4x.java.mock.PlcMockConnection;
+import org.apache.plc4x.java.scraper.ResultHandler;
+import org.apache.plc4x.java.scraper.exception.ScraperException;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TriggeredScraperTaskTest implements WithAssertions {
+
+    private static final String CONNECTION_STRING = "mock:triggered";
+
+    @Mock
+    PlcDriverManager driverManager;
+
+    @Mock
+    MockDevice mockDevice;
+
+    @Mock
+    ResultHandler resultHandler;
+
+    private PlcMockConnection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = spy((PlcMockConnection) new PlcDriverManager().getConnection(CONNECTION_STRING));
+        connection.setDevice(mockDevice);
+        when(driverManager.getConnection(CONNECTION_STRING)).thenReturn(connection);
+        when(mockDevice.read("payload")).thenReturn(Pair.of(PlcResponseCode.OK, new DefaultStringFieldItem("hallo")));
+    }
+
+    @Test
+    void connectionIsKeptBetweenRuns() throws Exception {
+        TriggeredScraperTask task = createTask("(SCHEDULED,100)");
+
+        task.run();
+        task.run();
+        task.run();
+
+        verify(driverManager, times(1)).getConnection(CONNECTION_STRING);
+        verify(connection, never()).close();
+        verify(resultHandler, timeout(1_000).times(3)).handle(eq("job"), eq("alias"), anyMap());
+
+        task.close();
+        verify(connection).close();
+    }
+
+    @Test
+    void triggerVariableIsReadWithTheFields() throws Exception {
+        when(mockDevice.read("%M0.3:BOOL")).thenReturn(
+            Pair.of(PlcResponseCode.OK, new DefaultBooleanFieldItem(false)),
+            Pair.of(PlcResponseCode.OK, new DefaultBooleanFieldItem(true)),
+            Pair.of(PlcResponseCode.OK, new DefaultBooleanFieldItem(true)));
+        TriggeredScraperTask task = createTask("(S7_TRIGGER_VAR,10,(%M0.3:BOOL)==(true))");
+
+        task.run();
+        task.run();
+        task.run();
+
+        // One request per run, only the rising edge is handled
+        verify(connection, times(3)).read(any());
+        verify(resultHandler, timeout(1_000)).handle("job", "alias", Collections.singletonMap("payload", "hallo"));
+        verifyNoMoreInteractions(resultHandler);
+    }
+
+    @Test
+    void reconnectIsDelayedAfterFailure() throws Exception {
+        when(driverManager.getConnection(CONNECTION_STRING)).thenThrow(new PlcConnectionException("broken"));
+        TriggeredScraperTask task = createTask("(SCHEDULED,100)");
+
+        task.run();
+        task.run();
+
+        verify(driverManager, times(1)).getConnection(CONNECTION_STRING);
+        verifyZeroInteractions(resultHandler);
+    }
+
+    private TriggeredScraperTask createTask(String triggerConfig) throws ScraperException {
+        TriggeredScrapeJobImpl job = new TriggeredScrapeJobImpl("job", triggerConfig,
+            Collections.singletonMap("alias", CONNECTION_STRING), Collections.singletonMap("payload", "payload"));
+        return new TriggeredScraperTask(driverManager, "job", "alias", CONNECTION_STRING, job.getFields(),
+            1_000, ForkJoinPool.commonPool(), resultHandler, job);
+    }
+}
@@ -44,7 +44,8 @@ public class RequirePcapCondition implements ExecutionCondition {
                 String versionString = matcher.group("version");
                 return ConditionEvaluationResult.enabled("Found libpcap version " + versionString);
             }
-        } catch(Exception e) {
+        } catch(Exception | LinkageError e) {
+            // A missing native library is reported as UnsatisfiedLinkError.
             logger.info("Error detecting libpcap version.", e);
         }
         if(SystemUtils.IS_OS_WINDOWS) {
@@ -22,7 +22,7 @@ from thrift.transport import TSocket, TTransport
 from thrift.transport.TTransport import TTransportException
 
 transport = TSocket.TSocket('localhost', 9090)
-transport = TTransport.TBufferedTransport(transport)
+transport = TTransport.TFramedTransport(transport)
 protocol = TBinaryProtocol.TBinaryProtocol(transport)
 
 client = Client(protocol)
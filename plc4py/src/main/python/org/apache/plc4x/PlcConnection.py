@@ -32,10 +32,29 @@ class PlcConnection:
         response = self.client.execute(self.handle, request)
         return PlcResponse(response)
 
+    def subscribe(self, request):
+        return PlcSubscription(self.client, self.client.subscribe(self.handle, request))
+
     def close(self):
         self.client.close(self.handle)
 
 
+class PlcSubscription:
+
+    def __init__(self, client, handle):
+        self.client = client
+        self.handle = handle
+
+    def next_events(self, max_events=0, max_wait_ms=1000):
+        """
+        Returns a batch of queued events, waits up to max_wait_ms for the next event if none is queued.
+        """
+        return self.client.nextEvents(self.handle, max_events, max_wait_ms)
+
+    def unsubscribe(self):
+        self.client.unsubscribe(self.handle)
+
+
 class PlcResponse:
     fields: dict
 
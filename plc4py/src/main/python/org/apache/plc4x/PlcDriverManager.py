@@ -55,7 +55,7 @@ class PlcDriverManager:
                     "Unable to start the Interop Server. Is another Server still running under the same port?")
 
         self.transport = TSocket.TSocket('localhost', 9090)
-        self.transport = TTransport.TBufferedTransport(self.transport)
+        self.transport = TTransport.TFramedTransport(self.transport)
 
         self.protocol = TBinaryProtocol.TBinaryProtocol(self.transport)
 
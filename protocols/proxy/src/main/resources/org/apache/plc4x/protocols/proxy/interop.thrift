@@ -82,12 +82,95 @@ struct Response {
   1: map<string, FieldResponse> fields
 }
 
+struct BatchRequest {
+  1: ConnectionHandle handle,
+  2: Request request
+}
+
+/**
+ * Exactly one of response and exception is set.
+ */
+struct BatchResponse {
+  1: optional Response response,
+  2: optional PlcException exception
+}
+
+enum SUBSCRIPTION_TYPE {
+  CYCLIC = 1,
+  CHANGE_OF_STATE = 2,
+  EVENT = 3
+}
+
+/**
+ * What happens to a new event if the queue of a subscription is full:
+ * DROP_OLDEST drops the oldest queued event, DROP_NEWEST drops the new one and
+ * COALESCE merges the new event into the newest queued one, so only the latest
+ * value of every field is kept.
+ */
+enum OVERFLOW_POLICY {
+  DROP_OLDEST = 1,
+  DROP_NEWEST = 2,
+  COALESCE = 3
+}
+
+struct SubscriptionField {
+  1: string fieldQuery,
+  2: SUBSCRIPTION_TYPE subscriptionType,
+  // Only used for cyclic subscriptions.
+  3: optional i64 cycleTimeMs
+}
+
+struct SubscriptionRequest {
+  1: map<string, SubscriptionField> fields,
+  // Defaults to 1000 events.
+  2: optional i32 queueSize,
+  // Defaults to COALESCE.
+  3: optional OVERFLOW_POLICY overflowPolicy
+}
+
+struct SubscriptionHandle {
+  1: i64 subscriptionId
+}
+
+struct SubscriptionEvent {
+  // Milliseconds since the epoch.
+  1: i64 timestamp,
+  2: map<string, FieldResponse> fields
+}
+
+struct SubscriptionEvents {
+  1: list<SubscriptionEvent> events,
+  // Number of events dropped or coalesced since the previous call.
+  2: i64 droppedEvents
+}
+
+/**
+ * The server is a nonblocking server, so clients have to wrap their socket in a
+ * framed transport (TFramedTransport). A buffered transport doesn't work.
+ */
 service InteropServer {
 
    ConnectionHandle connect(1: string connectionString) throws (1: PlcException connectionException),
 
    Response execute(1: ConnectionHandle handle, 2: Request request) throws (1: PlcException executionException),
 
-   void close(1: ConnectionHandle handle)
+   /**
+    * Executes all requests concurrently, the responses are returned in the order of the requests.
+    * A failing request doesn't fail the others, its exception is returned in its response instead.
+    */
+   list<BatchResponse> executeMany(1: list<BatchRequest> requests),
+
+   void close(1: ConnectionHandle handle),
+
+   SubscriptionHandle subscribe(1: ConnectionHandle handle, 2: SubscriptionRequest request) throws (1: PlcException subscriptionException),
+
+   /**
+    * Returns up to maxEvents queued events. If no event is queued, the call waits
+    * up to maxWaitMs for the next one (long poll). A maxEvents of 0 returns all
+    * queued events.
+    */
+   SubscriptionEvents nextEvents(1: SubscriptionHandle handle, 2: i32 maxEvents, 3: i32 maxWaitMs) throws (1: PlcException subscriptionException),
+
+   void unsubscribe(1: SubscriptionHandle handle)
 
 }
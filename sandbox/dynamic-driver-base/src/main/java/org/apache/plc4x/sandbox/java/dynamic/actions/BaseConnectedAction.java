@@ -19,16 +19,21 @@
 
 package org.apache.plc4x.sandbox.java.dynamic.actions;
 
+import io.netty.channel.Channel;
 import org.apache.commons.scxml2.ActionExecutionContext;
-
-import java.net.Socket;
+import org.apache.plc4x.sandbox.java.dynamic.utils.FrameQueue;
 
 public abstract class BaseConnectedAction extends BasePlc4xAction {
 
     public static final String SOCKET_PARAMETER_NAME="connection";
 
-    protected Socket getSocket(ActionExecutionContext ctx) {
-        return (Socket) ctx.getGlobalContext().get(SOCKET_PARAMETER_NAME);
+    protected Channel getChannel(ActionExecutionContext ctx) {
+        return (Channel) ctx.getGlobalContext().get(SOCKET_PARAMETER_NAME);
+    }
+
+    protected FrameQueue getFrameQueue(ActionExecutionContext ctx) {
+        Channel channel = getChannel(ctx);
+        return (channel != null) ? channel.pipeline().get(FrameQueue.class) : null;
     }
 
 }
@@ -19,15 +19,29 @@
 
 package org.apache.plc4x.sandbox.java.dynamic.actions;
 
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
 import org.apache.commons.scxml2.ActionExecutionContext;
+import org.apache.plc4x.java.base.connection.EventLoopGroupProvider;
+import org.apache.plc4x.sandbox.java.dynamic.utils.FrameQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.net.Socket;
-
+/**
+ * Opens the connection to the remote. The host and port given in the state-machine are defaults, the "hostname" and
+ * "port" the connection was created with take precedence.
+ */
 public class ConnectAction extends BasePlc4xAction {
 
+    public static final String HOSTNAME_PARAMETER_NAME = "hostname";
+    public static final String PORT_PARAMETER_NAME = "port";
+
     private String type;
     private String host;
     private String port;
@@ -64,18 +78,53 @@ public class ConnectAction extends BasePlc4xAction {
     @Override
     public void execute(ActionExecutionContext ctx) {
         getLogger().info(getStateName() + ": Connecting...");
-        try {
-            if ("TCP".equalsIgnoreCase(type)) {
-                Socket socket = new Socket(host, Integer.parseInt(port));
-                ctx.getGlobalContext().set(BaseConnectedAction.SOCKET_PARAMETER_NAME, socket);
+        if (!"TCP".equalsIgnoreCase(type)) {
+            fireFailureEvent(ctx, "Unsupported connection type: " + type);
+            return;
+        }
 
-                getLogger().info("Connected.");
+        // The address the connection was created with replaces the one in the state-machine.
+        Object hostname = ctx.getGlobalContext().get(HOSTNAME_PARAMETER_NAME);
+        Object portNumber = ctx.getGlobalContext().get(PORT_PARAMETER_NAME);
+        String remoteHost = (hostname != null) ? hostname.toString() : host;
+        String remotePort = (portNumber != null) ? portNumber.toString() : port;
+        if ((remoteHost == null) || (remotePort == null)) {
+            fireFailureEvent(ctx, "No host and port to connect to.");
+            return;
+        }
 
-                fireSuccessEvent(ctx);
-            }
-        } catch (IOException e) {
+        EventLoopGroup group = EventLoopGroupProvider.acquire("nio", NioEventLoopGroup::new);
+        try {
+            Bootstrap bootstrap = new Bootstrap();
+            bootstrap.group(group);
+            bootstrap.channel(NioSocketChannel.class);
+            bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
+            bootstrap.option(ChannelOption.TCP_NODELAY, true);
+            bootstrap.handler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel channel) {
+                    // The receive actions know where to find the length of a packet, so they add the frame decoder.
+                    channel.pipeline().addLast(new FrameQueue());
+                }
+            });
+            Channel channel = bootstrap.connect(remoteHost, Integer.parseInt(remotePort)).sync().channel();
+            channel.closeFuture().addListener(future -> EventLoopGroupProvider.release(group));
+            ctx.getGlobalContext().set(BaseConnectedAction.SOCKET_PARAMETER_NAME, channel);
+        } catch (InterruptedException e) {
+            EventLoopGroupProvider.release(group);
+            Thread.currentThread().interrupt();
+            fireFailureEvent(ctx, "Interrupted while connecting to remote.");
+            return;
+        } catch (Exception e) {
+            EventLoopGroupProvider.release(group);
             getLogger().error("Error connecting to remote.", e);
+            fireFailureEvent(ctx, "Error connecting to remote: " + e.getMessage());
+            return;
         }
+
+        getLogger().info("Connected.");
+
+        fireSuccessEvent(ctx);
     }
 
 }
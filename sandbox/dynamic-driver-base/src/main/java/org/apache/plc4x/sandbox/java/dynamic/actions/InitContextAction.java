@@ -22,15 +22,13 @@ package org.apache.plc4x.sandbox.java.dynamic.actions;
 import org.apache.commons.scxml2.ActionExecutionContext;
 import org.apache.commons.scxml2.EventBuilder;
 import org.apache.commons.scxml2.TriggerEvent;
-import org.apache.daffodil.japi.Compiler;
-import org.apache.daffodil.japi.*;
+import org.apache.daffodil.japi.DataProcessor;
+import org.apache.plc4x.sandbox.java.dynamic.utils.DataProcessorCache;
 import org.apache.plc4x.sandbox.java.dynamic.utils.RequestRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.net.URI;
 import java.net.URL;
-import java.util.List;
 
 public class InitContextAction extends BasePlc4xAction {
 
@@ -65,16 +63,11 @@ public class InitContextAction extends BasePlc4xAction {
         // Initialize the Daffodil system for parsing and serializing the
         // protocol messages.
         try {
-            Compiler c = Daffodil.compiler();
-            c.setValidateDFDLSchemas(true);
             String schemaUrlString = (String) ctx.getGlobalContext().get(protocolDaffodilSchemaName);
             URL schemaUrl = SendAction.class.getClassLoader().getResource(schemaUrlString);
             if (schemaUrl != null) {
-                URI schemaUri = schemaUrl.toURI();
-                ProcessorFactory pf = c.compileSource(schemaUri);
-                logDiagnosticInformation(pf);
-                DataProcessor dp = pf.onPath("/");
-                logDiagnosticInformation(dp);
+                // Compiling the schema is expensive, so all connections share one processor per schema.
+                DataProcessor dp = DataProcessorCache.getDataProcessor(schemaUrl.toURI());
                 ctx.getGlobalContext().set("dfdl", dp);
             }
         } catch (Exception e) {
@@ -93,14 +86,4 @@ public class InitContextAction extends BasePlc4xAction {
         fireSuccessEvent(ctx);
     }
 
-    private void logDiagnosticInformation(WithDiagnostics withDiagnostics) throws Exception {
-        if(withDiagnostics.isError()) {
-            List<Diagnostic> diags = withDiagnostics.getDiagnostics();
-            for (Diagnostic d : diags) {
-                getLogger().error(d.getSomeMessage());
-            }
-            throw new Exception();
-        }
-    }
-
 }
@@ -19,13 +19,13 @@
 
 package org.apache.plc4x.sandbox.java.dynamic.actions;
 
+import io.netty.buffer.ByteBuf;
 import org.apache.commons.scxml2.ActionExecutionContext;
-import org.apache.commons.scxml2.EventBuilder;
-import org.apache.commons.scxml2.TriggerEvent;
 import org.apache.daffodil.japi.DataProcessor;
 import org.apache.daffodil.japi.ParseResult;
 import org.apache.daffodil.japi.infoset.JDOMInfosetOutputter;
 import org.apache.daffodil.japi.io.InputSourceDataInputStream;
+import org.apache.plc4x.sandbox.java.dynamic.utils.FrameQueue;
 import org.jdom2.Document;
 import org.jdom2.Namespace;
 import org.jdom2.Text;
@@ -36,13 +36,14 @@ import org.jdom2.xpath.XPathFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
-import java.net.Socket;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Takes the next packet cut by the frame decoder of the connection (see {@link FrameQueue}) and parses it.
+ */
 public abstract class ReceiveAction extends BaseDaffodilAction {
 
     private long timeout = 5000;
@@ -50,6 +51,9 @@ public abstract class ReceiveAction extends BaseDaffodilAction {
     private int packetLengthSizeInBytes;
     private int packetLengthOffset = 0;
 
+    // Compiling an XPath expression is far more expensive than evaluating it, so every rule is only compiled once.
+    private final Map<String, XPathExpression<Text>> ruleExpressions = new ConcurrentHashMap<>();
+
     @Override
     protected Logger getLogger() {
         return LoggerFactory.getLogger(ReceiveAction.class);
@@ -98,69 +102,47 @@ public abstract class ReceiveAction extends BaseDaffodilAction {
                 return;
             }
 
-            Socket connection = getSocket(ctx);
-            DataInputStream inputStream = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
-
-            // Remember when we started to receive.
-            long startTime = System.currentTimeMillis();
-
-            // Check if enough bytes are available to at least find out how big the full packet is.
-            while(inputStream.available() < packetLengthStartPosition + packetLengthSizeInBytes) {
-                waitWithTimeout(ctx, startTime, timeout);
-            }
-
-            // Read these length bytes and reset the input stream back to the start.
-            inputStream.mark(packetLengthStartPosition + packetLengthSizeInBytes);
-            // Jump to the start of the length data.
-            inputStream.skip(packetLengthStartPosition);
-
-            // Read the packet length.
-            int packetLength;
-            switch (packetLengthSizeInBytes) {
-                case 1:
-                    packetLength = inputStream.readUnsignedByte();
-                    break;
-                case 2:
-                    packetLength = inputStream.readUnsignedShort();
-                    break;
-                default:
-                    fireFailureEvent(ctx, "Unsupported size for packet length: " + packetLengthSizeInBytes);
-                    return;
+            FrameQueue frameQueue = getFrameQueue(ctx);
+            if(frameQueue == null) {
+                fireFailureEvent(ctx, "Not connected.");
+                return;
             }
-            packetLength += packetLengthOffset;
-
-            // Go back to the beginning of the packet.
-            inputStream.reset();
 
-            // Wait till the entire packet is available.
-            while(inputStream.available() < packetLength) {
-                waitWithTimeout(ctx, startTime, timeout);
-            }
+            // The frame decoder is set up by the first receive, all following ones have to describe the same packets.
+            frameQueue.configureFraming(packetLengthStartPosition, packetLengthSizeInBytes, packetLengthOffset);
 
-            byte[] packet = new byte[packetLength];
-            if(inputStream.read(packet) != packetLength) {
-                TriggerEvent event = new EventBuilder("failure", TriggerEvent.SIGNAL_EVENT).
-                    data("Couldn't read entire packet.").build();
-                ctx.getInternalIOProcessor().addEvent(event);
+            // Wait till the frame decoder has cut the next packet.
+            ByteBuf packet = frameQueue.poll(timeout, TimeUnit.MILLISECONDS);
+            if(packet == null) {
+                fireFailureEvent(ctx, frameQueue.isClosed() ? "Connection closed." : "Receive timed out.");
                 return;
             }
 
-            // After having enough bytes available, process the current package.
-            JDOMInfosetOutputter outputter = new JDOMInfosetOutputter();
-            ParseResult byteMessage = dp.parse(
-                new InputSourceDataInputStream(new ByteArrayInputStream(packet)), outputter);
-            if (byteMessage.isError()) {
-                logDiagnosticInformation(byteMessage);
-                return;
-            }
+            Document message;
+            try {
+                JDOMInfosetOutputter outputter = new JDOMInfosetOutputter();
+                ParseResult byteMessage = dp.parse(new InputSourceDataInputStream(packet.nioBuffer()), outputter);
+                if (byteMessage.isError()) {
+                    logDiagnosticInformation(byteMessage);
+                    fireFailureEvent(ctx, "Error parsing message.");
+                    return;
+                }
 
-            // Get the resulting XML document from the parser.
-            Document message = outputter.getResult();
+                // Get the resulting XML document from the parser.
+                message = outputter.getResult();
+            } finally {
+                packet.release();
+            }
 
             // Do any form of processing.
             processMessage(message, ctx);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fireFailureEvent(ctx, "Interrupted while receiving.");
+            return;
         } catch (Exception e) {
             fireFailureEvent(ctx, e.getMessage());
+            return;
         }
 
         getLogger().info("Received.");
@@ -170,12 +152,11 @@ public abstract class ReceiveAction extends BaseDaffodilAction {
     protected abstract void processMessage(Document message, ActionExecutionContext ctx);
 
     String getRuleText(Document message, String xpathExpression) {
-        // Get the namespace definitions from the input document.
-        List<Namespace> namespaces = message.getRootElement().getNamespacesInScope();
-
-        XPathFactory xPathFactory = XPathFactory.instance();
-        XPathExpression<org.jdom2.Text> xpath = xPathFactory.compile(
-            xpathExpression, Filters.textOnly(), null, namespaces);
+        XPathExpression<Text> xpath = ruleExpressions.computeIfAbsent(xpathExpression, expression -> {
+            // Get the namespace definitions from the input document, they are the same for all messages.
+            List<Namespace> namespaces = message.getRootElement().getNamespacesInScope();
+            return XPathFactory.instance().compile(expression, Filters.textOnly(), null, namespaces);
+        });
         List<Text> result = xpath.evaluate(message);
         if((result == null) || result.isEmpty()) {
             getLogger().info("Couldn't find value for xpath expression: " + xpathExpression + " in document.");
@@ -187,15 +168,4 @@ public abstract class ReceiveAction extends BaseDaffodilAction {
         return result.get(0).getTextNormalize();
     }
 
-    private void waitWithTimeout(ActionExecutionContext ctx, long startTime, long timeout) {
-        try {
-            TimeUnit.MILLISECONDS.sleep(20);
-            if(System.currentTimeMillis() - startTime > timeout) {
-                fireFailureEvent(ctx, "Receive timed out.");
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
-
 }
@@ -19,6 +19,9 @@
 
 package org.apache.plc4x.sandbox.java.dynamic.actions;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.Channel;
 import org.apache.commons.scxml2.ActionExecutionContext;
 import org.apache.commons.scxml2.model.ParsedValue;
 import org.apache.daffodil.japi.DataProcessor;
@@ -31,9 +34,6 @@ import org.jdom2.input.DOMBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.DataOutputStream;
-import java.io.IOException;
-import java.net.Socket;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
 
@@ -62,29 +62,32 @@ public class SendAction extends BaseDaffodilAction {
 
         if(getParsedValue() != null) {
             if(getParsedValue().getType() == ParsedValue.ValueType.NODE) {
-                try {
-                    // Do any form of processing.
-                    processMessage(messageTemplate, ctx);
-
-                    DataProcessor dp = getDaffodilDataProcessor(ctx);
-                    if(dp == null) {
-                        fireFailureEvent(ctx, "Couldn't initialize daffodil data processor.");
-                        return;
-                    }
-                    InfosetInputter inputter = new JDOMTemplateInfosetInputter(messageTemplate, ctx.getGlobalContext());
-
-                    Socket connection = getSocket(ctx);
-                    DataOutputStream outputStream = new DataOutputStream(connection.getOutputStream());
-                    WritableByteChannel wbc = Channels.newChannel(outputStream);
-                    UnparseResult byteMessage = dp.unparse(inputter, wbc);
-                    if(byteMessage.isError()) {
-                        logDiagnosticInformation(byteMessage);
-                        return;
-                    }
-                    outputStream.flush();
-                } catch(IOException e) {
-                    e.printStackTrace();
+                // Do any form of processing.
+                processMessage(messageTemplate, ctx);
+
+                DataProcessor dp = getDaffodilDataProcessor(ctx);
+                if(dp == null) {
+                    fireFailureEvent(ctx, "Couldn't initialize daffodil data processor.");
+                    return;
+                }
+                InfosetInputter inputter = new JDOMTemplateInfosetInputter(messageTemplate, ctx.getGlobalContext());
+
+                Channel channel = getChannel(ctx);
+                if((channel == null) || !channel.isActive()) {
+                    fireFailureEvent(ctx, "Not connected.");
+                    return;
+                }
+                // Serialize the message directly into a buffer of the channel.
+                ByteBuf buffer = channel.alloc().buffer();
+                WritableByteChannel wbc = Channels.newChannel(new ByteBufOutputStream(buffer));
+                UnparseResult byteMessage = dp.unparse(inputter, wbc);
+                if(byteMessage.isError()) {
+                    buffer.release();
+                    logDiagnosticInformation(byteMessage);
+                    fireFailureEvent(ctx, "Error serializing message.");
+                    return;
                 }
+                channel.writeAndFlush(buffer);
             } else {
                 fireFailureEvent(ctx, "type '" + getParsedValue().getType() + "' not supported");
                 return;
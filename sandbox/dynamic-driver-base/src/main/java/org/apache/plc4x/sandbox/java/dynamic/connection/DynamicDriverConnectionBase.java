@@ -19,6 +19,7 @@
 
 package org.apache.plc4x.sandbox.java.dynamic.connection;
 
+import io.netty.channel.Channel;
 import org.apache.commons.scxml2.EventBuilder;
 import org.apache.commons.scxml2.SCXMLExecutor;
 import org.apache.commons.scxml2.TriggerEvent;
@@ -128,6 +129,10 @@ public abstract class DynamicDriverConnectionBase extends AbstractPlcConnection
             return;
         }
         executor.triggerEvent(new EventBuilder(getDisconnectTransitionName(), TriggerEvent.CALL_EVENT).build());
+        Object channel = executor.getGlobalContext().get(BaseConnectedAction.SOCKET_PARAMETER_NAME);
+        if(channel instanceof Channel) {
+            ((Channel) channel).close();
+        }
     }
 
     @Override
@@ -0,0 +1,202 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.sandbox.java.dynamic.utils;
+
+import org.apache.daffodil.japi.Compiler;
+import org.apache.daffodil.japi.*;
+import org.apache.plc4x.java.api.exceptions.PlcException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Process wide cache of compiled DFDL schemas.
+ * <p>
+ * Compiling a schema takes seconds, so every schema is only compiled once and the resulting {@link DataProcessor} is
+ * shared by all connections using it. Processors are keyed by the schema URI and a hash of the schema file, so a
+ * changed schema is compiled again.
+ * <p>
+ * If the system property {@value #CACHE_DIRECTORY_PROPERTY} names a directory, compiled processors are saved there
+ * and reloaded by later processes instead of compiling the schema again. Saved processors which can't be reloaded
+ * (for example ones saved by another Daffodil version) are replaced. Only the schema file itself is hashed, so the
+ * directory has to be cleared if just an imported schema changes.
+ */
+public final class DataProcessorCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataProcessorCache.class);
+
+    public static final String CACHE_DIRECTORY_PROPERTY = "plc4x.dfdl.cache.dir";
+
+    private static final ConcurrentMap<URI, CachedProcessor> processors = new ConcurrentHashMap<>();
+
+    private DataProcessorCache() {
+        // Utility class
+    }
+
+    /**
+     * Returns the processor for the given schema, compiling the schema if no other connection did so before.
+     * Concurrent calls for the same schema wait for one single compilation.
+     *
+     * @param schemaUri URI of the DFDL schema.
+     * @return the processor for the root element of the schema.
+     * @throws PlcException if the schema can't be read or compiled.
+     */
+    public static DataProcessor getDataProcessor(URI schemaUri) throws PlcException {
+        String hash = hash(schemaUri);
+        CachedProcessor candidate = new CachedProcessor(hash);
+        CachedProcessor cached = processors.merge(schemaUri, candidate,
+            (current, newProcessor) -> current.hash.equals(hash) ? current : newProcessor);
+        if (cached == candidate) {
+            try {
+                candidate.future.complete(load(schemaUri, hash));
+            } catch (PlcException | RuntimeException e) {
+                processors.remove(schemaUri, candidate);
+                candidate.future.completeExceptionally(e);
+            }
+        }
+        try {
+            return cached.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlcException("Interrupted while waiting for the compilation of " + schemaUri, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PlcException) {
+                throw (PlcException) e.getCause();
+            }
+            throw new PlcException("Error compiling " + schemaUri, e.getCause());
+        }
+    }
+
+    private static DataProcessor load(URI schemaUri, String hash) throws PlcException {
+        Compiler compiler = Daffodil.compiler();
+        compiler.setValidateDFDLSchemas(true);
+
+        Path savedParser = getSavedParserPath(hash);
+        if ((savedParser != null) && Files.isRegularFile(savedParser)) {
+            try {
+                DataProcessor dataProcessor = compiler.reload(savedParser.toFile());
+                LOGGER.debug("Reloaded compiled schema {} from {}", schemaUri, savedParser);
+                return dataProcessor;
+            } catch (InvalidParserException e) {
+                LOGGER.info("Compiling {} again, as {} can't be reloaded", schemaUri, savedParser, e);
+            }
+        }
+
+        long start = System.nanoTime();
+        ProcessorFactory processorFactory;
+        try {
+            processorFactory = compiler.compileSource(schemaUri);
+        } catch (IOException e) {
+            throw new PlcException("Error reading " + schemaUri, e);
+        }
+        checkDiagnostics(schemaUri, processorFactory);
+        DataProcessor dataProcessor = processorFactory.onPath("/");
+        checkDiagnostics(schemaUri, dataProcessor);
+        LOGGER.info("Compiled {} in {} ms", schemaUri, (System.nanoTime() - start) / 1_000_000);
+
+        if (savedParser != null) {
+            save(dataProcessor, savedParser);
+        }
+        return dataProcessor;
+    }
+
+    private static void save(DataProcessor dataProcessor, Path savedParser) {
+        try {
+            Files.createDirectories(savedParser.getParent());
+            // Write to a temporary file first, so other processes never reload a partially written parser.
+            Path tempFile = Files.createTempFile(savedParser.getParent(), savedParser.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                    dataProcessor.save(channel);
+                }
+                Files.move(tempFile, savedParser, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Error saving compiled schema to {}", savedParser, e);
+        }
+    }
+
+    private static void checkDiagnostics(URI schemaUri, WithDiagnostics withDiagnostics) throws PlcException {
+        if (withDiagnostics.isError()) {
+            List<Diagnostic> diags = withDiagnostics.getDiagnostics();
+            for (Diagnostic d : diags) {
+                LOGGER.error(d.getSomeMessage());
+            }
+            throw new PlcException("Error compiling " + schemaUri);
+        }
+    }
+
+    private static String hash(URI schemaUri) throws PlcException {
+        try (InputStream in = schemaUri.toURL().openStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new PlcException("Error reading " + schemaUri, e);
+        }
+    }
+
+    private static Path getSavedParserPath(String hash) {
+        String cacheDirectory;
+        try {
+            cacheDirectory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+        } catch (SecurityException e) {
+            return null;
+        }
+        if (cacheDirectory == null) {
+            return null;
+        }
+        return Paths.get(cacheDirectory, hash + ".bin");
+    }
+
+    private static class CachedProcessor {
+
+        private final String hash;
+
+        private final CompletableFuture<DataProcessor> future = new CompletableFuture<>();
+
+        private CachedProcessor(String hash) {
+            this.hash = hash;
+        }
+    }
+
+}
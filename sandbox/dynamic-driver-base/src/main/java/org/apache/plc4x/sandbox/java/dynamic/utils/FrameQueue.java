@@ -0,0 +1,180 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.sandbox.java.dynamic.utils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.util.ReferenceCountUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Last handler of a dynamic driver's pipeline. Frames cut by the frame decoder in front of it are queued until a
+ * receive action of the state-machine takes them. As the receive actions define where the length of a packet is
+ * found, the first one puts the {@link LengthFieldBasedFrameDecoder} in front of the queue.
+ */
+public class FrameQueue extends ChannelInboundHandlerAdapter {
+
+    private static final String FRAME_DECODER_NAME = "frameDecoder";
+
+    // Queued when the channel is closed, so waiting receive actions fail right away instead of timing out.
+    private static final ByteBuf CLOSED = Unpooled.EMPTY_BUFFER;
+
+    private final BlockingQueue<ByteBuf> frames = new LinkedBlockingQueue<>();
+
+    private volatile ChannelHandlerContext context;
+    private int packetLengthStartPosition;
+    private int packetLengthSizeInBytes;
+    private int packetLengthOffset;
+
+    private volatile boolean framed;
+    private volatile boolean closed;
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        context = ctx;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (!(msg instanceof ByteBuf)) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+        frames.add((ByteBuf) msg);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        closed = true;
+        frames.add(CLOSED);
+        super.channelInactive(ctx);
+    }
+
+    /**
+     * Puts a frame decoder for the given packet length in front of the queue, unless there already is one. The bytes
+     * received before are passed through the new decoder.
+     *
+     * @param packetLengthStartPosition position of the length field in the packet.
+     * @param packetLengthSizeInBytes size of the length field (1, 2, 3, 4 or 8 bytes).
+     * @param packetLengthOffset value to add to the length field to get the size of the whole packet.
+     * @throws IllegalArgumentException if the size of the length field isn't supported.
+     * @throws IllegalStateException if the decoder was set up for a different packet length.
+     */
+    public synchronized void configureFraming(int packetLengthStartPosition, int packetLengthSizeInBytes,
+                                              int packetLengthOffset) throws InterruptedException {
+        if (framed) {
+            if ((packetLengthStartPosition != this.packetLengthStartPosition) ||
+                (packetLengthSizeInBytes != this.packetLengthSizeInBytes) ||
+                (packetLengthOffset != this.packetLengthOffset)) {
+                throw new IllegalStateException("The packet length can't change on an open connection.");
+            }
+            return;
+        }
+        switch (packetLengthSizeInBytes) {
+            case 1:
+            case 2:
+            case 3:
+            case 4:
+            case 8:
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported size for packet length: " + packetLengthSizeInBytes);
+        }
+        // The length field contains the length of the whole packet minus the offset.
+        LengthFieldBasedFrameDecoder frameDecoder = new LengthFieldBasedFrameDecoder(Integer.MAX_VALUE,
+            packetLengthStartPosition, packetLengthSizeInBytes,
+            packetLengthOffset - packetLengthStartPosition - packetLengthSizeInBytes, 0);
+        if (context.executor().inEventLoop()) {
+            addFrameDecoder(frameDecoder);
+        } else {
+            // On the event loop no bytes arrive while the received ones are moved to the decoder.
+            context.executor().submit(() -> {
+                addFrameDecoder(frameDecoder);
+                return null;
+            }).sync();
+        }
+        this.packetLengthStartPosition = packetLengthStartPosition;
+        this.packetLengthSizeInBytes = packetLengthSizeInBytes;
+        this.packetLengthOffset = packetLengthOffset;
+        framed = true;
+    }
+
+    /**
+     * Takes the next frame, waiting at most the given time for it to arrive. The caller has to release the frame.
+     *
+     * @return the next frame or null if none arrived in time or the channel is closed.
+     * @throws IllegalStateException if {@link #configureFraming(int, int, int)} wasn't called before.
+     */
+    public ByteBuf poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!framed) {
+            throw new IllegalStateException("The packet length isn't configured.");
+        }
+        if (closed && frames.isEmpty()) {
+            return null;
+        }
+        ByteBuf frame = frames.poll(timeout, unit);
+        if (frame == CLOSED) {
+            // Leave the marker for the next caller.
+            frames.add(CLOSED);
+            return null;
+        }
+        return frame;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        ByteBuf frame;
+        while ((frame = frames.poll()) != null) {
+            ReferenceCountUtil.release(frame);
+        }
+    }
+
+    private void addFrameDecoder(LengthFieldBasedFrameDecoder frameDecoder) {
+        if (context.isRemoved()) {
+            // The channel is already closed, nothing will be decoded anymore.
+            return;
+        }
+        context.pipeline().addBefore(context.name(), FRAME_DECODER_NAME, frameDecoder);
+        // Pass the bytes received so far through the pipeline again, this time they are cut by the decoder.
+        List<ByteBuf> received = new ArrayList<>();
+        frames.drainTo(received);
+        for (ByteBuf data : received) {
+            if (data != CLOSED) {
+                context.pipeline().fireChannelRead(data);
+            }
+        }
+        if (closed) {
+            frames.add(CLOSED);
+        }
+    }
+
+}
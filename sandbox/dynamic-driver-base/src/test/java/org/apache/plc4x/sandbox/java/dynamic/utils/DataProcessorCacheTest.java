@@ -0,0 +1,152 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.sandbox.java.dynamic.utils;
+
+import org.apache.daffodil.japi.DataProcessor;
+import org.apache.plc4x.java.api.exceptions.PlcException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataProcessorCacheTest {
+
+    private Path tempDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDirectory = Files.createTempDirectory("dfdl-cache-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        System.clearProperty(DataProcessorCache.CACHE_DIRECTORY_PROPERTY);
+        try (Stream<Path> paths = Files.walk(tempDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void sameSchemaIsOnlyCompiledOnce() throws Exception {
+        Path schema = copySchema("first.dfdl.xsd");
+
+        DataProcessor first = DataProcessorCache.getDataProcessor(schema.toUri());
+        DataProcessor second = DataProcessorCache.getDataProcessor(schema.toUri());
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void differentSchemasAreCompiledSeparately() throws Exception {
+        Path first = copySchema("first.dfdl.xsd");
+        Path second = copySchema("second.dfdl.xsd");
+
+        assertNotSame(DataProcessorCache.getDataProcessor(first.toUri()),
+            DataProcessorCache.getDataProcessor(second.toUri()));
+    }
+
+    @Test
+    void changedSchemaIsCompiledAgain() throws Exception {
+        Path schema = copySchema("changing.dfdl.xsd");
+        DataProcessor original = DataProcessorCache.getDataProcessor(schema.toUri());
+
+        Files.write(schema, "<!-- changed -->".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        DataProcessor changed = DataProcessorCache.getDataProcessor(schema.toUri());
+
+        assertNotSame(original, changed);
+        assertSame(changed, DataProcessorCache.getDataProcessor(schema.toUri()));
+    }
+
+    @Test
+    void brokenSchemaIsNotCached() throws Exception {
+        Path schema = tempDirectory.resolve("broken.dfdl.xsd");
+        Files.write(schema, "<xs:schema".getBytes(StandardCharsets.UTF_8));
+        assertThrows(PlcException.class, () -> DataProcessorCache.getDataProcessor(schema.toUri()));
+
+        copySchema("broken.dfdl.xsd");
+        DataProcessorCache.getDataProcessor(schema.toUri());
+    }
+
+    @Test
+    void compiledSchemaIsSavedAndReloaded() throws Exception {
+        Path cacheDirectory = tempDirectory.resolve("cache");
+        System.setProperty(DataProcessorCache.CACHE_DIRECTORY_PROPERTY, cacheDirectory.toString());
+        Path schema = copySchema("saved.dfdl.xsd");
+        Files.write(schema, "<!-- saved -->".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        DataProcessorCache.getDataProcessor(schema.toUri());
+        assertEquals(1, countSavedParsers(cacheDirectory));
+
+        // A copy of the schema has another URI but the same hash, so the saved parser is reloaded.
+        Path copy = tempDirectory.resolve("copy.dfdl.xsd");
+        Files.copy(schema, copy);
+        DataProcessorCache.getDataProcessor(copy.toUri());
+        assertEquals(1, countSavedParsers(cacheDirectory));
+    }
+
+    @Test
+    void unreadableSavedParserIsReplaced() throws Exception {
+        Path cacheDirectory = tempDirectory.resolve("cache");
+        System.setProperty(DataProcessorCache.CACHE_DIRECTORY_PROPERTY, cacheDirectory.toString());
+        Path schema = copySchema("replaced.dfdl.xsd");
+        Files.write(schema, "<!-- replaced -->".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        DataProcessorCache.getDataProcessor(schema.toUri());
+        Path savedParser;
+        try (Stream<Path> paths = Files.list(cacheDirectory)) {
+            savedParser = paths.findFirst().orElseThrow(IllegalStateException::new);
+        }
+        Files.write(savedParser, "garbage".getBytes(StandardCharsets.UTF_8));
+
+        Path copy = tempDirectory.resolve("copy.dfdl.xsd");
+        Files.copy(schema, copy);
+        DataProcessorCache.getDataProcessor(copy.toUri());
+
+        assertTrue(Files.size(savedParser) > "garbage".length());
+    }
+
+    private Path copySchema(String fileName) throws IOException {
+        Path schema = tempDirectory.resolve(fileName);
+        try (InputStream in = DataProcessorCacheTest.class.getResourceAsStream("/simple.dfdl.xsd")) {
+            Files.copy(in, schema, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return schema;
+    }
+
+    private static long countSavedParsers(Path cacheDirectory) throws IOException {
+        try (Stream<Path> paths = Files.list(cacheDirectory)) {
+            return paths.filter(path -> path.toString().endsWith(".bin")).count();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.sandbox.java.dynamic.utils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameQueueTest {
+
+    // TPKT header: the length field is 2 bytes at position 2, containing the length of the whole packet.
+    private static final byte[] FIRST_PACKET = {0x03, 0x00, 0x00, 0x07, 0x01, 0x02, 0x03};
+    private static final byte[] SECOND_PACKET = {0x03, 0x00, 0x00, 0x05, 0x04};
+
+    private EmbeddedChannel channel;
+    private FrameQueue frameQueue;
+
+    @BeforeEach
+    void setUp() {
+        frameQueue = new FrameQueue();
+        channel = new EmbeddedChannel(frameQueue);
+    }
+
+    @Test
+    void packetsReceivedTogetherAreCutByTheirLength() throws Exception {
+        frameQueue.configureFraming(2, 2, 0);
+        channel.writeInbound(Unpooled.wrappedBuffer(FIRST_PACKET, SECOND_PACKET));
+
+        assertPacket(FIRST_PACKET, frameQueue.poll(0, TimeUnit.MILLISECONDS));
+        assertPacket(SECOND_PACKET, frameQueue.poll(0, TimeUnit.MILLISECONDS));
+        assertNull(frameQueue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void packetReceivedInPartsIsReturnedWhenComplete() throws Exception {
+        frameQueue.configureFraming(2, 2, 0);
+        channel.writeInbound(Unpooled.wrappedBuffer(FIRST_PACKET, 0, 3));
+        assertNull(frameQueue.poll(0, TimeUnit.MILLISECONDS));
+        channel.writeInbound(Unpooled.wrappedBuffer(FIRST_PACKET, 3, 2));
+        assertNull(frameQueue.poll(0, TimeUnit.MILLISECONDS));
+        channel.writeInbound(Unpooled.wrappedBuffer(FIRST_PACKET, 5, 2));
+
+        assertPacket(FIRST_PACKET, frameQueue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void offsetIsAddedToTheLength() throws Exception {
+        // The length field only counts the bytes following it.
+        byte[] packet = {0x01, 0x02, 0x0A, 0x0B};
+        frameQueue.configureFraming(1, 1, 2);
+        channel.writeInbound(Unpooled.wrappedBuffer(packet));
+
+        assertPacket(packet, frameQueue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void bytesReceivedBeforeTheDecoderIsAddedAreCut() throws Exception {
+        channel.writeInbound(Unpooled.wrappedBuffer(FIRST_PACKET, 0, 5));
+        channel.writeInbound(Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(FIRST_PACKET, 5, 2),
+            Unpooled.wrappedBuffer(SECOND_PACKET, 0, 2)));
+        frameQueue.configureFraming(2, 2, 0);
+        channel.writeInbound(Unpooled.wrappedBuffer(SECOND_PACKET, 2, 3));
+
+        assertNotNull(channel.pipeline().get(LengthFieldBasedFrameDecoder.class));
+        assertPacket(FIRST_PACKET, frameQueue.poll(0, TimeUnit.MILLISECONDS));
+        assertPacket(SECOND_PACKET, frameQueue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void waitingReceiverIsWokenUpByArrivingData() throws Exception {
+        frameQueue.configureFraming(2, 2, 0);
+        CompletableFuture<ByteBuf> packet = CompletableFuture.supplyAsync(() -> {
+            try {
+                return frameQueue.poll(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        });
+        channel.writeInbound(Unpooled.wrappedBuffer(FIRST_PACKET));
+
+        assertPacket(FIRST_PACKET, packet.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void closedChannelFailsWaitingReceiver() throws Exception {
+        frameQueue.configureFraming(2, 2, 0);
+        CompletableFuture<ByteBuf> packet = CompletableFuture.supplyAsync(() -> {
+            try {
+                return frameQueue.poll(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        });
+        channel.close();
+
+        assertNull(packet.get(5, TimeUnit.SECONDS));
+        assertTrue(frameQueue.isClosed());
+        assertNull(frameQueue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void sameFramingCanBeConfiguredAgain() throws Exception {
+        frameQueue.configureFraming(2, 2, 0);
+        frameQueue.configureFraming(2, 2, 0);
+        channel.writeInbound(Unpooled.wrappedBuffer(FIRST_PACKET));
+
+        assertPacket(FIRST_PACKET, frameQueue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void changedFramingIsRejected() throws Exception {
+        frameQueue.configureFraming(2, 2, 0);
+
+        assertThrows(IllegalStateException.class, () -> frameQueue.configureFraming(1, 1, 2));
+    }
+
+    @Test
+    void unsupportedLengthSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> frameQueue.configureFraming(2, 5, 0));
+    }
+
+    @Test
+    void pollWithoutFramingIsRejected() {
+        assertThrows(IllegalStateException.class, () -> frameQueue.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    private void assertPacket(byte[] expected, ByteBuf packet) {
+        assertNotNull(packet);
+        try {
+            assertArrayEquals(expected, ByteBufUtil.getBytes(packet));
+        } finally {
+            packet.release();
+        }
+    }
+
+}
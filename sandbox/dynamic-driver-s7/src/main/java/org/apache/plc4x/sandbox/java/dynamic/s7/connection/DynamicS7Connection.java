@@ -29,6 +29,7 @@ import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
 import org.apache.plc4x.java.base.messages.*;
+import org.apache.plc4x.sandbox.java.dynamic.actions.ConnectAction;
 import org.apache.plc4x.sandbox.java.dynamic.connection.DynamicDriverConnectionBase;
 import org.apache.plc4x.sandbox.java.dynamic.s7.actions.S7DecodeArticleNumber;
 import org.apache.plc4x.sandbox.java.dynamic.s7.actions.S7DecodeReadResponseAction;
@@ -49,7 +50,10 @@ public class DynamicS7Connection extends DynamicDriverConnectionBase implements
 
     private static final Logger logger = LoggerFactory.getLogger(DynamicS7Connection.class);
 
+    private static final int ISO_ON_TCP_PORT = 102;
+
     private final InetAddress address;
+    private final int port;
     private final short calledTsapId;
     private final short callingTsapId;
 
@@ -59,10 +63,15 @@ public class DynamicS7Connection extends DynamicDriverConnectionBase implements
     private String paramControllerType;
 
     public DynamicS7Connection(InetAddress address, int rack, int slot, String params) {
+        this(address, ISO_ON_TCP_PORT, rack, slot, params);
+    }
+
+    public DynamicS7Connection(InetAddress address, int port, int rack, int slot, String params) {
         super("org/apache/plc4x/protocols/s7/protocol.scxml.xml",
             "org/apache/plc4x/protocols/s7/protocol.dfdl.xsd");
 
         this.address = address;
+        this.port = port;
         this.calledTsapId = S7TsapIdEncoder.encodeS7TsapId((byte) 0x02, 0, 0);
         this.callingTsapId = S7TsapIdEncoder.encodeS7TsapId((byte) 0x01, rack, slot);
 
@@ -140,8 +149,8 @@ public class DynamicS7Connection extends DynamicDriverConnectionBase implements
     protected Map<String, Object> getAdditionalContextDataItems() {
         Map<String, Object> dataItems = new HashMap<>();
 
-        dataItems.put("hostname", address.getHostAddress());
-        dataItems.put("port", "102");
+        dataItems.put(ConnectAction.HOSTNAME_PARAMETER_NAME, address.getHostAddress());
+        dataItems.put(ConnectAction.PORT_PARAMETER_NAME, Integer.toString(port));
         dataItems.put("plcType", paramControllerType);
 
         dataItems.put("cotpLocalReference", "15");
@@ -0,0 +1,81 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.sandbox.java.dynamic.s7;
+
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.sandbox.java.dynamic.s7.connection.DynamicS7Connection;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the number of read requests per second the state-machine driven S7 connection passes through the
+ * DFDL parser and serializer, talking to a {@link FakeS7Server} on the loopback interface.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DynamicS7ConnectionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MyState {
+
+        FakeS7Server server;
+        DynamicS7Connection connection;
+        PlcReadRequest readRequest;
+
+        @Setup(Level.Trial)
+        public void doSetup() throws Exception {
+            server = new FakeS7Server();
+            // With a given controller type, the identification of the PLC is skipped.
+            connection = new DynamicS7Connection(InetAddress.getLoopbackAddress(), server.getPort(), 1, 1,
+                "controller-type=S7_1200");
+            connection.connect();
+            readRequest = connection.readRequestBuilder().addItem("value", "%DB1.DBW0:INT").build();
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() throws Exception {
+            connection.close();
+            server.close();
+        }
+
+    }
+
+    @Benchmark
+    public PlcReadResponse readSingleItem(MyState state) throws Exception {
+        return state.connection.read(state.readRequest).get(5, TimeUnit.SECONDS);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+            .include(DynamicS7ConnectionBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+
+package org.apache.plc4x.sandbox.java.dynamic.s7;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.*;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+/**
+ * Minimal local S7 endpoint answering the COTP connection request, the S7 setup communication and single item read
+ * and write requests, so the dynamic driver can be measured without a PLC. Read requests are answered with zeros.
+ */
+public class FakeS7Server implements AutoCloseable {
+
+    private static final byte COTP_CONNECTION_REQUEST = (byte) 0xE0;
+    private static final byte COTP_CONNECTION_CONFIRM = (byte) 0xD0;
+    private static final byte COTP_DATA = (byte) 0xF0;
+
+    private static final byte S7_FUNCTION_SETUP_COMMUNICATION = (byte) 0xF0;
+    private static final byte S7_FUNCTION_READ_VAR = 0x04;
+    private static final byte S7_FUNCTION_WRITE_VAR = 0x05;
+
+    // Offsets in a TPKT packet with a COTP data header.
+    private static final int S7_HEADER = 7;
+    private static final int S7_PDU_REFERENCE = S7_HEADER + 4;
+    private static final int S7_PARAMETERS = S7_HEADER + 10;
+
+    private final EventLoopGroup group = new NioEventLoopGroup(1);
+
+    private final Channel serverChannel;
+
+    public FakeS7Server() throws InterruptedException {
+        serverChannel = new ServerBootstrap()
+            .group(group)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel channel) {
+                    channel.pipeline().addLast(new LengthFieldBasedFrameDecoder(0xFFFF, 2, 2, -4, 0));
+                    channel.pipeline().addLast(new ResponseHandler());
+                }
+            })
+            .bind(InetAddress.getLoopbackAddress(), 0)
+            .sync()
+            .channel();
+    }
+
+    public int getPort() {
+        return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        serverChannel.close().sync();
+        group.shutdownGracefully().sync();
+    }
+
+    private static class ResponseHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf request) {
+            ByteBuf response = ctx.alloc().buffer();
+            byte tpduCode = request.getByte(5);
+            if (tpduCode == COTP_CONNECTION_REQUEST) {
+                writeConnectionConfirm(request, response);
+            } else if ((tpduCode == COTP_DATA) && (request.readableBytes() > S7_PARAMETERS)) {
+                writeS7Response(request, response);
+            } else {
+                response.release();
+                ctx.close();
+                return;
+            }
+            // Patch the TPKT length.
+            response.setShort(2, response.readableBytes());
+            ctx.writeAndFlush(response);
+        }
+
+        private void writeConnectionConfirm(ByteBuf request, ByteBuf response) {
+            // Echo the parameters (tpdu size and tsaps) of the request.
+            ByteBuf parameters = request.slice(11, request.readableBytes() - 11);
+            response.writeBytes(new byte[]{0x03, 0x00, 0x00, 0x00});
+            response.writeByte(6 + parameters.readableBytes());
+            response.writeByte(COTP_CONNECTION_CONFIRM);
+            // Destination reference: the source reference of the request.
+            response.writeShort(request.getShort(8));
+            // Source reference and class.
+            response.writeShort(0x0001);
+            response.writeByte(0x00);
+            response.writeBytes(parameters);
+        }
+
+        private void writeS7Response(ByteBuf request, ByteBuf response) {
+            int pduReference = request.getUnsignedShort(S7_PDU_REFERENCE);
+            byte function = request.getByte(S7_PARAMETERS);
+            ByteBuf parameters;
+            ByteBuf payload = request.alloc().buffer();
+            switch (function) {
+                case S7_FUNCTION_SETUP_COMMUNICATION:
+                    // Accept the suggested amq and pdu size values.
+                    parameters = request.retainedSlice(S7_PARAMETERS, request.getUnsignedShort(S7_HEADER + 6));
+                    break;
+                case S7_FUNCTION_READ_VAR: {
+                    parameters = request.alloc().buffer().writeByte(S7_FUNCTION_READ_VAR).writeByte(1);
+                    // Single any-pointer item starting after function code and item count.
+                    int item = S7_PARAMETERS + 2;
+                    int transportSize = request.getUnsignedByte(item + 3);
+                    int numElements = request.getUnsignedShort(item + 4);
+                    int length = numElements * getElementSize(transportSize);
+                    payload.writeByte(0xFF).writeByte(0x04).writeShort(length * 8).writeZero(length);
+                    break;
+                }
+                case S7_FUNCTION_WRITE_VAR:
+                    parameters = request.alloc().buffer().writeByte(S7_FUNCTION_WRITE_VAR).writeByte(1);
+                    payload.writeByte(0xFF);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported function " + function);
+            }
+            response.writeBytes(new byte[]{0x03, 0x00, 0x00, 0x00, 0x02, (byte) 0xF0, (byte) 0x80});
+            // Ack-data header without errors.
+            response.writeByte(0x32).writeByte(0x03).writeShort(0x0000).writeShort(pduReference);
+            response.writeShort(parameters.readableBytes()).writeShort(payload.readableBytes());
+            response.writeShort(0x0000);
+            response.writeBytes(parameters);
+            response.writeBytes(payload);
+            parameters.release();
+            payload.release();
+        }
+
+        private static int getElementSize(int transportSize) {
+            switch (transportSize) {
+                case 0x04: // WORD
+                case 0x05: // INT
+                    return 2;
+                case 0x06: // DWORD
+                case 0x07: // DINT
+                case 0x08: // REAL
+                    return 4;
+                default:
+                    return 1;
+            }
+        }
+    }
+
+}